@@ -0,0 +1,194 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.benchmark;
+
+import io.spine.core.UserId;
+import io.spine.examples.chatspn.ChatId;
+import io.spine.examples.chatspn.MessageId;
+import io.spine.examples.chatspn.chat.command.AddMembers;
+import io.spine.examples.chatspn.chat.command.CreateGroupChat;
+import io.spine.examples.chatspn.chat.command.RemoveMembers;
+import io.spine.examples.chatspn.message.MessageIds;
+import io.spine.examples.chatspn.message.command.PostMessage;
+import io.spine.examples.chatspn.message.command.UpdateMessageContent;
+import io.spine.examples.chatspn.server.chat.ChatAggregate;
+import io.spine.examples.chatspn.server.chat.ChatRepository;
+import io.spine.examples.chatspn.server.message.MessageAggregate;
+import io.spine.examples.chatspn.server.message.MessageRepository;
+import io.spine.server.BoundedContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static io.spine.examples.chatspn.benchmark.ContextDriver.member;
+import static io.spine.examples.chatspn.benchmark.ContextDriver.newUserId;
+
+/**
+ * Measures loading of chats and messages with long histories
+ * with and without snapshots.
+ *
+ * <p>The chat history consists of members being added and removed, and the message history
+ * consists of edits. Thus, the size of the aggregate state stays the same while
+ * the history grows, and the load time with snapshots is expected to stay flat.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AggregateLoadBenchmark {
+
+    private static final String NO_SNAPSHOTS = "none";
+
+    /**
+     * The number of events in the history of the loaded aggregates.
+     */
+    @Param({"100", "1000", "5000"})
+    private int historySize;
+
+    /**
+     * The number of events after which a snapshot is stored,
+     * or {@code none} to never store snapshots.
+     */
+    @Param({"50", "none"})
+    private String snapshotTrigger;
+
+    private ContextDriver context;
+    private UserId owner;
+    private ChatRepository chats;
+    private MessageRepository messages;
+    private ChatId chat;
+    private MessageId message;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        var trigger = NO_SNAPSHOTS.equals(snapshotTrigger)
+                      ? Integer.MAX_VALUE
+                      : Integer.parseInt(snapshotTrigger);
+        chats = new ChatRepository(trigger);
+        messages = new MessageRepository(trigger);
+        var builder = BoundedContext
+                .singleTenant("AggregateLoad")
+                .add(chats)
+                .add(messages);
+        context = ContextDriver.start(builder);
+        owner = context.actor();
+        chat = ChatId.generate();
+        message = MessageIds.generate(chat);
+        fillChatHistory();
+        fillMessageHistory();
+    }
+
+    /**
+     * Creates a group chat and adds and removes a member until
+     * the history reaches the {@link #historySize}.
+     */
+    private void fillChatHistory() {
+        context.post(CreateGroupChat
+                             .newBuilder()
+                             .setId(chat)
+                             .setCreator(member(owner))
+                             .addMember(member(newUserId()))
+                             .setName("Benchmark")
+                             .vBuild());
+        var guest = member(newUserId());
+        for (var i = 1; i < historySize; i++) {
+            if (i % 2 == 1) {
+                context.post(AddMembers
+                                     .newBuilder()
+                                     .setId(chat)
+                                     .setWhoAdds(owner)
+                                     .addMember(guest)
+                                     .vBuild());
+            } else {
+                context.post(RemoveMembers
+                                     .newBuilder()
+                                     .setId(chat)
+                                     .setWhoRemoves(owner)
+                                     .addMember(guest)
+                                     .vBuild());
+            }
+        }
+    }
+
+    /**
+     * Posts a message and edits it until the history reaches the {@link #historySize}.
+     */
+    private void fillMessageHistory() {
+        context.post(PostMessage
+                             .newBuilder()
+                             .setId(message)
+                             .setChat(chat)
+                             .setUser(owner)
+                             .setContent("Hello")
+                             .vBuild());
+        for (var i = 1; i < historySize; i++) {
+            context.post(UpdateMessageContent
+                                 .newBuilder()
+                                 .setId(message)
+                                 .setChat(chat)
+                                 .setUser(owner)
+                                 .setSuggestedContent("Edit #" + i)
+                                 .vBuild());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        context.close();
+    }
+
+    /**
+     * Loads the chat with the history of {@link #historySize} membership events.
+     */
+    @Benchmark
+    public Optional<ChatAggregate> loadChat() {
+        return chats.find(chat);
+    }
+
+    /**
+     * Loads the message with the history of {@link #historySize} edits.
+     */
+    @Benchmark
+    public Optional<MessageAggregate> loadMessage() {
+        return messages.find(message);
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.benchmark;
+
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+import io.spine.examples.chatspn.ChatId;
+import io.spine.examples.chatspn.MessageId;
+import io.spine.examples.chatspn.message.MessageIds;
+import io.spine.examples.chatspn.server.message.MessageAggregate;
+import io.spine.examples.chatspn.server.storage.FileStorageFactory;
+import io.spine.server.ContextSpec;
+import io.spine.server.aggregate.AggregateHistory;
+import io.spine.server.aggregate.AggregateReadRequest;
+import io.spine.server.aggregate.AggregateStorage;
+import io.spine.server.storage.StorageFactory;
+import io.spine.server.storage.memory.InMemoryStorageFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static io.spine.examples.chatspn.benchmark.Events.contentUpdated;
+import static io.spine.examples.chatspn.benchmark.Events.messageHistory;
+
+/**
+ * Measures appending events to and loading aggregate histories from
+ * the in-memory and the file aggregate storage.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AggregateStorageBenchmark {
+
+    private static final String MEMORY = "memory";
+    private static final int READ_BATCH_SIZE = 100;
+
+    @Param({"memory", "file"})
+    private String storage;
+
+    /**
+     * The number of events in the history of the loaded aggregate.
+     */
+    @Param({"10", "100", "1000"})
+    private int historySize;
+
+    private Path directory;
+    private StorageFactory factory;
+    private AggregateStorage<MessageId> aggregates;
+    private MessageId loaded;
+    private MessageId appended;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        if (MEMORY.equals(storage)) {
+            factory = InMemoryStorageFactory.newInstance();
+        } else {
+            directory = Files.createTempDirectory("chatspn-storage");
+            factory = FileStorageFactory.in(directory);
+        }
+        var spec = ContextSpec.singleTenant("Benchmark");
+        aggregates = factory.createAggregateStorage(spec, MessageAggregate.class);
+        loaded = MessageIds.generate(ChatId.generate());
+        aggregates.write(loaded, messageHistory(loaded, historySize - 1));
+        appended = MessageIds.generate(ChatId.generate());
+        aggregates.write(appended, messageHistory(appended, 0));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        factory.close();
+        if (directory != null) {
+            MoreFiles.deleteRecursively(directory, RecursiveDeleteOption.ALLOW_INSECURE);
+        }
+    }
+
+    /**
+     * Appends a single event to the history of an aggregate.
+     */
+    @Benchmark
+    public void append() {
+        var history = AggregateHistory
+                .newBuilder()
+                .addEvent(contentUpdated(appended))
+                .build();
+        aggregates.write(appended, history);
+    }
+
+    /**
+     * Loads the history of an aggregate.
+     */
+    @Benchmark
+    public Optional<AggregateHistory> load() {
+        return aggregates.read(new AggregateReadRequest<>(loaded, READ_BATCH_SIZE));
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.benchmark;
+
+import com.google.common.collect.ImmutableSet;
+import io.spine.client.Query;
+import io.spine.core.UserId;
+import io.spine.examples.chatspn.ChatCardId;
+import io.spine.examples.chatspn.ChatId;
+import io.spine.examples.chatspn.chat.ChatCard;
+import io.spine.examples.chatspn.chat.ChatMember;
+import io.spine.examples.chatspn.chat.command.CreateGroupChat;
+import io.spine.examples.chatspn.server.chat.ChatCardRepository;
+import io.spine.examples.chatspn.server.chat.ChatMembership;
+import io.spine.examples.chatspn.server.chat.ChatRepository;
+import io.spine.server.BoundedContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static io.spine.client.Filters.eq;
+import static io.spine.examples.chatspn.benchmark.ContextDriver.member;
+import static io.spine.examples.chatspn.benchmark.ContextDriver.newUserId;
+import static io.spine.protobuf.AnyPacker.unpack;
+
+/**
+ * Measures routing of chat events to the chat cards of chat members
+ * depending on the total number of chat cards.
+ *
+ * <p>The cards are found through the {@link ChatMembership} index, and, as the baseline,
+ * through the query of the {@code ChatCard} projections filtered by the chat, which is
+ * how the events were routed before the index was introduced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ChatCardRoutingBenchmark {
+
+    /**
+     * The total number of chat cards.
+     */
+    @Param({"10000", "100000", "1000000"})
+    private int totalCards;
+
+    /**
+     * The number of members in each chat.
+     */
+    @Param("10")
+    private int membersPerChat;
+
+    private final ChatMembership membership = new ChatMembership();
+    private ContextDriver context;
+    private ChatId[] chats;
+    private UserId[] firstMembers;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        var builder = BoundedContext
+                .singleTenant("ChatCardRouting")
+                .addEventDispatcher(membership)
+                .add(new ChatRepository())
+                .add(new ChatCardRepository(membership));
+        context = ContextDriver.start(builder);
+        var creator = member(context.actor());
+        var chatCount = totalCards / membersPerChat;
+        chats = new ChatId[chatCount];
+        firstMembers = new UserId[chatCount];
+        for (var i = 0; i < chatCount; i++) {
+            var chat = ChatId.generate();
+            var members = newMembers(membersPerChat - 1);
+            chats[i] = chat;
+            firstMembers[i] = members.get(0)
+                                     .getId();
+            context.post(CreateGroupChat
+                                 .newBuilder()
+                                 .setId(chat)
+                                 .setCreator(creator)
+                                 .addAllMember(members)
+                                 .setName("Chat #" + i)
+                                 .vBuild());
+        }
+    }
+
+    private static List<ChatMember> newMembers(int count) {
+        List<ChatMember> members = new ArrayList<>(count);
+        for (var i = 0; i < count; i++) {
+            members.add(member(newUserId()));
+        }
+        return members;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        context.close();
+    }
+
+    /**
+     * Finds the cards to route an event of some chat to through the index.
+     */
+    @Benchmark
+    public ImmutableSet<ChatCardId> routeThroughIndex() {
+        return membership.cardsOf(chats[nextChat()]);
+    }
+
+    /**
+     * Finds the cards to route an event of some chat to by querying the chat cards.
+     */
+    @Benchmark
+    public ImmutableSet<ChatCardId> routeThroughQuery() {
+        Query query = context
+                .queries()
+                .select(ChatCard.class)
+                .where(eq("chat_id", chats[nextChat()]))
+                .build();
+        return context.run(query)
+                      .getMessageList()
+                      .stream()
+                      .map(state -> unpack(state.getState(), ChatCard.class).getCardId())
+                      .collect(toImmutableSet());
+    }
+
+    /**
+     * Checks whether a user is a member of some chat.
+     */
+    @Benchmark
+    public boolean checkMembership() {
+        var chat = nextChat();
+        return membership.isMember(chats[chat], firstMembers[chat]);
+    }
+
+    private int nextChat() {
+        next = (next + 1) % chats.length;
+        return next;
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.benchmark;
+
+import io.spine.examples.chatspn.ChatId;
+import io.spine.examples.chatspn.chat.ChatMember;
+import io.spine.examples.chatspn.chat.command.AddMembers;
+import io.spine.examples.chatspn.chat.command.CreateGroupChat;
+import io.spine.examples.chatspn.chat.command.LeaveChat;
+import io.spine.examples.chatspn.chat.command.RemoveMembers;
+import io.spine.examples.chatspn.server.chat.ChatRepository;
+import io.spine.server.BoundedContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static io.spine.examples.chatspn.benchmark.ContextDriver.member;
+import static io.spine.examples.chatspn.benchmark.ContextDriver.newUserId;
+
+/**
+ * Measures handling of the membership commands by the {@code ChatAggregate}
+ * depending on the size of the group chat.
+ *
+ * <p>Each operation which changes the members of the chat is followed by the one
+ * which restores them, so that the size of the group stays the same during the benchmark.
+ *
+ * <p>The measured time includes loading the chat from the storage and storing
+ * the emitted events, which takes the time proportional to the size of the group.
+ * Thus, the benchmark shows the share of the membership checks in handling
+ * the command, rather than the handling time independent of the group size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ChatMembershipBenchmark {
+
+    /**
+     * The number of members in the group chat.
+     */
+    @Param({"100", "10000", "100000"})
+    private int groupSize;
+
+    /**
+     * The number of members in a single {@code AddMembers} or {@code RemoveMembers} command.
+     */
+    @Param("100")
+    private int membersPerCommand;
+
+    private ContextDriver context;
+    private AddMembers addMembers;
+    private RemoveMembers removeMembers;
+    private RemoveMembers removeNonMembers;
+    private LeaveChat leaveChat;
+    private AddMembers rejoin;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        var builder = BoundedContext
+                .singleTenant("ChatMembership")
+                .add(new ChatRepository());
+        context = ContextDriver.start(builder);
+        var owner = context.actor();
+        var chat = ChatId.generate();
+        var members = newMembers(groupSize - 1);
+        context.post(CreateGroupChat
+                             .newBuilder()
+                             .setId(chat)
+                             .setCreator(member(owner))
+                             .addAllMember(members)
+                             .setName("Benchmark")
+                             .vBuild());
+        var guests = newMembers(membersPerCommand);
+        addMembers = AddMembers
+                .newBuilder()
+                .setId(chat)
+                .setWhoAdds(owner)
+                .addAllMember(guests)
+                .vBuild();
+        removeMembers = RemoveMembers
+                .newBuilder()
+                .setId(chat)
+                .setWhoRemoves(owner)
+                .addAllMember(guests)
+                .vBuild();
+        removeNonMembers = RemoveMembers
+                .newBuilder()
+                .setId(chat)
+                .setWhoRemoves(owner)
+                .addAllMember(newMembers(membersPerCommand))
+                .vBuild();
+        var leaving = members.get(members.size() / 2);
+        leaveChat = LeaveChat
+                .newBuilder()
+                .setChat(chat)
+                .setUser(leaving)
+                .vBuild();
+        rejoin = AddMembers
+                .newBuilder()
+                .setId(chat)
+                .setWhoAdds(owner)
+                .addMember(leaving)
+                .vBuild();
+    }
+
+    private static List<ChatMember> newMembers(int count) {
+        List<ChatMember> members = new ArrayList<>(count);
+        for (var i = 0; i < count; i++) {
+            members.add(member(newUserId()));
+        }
+        return members;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        context.close();
+    }
+
+    /**
+     * Adds new members to the chat and removes them.
+     */
+    @Benchmark
+    public void addAndRemoveMembers() {
+        context.post(addMembers);
+        context.post(removeMembers);
+    }
+
+    /**
+     * Tries to remove the users who are not members of the chat.
+     *
+     * <p>The command is rejected, so only the membership checks are measured.
+     */
+    @Benchmark
+    public void removeNonMembers() {
+        context.post(removeNonMembers);
+    }
+
+    /**
+     * Makes a member leave the chat and adds the member back.
+     */
+    @Benchmark
+    public void leaveAndRejoin() {
+        context.post(leaveChat);
+        context.post(rejoin);
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.benchmark;
+
+import io.spine.base.CommandMessage;
+import io.spine.base.Identifier;
+import io.spine.client.ActorRequestFactory;
+import io.spine.client.Query;
+import io.spine.client.QueryFactory;
+import io.spine.client.QueryResponse;
+import io.spine.core.UserId;
+import io.spine.environment.DefaultMode;
+import io.spine.examples.chatspn.chat.ChatMember;
+import io.spine.grpc.MemoizingObserver;
+import io.spine.server.BoundedContext;
+import io.spine.server.BoundedContextBuilder;
+import io.spine.server.ServerEnvironment;
+import io.spine.server.delivery.Delivery;
+import io.spine.server.storage.StorageFactory;
+import io.spine.server.storage.memory.InMemoryStorageFactory;
+
+import static io.spine.grpc.StreamObservers.noOpObserver;
+
+/**
+ * Posts commands to and runs queries against a bounded context on behalf of a single user.
+ *
+ * <p>The context runs with the in-memory storage, unless another storage is given,
+ * and the synchronous local delivery, so that a command is fully handled, including
+ * all the reactions to it, by the time {@link #post(CommandMessage) post} returns.
+ */
+final class ContextDriver implements AutoCloseable {
+
+    private final BoundedContext context;
+    private final UserId actor;
+    private final ActorRequestFactory requests;
+
+    private ContextDriver(BoundedContext context, UserId actor) {
+        this.context = context;
+        this.actor = actor;
+        this.requests = ActorRequestFactory
+                .newBuilder()
+                .setActor(actor)
+                .build();
+    }
+
+    /**
+     * Configures the server environment and builds the context.
+     */
+    static ContextDriver start(BoundedContextBuilder builder) {
+        return start(builder, InMemoryStorageFactory.newInstance());
+    }
+
+    /**
+     * Configures the server environment to use the given storage and builds the context.
+     */
+    static ContextDriver start(BoundedContextBuilder builder, StorageFactory storage) {
+        ServerEnvironment
+                .when(DefaultMode.class)
+                .use(storage)
+                .use(Delivery.local());
+        return new ContextDriver(builder.build(), newUserId());
+    }
+
+    /**
+     * Returns the user on behalf of whom the commands are posted.
+     */
+    UserId actor() {
+        return actor;
+    }
+
+    /**
+     * Posts the command to the context.
+     */
+    void post(CommandMessage message) {
+        var command = requests.command()
+                              .create(message);
+        context.commandBus()
+               .post(command, noOpObserver());
+    }
+
+    /**
+     * Returns the factory of queries on behalf of the user.
+     */
+    QueryFactory queries() {
+        return requests.query();
+    }
+
+    /**
+     * Runs the query against the context.
+     */
+    QueryResponse run(Query query) {
+        var observer = new MemoizingObserver<QueryResponse>();
+        context.stand()
+               .execute(query, observer);
+        return observer.firstResponse();
+    }
+
+    @Override
+    public void close() throws Exception {
+        context.close();
+    }
+
+    /**
+     * Generates a new user ID.
+     */
+    static UserId newUserId() {
+        return UserId
+                .newBuilder()
+                .setValue(Identifier.newUuid())
+                .vBuild();
+    }
+
+    /**
+     * Creates a chat member with the given ID.
+     */
+    static ChatMember member(UserId id) {
+        return ChatMember
+                .newBuilder()
+                .setId(id)
+                .setName(id.getValue())
+                .vBuild();
+    }
+}
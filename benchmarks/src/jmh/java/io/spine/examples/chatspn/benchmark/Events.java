@@ -0,0 +1,115 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.benchmark;
+
+import io.spine.base.EventMessage;
+import io.spine.base.Identifier;
+import io.spine.base.Time;
+import io.spine.core.Event;
+import io.spine.core.EventContext;
+import io.spine.core.EventId;
+import io.spine.core.UserId;
+import io.spine.examples.chatspn.ChatId;
+import io.spine.examples.chatspn.MessageId;
+import io.spine.examples.chatspn.message.event.MessageContentUpdated;
+import io.spine.examples.chatspn.message.event.MessagePosted;
+import io.spine.server.aggregate.AggregateHistory;
+
+import static io.spine.protobuf.AnyPacker.pack;
+
+/**
+ * Builds events and aggregate histories for the benchmarks.
+ */
+final class Events {
+
+    private static final ChatId CHAT = ChatId.generate();
+    private static final UserId USER = UserId
+            .newBuilder()
+            .setValue(Identifier.newUuid())
+            .vBuild();
+
+    /**
+     * Prevents instantiation of this utility class.
+     */
+    private Events() {
+    }
+
+    /**
+     * Returns a history of a message which is posted and then edited
+     * the given number of times.
+     */
+    static AggregateHistory messageHistory(MessageId id, int edits) {
+        var history = AggregateHistory
+                .newBuilder()
+                .addEvent(event(posted(id)));
+        for (var i = 0; i < edits; i++) {
+            history.addEvent(event(contentUpdated(id, i)));
+        }
+        return history.build();
+    }
+
+    /**
+     * Returns an event of the message content update.
+     */
+    static Event contentUpdated(MessageId id) {
+        return event(contentUpdated(id, 0));
+    }
+
+    private static MessagePosted posted(MessageId id) {
+        return MessagePosted
+                .newBuilder()
+                .setId(id)
+                .setChat(CHAT)
+                .setUser(USER)
+                .setContent("Hello")
+                .setWhenPosted(Time.currentTime())
+                .vBuild();
+    }
+
+    private static MessageContentUpdated contentUpdated(MessageId id, int edit) {
+        return MessageContentUpdated
+                .newBuilder()
+                .setId(id)
+                .setChat(CHAT)
+                .setUser(USER)
+                .setContent("Edit #" + edit)
+                .vBuild();
+    }
+
+    private static Event event(EventMessage message) {
+        var context = EventContext
+                .newBuilder()
+                .setTimestamp(Time.currentTime());
+        return Event
+                .newBuilder()
+                .setId(EventId.newBuilder()
+                              .setValue(Identifier.newUuid()))
+                .setMessage(pack(message))
+                .setContext(context)
+                .build();
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.benchmark;
+
+import io.spine.client.Query;
+import io.spine.client.QueryResponse;
+import io.spine.examples.chatspn.ChatId;
+import io.spine.examples.chatspn.chat.command.CreatePersonalChat;
+import io.spine.examples.chatspn.message.MessageIds;
+import io.spine.examples.chatspn.message.MessageView;
+import io.spine.examples.chatspn.message.command.SendMessage;
+import io.spine.examples.chatspn.server.ChatsContext;
+import io.spine.examples.chatspn.server.storage.IndexedStorageFactory;
+import io.spine.server.storage.StorageFactory;
+import io.spine.server.storage.memory.InMemoryStorageFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static io.spine.client.Filters.eq;
+import static io.spine.client.OrderBy.Direction.DESCENDING;
+import static io.spine.examples.chatspn.benchmark.ContextDriver.member;
+import static io.spine.examples.chatspn.benchmark.ContextDriver.newUserId;
+import static java.lang.String.format;
+
+/**
+ * Measures reading the first page of the latest messages of a chat
+ * from the {@code MessageView} projections.
+ *
+ * <p>The page is read with a query filtered by the chat, sorted by the time of posting
+ * in the descending order and limited to the page size. The in-memory storage sorts
+ * all the messages of the chat to return a page. The indexed storage reads
+ * the messages in the order of its composite index of the chat and the time of posting.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MessageHistoryQueryBenchmark {
+
+    private static final String MEMORY = "memory";
+    private static final int PAGE_SIZE = 50;
+
+    @Param({"memory", "indexed"})
+    private String storage;
+
+    /**
+     * The number of messages in the chat.
+     */
+    @Param({"100", "1000", "10000"})
+    private int historySize;
+
+    private ContextDriver context;
+    private Query firstPage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = ContextDriver.start(ChatsContext.newBuilder(), storageFactory());
+        var chat = ChatId.generate();
+        context.post(CreatePersonalChat
+                             .newBuilder()
+                             .setId(chat)
+                             .setCreator(member(context.actor()))
+                             .setMember(member(newUserId()))
+                             .vBuild());
+        for (var i = 0; i < historySize; i++) {
+            context.post(SendMessage
+                                 .newBuilder()
+                                 .setId(MessageIds.generate(chat))
+                                 .setChat(chat)
+                                 .setUser(context.actor())
+                                 .setContent("Message #" + i)
+                                 .vBuild());
+        }
+        firstPage = context
+                .queries()
+                .select(MessageView.class)
+                .where(eq("chat", chat))
+                .orderBy("when_posted", DESCENDING)
+                .limit(PAGE_SIZE)
+                .build();
+        checkPageSize();
+    }
+
+    private StorageFactory storageFactory() {
+        if (MEMORY.equals(storage)) {
+            return InMemoryStorageFactory.newInstance();
+        }
+        return IndexedStorageFactory.newInstance();
+    }
+
+    /**
+     * Checks that the query returns a full page of messages.
+     */
+    private void checkPageSize() {
+        var expected = Math.min(PAGE_SIZE, historySize);
+        var actual = context.run(firstPage)
+                            .getMessageCount();
+        if (actual != expected) {
+            throw new IllegalStateException(format(
+                    "The first page holds %d messages instead of %d.", actual, expected));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        context.close();
+    }
+
+    /**
+     * Reads the latest messages of the chat.
+     */
+    @Benchmark
+    public QueryResponse firstPage() {
+        return context.run(firstPage);
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.benchmark;
+
+import io.spine.core.Subscribe;
+import io.spine.examples.chatspn.ChatId;
+import io.spine.examples.chatspn.chat.command.CreateGroupChat;
+import io.spine.examples.chatspn.message.MessageIds;
+import io.spine.examples.chatspn.message.command.SendMessage;
+import io.spine.examples.chatspn.message.event.MessageSent;
+import io.spine.examples.chatspn.server.ChatsContext;
+import io.spine.server.event.AbstractEventSubscriber;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static io.spine.examples.chatspn.benchmark.ContextDriver.member;
+import static io.spine.examples.chatspn.benchmark.ContextDriver.newUserId;
+import static java.lang.String.format;
+
+/**
+ * Measures the whole pipeline of sending a message to a chat.
+ *
+ * <p>A single benchmark operation covers {@code SendMessage} handled by
+ * the {@code MessageSendingProcess}, {@code PostMessage} handled by the
+ * {@code MessageAggregate}, the {@code MessagePosted} event updating the {@code MessageView}
+ * and the {@code ChatActivity} projections, and the resulting {@code MessageSent} event.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class MessageSendingBenchmark {
+
+    /**
+     * The number of members in the chat.
+     */
+    @Param({"2", "10", "100"})
+    private int members;
+
+    /**
+     * The number of messages posted to the chat before the measurement.
+     */
+    @Param({"0", "1000"})
+    private int chatSize;
+
+    private final SentMessages sentMessages = new SentMessages();
+    private ContextDriver context;
+    private ChatId chat;
+    private long sendCount;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        var builder = ChatsContext
+                .newBuilder()
+                .addEventDispatcher(sentMessages);
+        context = ContextDriver.start(builder);
+        chat = ChatId.generate();
+        var command = CreateGroupChat
+                .newBuilder()
+                .setId(chat)
+                .setCreator(member(context.actor()))
+                .setName("Benchmark");
+        for (var i = 1; i < members; i++) {
+            command.addMember(member(newUserId()));
+        }
+        context.post(command.vBuild());
+        for (var i = 0; i < chatSize; i++) {
+            sendMessage();
+        }
+    }
+
+    /**
+     * Checks that each sent message has passed the whole pipeline.
+     */
+    @TearDown(Level.Iteration)
+    public void checkAllSent() {
+        var sent = sentMessages.count();
+        if (sent != sendCount) {
+            throw new IllegalStateException(format(
+                    "Only %d of %d messages were sent.", sent, sendCount));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        context.close();
+    }
+
+    /**
+     * Sends a message to the chat.
+     */
+    @Benchmark
+    public void sendMessage() {
+        context.post(SendMessage
+                             .newBuilder()
+                             .setId(MessageIds.generate(chat))
+                             .setChat(chat)
+                             .setUser(context.actor())
+                             .setContent("Hello")
+                             .vBuild());
+        sendCount++;
+    }
+
+    /**
+     * Counts the {@code MessageSent} events.
+     */
+    static final class SentMessages extends AbstractEventSubscriber {
+
+        private final AtomicLong count = new AtomicLong();
+
+        @Subscribe
+        void on(MessageSent e) {
+            count.incrementAndGet();
+        }
+
+        long count() {
+            return count.get();
+        }
+    }
+}
@@ -0,0 +1,277 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.benchmark;
+
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.spine.client.Client;
+import io.spine.client.EntityStateFilter;
+import io.spine.client.QueryFilter;
+import io.spine.core.UserId;
+import io.spine.examples.chatspn.ChatId;
+import io.spine.examples.chatspn.MessageId;
+import io.spine.examples.chatspn.chat.ChatCard;
+import io.spine.examples.chatspn.chat.command.CreatePersonalChat;
+import io.spine.examples.chatspn.message.MessageIds;
+import io.spine.examples.chatspn.message.MessageView;
+import io.spine.examples.chatspn.message.command.SendMessage;
+import io.spine.examples.chatspn.server.ChatSpnServer;
+import io.spine.examples.chatspn.server.ThreadedServer;
+import io.spine.examples.chatspn.server.config.ServerConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static io.spine.examples.chatspn.benchmark.ContextDriver.member;
+import static io.spine.examples.chatspn.benchmark.ContextDriver.newUserId;
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Measures the round trips between a client and the server started
+ * with each of the {@linkplain ServerConfig server profiles}.
+ *
+ * <p>The server runs in the same JVM and is called through a gRPC channel
+ * over the loopback interface. The benchmarks cover a query with a small response,
+ * a query with a large response, many large queries running at once, and a command
+ * followed by the subscription update it causes.
+ *
+ * <p>The size of the sent messages is a parameter, so that the responses and the updates
+ * range from a few kilobytes to many megabytes. The concurrent queries share one
+ * connection as separate HTTP/2 streams, which makes them compete for its flow
+ * control window.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ServerProfileBenchmark {
+
+    private static final String DEFAULT = "default";
+    private static final String HOST = "localhost";
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    /**
+     * The maximum size of a response the client accepts.
+     */
+    private static final int MAX_RESPONSE_SIZE = 256 * 1024 * 1024;
+
+    /**
+     * The number of messages in the chat read by {@link #readHistory()}.
+     */
+    private static final int HISTORY_SIZE = 1000;
+
+    @Param({"default", "low-latency", "high-throughput"})
+    private String profile;
+
+    /**
+     * The number of characters in the content of each sent message.
+     */
+    @Param({"100", "16384"})
+    private int messageSize;
+
+    /**
+     * The number of queries run at once by {@link #readHistoryConcurrently()}.
+     */
+    @Param("64")
+    private int concurrentStreams;
+
+    private final BlockingQueue<MessageId> updates = new LinkedBlockingQueue<>();
+    private ThreadedServer server;
+    private ManagedChannel channel;
+    private Client client;
+    private UserId user;
+    private ChatId chat;
+    private String content;
+    private ExecutorService streams;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, InterruptedException {
+        var config = DEFAULT.equals(profile)
+                     ? ServerConfig.defaults()
+                     : ServerConfig.profile(profile);
+        config = config.withPort(freePort());
+        server = ChatSpnServer.start(config);
+        channel = ManagedChannelBuilder
+                .forAddress(HOST, config.port())
+                .usePlaintext()
+                .maxInboundMessageSize(MAX_RESPONSE_SIZE)
+                .build();
+        streams = Executors.newFixedThreadPool(concurrentStreams);
+        content = "a".repeat(messageSize);
+        client = Client.usingChannel(channel)
+                       .build();
+        user = newUserId();
+        chat = ChatId.generate();
+        client.onBehalfOf(user)
+              .command(CreatePersonalChat
+                               .newBuilder()
+                               .setId(chat)
+                               .setCreator(member(user))
+                               .setMember(member(newUserId()))
+                               .vBuild())
+              .postAndForget();
+        awaitChat();
+        for (var i = 0; i < HISTORY_SIZE; i++) {
+            sendMessage(MessageIds.generate(chat));
+        }
+        awaitHistory();
+        client.onBehalfOf(user)
+              .subscribeTo(MessageView.class)
+              .where(EntityStateFilter.eq(MessageView.Field.chat(), chat))
+              .observe(message -> updates.add(message.getId()))
+              .post();
+    }
+
+    private static int freePort() throws IOException {
+        try (var socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private void awaitChat() throws InterruptedException {
+        var deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (readChats().isEmpty()) {
+            checkDeadline(deadline, "The chat has not been created.");
+        }
+    }
+
+    private void awaitHistory() throws InterruptedException {
+        var deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (readHistory().size() < HISTORY_SIZE) {
+            checkDeadline(deadline, format("%d messages have not been sent.", HISTORY_SIZE));
+        }
+    }
+
+    private static void checkDeadline(long deadline, String message)
+            throws InterruptedException {
+        if (System.nanoTime() > deadline) {
+            throw new IllegalStateException(message);
+        }
+        MILLISECONDS.sleep(100);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        streams.shutdownNow();
+        client.close();
+        channel.shutdownNow();
+        server.shutdown();
+    }
+
+    /**
+     * Reads the chat cards of the user, which makes a small response.
+     */
+    @Benchmark
+    public List<ChatCard> readChats() {
+        return client.onBehalfOf(user)
+                     .select(ChatCard.class)
+                     .where(QueryFilter.eq(ChatCard.Column.viewer(), user))
+                     .run();
+    }
+
+    /**
+     * Reads all the messages of the chat, which makes a large response.
+     */
+    @Benchmark
+    public List<MessageView> readHistory() {
+        return client.onBehalfOf(user)
+                     .select(MessageView.class)
+                     .where(QueryFilter.eq(MessageView.Column.chat(), chat))
+                     .run();
+    }
+
+    /**
+     * Reads all the messages of the chat by many queries at once over the same connection.
+     *
+     * @return the total number of the read messages
+     */
+    @Benchmark
+    public int readHistoryConcurrently() {
+        List<CompletableFuture<List<MessageView>>> queries = new ArrayList<>();
+        for (var i = 0; i < concurrentStreams; i++) {
+            queries.add(CompletableFuture.supplyAsync(this::readHistory, streams));
+        }
+        return queries.stream()
+                      .mapToInt(query -> query.join()
+                                              .size())
+                      .sum();
+    }
+
+    /**
+     * Sends a message and waits for the subscription update about it.
+     */
+    @Benchmark
+    public MessageId sendAndObserve() throws InterruptedException {
+        var id = MessageIds.generate(chat);
+        sendMessage(id);
+        MessageId received;
+        do {
+            received = updates.poll(TIMEOUT.toMillis(), MILLISECONDS);
+            if (received == null) {
+                throw new IllegalStateException("The message update has not been received.");
+            }
+        } while (!received.equals(id));
+        return received;
+    }
+
+    private void sendMessage(MessageId id) {
+        client.onBehalfOf(user)
+              .command(SendMessage
+                               .newBuilder()
+                               .setId(id)
+                               .setChat(chat)
+                               .setUser(user)
+                               .setContent(content)
+                               .vBuild())
+              .postAndForget();
+    }
+}
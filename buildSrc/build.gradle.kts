@@ -48,7 +48,15 @@ val errorProneVersion = "2.0.2"
  */
 val spineVersion = "1.9.0"
 
+/**
+ * The version of the JMH Gradle plugin.
+ *
+ * Keep in sync with [io.spine.examples.chatspn.dependency.Jmh.GradlePlugin.version].
+ */
+val jmhPluginVersion = "0.6.8"
+
 dependencies {
     implementation("net.ltgt.gradle:gradle-errorprone-plugin:${errorProneVersion}")
     implementation("io.spine.tools:spine-bootstrap:${spineVersion}")
+    implementation("me.champeau.jmh:jmh-gradle-plugin:${jmhPluginVersion}")
 }
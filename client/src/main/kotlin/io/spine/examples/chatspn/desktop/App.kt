@@ -33,7 +33,12 @@ import androidx.compose.ui.window.application
 import io.spine.examples.chatspn.desktop.navigation.CurrentPage
 import java.awt.Dimension
 
-private val client = DesktopClient()
+/**
+ * The name of the system property which sets the number of the server nodes.
+ */
+private const val NODES_PROPERTY = "chatspn.cluster.nodes"
+
+private val client = DesktopClient(nodes = Integer.getInteger(NODES_PROPERTY, 1))
 
 /**
  * The root component of the desktop application.
@@ -0,0 +1,297 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.desktop
+
+import com.google.protobuf.InvalidProtocolBufferException
+import io.spine.examples.chatspn.ChatId
+import io.spine.examples.chatspn.MessageId
+import io.spine.examples.chatspn.message.MessagePositions.positionOf
+import io.spine.examples.chatspn.message.MessageView
+import java.nio.ByteBuffer
+import java.nio.channels.FileChannel
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.StandardCopyOption.ATOMIC_MOVE
+import java.nio.file.StandardCopyOption.REPLACE_EXISTING
+import java.nio.file.StandardOpenOption.CREATE
+import java.nio.file.StandardOpenOption.READ
+import java.nio.file.StandardOpenOption.TRUNCATE_EXISTING
+import java.nio.file.StandardOpenOption.WRITE
+
+/**
+ * The kind of the record which puts a message to the history.
+ */
+private const val PUT: Byte = 1
+
+/**
+ * The kind of the record which removes a message from the history.
+ */
+private const val REMOVE: Byte = 2
+
+/**
+ * The size of the record header: the kind and the length of the record body.
+ */
+private const val HEADER_SIZE = 1 + Int.SIZE_BYTES
+
+/**
+ * The number of the obsolete records in a file tolerated without compaction.
+ */
+private const val COMPACTION_SLACK = 256
+
+/**
+ * The maximum number of chats whose messages are kept in memory.
+ */
+private const val MAX_OPEN_CHATS = 8
+
+/**
+ * The extension of the files of the chat histories.
+ */
+private const val HISTORY_EXTENSION = ".history"
+
+/**
+ * A local cache of the chat message history kept on disk.
+ *
+ * The messages of each chat are kept in a separate append-only file of records,
+ * each of which either puts a message or removes it by ID. When a chat is opened,
+ * its file is read through a memory mapping, and the messages are kept in memory.
+ * Only the [MAX_OPEN_CHATS] most recently used chats are kept in memory; the files
+ * of the others are closed. A file which holds too many obsolete records
+ * is compacted on open.
+ *
+ * The files of the chats the user is no longer a member of are deleted.
+ *
+ * A record left incomplete by a crash is discarded.
+ *
+ * @param directory directory to keep the files of the chats in
+ */
+internal class ChatHistoryCache(private val directory: Path) {
+
+    private val chats = object : LinkedHashMap<ChatId, ChatHistory>(16, 0.75f, true) {
+        override fun removeEldestEntry(
+            eldest: MutableMap.MutableEntry<ChatId, ChatHistory>
+        ): Boolean {
+            if (size > MAX_OPEN_CHATS) {
+                eldest.value.close()
+                return true
+            }
+            return false
+        }
+    }
+
+    /**
+     * Returns the cached messages of the chat in the order of posting.
+     */
+    @Synchronized
+    fun messages(chat: ChatId): List<MessageView> {
+        return historyOf(chat).messages()
+    }
+
+    /**
+     * Puts the messages to the cache, replacing the cached versions of them.
+     */
+    @Synchronized
+    fun put(messages: Collection<MessageView>) {
+        messages.forEach { message -> historyOf(message.chat).put(message) }
+    }
+
+    /**
+     * Removes the message from the cache.
+     */
+    @Synchronized
+    fun remove(chat: ChatId, message: MessageId) {
+        historyOf(chat).remove(message)
+    }
+
+    /**
+     * Deletes the cached history of the chat.
+     */
+    @Synchronized
+    fun delete(chat: ChatId) {
+        chats.remove(chat)?.close()
+        Files.deleteIfExists(fileOf(chat))
+    }
+
+    /**
+     * Deletes the cached histories of all the chats except the given ones.
+     */
+    @Synchronized
+    fun retainOnly(kept: Collection<ChatId>) {
+        val keptFiles = kept.map { chat -> fileOf(chat) }.toSet()
+        chats.keys
+            .filter { chat -> !keptFiles.contains(fileOf(chat)) }
+            .forEach { chat -> chats.remove(chat)?.close() }
+        if (!Files.isDirectory(directory)) {
+            return
+        }
+        Files.list(directory).use { files ->
+            files.filter { file -> file.fileName.toString().endsWith(HISTORY_EXTENSION) }
+                .filter { file -> !keptFiles.contains(file) }
+                .forEach { file -> Files.deleteIfExists(file) }
+        }
+    }
+
+    /**
+     * Closes the files of the cache.
+     */
+    @Synchronized
+    fun close() {
+        chats.values.forEach { history -> history.close() }
+        chats.clear()
+    }
+
+    private fun historyOf(chat: ChatId): ChatHistory {
+        return chats.getOrPut(chat) {
+            Files.createDirectories(directory)
+            ChatHistory(fileOf(chat))
+        }
+    }
+
+    private fun fileOf(chat: ChatId): Path {
+        return directory.resolve("${chat.uuid}$HISTORY_EXTENSION")
+    }
+}
+
+/**
+ * The cached history of a single chat.
+ *
+ * @param file the file of the history records
+ */
+private class ChatHistory(private val file: Path) {
+
+    private val messages = mutableMapOf<MessageId, MessageView>()
+    private var records = 0
+    private val channel: FileChannel
+
+    init {
+        var validLength = if (Files.exists(file)) load() else 0L
+        if (records - messages.size > COMPACTION_SLACK) {
+            validLength = compact()
+        }
+        channel = FileChannel.open(file, CREATE, WRITE)
+        if (channel.size() > validLength) {
+            channel.truncate(validLength)
+        }
+        channel.position(validLength)
+    }
+
+    /**
+     * Returns the messages in the order of posting.
+     */
+    fun messages(): List<MessageView> {
+        return messages.values.sortedBy { message -> positionOf(message.whenPosted, message.id) }
+    }
+
+    fun put(message: MessageView) {
+        if (messages[message.id] == message) {
+            return
+        }
+        messages[message.id] = message
+        append(PUT, message.toByteArray())
+    }
+
+    fun remove(id: MessageId) {
+        if (messages.remove(id) != null) {
+            append(REMOVE, id.toByteArray())
+        }
+    }
+
+    fun close() {
+        channel.close()
+    }
+
+    /**
+     * Reads the records of the file through a memory mapping.
+     *
+     * @return the length of the file up to the first incomplete record
+     */
+    private fun load(): Long {
+        FileChannel.open(file, READ).use { input ->
+            val buffer = input.map(FileChannel.MapMode.READ_ONLY, 0, input.size())
+            while (buffer.remaining() >= HEADER_SIZE) {
+                val start = buffer.position()
+                val kind = buffer.get()
+                val length = buffer.getInt()
+                if (length < 0 || length > buffer.remaining()) {
+                    return start.toLong()
+                }
+                val body = ByteArray(length)
+                buffer.get(body)
+                try {
+                    apply(kind, body)
+                } catch (e: InvalidProtocolBufferException) {
+                    return start.toLong()
+                }
+                records++
+            }
+            return buffer.position().toLong()
+        }
+    }
+
+    private fun apply(kind: Byte, body: ByteArray) {
+        when (kind) {
+            PUT -> {
+                val message = MessageView.parseFrom(body)
+                messages[message.id] = message
+            }
+            REMOVE -> messages.remove(MessageId.parseFrom(body))
+            else -> throw InvalidProtocolBufferException("Unknown record kind: $kind.")
+        }
+    }
+
+    /**
+     * Rewrites the file with a single record per cached message.
+     *
+     * @return the length of the compacted file
+     */
+    private fun compact(): Long {
+        val compacted = file.resolveSibling("${file.fileName}.tmp")
+        val length = FileChannel.open(compacted, CREATE, WRITE, TRUNCATE_EXISTING).use { output ->
+            messages.values.forEach { message ->
+                output.write(record(PUT, message.toByteArray()))
+            }
+            output.force(true)
+            output.size()
+        }
+        Files.move(compacted, file, REPLACE_EXISTING, ATOMIC_MOVE)
+        records = messages.size
+        return length
+    }
+
+    private fun append(kind: Byte, body: ByteArray) {
+        channel.write(record(kind, body))
+        records++
+    }
+
+    private fun record(kind: Byte, body: ByteArray): ByteBuffer {
+        val buffer = ByteBuffer.allocate(HEADER_SIZE + body.size)
+        buffer.put(kind)
+            .putInt(body.size)
+            .put(body)
+        buffer.flip()
+        return buffer
+    }
+}
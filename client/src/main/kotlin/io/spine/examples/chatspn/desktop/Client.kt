@@ -38,7 +38,6 @@ import io.spine.client.ClientRequest
 import io.spine.client.ConnectionConstants.DEFAULT_CLIENT_SERVICE_PORT
 import io.spine.client.EntityStateFilter
 import io.spine.client.EventFilter
-import io.spine.client.OrderBy
 import io.spine.client.QueryFilter
 import io.spine.client.Subscription
 import io.spine.core.UserId
@@ -53,41 +52,77 @@ import io.spine.examples.chatspn.account.command.CreateAccount
 import io.spine.examples.chatspn.account.event.AccountCreated
 import io.spine.examples.chatspn.account.event.AccountNotCreated
 import io.spine.examples.chatspn.chat.Chat.ChatType
+import io.spine.examples.chatspn.chat.ChatActivity
 import io.spine.examples.chatspn.chat.ChatCard
 import io.spine.examples.chatspn.chat.ChatMember
+import io.spine.examples.chatspn.chat.ChatNodes
+import io.spine.examples.chatspn.chat.ChatNodes.ACCOUNTS_NODE
+import io.spine.examples.chatspn.chat.ChatSummary
 import io.spine.examples.chatspn.chat.command.CreatePersonalChat
 import io.spine.examples.chatspn.chat.command.DeleteChat
 import io.spine.examples.chatspn.chat.event.PersonalChatCreated
+import io.spine.examples.chatspn.message.ChatTimeline
+import io.spine.examples.chatspn.message.ChatTimelineBucket
+import io.spine.examples.chatspn.message.ChatTimelines.CAPACITY
+import io.spine.examples.chatspn.message.ChatTimelines.bucketAt
+import io.spine.examples.chatspn.message.ChatTimelines.bucketOf
+import io.spine.examples.chatspn.message.MessageDraft
+import io.spine.examples.chatspn.message.MessageIds
 import io.spine.examples.chatspn.message.MessageView
 import io.spine.examples.chatspn.message.command.EditMessage
 import io.spine.examples.chatspn.message.command.RemoveMessage
 import io.spine.examples.chatspn.message.command.SendMessage
+import io.spine.examples.chatspn.message.command.SendMessages
 import io.spine.examples.chatspn.message.event.MessageMarkedAsDeleted
 import io.spine.net.EmailAddress
+import java.nio.file.Path
+import java.nio.file.Paths
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.CopyOnWriteArrayList
 
 /**
  * Provides API to interact with ChatSpn server via gRPC.
  *
  * By default, client will open channel to 'localhost:[50051]
  * [io.spine.client.ConnectionConstants.DEFAULT_CLIENT_SERVICE_PORT]'.
+ *
+ * When the server runs as several nodes which split the chats among themselves,
+ * the nodes are expected to listen on the consecutive ports starting with the given one.
+ * The client opens a channel to each node. The requests of a chat are sent to the node
+ * which serves the chat, and the requests of the user accounts are sent to
+ * the [accounts node][ACCOUNTS_NODE]. The chats of the user are read from all the nodes.
+ *
+ * The read chat messages are cached on disk, separately for each authenticated user,
+ * in the `.chatspn/history` directory in the user home by default.
  */
 public class DesktopClient(
     address: String = "localhost",
     port: Int = DEFAULT_CLIENT_SERVICE_PORT,
+    nodes: Int = 1,
+    private val historyDirectory: Path = Paths.get(
+        System.getProperty("user.home"), ".chatspn", "history"
+    )
 ) {
     public var authenticatedUser: UserProfile? = null
-    private val client: Client
-    private val userChatsSubscriptions = mutableListOf<Subscription>()
+    private val clients: List<Client>
+    private val userChatsSubscriptions = CopyOnWriteArrayList<Subscription>()
+    private val activitySubscriptions = ConcurrentHashMap<ChatId, Subscription>()
     private val messagesSubscriptions = mutableListOf<Subscription>()
+    private val profiles = UserProfileCache()
+    private val profilesSubscriptions = mutableListOf<Subscription>()
+    private var historyCache: ChatHistoryCache? = null
 
     init {
-        val channel = ManagedChannelBuilder.forAddress(
-            address,
-            port
-        )
-            .usePlaintext()
-            .build()
-        client = Client.usingChannel(channel).build()
+        require(nodes > 0) { "The number of nodes must be positive." }
+        clients = (0 until nodes).map { node ->
+            val channel = ManagedChannelBuilder.forAddress(
+                address,
+                port + node
+            )
+                .usePlaintext()
+                .build()
+            Client.usingChannel(channel).build()
+        }
     }
 
     /**
@@ -108,6 +143,7 @@ public class DesktopClient(
             .newBuilder()
             .buildWith(email, name)
         observeCommandOutcome(
+            ACCOUNTS_NODE,
             command.id,
             AccountCreated::class.java,
             { event ->
@@ -117,7 +153,7 @@ public class DesktopClient(
             AccountNotCreated::class.java,
             { onFail() }
         )
-        clientRequest()
+        clientRequest(ACCOUNTS_NODE)
             .command(command)
             .postAndForget()
     }
@@ -150,23 +186,63 @@ public class DesktopClient(
         authenticatedUser = null
         stopChatsObservation()
         stopObservingMessages()
+        stopObservingProfiles()
+        historyCache?.close()
+        historyCache = null
     }
 
     /**
      * Finds user by ID.
      *
+     * The found profiles are cached and kept up to date by the subscription
+     * to the profile updates. Thus, finding the same user again needs no query.
+     *
      * @param id ID of the user to find
      * @return found user profile or `null` if the user not found
      */
     public fun findUser(id: UserId): UserProfile? {
-        val profiles = clientRequest()
+        val cached = profiles.get(id)
+        if (null != cached) {
+            return cached
+        }
+        val found = clientRequest(ACCOUNTS_NODE)
             .select(UserProfile::class.java)
             .byId(id)
             .run()
-        if (profiles.isEmpty()) {
-            return null
+            .firstOrNull()
+        found?.let { cache(listOf(it)) }
+        return found
+    }
+
+    /**
+     * Finds users by their IDs.
+     *
+     * The users missing in the cache of profiles are read by `byIds` queries,
+     * each of which reads up to [MAX_IDS_PER_QUERY] profiles at once.
+     *
+     * @param ids IDs of the users to find
+     * @return found user profiles by the user IDs; the users not found are omitted
+     */
+    public fun findUsers(ids: Set<UserId>): Map<UserId, UserProfile> {
+        val found = mutableMapOf<UserId, UserProfile>()
+        val missing = mutableListOf<UserId>()
+        ids.forEach { id ->
+            val cached = profiles.get(id)
+            if (null != cached) {
+                found[id] = cached
+            } else {
+                missing.add(id)
+            }
+        }
+        missing.chunked(MAX_IDS_PER_QUERY).forEach { chunk ->
+            val page = clientRequest(ACCOUNTS_NODE)
+                .select(UserProfile::class.java)
+                .byId(*chunk.toTypedArray())
+                .run()
+            cache(page)
+            page.forEach { profile -> found[profile.id] = profile }
         }
-        return profiles[0]
+        return found
     }
 
     /**
@@ -180,14 +256,66 @@ public class DesktopClient(
             .email()
             .field
             .toString()
-        val profiles = clientRequest()
+        val found = clientRequest(ACCOUNTS_NODE)
             .select(UserProfile::class.java)
             .where(QueryFilter.eq(EntityColumn(emailField), email.toEmail()))
             .run()
-        if (profiles.isEmpty()) {
-            return null
+            .firstOrNull()
+        found?.let { cache(listOf(it)) }
+        return found
+    }
+
+    /**
+     * Puts the profiles to the cache of user profiles and subscribes to their updates.
+     *
+     * Each call subscribes to the updates of the given profiles only. Once there are
+     * more than [MAX_PROFILE_SUBSCRIPTIONS] subscriptions, they are replaced with
+     * the subscriptions to the profiles which are still in the cache.
+     */
+    private fun cache(found: List<UserProfile>) {
+        if (found.isEmpty()) {
+            return
+        }
+        synchronized(profiles) {
+            found.forEach { profiles.put(it) }
+            if (profilesSubscriptions.size < MAX_PROFILE_SUBSCRIPTIONS) {
+                subscribeToProfiles(found.map { it.id })
+            } else {
+                cancelProfileSubscriptions()
+                subscribeToProfiles(profiles.ids())
+            }
         }
-        return profiles[0]
+    }
+
+    /**
+     * Subscribes to the updates of the profiles with the given IDs.
+     */
+    private fun subscribeToProfiles(ids: List<UserId>) {
+        ids.chunked(MAX_IDS_PER_QUERY).forEach { chunk ->
+            val subscription = clients[ACCOUNTS_NODE].asGuest()
+                .subscribeTo(UserProfile::class.java)
+                .byId(*chunk.toTypedArray())
+                .observe { updated -> profiles.update(updated) }
+                .post()
+            profilesSubscriptions.add(subscription)
+        }
+    }
+
+    /**
+     * Cancels the subscriptions to the profile updates and clears the cache of profiles.
+     */
+    private fun stopObservingProfiles() {
+        synchronized(profiles) {
+            cancelProfileSubscriptions()
+            profiles.clear()
+        }
+    }
+
+    private fun cancelProfileSubscriptions() {
+        profilesSubscriptions.forEach { subscription ->
+            stopObservation(subscription)
+        }
+        profilesSubscriptions.clear()
     }
 
     /**
@@ -211,6 +339,7 @@ public class DesktopClient(
             )
         var subscription: Subscription? = null
         subscription = observeEvent(
+            nodeOf(command.id),
             command.id,
             PersonalChatCreated::class.java
         )
@@ -218,7 +347,7 @@ public class DesktopClient(
             stopObservation(subscription!!)
             onSuccess(event)
         }
-        clientRequest()
+        chatRequest(command.id)
             .command(command)
             .postAndForget()
     }
@@ -235,7 +364,30 @@ public class DesktopClient(
         val command = SendMessage
             .newBuilder()
             .buildWith(chat, authenticatedUser!!.id, content)
-        clientRequest()
+        chatRequest(chat)
+            .command(command)
+            .postAndForget()
+    }
+
+    /**
+     * Sends several messages to the chat at once.
+     *
+     * The permission of the user to send messages to the chat is checked once
+     * for the whole batch.
+     *
+     * @param chat chat to which messages will be sent
+     * @param contents text contents of the messages in the order of sending
+     * @throws IllegalStateException if the user has not been authenticated
+     */
+    public fun sendMessages(chat: ChatId, contents: List<String>) {
+        checkNotNull(authenticatedUser) { "The user has not been authenticated" }
+        if (contents.isEmpty()) {
+            return
+        }
+        val command = SendMessages
+            .newBuilder()
+            .buildWith(chat, authenticatedUser!!.id, contents)
+        chatRequest(chat)
             .command(command)
             .postAndForget()
     }
@@ -252,7 +404,7 @@ public class DesktopClient(
         val command = RemoveMessage
             .newBuilder()
             .buildWith(chat, authenticatedUser!!.id, message)
-        clientRequest()
+        chatRequest(chat)
             .command(command)
             .postAndForget()
     }
@@ -268,7 +420,7 @@ public class DesktopClient(
         val command = DeleteChat
             .newBuilder()
             .buildWith(chat, authenticatedUser!!.id)
-        clientRequest()
+        chatRequest(chat)
             .command(command)
             .postAndForget()
     }
@@ -286,7 +438,7 @@ public class DesktopClient(
         val command = EditMessage
             .newBuilder()
             .buildWith(chat, authenticatedUser!!.id, message, newContent)
-        clientRequest()
+        chatRequest(chat)
             .command(command)
             .postAndForget()
     }
@@ -294,6 +446,9 @@ public class DesktopClient(
     /**
      * Returns chats where the authenticated user is a member.
      *
+     * The members of large group chats are read from their shared summaries.
+     * The cached histories of the other chats are deleted.
+     *
      * @throws IllegalStateException if the user has not been authenticated
      */
     public fun readChats(): List<ChatCard> {
@@ -302,20 +457,60 @@ public class DesktopClient(
             ChatCard.Column.viewer(),
             authenticatedUser!!.id
         )
-        val chats = clientRequest()
-            .select(ChatCard::class.java)
-            .where(byViewerFilter)
-            .run()
-        return chats
+        val chats = clients.indices.flatMap { node ->
+            clientRequest(node)
+                .select(ChatCard::class.java)
+                .where(byViewerFilter)
+                .run()
+        }
+        history().retainOnly(chats.map { card -> card.chatId })
+        return withSharedMembers(chats)
+    }
+
+    /**
+     * Fills the cards of large group chats with the members kept by the shared summaries.
+     *
+     * @param cards chat cards to fill
+     */
+    private fun withSharedMembers(cards: List<ChatCard>): List<ChatCard> {
+        val shared = cards
+            .filter { card -> card.sharedSummary }
+            .map { card -> card.chatId }
+        if (shared.isEmpty()) {
+            return cards
+        }
+        val summaries = shared
+            .groupBy { chat -> nodeOf(chat) }
+            .flatMap { (node, chats) ->
+                chats.chunked(MAX_IDS_PER_QUERY).flatMap { chunk ->
+                    clientRequest(node)
+                        .select(ChatSummary::class.java)
+                        .byId(*chunk.toTypedArray())
+                        .run()
+                }
+            }
+            .associateBy { summary -> summary.id }
+        return cards.map { card ->
+            val summary = summaries[card.chatId]
+            if (card.sharedSummary && null != summary) {
+                card.toBuilder()
+                    .addAllMember(summary.memberList)
+                    .build()
+            } else {
+                card
+            }
+        }
     }
 
     /**
      * Observes chats of the authenticated user.
      *
      * @param onUpdate will be called when chat in which authenticated user is a member is updated
-     *                 or when an authenticated user joins a new chat
+     *                 or when an authenticated user joins a new chat;
+     *                 the cards of large group chats are filled with the shared members
      * @param onLeave will be called when the authenticated user leaves the chat
-     *                or when the chat is deleted
+     *                or when the chat is deleted; the cached history of the chat
+     *                is deleted before the call
      * @throws IllegalStateException if the user has not been authenticated
      */
     public fun observeChats(
@@ -327,13 +522,90 @@ public class DesktopClient(
             ChatCard.Field.viewer(),
             authenticatedUser!!.id
         )
-        val updateSubscription = clientRequest()
-            .subscribeTo(ChatCard::class.java)
-            .where(byViewerFilter)
-            .whenNoLongerMatching(ChatCardId::class.java, onLeave)
-            .observe(onUpdate)
-            .post()
-        userChatsSubscriptions.add(updateSubscription)
+        clients.indices.forEach { node ->
+            val updateSubscription = clientRequest(node)
+                .subscribeTo(ChatCard::class.java)
+                .where(byViewerFilter)
+                .whenNoLongerMatching(ChatCardId::class.java) { card ->
+                    history().delete(card.chat)
+                    onLeave(card)
+                }
+                .observe { chat -> onUpdate(withSharedMembers(listOf(chat)).first()) }
+                .post()
+            userChatsSubscriptions.add(updateSubscription)
+        }
+    }
+
+    /**
+     * Returns the latest activity in the chats.
+     *
+     * @param chats IDs of the chats to read the activity of
+     * @throws IllegalStateException if the user has not been authenticated
+     */
+    public fun readChatActivity(chats: Collection<ChatId>): List<ChatActivity> {
+        checkNotNull(authenticatedUser) { "The user has not been authenticated" }
+        return chats
+            .groupBy { chat -> nodeOf(chat) }
+            .flatMap { (node, nodeChats) ->
+                nodeChats.chunked(MAX_IDS_PER_QUERY).flatMap { chunk ->
+                    clientRequest(node)
+                        .select(ChatActivity::class.java)
+                        .byId(*chunk.toTypedArray())
+                        .run()
+                }
+            }
+    }
+
+    /**
+     * Observes the latest activity in the chats.
+     *
+     * Unlike the chat cards, which only change when the chat is renamed or its members change,
+     * the activity changes with each posted message, and is small enough to be pushed
+     * to all the chat members.
+     *
+     * The chats already observed are skipped, so that the activity of a chat
+     * is observed once. The observation of a chat is stopped
+     * by [stopObservingChatActivity], or along with the observation of chats.
+     *
+     * @param chats IDs of the chats to observe
+     * @param onUpdate will be called when a message is posted, edited or removed in the chat
+     * @throws IllegalStateException if the user has not been authenticated
+     */
+    public fun observeChatActivity(
+        chats: Collection<ChatId>,
+        onUpdate: (activity: ChatActivity) -> Unit
+    ) {
+        checkNotNull(authenticatedUser) { "The user has not been authenticated" }
+        val unobserved = chats.filter { chat -> !activitySubscriptions.containsKey(chat) }
+        unobserved.groupBy { chat -> nodeOf(chat) }.forEach { (node, nodeChats) ->
+            nodeChats.chunked(MAX_IDS_PER_QUERY).forEach { chunk ->
+                val subscription = clientRequest(node)
+                    .subscribeTo(ChatActivity::class.java)
+                    .byId(*chunk.toTypedArray())
+                    .observe { activity ->
+                        if (activitySubscriptions.containsKey(activity.id)) {
+                            onUpdate(activity)
+                        }
+                    }
+                    .post()
+                chunk.forEach { chat -> activitySubscriptions[chat] = subscription }
+            }
+        }
+    }
+
+    /**
+     * Stops observing the activity in the chat.
+     *
+     * The subscription shared with other observed chats is cancelled
+     * once none of them is observed.
+     *
+     * @param chat ID of the chat to stop observing
+     */
+    public fun stopObservingChatActivity(chat: ChatId) {
+        val subscription = activitySubscriptions.remove(chat) ?: return
+        if (!activitySubscriptions.containsValue(subscription)) {
+            stopObservation(subscription)
+        }
     }
 
     /**
@@ -341,35 +613,228 @@ public class DesktopClient(
      */
     public fun stopChatsObservation() {
         userChatsSubscriptions.forEach { subscription ->
-            client.subscriptions().cancel(subscription)
+            stopObservation(subscription)
         }
         userChatsSubscriptions.clear()
+        activitySubscriptions.values.toSet().forEach { subscription ->
+            stopObservation(subscription)
+        }
+        activitySubscriptions.clear()
     }
 
     /**
-     * Returns messages from the chat.
+     * Returns the newest messages of the chat.
      *
      * @param chat ID of the chat to read messages from
-     * @return list of messages in the chat
+     * @param limit maximum number of messages to read
+     * @return page of the newest messages in the chat
      * @throws IllegalStateException if the user has not been authenticated
      */
-    public fun readMessages(chat: ChatId): List<MessageView> {
+    public fun readMessages(chat: ChatId, limit: Int = DEFAULT_PAGE_SIZE): MessagePage {
         checkNotNull(authenticatedUser) { "The user has not been authenticated" }
-        val whenPostedField = MessageView.Field
-            .whenPosted()
-            .field
-            .toString()
-        val messages = clientRequest()
-            .select(MessageView::class.java)
-            .where(chat.queryFilter())
-            .orderBy(EntityColumn(whenPostedField), OrderBy.Direction.ASCENDING)
+        val pageSize = limit.toPageSize()
+        val messages = readBefore(chat, null, pageSize)
+        history().put(messages)
+        return messages.toPage(pageSize)
+    }
+
+    /**
+     * Returns messages of the chat posted before the cursor.
+     *
+     * @param cursor cursor of the page to read messages before
+     * @param limit maximum number of messages to read
+     * @return page of the messages posted right before the cursor
+     * @throws IllegalStateException if the user has not been authenticated
+     * @throws IllegalArgumentException if the cursor is not valid
+     */
+    public fun readMessagesBefore(cursor: String, limit: Int = DEFAULT_PAGE_SIZE): MessagePage {
+        checkNotNull(authenticatedUser) { "The user has not been authenticated" }
+        val position = cursor.toMessageCursor()
+        val pageSize = limit.toPageSize()
+        val messages = readBefore(position.chat, position.position(), pageSize)
+        history().put(messages)
+        return messages.toPage(pageSize)
+    }
+
+    /**
+     * Returns messages of the chat posted after the cursor.
+     *
+     * @param cursor cursor of the page to read messages after
+     * @param limit maximum number of messages to read
+     * @return page of the messages posted right after the cursor
+     * @throws IllegalStateException if the user has not been authenticated
+     * @throws IllegalArgumentException if the cursor is not valid
+     */
+    public fun readMessagesAfter(cursor: String, limit: Int = DEFAULT_PAGE_SIZE): MessagePage {
+        checkNotNull(authenticatedUser) { "The user has not been authenticated" }
+        val position = cursor.toMessageCursor()
+        val pageSize = limit.toPageSize()
+        val messages = readAfter(position.chat, position.position(), pageSize)
+        history().put(messages)
+        val before = messages.firstOrNull()?.toCursor()
+        val last = messages.lastOrNull()?.toCursor() ?: cursor
+        return MessagePage(messages, before, last)
+    }
+
+    /**
+     * Returns the newest messages of the chat cached on disk.
+     *
+     * Reads no messages from the server. The messages posted after the returned ones
+     * are read with [readMessagesAfter] from the `after` cursor of the page.
+     *
+     * @param chat ID of the chat to read messages from
+     * @param limit maximum number of messages to read
+     * @return page of the newest cached messages in the chat
+     * @throws IllegalStateException if the user has not been authenticated
+     */
+    public fun readCachedMessages(chat: ChatId, limit: Int = DEFAULT_PAGE_SIZE): MessagePage {
+        checkNotNull(authenticatedUser) { "The user has not been authenticated" }
+        val messages = history()
+            .messages(chat)
+            .takeLast(limit.toPageSize())
+        val before = messages.firstOrNull()?.toCursor()
+        val after = messages.lastOrNull()?.toCursor()
+        return MessagePage(messages, before, after)
+    }
+
+    /**
+     * Reads the current versions of the cached messages.
+     *
+     * The messages edited since they were cached are updated in the cache,
+     * and the messages deleted since then are removed from it.
+     * The messages are read from the buckets of the chat timeline which hold them.
+     * The messages of a deleted chat are all removed.
+     *
+     * @param chat ID of the chat the messages belong to
+     * @param messages cached messages to check
+     * @return current versions of the messages which are not deleted, in the order of posting
+     * @throws IllegalStateException if the user has not been authenticated
+     */
+    public fun revalidateCachedMessages(
+        chat: ChatId,
+        messages: List<MessageView>
+    ): List<MessageView> {
+        checkNotNull(authenticatedUser) { "The user has not been authenticated" }
+        val buckets = readTimeline(chat)?.bucketList ?: listOf()
+        val numbers = messages
+            .mapNotNull { message -> bucketAt(buckets, message.position).orElse(null) }
+            .toSortedSet()
+        val current = readBuckets(chat, numbers)
+            .associateBy { message -> message.id }
+        val history = history()
+        messages
+            .filter { message -> !current.containsKey(message.id) }
+            .forEach { message -> history.remove(chat, message.id) }
+        history.put(current.values)
+        return messages.mapNotNull { message -> current[message.id] }
+    }
+
+    /**
+     * Returns the on-disk cache of the messages read by the authenticated user.
+     */
+    private fun history(): ChatHistoryCache {
+        val cache = historyCache ?: ChatHistoryCache(
+            historyDirectory.resolve(authenticatedUser!!.id.value)
+        )
+        historyCache = cache
+        return cache
+    }
+
+    /**
+     * Reads the latest messages of the chat posted before the given position.
+     *
+     * The messages are read from the buckets of the chat timeline, starting with
+     * the bucket which covers the position and going back until the page is full.
+     * Thus, a page is usually read from one or two bucket records.
+     *
+     * @param chat ID of the chat to read messages from
+     * @param border position to read the messages before,
+     *               or `null` to read the newest ones
+     * @param pageSize maximum number of messages to read
+     * @return messages in the order of posting
+     */
+    private fun readBefore(chat: ChatId, border: String?, pageSize: Int): List<MessageView> {
+        val buckets = readTimeline(chat)?.bucketList ?: return listOf()
+        var last = if (null == border) {
+            buckets.size - 1
+        } else {
+            bucketAt(buckets, border).orElse(-1)
+        }
+        val page = mutableListOf<MessageView>()
+        while (last >= 0 && page.size < pageSize) {
+            val first = maxOf(0, last - bucketsPerPage(pageSize) + 1)
+            val messages = readBuckets(chat, (first..last).toSet())
+                .filter { message -> null == border || message.position < border }
+            page.addAll(0, messages)
+            last = first - 1
+        }
+        return page.takeLast(pageSize)
+    }
+
+    /**
+     * Reads the earliest messages of the chat posted after the given position.
+     *
+     * The messages are read from the buckets of the chat timeline, starting with
+     * the bucket which covers the position and going forward until the page is full.
+     *
+     * @param chat ID of the chat to read messages from
+     * @param border position to read the messages after
+     * @param pageSize maximum number of messages to read
+     * @return messages in the order of posting
+     */
+    private fun readAfter(chat: ChatId, border: String, pageSize: Int): List<MessageView> {
+        val buckets = readTimeline(chat)?.bucketList ?: return listOf()
+        var first = bucketAt(buckets, border).orElse(buckets.size)
+        val page = mutableListOf<MessageView>()
+        while (first < buckets.size && page.size < pageSize) {
+            val last = minOf(buckets.size - 1, first + bucketsPerPage(pageSize) - 1)
+            page += readBuckets(chat, (first..last).toSet())
+                .filter { message -> message.position > border }
+            first = last + 1
+        }
+        return page.take(pageSize)
+    }
+
+    /**
+     * Reads the timeline of the chat.
+     *
+     * @param chat ID of the chat to read the timeline of
+     * @return the timeline, or `null` if the chat has no messages or is deleted
+     */
+    private fun readTimeline(chat: ChatId): ChatTimeline? {
+        return chatRequest(chat)
+            .select(ChatTimeline::class.java)
+            .byId(chat)
             .run()
-        return messages
+            .firstOrNull()
+    }
+
+    /**
+     * Reads the messages of the buckets of the chat timeline.
+     *
+     * @param chat ID of the chat to read messages from
+     * @param numbers numbers of the buckets to read
+     * @return messages of the buckets in the order of posting
+     */
+    private fun readBuckets(chat: ChatId, numbers: Set<Int>): List<MessageView> {
+        return numbers
+            .map { number -> bucketOf(chat, number) }
+            .chunked(MAX_IDS_PER_QUERY)
+            .flatMap { chunk ->
+                chatRequest(chat)
+                    .select(ChatTimelineBucket::class.java)
+                    .byId(*chunk.toTypedArray())
+                    .run()
+            }
+            .sortedBy { bucket -> bucket.id.number }
+            .flatMap { bucket -> bucket.messageList }
     }
 
     /**
      * Observes messages in the chat.
      *
+     * The updates are also applied to the on-disk cache of the chat messages.
+     *
      * @param chat ID of the chat to observe messages in
      * @param onUpdate will be called when a new chat message is posted,
      *                     or when an existing message is updated
@@ -382,15 +847,22 @@ public class DesktopClient(
         onDelete: (messageDeleted: MessageMarkedAsDeleted) -> Unit
     ) {
         checkNotNull(authenticatedUser) { "The user has not been authenticated" }
-        val updateSubscription = clientRequest()
+        val history = history()
+        val updateSubscription = chatRequest(chat)
             .subscribeTo(MessageView::class.java)
             .where(chat.stateFilter())
-            .observe(onUpdate)
+            .observe { message ->
+                history.put(listOf(message))
+                onUpdate(message)
+            }
             .post()
-        val deletionSubscription = clientRequest()
+        val deletionSubscription = chatRequest(chat)
             .subscribeToEvent(MessageMarkedAsDeleted::class.java)
             .where(chat.eventFilter())
-            .observe(onDelete)
+            .observe { messageDeleted ->
+                history.remove(messageDeleted.chat, messageDeleted.id)
+                onDelete(messageDeleted)
+            }
             .post()
         messagesSubscriptions.add(updateSubscription)
         messagesSubscriptions.add(deletionSubscription)
@@ -401,36 +873,57 @@ public class DesktopClient(
      */
     public fun stopObservingMessages() {
         messagesSubscriptions.forEach { subscription ->
-            client.subscriptions().cancel(subscription)
+            stopObservation(subscription)
         }
         messagesSubscriptions.clear()
     }
 
     /**
-     * Provides `ClientRequest` on behalf of `authenticatedUser` if it exists,
+     * Provides `ClientRequest` to the node which serves the chat.
+     *
+     * @param chat ID of the chat to send the request about
+     */
+    private fun chatRequest(chat: ChatId): ClientRequest {
+        return clientRequest(nodeOf(chat))
+    }
+
+    /**
+     * Provides `ClientRequest` to the node on behalf of `authenticatedUser` if it exists,
      * or as guest if it doesn't.
+     *
+     * @param node index of the node to send the request to
      */
-    private fun clientRequest(): ClientRequest {
+    private fun clientRequest(node: Int): ClientRequest {
+        val client = clients[node]
         if (null == authenticatedUser) {
             return client.asGuest()
         }
         return client.onBehalfOf(authenticatedUser!!.id)
     }
 
+    /**
+     * Returns the index of the node which serves the chat.
+     */
+    private fun nodeOf(chat: ChatId): Int {
+        return ChatNodes.nodeOf(chat, clients.size)
+    }
+
     /**
      * Observes the provided event.
      *
+     * @param node index of the node which emits the event
      * @param id ID of the event state to observe
      * @param event type of the event to observe
      * @param onEmit will be called when the specified event emitted
      * @return subscription object to cancel observation
      */
     private fun <E : EventMessage> observeEvent(
+        node: Int,
         id: Message,
         event: Class<E>,
         onEmit: (event: E) -> Unit
     ): Subscription {
-        val subscription = clientRequest()
+        val subscription = clientRequest(node)
             .subscribeToEvent(event)
             .where(EventFilter.eq(EventMessageField(Field.named("id")), id))
             .observe(onEmit)
@@ -443,6 +936,7 @@ public class DesktopClient(
      *
      * When a success or failure event is emitted, subscriptions are cancelled.
      *
+     * @param node index of the node which handles the command
      * @param id ID of the event states to observe
      * @param successEvent type of the success event to observe
      * @param onSuccess will be called when the specified success event emitted
@@ -450,6 +944,7 @@ public class DesktopClient(
      * @param onFail will be called when the specified fail event emitted
      */
     private fun <S : EventMessage, F : EventMessage> observeCommandOutcome(
+        node: Int,
         id: Message,
         successEvent: Class<S>,
         onSuccess: (event: S) -> Unit,
@@ -459,6 +954,7 @@ public class DesktopClient(
         var successSubscription: Subscription? = null
         var failSubscription: Subscription? = null
         successSubscription = observeEvent(
+            node,
             id,
             successEvent
         ) { event ->
@@ -467,6 +963,7 @@ public class DesktopClient(
             onSuccess(event)
         }
         failSubscription = observeEvent(
+            node,
             id,
             failEvent
         ) { event ->
@@ -479,14 +976,65 @@ public class DesktopClient(
     /**
      * Stops observation by provided subscription.
      *
+     * Only the client of the node which the subscription was posted to
+     * keeps the subscription, and thus cancels it.
+     *
      * @param subscription subscription to cancel observation
      */
     private fun stopObservation(subscription: Subscription) {
-        client.subscriptions()
-            .cancel(subscription)
+        clients.forEach { client ->
+            client.subscriptions()
+                .cancel(subscription)
+        }
     }
 }
 
+/**
+ * Number of messages in a page of the chat history by default.
+ */
+public const val DEFAULT_PAGE_SIZE: Int = 50
+
+/**
+ * Maximum number of messages in a page of the chat history.
+ */
+public const val MAX_PAGE_SIZE: Int = 500
+
+/**
+ * Maximum number of IDs in a single `byId` query or subscription.
+ */
+private const val MAX_IDS_PER_QUERY = 500
+
+/**
+ * Maximum number of subscriptions to the profile updates before they are replaced
+ * with the subscriptions to the cached profiles.
+ */
+private const val MAX_PROFILE_SUBSCRIPTIONS = 16
+
+/**
+ * Bounds the requested number of messages by the [MAX_PAGE_SIZE].
+ */
+private fun Int.toPageSize(): Int {
+    return this.coerceIn(1, MAX_PAGE_SIZE)
+}
+
+/**
+ * Creates a page from the messages read before a cursor, in the order of posting.
+ *
+ * @param pageSize number of messages requested for the page
+ */
+private fun List<MessageView>.toPage(pageSize: Int): MessagePage {
+    val before = if (this.size < pageSize) null else this.first().toCursor()
+    val after = this.lastOrNull()?.toCursor()
+    return MessagePage(this, before, after)
+}
+
+/**
+ * Returns the number of the timeline buckets to read at once for a page of the given size.
+ */
+private fun bucketsPerPage(pageSize: Int): Int {
+    return pageSize / CAPACITY + 1
+}
+
 /**
  * Builds command to create an account for the user.
  *
@@ -546,13 +1094,41 @@ private fun SendMessage.Builder.buildWith(
     content: String
 ): SendMessage {
     return this
-        .setId(MessageId.generate())
+        .setId(MessageIds.generate(chat))
         .setChat(chat)
         .setUser(user)
         .setContent(content)
         .vBuild()
 }
 
+/**
+ * Builds command to send several messages to the chat.
+ *
+ * @param chat ID of the chat to send messages to
+ * @param user ID of the user who wants to send messages
+ * @param contents text contents of the messages
+ * @return command to send the messages
+ */
+private fun SendMessages.Builder.buildWith(
+    chat: ChatId,
+    user: UserId,
+    contents: List<String>
+): SendMessages {
+    contents.forEach { content ->
+        val draft = MessageDraft
+            .newBuilder()
+            .setId(MessageIds.generate(chat))
+            .setContent(content)
+            .vBuild()
+        addMessage(draft)
+    }
+    return this
+        .setId(MessageIds.generateBatch(chat))
+        .setChat(chat)
+        .setUser(user)
+        .vBuild()
+}
+
 /**
  * Builds command to remove the message.
  *
@@ -641,19 +1217,6 @@ private fun String.toUserId(): UserId {
         .vBuild()
 }
 
-/**
- * Creates a filter for the `QueryRequest` to match this chat.
- *
- * @see io.spine.client.QueryRequest.where
- */
-private fun ChatId.queryFilter(): QueryFilter {
-    val chatField = MessageView.Field
-        .chat()
-        .field
-        .toString()
-    return QueryFilter.eq(EntityColumn(chatField), this)
-}
-
 /**
  * Creates a filter for the `SubscriptionRequest` to match this chat.
  *
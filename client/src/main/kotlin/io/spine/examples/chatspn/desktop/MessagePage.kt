@@ -0,0 +1,84 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.desktop
+
+import com.google.protobuf.InvalidProtocolBufferException
+import io.spine.examples.chatspn.message.MessageCursor
+import io.spine.examples.chatspn.message.MessagePositions.positionOf
+import io.spine.examples.chatspn.message.MessageView
+import java.util.Base64
+
+/**
+ * A page of the chat message history.
+ *
+ * @param messages messages of the page in the order of posting
+ * @param before cursor to read the messages posted before this page,
+ *               or `null` if there are no such messages
+ * @param after cursor to read the messages posted after this page,
+ *              or `null` if the chat has no messages
+ */
+public class MessagePage(
+    public val messages: List<MessageView>,
+    public val before: String?,
+    public val after: String?
+)
+
+/**
+ * Creates an opaque cursor pointing to this message.
+ */
+internal fun MessageView.toCursor(): String {
+    val cursor = MessageCursor
+        .newBuilder()
+        .setChat(this.chat)
+        .setWhenPosted(this.whenPosted)
+        .setMessage(this.id)
+        .vBuild()
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(cursor.toByteArray())
+}
+
+/**
+ * Restores the `MessageCursor` from this opaque cursor.
+ *
+ * @throws IllegalArgumentException if this string is not a valid cursor
+ */
+internal fun String.toMessageCursor(): MessageCursor {
+    try {
+        val bytes = Base64.getUrlDecoder().decode(this)
+        return MessageCursor.parseFrom(bytes)
+    } catch (e: InvalidProtocolBufferException) {
+        throw IllegalArgumentException("`$this` is not a valid message cursor.", e)
+    }
+}
+
+/**
+ * Returns the position in the chat history of the message this cursor points to.
+ */
+internal fun MessageCursor.position(): String {
+    return positionOf(this.whenPosted, this.message)
+}
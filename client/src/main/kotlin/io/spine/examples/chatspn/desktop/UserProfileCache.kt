@@ -0,0 +1,103 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.desktop
+
+import io.spine.core.UserId
+import io.spine.examples.chatspn.account.UserProfile
+
+/**
+ * The default maximum number of profiles kept in the cache.
+ */
+private const val DEFAULT_CAPACITY = 1_000
+
+/**
+ * A bounded cache of user profiles.
+ *
+ * When the cache is full, the least recently used profile is evicted.
+ * The cache is safe to use from the subscription threads.
+ *
+ * @param capacity maximum number of profiles to keep
+ */
+internal class UserProfileCache(private val capacity: Int = DEFAULT_CAPACITY) {
+
+    private val profiles = object : LinkedHashMap<UserId, UserProfile>(16, 0.75f, true) {
+        override fun removeEldestEntry(
+            eldest: MutableMap.MutableEntry<UserId, UserProfile>
+        ): Boolean {
+            return size > capacity
+        }
+    }
+
+    init {
+        require(capacity > 0) { "The capacity must be positive." }
+    }
+
+    /**
+     * Returns the cached profile of the user, or `null` if there is no such profile.
+     */
+    @Synchronized
+    fun get(id: UserId): UserProfile? {
+        return profiles[id]
+    }
+
+    /**
+     * Puts the profile to the cache.
+     */
+    @Synchronized
+    fun put(profile: UserProfile) {
+        profiles[profile.id] = profile
+    }
+
+    /**
+     * Replaces the cached profile with the updated one.
+     *
+     * Does nothing if the profile is not in the cache, so that the updates
+     * of the profiles nobody has asked for do not evict the useful ones.
+     */
+    @Synchronized
+    fun update(profile: UserProfile) {
+        if (profiles.containsKey(profile.id)) {
+            profiles[profile.id] = profile
+        }
+    }
+
+    /**
+     * Returns the IDs of the cached profiles.
+     */
+    @Synchronized
+    fun ids(): List<UserId> {
+        return profiles.keys.toList()
+    }
+
+    /**
+     * Removes all profiles from the cache.
+     */
+    @Synchronized
+    fun clear() {
+        profiles.clear()
+    }
+}
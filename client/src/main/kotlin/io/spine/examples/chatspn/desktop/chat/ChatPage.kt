@@ -42,6 +42,7 @@ import androidx.compose.foundation.layout.heightIn
 import androidx.compose.foundation.layout.padding
 import androidx.compose.foundation.layout.size
 import androidx.compose.foundation.lazy.LazyColumn
+import androidx.compose.foundation.lazy.rememberLazyListState
 import androidx.compose.foundation.shape.CircleShape
 import androidx.compose.material.icons.Icons
 import androidx.compose.material.icons.filled.Check
@@ -54,8 +55,11 @@ import androidx.compose.material3.Icon
 import androidx.compose.material3.MaterialTheme
 import androidx.compose.material3.Text
 import androidx.compose.runtime.Composable
+import androidx.compose.runtime.DisposableEffect
+import androidx.compose.runtime.LaunchedEffect
 import androidx.compose.runtime.MutableState
 import androidx.compose.runtime.collectAsState
+import androidx.compose.runtime.derivedStateOf
 import androidx.compose.runtime.getValue
 import androidx.compose.runtime.mutableStateOf
 import androidx.compose.runtime.remember
@@ -107,6 +111,9 @@ public fun ChatPage(
             openUserProfile
         )
     }
+    DisposableEffect(model) {
+        onDispose { model.dispose() }
+    }
     model.chatCard = chatCard
     val isChatDeletionDialogVisible = remember { model.chatDeletionModalState }
     model.observeMessages()
@@ -205,16 +212,35 @@ private fun ChatDropdownMenu(
 
 /**
  * Displays the list of messages in the chat.
+ *
+ * Older messages are loaded when the user scrolls the list to the top.
+ * The list shown at the top right after the chat is opened loads nothing.
  */
 @Composable
 private fun ChatMessages(model: ChatPageModel) {
     val messages by model
         .messages()
         .collectAsState()
+    val listState = rememberLazyListState()
+    var isScrolledByUser by remember(model.chatCard.chatId) { mutableStateOf(false) }
+    LaunchedEffect(listState.isScrollInProgress) {
+        if (listState.isScrollInProgress) {
+            isScrolledByUser = true
+        }
+    }
+    val isScrolledToTop by remember {
+        derivedStateOf { listState.firstVisibleItemIndex == 0 }
+    }
+    LaunchedEffect(isScrolledToTop, isScrolledByUser) {
+        if (isScrolledToTop && isScrolledByUser) {
+            model.loadOlderMessages()
+        }
+    }
     LazyColumn(
         Modifier
             .fillMaxSize()
             .padding(horizontal = 8.dp),
+        listState,
         verticalArrangement = Arrangement.spacedBy(4.dp)
     ) {
         item {
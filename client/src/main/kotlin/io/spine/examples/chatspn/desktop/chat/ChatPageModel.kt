@@ -34,13 +34,18 @@ import io.spine.examples.chatspn.ChatId
 import io.spine.examples.chatspn.MessageId
 import io.spine.examples.chatspn.account.UserProfile
 import io.spine.examples.chatspn.chat.ChatCard
+import io.spine.examples.chatspn.desktop.DEFAULT_PAGE_SIZE
 import io.spine.examples.chatspn.desktop.DesktopClient
-import io.spine.examples.chatspn.desktop.remove
 import io.spine.examples.chatspn.message.MessageView
 import io.spine.examples.chatspn.message.event.MessageMarkedAsDeleted
-import java.util.stream.Collectors
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.cancel
 import kotlinx.coroutines.flow.MutableStateFlow
 import kotlinx.coroutines.flow.StateFlow
+import kotlinx.coroutines.flow.update
+import kotlinx.coroutines.isActive
+import kotlinx.coroutines.launch
 
 /**
  * UI Model for the [ChatPage].
@@ -58,21 +63,95 @@ public class ChatPageModel(
     public val openChatInfo: (chat: ChatId) -> Unit,
     public val openUserProfile: (user: UserId) -> Unit
 ) {
-    private val messagesState: MutableMessagesState = MutableStateFlow(listOf())
+    private val messagesState: MutableMessagesState = MutableStateFlow(MessageList.EMPTY)
     public val messageInputFieldState: MessageInputFieldState = MessageInputFieldState()
     public val chatDeletionModalState: MutableState<Boolean> = mutableStateOf(false)
+    private var olderMessages: String? = null
+    private val backgroundScope = CoroutineScope(Dispatchers.Default)
 
     /**
-     * Reads messages in the chat and subscribes to their updates.
+     * Reads the newest messages in the chat and subscribes to their updates.
+     *
+     * If the chat messages are cached on disk, displays the cached messages at once.
+     * Then, in the background, reads the current versions of the displayed messages,
+     * which might have been edited or deleted since they were cached, and the messages
+     * posted after them.
      */
     public fun observeMessages() {
         messageInputFieldState.clear()
-        messagesState.value = client.readMessages(chatCard.chatId).toMessageDataList(client)
+        val cached = client.readCachedMessages(chatCard.chatId)
+        val page = if (cached.messages.isEmpty()) client.readMessages(chatCard.chatId) else cached
+        messagesState.value = MessageList.of(page.messages.toMessageDataList(client))
+        olderMessages = page.before
         client.stopObservingMessages()
         client.observeMessages(
             chatCard.chatId,
             { messageView -> updateMessagesState(messageView) },
             { messageDeleted -> updateMessagesState(messageDeleted) })
+        val newest = cached.after ?: return
+        val chat = chatCard.chatId
+        backgroundScope.launch {
+            revalidateMessages(chat, cached.messages)
+            loadNewerMessages(newest)
+        }
+    }
+
+    /**
+     * Replaces the displayed cached messages with their current versions.
+     *
+     * @param chat ID of the chat the messages belong to
+     * @param cached messages read from the cache
+     */
+    private fun revalidateMessages(chat: ChatId, cached: List<MessageView>) {
+        val current = client.revalidateCachedMessages(chat, cached)
+        val currentIds = current.map { message -> message.id }.toSet()
+        val deleted = cached
+            .map { message -> message.id }
+            .filter { id -> !currentIds.contains(id) }
+        val updated = current.toMessageDataList(client)
+        messagesState.update { messages ->
+            deleted.fold(messages) { list, id -> list.remove(id) }
+                .putAll(updated)
+        }
+    }
+
+    /**
+     * Reads the messages posted after the cursor, page by page, up to the newest one.
+     *
+     * Stops once the page is disposed.
+     *
+     * @param cursor cursor of the newest displayed message
+     */
+    private fun CoroutineScope.loadNewerMessages(cursor: String) {
+        var after = cursor
+        do {
+            val page = client.readMessagesAfter(after)
+            val newer = page.messages.toMessageDataList(client)
+            messagesState.update { messages -> messages.putAll(newer) }
+            after = page.after ?: break
+        } while (isActive && page.messages.size == DEFAULT_PAGE_SIZE)
+    }
+
+    /**
+     * Stops reading the messages in the background.
+     *
+     * Called once the page is disposed.
+     */
+    public fun dispose() {
+        backgroundScope.cancel()
+    }
+
+    /**
+     * Reads the page of messages posted before the displayed ones.
+     *
+     * Does nothing if all the messages of the chat are already displayed.
+     */
+    public fun loadOlderMessages() {
+        val cursor = olderMessages ?: return
+        val page = client.readMessagesBefore(cursor)
+        olderMessages = page.before
+        val older = page.messages.toMessageDataList(client)
+        messagesState.update { messages -> messages.putAll(older) }
     }
 
     /**
@@ -90,13 +169,7 @@ public class ChatPageModel(
      */
     private fun updateMessagesState(messageView: MessageView) {
         val message = messageView.toMessageData(client)
-        val chatMessages = messagesState.value
-        if (chatMessages.findMessage(message.id) != null) {
-            val newChatMessages = chatMessages.replaceMessage(message)
-            messagesState.value = newChatMessages
-        } else {
-            messagesState.value = chatMessages + message
-        }
+        messagesState.update { messages -> messages.put(message) }
     }
 
     /**
@@ -105,13 +178,7 @@ public class ChatPageModel(
      * @param messageDeleted event about message deletion
      */
     private fun updateMessagesState(messageDeleted: MessageMarkedAsDeleted) {
-        val chatMessages = messagesState.value
-        val message = chatMessages.findMessage(messageDeleted.id)
-        if (message != null) {
-            val messageIndex = chatMessages.indexOf(message)
-            val newChatMessages = chatMessages.remove(messageIndex)
-            messagesState.value = newChatMessages
-        }
+        messagesState.update { messages -> messages.remove(messageDeleted.id) }
     }
 
     /**
@@ -182,36 +249,6 @@ public data class MessageData(
     val whenPosted: Timestamp
 )
 
-/**
- * Finds message in the list by ID.
- *
- * @param id ID of the message to find
- * @return found message or `null` if message is not found
- */
-private fun MessageList.findMessage(id: MessageId): MessageData? {
-    val message = this
-        .stream()
-        .filter { message -> message.id.equals(id) }
-        .collect(Collectors.toList())
-    if (message.isEmpty()) {
-        return null
-    }
-    return message[0]
-}
-
-/**
- * Returns the new list with the replaced message.
- *
- * @param newMessage message to replace
- */
-private fun MessageList.replaceMessage(newMessage: MessageData): MessageList {
-    val oldMessage = this.findMessage(newMessage.id)
-    val messageIndex = this.indexOf(oldMessage)
-    val leftPart = this.subList(0, messageIndex)
-    val rightPart = this.subList(messageIndex + 1, this.size)
-    return leftPart + newMessage + rightPart
-}
-
 /**
  * Creates the `MessageData` from the `MessageView`.
  *
@@ -227,35 +264,24 @@ private fun MessageView.toMessageData(client: DesktopClient): MessageData {
 }
 
 /**
- * Creates the `MessageData` list. from the `MessageView` list.
+ * Creates the `MessageData` list from the `MessageView` list.
+ *
+ * The profiles of all message authors are found at once.
  *
  * @param client desktop client to find user profiles
  */
-private fun List<MessageView>.toMessageDataList(client: DesktopClient): MessageList {
-    val users = mutableMapOf<UserId, UserProfile>();
-    val messages = this.stream().map { message ->
-        val user: UserProfile
-        if (users.containsKey(message.user)) {
-            user = users[message.user]!!
-        } else {
-            user = client.findUser(message.user)!!
-            users[message.user] = user
-        }
+private fun List<MessageView>.toMessageDataList(client: DesktopClient): List<MessageData> {
+    val users = client.findUsers(this.map { message -> message.user }.toSet())
+    return this.map { message ->
         MessageData(
             message.id,
-            user,
+            users[message.user]!!,
             message.content,
             message.whenPosted
         )
-    }.collect(Collectors.toList())
-    return messages
+    }
 }
 
-/**
- * List of `MessageData`.
- */
-public typealias MessageList = List<MessageData>
-
 /**
  * Mutable state of messages in the chat.
  */
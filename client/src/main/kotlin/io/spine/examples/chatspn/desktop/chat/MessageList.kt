@@ -0,0 +1,280 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.desktop.chat
+
+import com.google.protobuf.util.Timestamps
+import io.spine.examples.chatspn.MessageId
+
+/**
+ * An immutable list of chat messages in the order of posting, indexed by message ID.
+ *
+ * Adding, replacing or removing a message creates a new list which shares
+ * most of its structure with this one. Thus, each of these operations,
+ * as well as finding a message by ID or by index, takes O(log n) time,
+ * and the lists may be exposed to Compose as snapshots.
+ *
+ * The messages are ordered by the time of posting, and then by ID.
+ */
+public class MessageList private constructor(
+    private val byOrder: Node<MessageData, MessageData>?,
+    private val byId: Node<MessageId, MessageData>?
+) : AbstractList<MessageData>() {
+
+    public companion object {
+
+        /**
+         * The list without messages.
+         */
+        public val EMPTY: MessageList = MessageList(null, null)
+
+        /**
+         * Creates the list of the given messages.
+         */
+        public fun of(messages: Iterable<MessageData>): MessageList {
+            return EMPTY.putAll(messages)
+        }
+    }
+
+    override val size: Int
+        get() = byOrder.size()
+
+    override fun get(index: Int): MessageData {
+        if (index < 0 || index >= size) {
+            throw IndexOutOfBoundsException("Index: $index, size: $size.")
+        }
+        return byOrder!!.at(index)
+    }
+
+    override fun iterator(): Iterator<MessageData> {
+        return InOrder(byOrder)
+    }
+
+    /**
+     * Returns the message with the given ID, or `null` if there is no such message.
+     */
+    public fun find(id: MessageId): MessageData? {
+        return byId.find(id, ID_ORDER)
+    }
+
+    /**
+     * Returns the list with the given message added,
+     * or replacing the message with the same ID.
+     */
+    public fun put(message: MessageData): MessageList {
+        val previous = find(message.id)
+        val order = if (previous == null) byOrder else byOrder.remove(previous, POSTING_ORDER)
+        return MessageList(
+            order.put(message, message, POSTING_ORDER),
+            byId.put(message.id, message, ID_ORDER)
+        )
+    }
+
+    /**
+     * Returns the list with all the given messages put.
+     *
+     * @see put
+     */
+    public fun putAll(messages: Iterable<MessageData>): MessageList {
+        return messages.fold(this) { list, message -> list.put(message) }
+    }
+
+    /**
+     * Returns the list without the message with the given ID.
+     *
+     * Returns this list if there is no such message.
+     */
+    public fun remove(id: MessageId): MessageList {
+        val message = find(id) ?: return this
+        return MessageList(
+            byOrder.remove(message, POSTING_ORDER),
+            byId.remove(id, ID_ORDER)
+        )
+    }
+}
+
+/**
+ * Orders the messages by the time of posting, and then by ID.
+ */
+private val POSTING_ORDER: Comparator<MessageData> = Comparator { left, right ->
+    val byTime = Timestamps.compare(left.whenPosted, right.whenPosted)
+    if (byTime != 0) byTime else left.id.uuid.compareTo(right.id.uuid)
+}
+
+/**
+ * Orders the message IDs.
+ */
+private val ID_ORDER: Comparator<MessageId> = Comparator { left, right ->
+    left.uuid.compareTo(right.uuid)
+}
+
+/**
+ * A node of the persistent treap.
+ *
+ * The nodes are never changed. The operations which modify a tree copy the nodes
+ * on the path from the root to the modified node, and share the rest of the tree.
+ *
+ * The priority of a node is derived from its key, so the shape of the tree
+ * depends only on the keys it contains.
+ */
+private class Node<K, V>(
+    val key: K,
+    val value: V,
+    val left: Node<K, V>?,
+    val right: Node<K, V>?
+) {
+    val priority: Int = mix(key.hashCode())
+    val size: Int = 1 + left.size() + right.size()
+
+    fun copy(left: Node<K, V>?, right: Node<K, V>?): Node<K, V> {
+        return Node(key, value, left, right)
+    }
+
+    /**
+     * Returns the value at the given position of the in-order traversal.
+     */
+    fun at(index: Int): V {
+        var node: Node<K, V> = this
+        var position = index
+        while (true) {
+            val leftSize = node.left.size()
+            node = when {
+                position < leftSize -> node.left!!
+                position == leftSize -> return node.value
+                else -> {
+                    position -= leftSize + 1
+                    node.right!!
+                }
+            }
+        }
+    }
+}
+
+private fun Node<*, *>?.size(): Int = this?.size ?: 0
+
+private fun <K, V> Node<K, V>?.find(key: K, order: Comparator<in K>): V? {
+    var node = this
+    while (node != null) {
+        val comparison = order.compare(key, node.key)
+        node = when {
+            comparison < 0 -> node.left
+            comparison > 0 -> node.right
+            else -> return node.value
+        }
+    }
+    return null
+}
+
+private fun <K, V> Node<K, V>?.put(key: K, value: V, order: Comparator<in K>): Node<K, V> {
+    if (this == null) {
+        return Node(key, value, null, null)
+    }
+    val comparison = order.compare(key, this.key)
+    if (comparison == 0) {
+        return Node(key, value, left, right)
+    }
+    if (comparison < 0) {
+        val newLeft = left.put(key, value, order)
+        return if (newLeft.priority > priority) {
+            newLeft.copy(newLeft.left, copy(newLeft.right, right))
+        } else {
+            copy(newLeft, right)
+        }
+    }
+    val newRight = right.put(key, value, order)
+    return if (newRight.priority > priority) {
+        newRight.copy(copy(left, newRight.left), newRight.right)
+    } else {
+        copy(left, newRight)
+    }
+}
+
+private fun <K, V> Node<K, V>?.remove(key: K, order: Comparator<in K>): Node<K, V>? {
+    if (this == null) {
+        return null
+    }
+    val comparison = order.compare(key, this.key)
+    return when {
+        comparison < 0 -> copy(left.remove(key, order), right)
+        comparison > 0 -> copy(left, right.remove(key, order))
+        else -> merge(left, right)
+    }
+}
+
+/**
+ * Merges two trees, all keys of the first of which precede the keys of the second one.
+ */
+private fun <K, V> merge(first: Node<K, V>?, second: Node<K, V>?): Node<K, V>? {
+    if (first == null) {
+        return second
+    }
+    if (second == null) {
+        return first
+    }
+    return if (first.priority > second.priority) {
+        first.copy(first.left, merge(first.right, second))
+    } else {
+        second.copy(merge(first, second.left), second.right)
+    }
+}
+
+/**
+ * Spreads the bits of the hash code, so that similar keys get unrelated priorities.
+ */
+private fun mix(hash: Int): Int {
+    var h = hash * -0x61c88647
+    h = h xor (h ushr 16)
+    h *= -0x7a143595
+    return h xor (h ushr 13)
+}
+
+/**
+ * Iterates over the values of a tree in the order of keys.
+ */
+private class InOrder<V>(root: Node<*, V>?) : Iterator<V> {
+
+    private val path = ArrayDeque<Node<*, V>>()
+
+    init {
+        descend(root)
+    }
+
+    override fun hasNext(): Boolean = path.isNotEmpty()
+
+    override fun next(): V {
+        val node = path.removeLastOrNull() ?: throw NoSuchElementException()
+        descend(node.right)
+        return node.value
+    }
+
+    private fun descend(from: Node<*, V>?) {
+        var node = from
+        while (node != null) {
+            path.addLast(node)
+            node = node.left
+        }
+    }
+}
@@ -43,6 +43,7 @@ import androidx.compose.ui.Alignment
 import androidx.compose.ui.Modifier
 import androidx.compose.ui.text.style.TextOverflow
 import androidx.compose.ui.unit.dp
+import io.spine.examples.chatspn.chat.ChatActivity
 import io.spine.examples.chatspn.chat.ChatCard
 import io.spine.examples.chatspn.desktop.component.Avatar
 import io.spine.examples.chatspn.desktop.name
@@ -53,12 +54,14 @@ import io.spine.examples.chatspn.message.MessageView
  * Displays the chat panel.
  *
  * @param chat card of the chat to display
+ * @param activity the latest activity in the chat, or `null` if it is not known yet
  * @param isHighlighted whether the panel is highlighted
  * @param onClick callback that will be triggered when the panel clicked
  */
 @Composable
 public fun ChatPanel(
     chat: ChatCard,
+    activity: ChatActivity?,
     isHighlighted: Boolean,
     onClick: () -> Unit
 ) {
@@ -74,7 +77,7 @@ public fun ChatPanel(
             ),
         Alignment.CenterStart,
     ) {
-        ChatPanelContent(chat)
+        ChatPanelContent(chat, activity)
     }
 }
 
@@ -82,7 +85,8 @@ public fun ChatPanel(
  * Displays the chat panel content.
  */
 @Composable
-private fun ChatPanelContent(chat: ChatCard) {
+private fun ChatPanelContent(chat: ChatCard, activity: ChatActivity?) {
+    val lastMessage = activity?.lastMessage ?: MessageView.getDefaultInstance()
     Row(
         Modifier.padding(8.dp),
         verticalAlignment = Alignment.CenterVertically
@@ -100,14 +104,14 @@ private fun ChatPanelContent(chat: ChatCard) {
                     style = MaterialTheme.typography.headlineMedium,
                 )
                 Text(
-                    text = chat.whenLastMessagePosted(),
+                    text = lastMessage.whenPostedTime(),
                     color = MaterialTheme.colorScheme.onSecondary,
                     style = MaterialTheme.typography.bodySmall,
                 )
             }
             Spacer(Modifier.size(9.dp))
             Text(
-                text = chat.lastMessage.content.replace("\\s".toRegex(), " "),
+                text = lastMessage.content.replace("\\s".toRegex(), " "),
                 color = MaterialTheme.colorScheme.onSecondary,
                 style = MaterialTheme.typography.bodyMedium,
                 maxLines = 1,
@@ -121,7 +125,7 @@ private fun ChatPanelContent(chat: ChatCard) {
  * Returns a string `hh:mm` of the time when the last message was posted in the chat,
  * or an empty string if there is no last message in the chat.
  */
-private fun ChatCard.whenLastMessagePosted(): String {
-    return if (this.lastMessage.equals(MessageView.getDefaultInstance())) ""
-    else this.lastMessage.whenPosted.toHoursAndMinutes()
+private fun MessageView.whenPostedTime(): String {
+    return if (this.equals(MessageView.getDefaultInstance())) ""
+    else this.whenPosted.toHoursAndMinutes()
 }
@@ -161,6 +161,7 @@ private fun UserSearchField(model: NavigationModel) {
 @Composable
 private fun ChatList(model: NavigationModel) {
     val chats by model.chats().collectAsState()
+    val activity by model.activity().collectAsState()
     val selectedChat = model.selectedChat
     LazyColumn(
         Modifier.fillMaxSize()
@@ -169,6 +170,7 @@ private fun ChatList(model: NavigationModel) {
             item(key = index) {
                 ChatPanel(
                     chat,
+                    activity[chat.chatId],
                     chat.chatId.equals(selectedChat.value)
                 ) {
                     model.selectChat(chat.chatId)
@@ -32,17 +32,20 @@ import io.spine.core.UserId
 import io.spine.examples.chatspn.ChatId
 import io.spine.examples.chatspn.account.UserProfile
 import io.spine.examples.chatspn.chat.Chat.ChatType.CT_PERSONAL
+import io.spine.examples.chatspn.chat.ChatActivity
 import io.spine.examples.chatspn.chat.ChatCard
 import io.spine.examples.chatspn.desktop.DesktopClient
 import io.spine.examples.chatspn.desktop.remove
 import kotlinx.coroutines.flow.MutableStateFlow
 import kotlinx.coroutines.flow.StateFlow
+import kotlinx.coroutines.flow.update
 
 /**
  * UI Model for the navigation.
  */
 public class NavigationModel(private val client: DesktopClient) {
     private val chatCards = MutableStateFlow<ChatList>(listOf())
+    private val chatActivity = MutableStateFlow<ChatActivityMap>(mapOf())
     public val selectedChat: MutableState<ChatId> = mutableStateOf(ChatId.getDefaultInstance())
     public val userSearchFieldState: UserSearchFieldState = UserSearchFieldState()
     public val currentPage: MutableState<Page> = mutableStateOf(Page.REGISTRATION)
@@ -54,9 +57,13 @@ public class NavigationModel(private val client: DesktopClient) {
 
     /**
      * Reads chat previews and subscribes to their updates.
+     *
+     * The activity in the chats is observed separately from the chat cards.
      */
     public fun observeChats() {
-        chatCards.value = client.readChats()
+        val cards = client.readChats()
+        chatCards.value = cards
+        observeActivity(cards.map { card -> card.chatId })
         client.observeChats(
             { chatCard -> updateChatsState(chatCard) },
             { removedCardId ->
@@ -65,6 +72,8 @@ public class NavigationModel(private val client: DesktopClient) {
                     removedCardId.equals(card.cardId)
                 }
                 chatCards.value = chats.remove(cardIndex)
+                client.stopObservingChatActivity(removedCardId.chat)
+                chatActivity.update { activity -> activity - removedCardId.chat }
             }
         )
     }
@@ -76,6 +85,41 @@ public class NavigationModel(private val client: DesktopClient) {
         return chatCards
     }
 
+    /**
+     * Returns the state of the latest activity in the user's chats.
+     */
+    public fun activity(): StateFlow<ChatActivityMap> {
+        return chatActivity
+    }
+
+    /**
+     * Subscribes to the activity in the chats and reads its current state.
+     *
+     * The chats whose activity is already observed are not subscribed to again.
+     *
+     * @param chats IDs of the chats to observe the activity in
+     */
+    private fun observeActivity(chats: List<ChatId>) {
+        client.observeChatActivity(chats) { activity -> updateActivityState(activity) }
+        client.readChatActivity(chats).forEach { activity -> updateActivityState(activity) }
+    }
+
+    /**
+     * Updates the state of the chat activity, unless a newer one is already known.
+     *
+     * @param activity the activity in the chat
+     */
+    private fun updateActivityState(activity: ChatActivity) {
+        chatActivity.update { known ->
+            val current = known[activity.id]
+            if (null != current && current.sequence >= activity.sequence) {
+                known
+            } else {
+                known + (activity.id to activity)
+            }
+        }
+    }
+
     /**
      * Selects provided chat and opens the 'Chat' page.
      *
@@ -112,6 +156,7 @@ public class NavigationModel(private val client: DesktopClient) {
             chatCards.value = newChats
         } else {
             chatCards.value = chats + chat
+            observeActivity(listOf(chat.chatId))
         }
     }
 
@@ -233,6 +278,11 @@ public enum class Page {
  */
 public typealias ChatList = List<ChatCard>
 
+/**
+ * The latest activity in the chats by chat ID.
+ */
+public typealias ChatActivityMap = Map<ChatId, ChatActivity>
+
 /**
  * Finds chat in the list by ID.
  *
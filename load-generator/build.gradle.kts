@@ -0,0 +1,103 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+import io.spine.examples.chatspn.dependency.HdrHistogram
+
+/*
+ * Add the Gradle plugin for bootstrapping projects built with Spine.
+ * See: https://github.com/SpineEventEngine/bootstrap
+ */
+plugins {
+    `kotlin-dsl`
+    id("io.spine.tools.gradle.bootstrap")
+    application
+}
+
+spine {
+    /*
+     * Add and configure required dependencies for developing a Spine-based Java server.
+     * See: https://github.com/SpineEventEngine/bootstrap#java-projects
+     */
+    enableJava().server()
+    forceDependencies = true
+}
+
+dependencies {
+    implementation(project(":model"))
+    implementation(project(":server"))
+    implementation(HdrHistogram.lib)
+}
+
+application {
+    mainClass.set("io.spine.examples.chatspn.loadgen.LoadGenerator")
+}
+
+/*
+ * Returns the system properties passed to Gradle whose names start with one of the prefixes.
+ */
+fun propertiesStartingWith(vararg prefixes: String) = System.getProperties()
+    .filterKeys { key -> prefixes.any { key.toString().startsWith(it) } }
+    .mapKeys { it.key.toString() }
+
+/*
+ * Passes the `loadgen.*` system properties to the load generator,
+ * e.g. `./gradlew :load-generator:run -Dloadgen.users=5000`.
+ */
+tasks.named<JavaExec>("run") {
+    systemProperties(propertiesStartingWith("loadgen."))
+}
+
+/*
+ * Runs the same load against the server on platform and on virtual threads,
+ * e.g. `./gradlew :load-generator:compareThreadModes -Dloadgen.users=5000`.
+ * The `chatspn.*` system properties configure the server.
+ *
+ * The servers run on the Java at the `loadgen.javaHome` directory, which must be
+ * Java 21 or newer for the virtual threads, e.g. `-Dloadgen.javaHome=/opt/jdk-21`.
+ * The Gradle build itself may run on an older Java. The comparison fails if the servers
+ * cannot run on the virtual threads.
+ */
+tasks.register<JavaExec>("compareThreadModes") {
+    group = "application"
+    description = "Compares the server on platform and on virtual threads under the same load."
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("io.spine.examples.chatspn.loadgen.ThreadModeComparison")
+    systemProperties(propertiesStartingWith("loadgen.", "chatspn."))
+}
+
+/*
+ * Runs the same load against clusters of one and more server processes,
+ * e.g. `./gradlew :load-generator:compareNodeCounts -Dloadgen.cluster=1,2,4`.
+ * The `chatspn.*` system properties configure each node.
+ * Each node and the load generator run in JVMs of their own.
+ */
+tasks.register<JavaExec>("compareNodeCounts") {
+    group = "application"
+    description = "Compares the throughput of the server clusters of different sizes."
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("io.spine.examples.chatspn.loadgen.MultiNodeHarness")
+    systemProperties(propertiesStartingWith("loadgen.", "chatspn."))
+}
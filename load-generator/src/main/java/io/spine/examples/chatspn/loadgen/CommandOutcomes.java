@@ -0,0 +1,175 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.loadgen;
+
+import com.google.protobuf.Message;
+import io.spine.base.CommandMessage;
+import io.spine.base.EventMessage;
+import io.spine.base.EventMessageField;
+import io.spine.base.Field;
+import io.spine.client.Client;
+import io.spine.client.EventFilter;
+import io.spine.client.Subscription;
+import io.spine.core.UserId;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Posts commands and measures the time until their outcome is observed.
+ *
+ * <p>Follows the approach of the desktop client: before posting a command,
+ * subscribes to its success and failure events filtered by the ID of the operation,
+ * and cancels both subscriptions once either event arrives or the timeout expires.
+ */
+final class CommandOutcomes {
+
+    private static final Field ID = Field.named("id");
+
+    private final LatencyStats stats;
+    private final ScheduledExecutorService timer;
+    private final Duration timeout;
+
+    CommandOutcomes(LatencyStats stats, ScheduledExecutorService timer, Duration timeout) {
+        this.stats = stats;
+        this.timer = timer;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Posts the command and records the latency of its outcome.
+     *
+     * @param client
+     *         the client to post the command with
+     * @param actor
+     *         the user who posts the command
+     * @param operation
+     *         the operation started by the command
+     * @param command
+     *         the command to post
+     * @param id
+     *         the ID of the success and failure events
+     * @param success
+     *         the type of the event emitted when the operation succeeds
+     * @param failure
+     *         the type of the event emitted when the operation fails,
+     *         or {@code null} if the operation cannot fail
+     * @param onSuccess
+     *         will be called with the success event
+     */
+    <S extends EventMessage> void post(Client client,
+                                       UserId actor,
+                                       Operation operation,
+                                       CommandMessage command,
+                                       Message id,
+                                       Class<S> success,
+                                       @Nullable Class<? extends EventMessage> failure,
+                                       Consumer<S> onSuccess) {
+        var outcome = new Outcome(client);
+        outcome.add(observe(client, actor, success, id, event -> {
+            var elapsed = outcome.elapsedNanos();
+            if (outcome.complete()) {
+                stats.succeeded(operation, elapsed);
+                onSuccess.accept(event);
+            }
+        }));
+        if (failure != null) {
+            outcome.add(observe(client, actor, failure, id, event -> {
+                if (outcome.complete()) {
+                    stats.failed(operation);
+                }
+            }));
+        }
+        outcome.start();
+        client.onBehalfOf(actor)
+              .command(command)
+              .postAndForget();
+        timer.schedule(() -> {
+            if (outcome.complete()) {
+                stats.timedOut(operation);
+            }
+        }, timeout.toNanos(), NANOSECONDS);
+    }
+
+    private static <E extends EventMessage> Subscription
+    observe(Client client, UserId actor, Class<E> event, Message id, Consumer<E> consumer) {
+        return client.onBehalfOf(actor)
+                     .subscribeToEvent(event)
+                     .where(EventFilter.eq(new EventMessageField(ID), id))
+                     .observe(consumer)
+                     .post();
+    }
+
+    /**
+     * The pending outcome of a single command.
+     */
+    private static final class Outcome {
+
+        private final Client client;
+        private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+        private final AtomicBoolean completed = new AtomicBoolean();
+        private volatile long startedAt;
+
+        private Outcome(Client client) {
+            this.client = client;
+        }
+
+        private void add(Subscription subscription) {
+            subscriptions.add(subscription);
+        }
+
+        private void start() {
+            startedAt = System.nanoTime();
+        }
+
+        private long elapsedNanos() {
+            return System.nanoTime() - startedAt;
+        }
+
+        /**
+         * Marks the outcome as received and cancels the subscriptions.
+         *
+         * @return {@code true} if the outcome has been received for the first time,
+         *         {@code false} if it was received before
+         */
+        private boolean complete() {
+            if (!completed.compareAndSet(false, true)) {
+                return false;
+            }
+            subscriptions.forEach(subscription -> client.subscriptions()
+                                                        .cancel(subscription));
+            return true;
+        }
+    }
+}
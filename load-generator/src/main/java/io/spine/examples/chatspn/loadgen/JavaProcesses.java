@@ -0,0 +1,237 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package io.spine.examples.chatspn.loadgen;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Starts and stops the Java processes of the servers and the load generators
+ * run by the comparisons.
+ *
+ * <p>The processes run with the same classpath as this JVM. They run on the Java
+ * installed at the {@code loadgen.javaHome} directory if the property is set, and on
+ * the same Java as this JVM otherwise. Their output goes to the output of this JVM.
+ */
+final class JavaProcesses {
+
+    /**
+     * The name of the system property which sets the Java home of the started processes.
+     */
+    static final String JAVA_HOME_PROPERTY = "loadgen.javaHome";
+
+    private static final String VERSION_KEY = "JAVA_VERSION=";
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(1);
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(10);
+
+    /**
+     * Prevents instantiation of this utility class.
+     */
+    private JavaProcesses() {
+    }
+
+    /**
+     * Starts a new JVM running the main method of the given class.
+     *
+     * @param mainClass
+     *         the class whose main method to run
+     * @param options
+     *         the command-line options of the JVM, such as the system properties
+     */
+    static Process start(Class<?> mainClass, List<String> options) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(javaHome().resolve("bin")
+                              .resolve("java")
+                              .toString());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.addAll(options);
+        command.add(mainClass.getName());
+        return new ProcessBuilder(command)
+                .inheritIO()
+                .start();
+    }
+
+    /**
+     * Returns the home directory of the Java which runs the started processes.
+     */
+    static Path javaHome() {
+        var home = System.getProperty(JAVA_HOME_PROPERTY, System.getProperty("java.home"));
+        return Paths.get(home);
+    }
+
+    /**
+     * Returns the feature version of the Java which runs the started processes.
+     *
+     * <p>The version is read from the {@code release} file of the Java home.
+     *
+     * @throws IllegalStateException
+     *         if the Java home has no {@code release} file which tells the version
+     */
+    static int javaVersion() throws IOException {
+        var release = javaHome().resolve("release");
+        if (Files.exists(release)) {
+            for (var line : Files.readAllLines(release)) {
+                if (line.startsWith(VERSION_KEY)) {
+                    var version = line.substring(VERSION_KEY.length())
+                                      .replace("\"", "");
+                    return featureOf(version);
+                }
+            }
+        }
+        throw new IllegalStateException(String.format(
+                "Unable to tell the version of Java at `%s`.", javaHome()));
+    }
+
+    /**
+     * Returns the feature version of the given Java version,
+     * which is the second number for Java 8 and earlier, such as {@code 1.8.0_292}.
+     */
+    private static int featureOf(String version) {
+        var numbers = version.split("[._-]");
+        var first = Integer.parseInt(numbers[0]);
+        return first == 1 && numbers.length > 1 ? Integer.parseInt(numbers[1]) : first;
+    }
+
+    /**
+     * Returns the system properties of this JVM whose names start with the given prefix
+     * as the command-line options, except for the given ones.
+     */
+    static List<String> systemProperties(String prefix, Set<String> except) {
+        List<String> options = new ArrayList<>();
+        System.getProperties()
+              .forEach((name, value) -> {
+                  var key = name.toString();
+                  if (key.startsWith(prefix) && !except.contains(key)) {
+                      options.add(property(key, value));
+                  }
+              });
+        return options;
+    }
+
+    /**
+     * Returns the command-line option which sets the system property.
+     */
+    static String property(String name, Object value) {
+        return "-D" + name + '=' + value;
+    }
+
+    /**
+     * Waits until the server process accepts the connections on the given port.
+     *
+     * @throws IllegalStateException
+     *         if the process exits or does not start accepting connections in time
+     */
+    static void awaitPort(Process server, int port) throws InterruptedException {
+        var deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (!accepts(port)) {
+            if (!server.isAlive()) {
+                throw new IllegalStateException(String.format(
+                        "The server at the port %d has exited with the code %d.",
+                        port, server.exitValue()));
+            }
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException(String.format(
+                        "The server at the port %d has not started in %d s.",
+                        port, STARTUP_TIMEOUT.toSeconds()));
+            }
+            MILLISECONDS.sleep(200);
+        }
+    }
+
+    private static boolean accepts(int port) {
+        var address = new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+        try (var socket = new Socket()) {
+            socket.connect(address);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Waits until the process exits.
+     *
+     * @throws IllegalStateException
+     *         if the process exits with a non-zero code
+     */
+    static void awaitExit(Process process) throws InterruptedException {
+        var code = process.waitFor();
+        if (code != 0) {
+            throw new IllegalStateException(String.format(
+                    "The process %d has exited with the code %d.", process.pid(), code));
+        }
+    }
+
+    /**
+     * Runs the {@link LoadGenerator} in a new JVM and waits until it exits.
+     *
+     * @param options
+     *         the command-line options of the JVM which define the load
+     * @return the number of successful operations per second
+     * @throws IllegalStateException
+     *         if the load generator exits with a non-zero code
+     */
+    static double generateLoad(List<String> options) throws IOException, InterruptedException {
+        var result = Files.createTempFile("chatspn-load", ".txt");
+        try {
+            List<String> withResult = new ArrayList<>(options);
+            withResult.add(property(LoadGenerator.RESULT_PROPERTY, result));
+            awaitExit(start(LoadGenerator.class, withResult));
+            return Double.parseDouble(Files.readString(result)
+                                           .trim());
+        } finally {
+            Files.deleteIfExists(result);
+        }
+    }
+
+    /**
+     * Asks the processes to stop, and kills those which do not stop in time.
+     */
+    static void stop(List<Process> processes) throws InterruptedException {
+        processes.forEach(Process::destroy);
+        for (var process : processes) {
+            if (!process.waitFor(SHUTDOWN_TIMEOUT.toSeconds(), SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.loadgen;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.lang.String.format;
+
+/**
+ * Collects latencies and outcomes of the operations performed by simulated users.
+ *
+ * <p>The latency of an operation is the time between posting the command
+ * and receiving the event which tells about the command outcome.
+ * Only successful operations contribute to the latency distribution.
+ */
+final class LatencyStats {
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final double NANOS_IN_MILLI = 1_000_000.0;
+
+    private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> failures = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> timeouts = new EnumMap<>(Operation.class);
+
+    LatencyStats() {
+        for (var operation : Operation.values()) {
+            latencies.put(operation, new ConcurrentHistogram(SIGNIFICANT_DIGITS));
+            failures.put(operation, new LongAdder());
+            timeouts.put(operation, new LongAdder());
+        }
+    }
+
+    /**
+     * Records the successful operation which took the provided number of nanoseconds.
+     */
+    void succeeded(Operation operation, long nanos) {
+        latencies.get(operation)
+                 .recordValue(nanos);
+    }
+
+    /**
+     * Records the operation rejected by the server.
+     */
+    void failed(Operation operation) {
+        failures.get(operation)
+                .increment();
+    }
+
+    /**
+     * Records the operation which outcome was not received in time.
+     */
+    void timedOut(Operation operation) {
+        timeouts.get(operation)
+                .increment();
+    }
+
+    /**
+     * Returns the number of successful operations of all kinds.
+     */
+    long totalSucceeded() {
+        return latencies.values()
+                        .stream()
+                        .mapToLong(Histogram::getTotalCount)
+                        .sum();
+    }
+
+    /**
+     * Renders the statistics as a table, one line per operation.
+     *
+     * @param elapsed
+     *         the time during which the statistics were collected,
+     *         used to calculate throughput
+     */
+    String report(Duration elapsed) {
+        var seconds = Math.max(elapsed.toMillis(), 1) / 1000.0;
+        var report = new StringBuilder(format(
+                "%-22s %10s %8s %8s %10s %9s %9s %9s %9s%n",
+                "operation", "succeeded", "failed", "timeout", "ops/s",
+                "p50 ms", "p99 ms", "p999 ms", "max ms"));
+        for (var operation : Operation.values()) {
+            var histogram = latencies.get(operation)
+                                     .copy();
+            var succeeded = histogram.getTotalCount();
+            report.append(format(
+                    "%-22s %10d %8d %8d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    operation.command(),
+                    succeeded,
+                    failures.get(operation)
+                            .sum(),
+                    timeouts.get(operation)
+                            .sum(),
+                    succeeded / seconds,
+                    millis(histogram.getValueAtPercentile(50.0)),
+                    millis(histogram.getValueAtPercentile(99.0)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue())));
+        }
+        report.append(format("Total throughput: %.1f ops/s%n", totalSucceeded() / seconds));
+        return report.toString();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / NANOS_IN_MILLI;
+    }
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.loadgen;
+
+import com.google.common.collect.ImmutableList;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.spine.client.Client;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Generates load on a ChatSPN server running on the localhost.
+ *
+ * <p>Registers the configured number of simulated users, and then lets each of them
+ * perform operations at the configured rate for the configured duration.
+ * Prints the throughput and the latency percentiles of the operations
+ * every {@linkplain #REPORT_PERIOD few seconds} and once the load is over.
+ *
+ * <p>Start the server with {@code ./gradlew :server:run}, and then the generator with
+ * {@code ./gradlew :load-generator:run -Dloadgen.users=1000}. See {@link LoadProfile}
+ * for the list of supported parameters.
+ *
+ * <p>To compare the server on platform and on virtual threads, run
+ * the {@link ThreadModeComparison} instead. To see how the throughput grows with the number
+ * of server nodes, run the {@link MultiNodeHarness}.
+ */
+public final class LoadGenerator {
+
+    /**
+     * The name of the system property which sets the file to write the throughput to
+     * once the load is over.
+     */
+    static final String RESULT_PROPERTY = "loadgen.result";
+
+    private static final String HOST = "localhost";
+    private static final Duration REPORT_PERIOD = Duration.ofSeconds(10);
+
+    private final LoadProfile profile;
+    private final LatencyStats stats = new LatencyStats();
+    private final LongAdder cardUpdates = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final List<ManagedChannel> channels = new ArrayList<>();
+    private final List<Client> clients = new ArrayList<>();
+    private final List<List<Client>> nodes = new ArrayList<>();
+    private final ScheduledExecutorService scheduler;
+
+    private LoadGenerator(LoadProfile profile) {
+        this.profile = profile;
+        var threads = Runtime.getRuntime()
+                             .availableProcessors();
+        this.scheduler = Executors.newScheduledThreadPool(threads);
+    }
+
+    /**
+     * Runs the load generator with the profile defined by the system properties.
+     *
+     * <p>If the {@link #RESULT_PROPERTY} is set, writes the number of successful operations
+     * per second to the file it names.
+     */
+    public static void main(String[] args) throws InterruptedException, IOException {
+        var throughput = generate(LoadProfile.fromSystemProperties());
+        var result = System.getProperty(RESULT_PROPERTY);
+        if (result != null) {
+            Files.writeString(Paths.get(result), String.valueOf(throughput));
+        }
+    }
+
+    /**
+     * Generates the load with the given profile and prints its statistics.
+     *
+     * @return the number of successful operations per second,
+     *         or {@code 0} if the users could not be registered
+     */
+    private static double generate(LoadProfile profile) throws InterruptedException {
+        var generator = new LoadGenerator(profile);
+        try {
+            return generator.run();
+        } finally {
+            generator.shutdown();
+        }
+    }
+
+    private double run() throws InterruptedException {
+        System.out.printf("Generating load on %s:%d: %s.%n", HOST, profile.port(), profile);
+        connect();
+        var outcomes = new CommandOutcomes(stats, scheduler, profile.timeout());
+        var users = register(outcomes);
+        if (users.size() < 2) {
+            System.out.println("Not enough users have been registered, stopping.");
+            return 0;
+        }
+        if (profile.observe()) {
+            users.forEach(user -> user.observeChats(cardUpdates));
+        }
+        var start = System.nanoTime();
+        schedule(users);
+        var reporting = scheduler.scheduleAtFixedRate(
+                () -> report(start), REPORT_PERIOD.toNanos(), REPORT_PERIOD.toNanos(), NANOSECONDS
+        );
+        SECONDS.sleep(profile.duration()
+                             .toSeconds());
+        reporting.cancel(false);
+        scheduler.shutdownNow();
+        System.out.println("Load is over.");
+        var elapsed = report(start);
+        return stats.totalSucceeded() / (Math.max(elapsed.toMillis(), 1) / 1000.0);
+    }
+
+    /**
+     * Connects to each node through the configured number of channels.
+     *
+     * <p>The nodes listen on the consecutive ports starting with the port of the profile.
+     */
+    private void connect() {
+        for (var node = 0; node < profile.nodes(); node++) {
+            List<Client> nodeClients = new ArrayList<>();
+            for (var i = 0; i < profile.channels(); i++) {
+                var channel = ManagedChannelBuilder
+                        .forAddress(HOST, profile.port() + node)
+                        .usePlaintext()
+                        .build();
+                channels.add(channel);
+                var client = Client.usingChannel(channel)
+                                   .build();
+                clients.add(client);
+                nodeClients.add(client);
+            }
+            nodes.add(nodeClients);
+        }
+    }
+
+    /**
+     * Registers the simulated users and waits until their accounts are created.
+     *
+     * @return the users who have been registered in time
+     */
+    private List<SimulatedUser> register(CommandOutcomes outcomes)
+            throws InterruptedException {
+        List<SimulatedUser> users = new ArrayList<>(profile.users());
+        var registration = new CountDownLatch(profile.users());
+        var routing = new NodeClients(nodes);
+        for (var i = 0; i < profile.users(); i++) {
+            var user = new SimulatedUser(routing, outcomes, profile, i);
+            users.add(user);
+            user.register(registration::countDown);
+        }
+        var completed = registration.await(profile.timeout()
+                                                  .toSeconds(), SECONDS);
+        var registered = users.stream()
+                              .filter(SimulatedUser::registered)
+                              .collect(toList());
+        if (!completed) {
+            System.out.printf("Only %d of %d users have been registered in time.%n",
+                              registered.size(), users.size());
+        }
+        return ImmutableList.copyOf(registered);
+    }
+
+    /**
+     * Schedules the operations of the users at the configured rate.
+     *
+     * <p>The first operations are spread randomly over the interval
+     * between operations to avoid bursts. A failure to post an operation is counted
+     * and does not stop further operations of the user.
+     */
+    private void schedule(List<SimulatedUser> users) {
+        var interval = profile.interval()
+                              .toNanos();
+        for (var user : users) {
+            var delay = ThreadLocalRandom.current()
+                                         .nextLong(interval);
+            var random = new Random();
+            Runnable action = () -> {
+                try {
+                    user.act(random, users);
+                } catch (RuntimeException e) {
+                    errors.increment();
+                }
+            };
+            scheduler.scheduleAtFixedRate(action, delay, interval, NANOSECONDS);
+        }
+    }
+
+    /**
+     * Prints the statistics collected since the given time.
+     *
+     * @return the time elapsed since the start of the load
+     */
+    @CanIgnoreReturnValue
+    private Duration report(long start) {
+        var elapsed = Duration.ofNanos(System.nanoTime() - start);
+        System.out.printf("%nAfter %d s:%n%s", elapsed.toSeconds(), stats.report(elapsed));
+        if (profile.observe()) {
+            System.out.printf("Chat card updates received: %d%n", cardUpdates.sum());
+        }
+        System.out.printf("Operations failed to post: %d%n", errors.sum());
+        return elapsed;
+    }
+
+    private void shutdown() {
+        scheduler.shutdownNow();
+        clients.forEach(Client::close);
+        channels.forEach(ManagedChannel::shutdownNow);
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.loadgen;
+
+import java.time.Duration;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.spine.client.ConnectionConstants.DEFAULT_CLIENT_SERVICE_PORT;
+
+/**
+ * The parameters of the generated load.
+ *
+ * <p>The parameters are read from the system properties:
+ * <ul>
+ *     <li>{@code loadgen.port} — the port of the server on the localhost;
+ *     <li>{@code loadgen.nodes} — the number of server nodes which split the chats among
+ *         themselves and listen on the consecutive ports starting with {@code loadgen.port};
+ *     <li>{@code loadgen.users} — the number of simulated users;
+ *     <li>{@code loadgen.duration} — the duration of the load in seconds;
+ *     <li>{@code loadgen.rate} — the number of operations per second performed by each user;
+ *     <li>{@code loadgen.groupSize} — the number of members in created group chats;
+ *     <li>{@code loadgen.weights} — the comma-separated relative weights of sending, editing
+ *         and removing messages, creating personal and group chats;
+ *     <li>{@code loadgen.observe} — whether users observe their chats;
+ *     <li>{@code loadgen.channels} — the number of gRPC channels shared by the users;
+ *     <li>{@code loadgen.timeout} — the time in seconds to wait for the outcome of a command.
+ * </ul>
+ */
+final class LoadProfile {
+
+    private static final String PREFIX = "loadgen.";
+
+    private final int port;
+    private final int nodes;
+    private final int users;
+    private final Duration duration;
+    private final double rate;
+    private final int groupSize;
+    private final int[] weights;
+    private final boolean observe;
+    private final int channels;
+    private final Duration timeout;
+
+    private LoadProfile(int port, int nodes, int users, Duration duration, double rate,
+                        int groupSize, int[] weights, boolean observe, int channels,
+                        Duration timeout) {
+        this.port = port;
+        this.nodes = nodes;
+        this.users = users;
+        this.duration = duration;
+        this.rate = rate;
+        this.groupSize = groupSize;
+        this.weights = weights;
+        this.observe = observe;
+        this.channels = channels;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Reads the profile from the system properties, using defaults for the missing ones.
+     */
+    static LoadProfile fromSystemProperties() {
+        var weights = parseWeights(property("weights", "70,15,10,4,1"));
+        var profile = new LoadProfile(
+                intProperty("port", DEFAULT_CLIENT_SERVICE_PORT),
+                intProperty("nodes", 1),
+                intProperty("users", 1000),
+                Duration.ofSeconds(intProperty("duration", 60)),
+                Double.parseDouble(property("rate", "0.5")),
+                intProperty("groupSize", 5),
+                weights,
+                Boolean.parseBoolean(property("observe", "true")),
+                intProperty("channels", 8),
+                Duration.ofSeconds(intProperty("timeout", 10))
+        );
+        checkArgument(profile.nodes > 0, "At least one node is required.");
+        checkArgument(profile.users > 1, "At least two users are required.");
+        checkArgument(profile.rate > 0, "The rate of operations must be positive.");
+        checkArgument(profile.groupSize > 1, "A group chat needs at least two members.");
+        checkArgument(profile.channels > 0, "At least one channel is required.");
+        return profile;
+    }
+
+    private static int[] parseWeights(String value) {
+        var parts = value.split(",");
+        checkArgument(parts.length == 5,
+                      "Expected five weights of operations, got `%s`.", value);
+        var weights = new int[parts.length];
+        for (var i = 0; i < parts.length; i++) {
+            weights[i] = Integer.parseInt(parts[i].trim());
+            checkArgument(weights[i] >= 0, "Weights of operations cannot be negative.");
+        }
+        return weights;
+    }
+
+    private static String property(String name, String defaultValue) {
+        return System.getProperty(PREFIX + name, defaultValue);
+    }
+
+    private static int intProperty(String name, int defaultValue) {
+        return Integer.parseInt(property(name, String.valueOf(defaultValue)));
+    }
+
+    /**
+     * Returns the port of the first node.
+     */
+    int port() {
+        return port;
+    }
+
+    int nodes() {
+        return nodes;
+    }
+
+    int users() {
+        return users;
+    }
+
+    Duration duration() {
+        return duration;
+    }
+
+    /**
+     * Returns the interval between operations of a single user.
+     */
+    Duration interval() {
+        return Duration.ofNanos((long) (1_000_000_000L / rate));
+    }
+
+    int groupSize() {
+        return groupSize;
+    }
+
+    /**
+     * Returns the relative weight of the operation.
+     *
+     * <p>Registration is performed once per user and has no weight.
+     */
+    int weightOf(Operation operation) {
+        switch (operation) {
+            case SEND_MESSAGE:
+                return weights[0];
+            case EDIT_MESSAGE:
+                return weights[1];
+            case REMOVE_MESSAGE:
+                return weights[2];
+            case CREATE_PERSONAL_CHAT:
+                return weights[3];
+            case CREATE_GROUP_CHAT:
+                return weights[4];
+            default:
+                return 0;
+        }
+    }
+
+    boolean observe() {
+        return observe;
+    }
+
+    int channels() {
+        return channels;
+    }
+
+    Duration timeout() {
+        return timeout;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "%d node(s), %d users, %.2f ops/s per user, %d s, group chats of %d, "
+                        + "%s observation",
+                nodes, users, rate, duration.toSeconds(), groupSize,
+                observe ? "with" : "without");
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.loadgen;
+
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import io.spine.examples.chatspn.server.ChatSpnServer;
+import io.spine.examples.chatspn.server.cluster.Cluster;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.spine.examples.chatspn.loadgen.JavaProcesses.property;
+import static io.spine.examples.chatspn.loadgen.JavaProcesses.systemProperties;
+
+/**
+ * Shows how the throughput of ChatSPN grows with the number of server nodes.
+ *
+ * <p>For each number of nodes listed in the {@code loadgen.cluster} system property,
+ * e.g. {@code 1,2,4}, starts that many server processes on the localhost as the nodes
+ * of one {@link Cluster}, generates the load defined by the system properties against
+ * them from another JVM, and stops them. Thus, neither the load generator nor this JVM
+ * share the heap, the JIT and the CPU time with the nodes. Once all the runs are over,
+ * prints the throughput of each run and its ratio to the throughput of the first run.
+ * See {@link LoadProfile} for the list of supported parameters.
+ *
+ * <p>Before the measured run, the nodes are warmed up by the same load lasting
+ * {@code loadgen.warmup} seconds, 30 by default.
+ *
+ * <p>The nodes listen for the clients on the consecutive ports starting
+ * with {@code loadgen.port}. The nodes share no signals, so they are not connected
+ * to each other. The {@code chatspn.*} system properties of this JVM configure the nodes.
+ * Each run starts with empty nodes.
+ *
+ * <p>The load is generated at a fixed rate, so the throughput grows with the nodes only while
+ * a single node cannot keep up with the load. Raise {@code loadgen.users} or
+ * {@code loadgen.rate} until it cannot.
+ */
+public final class MultiNodeHarness {
+
+    private static final String SERVER_PREFIX = "chatspn.";
+    private static final String LOAD_PREFIX = "loadgen.";
+    private static final String CLUSTER_PROPERTY = "loadgen.cluster";
+    private static final String NODES_PROPERTY = "loadgen.nodes";
+    private static final String WARMUP_PROPERTY = "loadgen.warmup";
+    private static final String DURATION_PROPERTY = "loadgen.duration";
+    private static final String PORT_PROPERTY = "chatspn.port";
+    private static final String METRICS_PORT_PROPERTY = "chatspn.metrics.port";
+    private static final int DEFAULT_METRICS_PORT = 9464;
+    private static final int DEFAULT_WARMUP_SECONDS = 30;
+
+    /**
+     * Prevents instantiation of this class.
+     */
+    private MultiNodeHarness() {
+    }
+
+    /**
+     * Runs the load against each number of nodes with the profile defined
+     * by the system properties.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        var profile = LoadProfile.fromSystemProperties();
+        var warmup = Integer.getInteger(WARMUP_PROPERTY, DEFAULT_WARMUP_SECONDS);
+        Map<Integer, Double> throughput = new LinkedHashMap<>();
+        for (var nodeCount : nodeCounts()) {
+            System.out.printf("%nStarting %d node(s).%n", nodeCount);
+            var nodes = startNodes(nodeCount, profile.port());
+            try {
+                for (var node = 0; node < nodeCount; node++) {
+                    JavaProcesses.awaitPort(nodes.get(node), profile.port() + node);
+                }
+                if (warmup > 0) {
+                    System.out.printf("Warming up for %d s.%n", warmup);
+                    generateLoad(nodeCount, warmup);
+                }
+                throughput.put(nodeCount, generateLoad(nodeCount, profile.duration()
+                                                                         .toSeconds()));
+            } finally {
+                JavaProcesses.stop(nodes);
+            }
+        }
+        printSummary(throughput);
+    }
+
+    private static List<Integer> nodeCounts() {
+        List<Integer> counts = new ArrayList<>();
+        for (var count : System.getProperty(CLUSTER_PROPERTY, "1,2")
+                               .split(",")) {
+            var nodes = Integer.parseInt(count.trim());
+            checkArgument(nodes > 0, "At least one node is required.");
+            counts.add(nodes);
+        }
+        return counts;
+    }
+
+    /**
+     * Starts the server processes of the cluster of the given size.
+     */
+    private static List<Process> startNodes(int nodeCount, int port) throws IOException {
+        var metricsPort = Integer.getInteger(METRICS_PORT_PROPERTY, DEFAULT_METRICS_PORT);
+        var serverProperties = systemProperties(SERVER_PREFIX, Set.of(
+                PORT_PROPERTY, METRICS_PORT_PROPERTY,
+                Cluster.NODE_PROPERTY, Cluster.NODES_PROPERTY, Cluster.TRANSPORT_PORTS_PROPERTY
+        ));
+        List<Process> nodes = new ArrayList<>();
+        for (var node = 0; node < nodeCount; node++) {
+            List<String> options = new ArrayList<>(serverProperties);
+            options.add(property(PORT_PROPERTY, port + node));
+            options.add(property(METRICS_PORT_PROPERTY, metricsPort + node));
+            options.add(property(Cluster.NODE_PROPERTY, node));
+            options.add(property(Cluster.NODES_PROPERTY, nodeCount));
+            nodes.add(JavaProcesses.start(ChatSpnServer.class, options));
+        }
+        return nodes;
+    }
+
+    /**
+     * Runs the load generator against the nodes in a separate JVM
+     * for the given number of seconds.
+     *
+     * @return the number of successful operations per second
+     */
+    @CanIgnoreReturnValue
+    private static double generateLoad(int nodeCount, long seconds)
+            throws IOException, InterruptedException {
+        List<String> options = new ArrayList<>(
+                systemProperties(LOAD_PREFIX, Set.of(NODES_PROPERTY, DURATION_PROPERTY))
+        );
+        options.add(property(NODES_PROPERTY, nodeCount));
+        options.add(property(DURATION_PROPERTY, seconds));
+        return JavaProcesses.generateLoad(options);
+    }
+
+    private static void printSummary(Map<Integer, Double> throughput) {
+        System.out.printf("%n%5s %10s %8s%n", "nodes", "ops/s", "speedup");
+        var first = throughput.values()
+                              .iterator()
+                              .next();
+        throughput.forEach((nodes, opsPerSecond) -> System.out.printf(
+                "%5d %10.1f %7.2fx%n",
+                nodes, opsPerSecond, first > 0 ? opsPerSecond / first : 0.0));
+    }
+}
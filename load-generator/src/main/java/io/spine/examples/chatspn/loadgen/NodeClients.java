@@ -0,0 +1,91 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.loadgen;
+
+import com.google.common.collect.ImmutableList;
+import io.spine.client.Client;
+import io.spine.examples.chatspn.ChatId;
+import io.spine.examples.chatspn.server.cluster.Cluster;
+
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.spine.examples.chatspn.server.cluster.Cluster.ACCOUNTS_NODE;
+
+/**
+ * The clients connected to the nodes of a ChatSPN {@link Cluster}.
+ *
+ * <p>Routes the commands of a chat to the node which serves the chat, and the commands
+ * of the user accounts to the node which serves the accounts. Each node is connected
+ * through several channels, and a user always talks to a node through the same channel.
+ */
+final class NodeClients {
+
+    private final ImmutableList<ImmutableList<Client>> nodes;
+
+    /**
+     * Creates the routing over the given clients.
+     *
+     * @param nodes
+     *         the clients of each node in the order of the node indexes
+     */
+    NodeClients(List<? extends List<Client>> nodes) {
+        checkArgument(!nodes.isEmpty(), "At least one node is required.");
+        this.nodes = nodes.stream()
+                          .map(ImmutableList::copyOf)
+                          .collect(toImmutableList());
+    }
+
+    /**
+     * Returns the client of the given user for the node which serves the user accounts.
+     */
+    Client ofAccounts(int user) {
+        return channelOf(nodes.get(ACCOUNTS_NODE), user);
+    }
+
+    /**
+     * Returns the client of the given user for the node which serves the chat.
+     */
+    Client ofChat(ChatId chat, int user) {
+        var node = Cluster.nodeOf(chat, nodes.size());
+        return channelOf(nodes.get(node), user);
+    }
+
+    /**
+     * Returns the clients of the given user for all the nodes.
+     */
+    ImmutableList<Client> ofAllNodes(int user) {
+        return nodes.stream()
+                    .map(clients -> channelOf(clients, user))
+                    .collect(toImmutableList());
+    }
+
+    private static Client channelOf(List<Client> clients, int user) {
+        return clients.get(user % clients.size());
+    }
+}
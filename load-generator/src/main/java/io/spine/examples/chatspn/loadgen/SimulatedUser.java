@@ -0,0 +1,357 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.loadgen;
+
+import io.spine.base.Identifier;
+import io.spine.client.Client;
+import io.spine.client.EntityStateFilter;
+import io.spine.core.UserId;
+import io.spine.examples.chatspn.AccountCreationId;
+import io.spine.examples.chatspn.ChatId;
+import io.spine.examples.chatspn.MessageId;
+import io.spine.examples.chatspn.MessageRemovalId;
+import io.spine.examples.chatspn.account.command.CreateAccount;
+import io.spine.examples.chatspn.account.event.AccountCreated;
+import io.spine.examples.chatspn.account.event.AccountNotCreated;
+import io.spine.examples.chatspn.chat.ChatCard;
+import io.spine.examples.chatspn.chat.ChatMember;
+import io.spine.examples.chatspn.chat.command.CreateGroupChat;
+import io.spine.examples.chatspn.chat.command.CreatePersonalChat;
+import io.spine.examples.chatspn.chat.event.GroupChatCreated;
+import io.spine.examples.chatspn.chat.event.PersonalChatCreated;
+import io.spine.examples.chatspn.message.MessageIds;
+import io.spine.examples.chatspn.message.command.EditMessage;
+import io.spine.examples.chatspn.message.command.RemoveMessage;
+import io.spine.examples.chatspn.message.command.SendMessage;
+import io.spine.examples.chatspn.message.event.MessageEdited;
+import io.spine.examples.chatspn.message.event.MessageEditingFailed;
+import io.spine.examples.chatspn.message.event.MessageRemovalFailed;
+import io.spine.examples.chatspn.message.event.MessageRemoved;
+import io.spine.examples.chatspn.message.event.MessageSent;
+import io.spine.examples.chatspn.message.rejection.SendingRejections.MessageCannotBeSent;
+import io.spine.net.EmailAddress;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+import static io.spine.examples.chatspn.loadgen.Operation.CREATE_GROUP_CHAT;
+import static io.spine.examples.chatspn.loadgen.Operation.CREATE_PERSONAL_CHAT;
+import static io.spine.examples.chatspn.loadgen.Operation.EDIT_MESSAGE;
+import static io.spine.examples.chatspn.loadgen.Operation.REGISTER;
+import static io.spine.examples.chatspn.loadgen.Operation.REMOVE_MESSAGE;
+import static io.spine.examples.chatspn.loadgen.Operation.SEND_MESSAGE;
+
+/**
+ * A user of ChatSPN which acts without a UI.
+ *
+ * <p>Mirrors the behaviour of the end-to-end {@code TestUser}: registers an account,
+ * creates chats with other users, sends, edits and removes its messages,
+ * and optionally observes its chat cards.
+ *
+ * <p>The user only knows about the chats which it has created or which were
+ * created with it, and only edits and removes its own messages.
+ *
+ * <p>The commands of a chat are posted to the node which serves the chat.
+ */
+final class SimulatedUser {
+
+    private static final Operation[] ACTIONS = {
+            SEND_MESSAGE, EDIT_MESSAGE, REMOVE_MESSAGE, CREATE_PERSONAL_CHAT, CREATE_GROUP_CHAT
+    };
+
+    private final NodeClients clients;
+    private final CommandOutcomes outcomes;
+    private final LoadProfile profile;
+    private final int number;
+    private final UserId id;
+    private final String name;
+    private final List<ChatId> chats = new CopyOnWriteArrayList<>();
+    private final List<SentMessage> messages = new ArrayList<>();
+    private volatile boolean registered;
+
+    SimulatedUser(NodeClients clients, CommandOutcomes outcomes, LoadProfile profile, int number) {
+        this.clients = clients;
+        this.outcomes = outcomes;
+        this.profile = profile;
+        this.number = number;
+        this.id = UserId
+                .newBuilder()
+                .setValue(Identifier.newUuid())
+                .vBuild();
+        this.name = "Load user " + number;
+    }
+
+    /**
+     * Creates the account of the user.
+     *
+     * @param onRegistered
+     *         will be called once the account is created
+     */
+    void register(Runnable onRegistered) {
+        var email = EmailAddress
+                .newBuilder()
+                .setValue(id.getValue() + "@loadgen.chatspn.local")
+                .vBuild();
+        var command = CreateAccount
+                .newBuilder()
+                .setId(AccountCreationId.generate())
+                .setUser(id)
+                .setEmail(email)
+                .setName(name)
+                .vBuild();
+        outcomes.post(clients.ofAccounts(number), id, REGISTER, command, command.getId(),
+                      AccountCreated.class, AccountNotCreated.class,
+                      event -> {
+                          registered = true;
+                          onRegistered.run();
+                      });
+    }
+
+    /**
+     * Subscribes to the updates of the user's chat cards on all the nodes.
+     *
+     * @param updates
+     *         counts the received updates
+     */
+    void observeChats(LongAdder updates) {
+        var byViewer = EntityStateFilter.eq(ChatCard.Field.viewer(), id);
+        for (var client : clients.ofAllNodes(number)) {
+            client.onBehalfOf(id)
+                  .subscribeTo(ChatCard.class)
+                  .where(byViewer)
+                  .observe(card -> updates.increment())
+                  .post();
+        }
+    }
+
+    /**
+     * Tells whether the user has been registered.
+     */
+    boolean registered() {
+        return registered;
+    }
+
+    /**
+     * Performs a random operation.
+     *
+     * <p>Operations are chosen according to their weights in the load profile.
+     * A user who has no chats creates a personal one. A user who has not sent
+     * any messages sends one instead of editing or removing.
+     *
+     * @param random
+     *         the source of randomness
+     * @param population
+     *         the registered users to create chats with
+     */
+    void act(Random random, List<SimulatedUser> population) {
+        var action = choose(random);
+        if (chats.isEmpty()) {
+            action = action == CREATE_GROUP_CHAT ? CREATE_GROUP_CHAT : CREATE_PERSONAL_CHAT;
+        } else if ((action == EDIT_MESSAGE || action == REMOVE_MESSAGE) && !hasMessages()) {
+            action = SEND_MESSAGE;
+        }
+        switch (action) {
+            case SEND_MESSAGE:
+                sendMessage(random);
+                break;
+            case EDIT_MESSAGE:
+                editMessage(random);
+                break;
+            case REMOVE_MESSAGE:
+                removeMessage(random);
+                break;
+            case CREATE_PERSONAL_CHAT:
+                createPersonalChat(random, population);
+                break;
+            case CREATE_GROUP_CHAT:
+                createGroupChat(random, population);
+                break;
+            default:
+                throw new IllegalStateException("Unexpected operation: " + action);
+        }
+    }
+
+    private Operation choose(Random random) {
+        var total = 0;
+        for (var action : ACTIONS) {
+            total += profile.weightOf(action);
+        }
+        var point = random.nextInt(Math.max(total, 1));
+        for (var action : ACTIONS) {
+            point -= profile.weightOf(action);
+            if (point < 0) {
+                return action;
+            }
+        }
+        return SEND_MESSAGE;
+    }
+
+    private void createPersonalChat(Random random, List<SimulatedUser> population) {
+        var other = someoneElse(random, population);
+        var command = CreatePersonalChat
+                .newBuilder()
+                .setId(ChatId.generate())
+                .setCreator(asMember())
+                .setMember(other.asMember())
+                .vBuild();
+        outcomes.post(clientOf(command.getId()), id, CREATE_PERSONAL_CHAT, command, command.getId(),
+                      PersonalChatCreated.class, null,
+                      event -> {
+                          joined(event.getId());
+                          other.joined(event.getId());
+                      });
+    }
+
+    private void createGroupChat(Random random, List<SimulatedUser> population) {
+        List<SimulatedUser> others = new ArrayList<>();
+        var wanted = Math.min(profile.groupSize() - 1, population.size() - 1);
+        while (others.size() < wanted) {
+            var other = someoneElse(random, population);
+            if (!others.contains(other)) {
+                others.add(other);
+            }
+        }
+        var builder = CreateGroupChat
+                .newBuilder()
+                .setId(ChatId.generate())
+                .setCreator(asMember())
+                .setName(name + "'s group");
+        others.forEach(other -> builder.addMember(other.asMember()));
+        var command = builder.vBuild();
+        outcomes.post(clientOf(command.getId()), id, CREATE_GROUP_CHAT, command, command.getId(),
+                      GroupChatCreated.class, null,
+                      event -> {
+                          joined(event.getId());
+                          others.forEach(other -> other.joined(event.getId()));
+                      });
+    }
+
+    private void sendMessage(Random random) {
+        var chat = chats.get(random.nextInt(chats.size()));
+        var command = SendMessage
+                .newBuilder()
+                .setId(MessageIds.generate(chat))
+                .setChat(chat)
+                .setUser(id)
+                .setContent(content(random))
+                .vBuild();
+        outcomes.post(clientOf(chat), id, SEND_MESSAGE, command, command.getId(),
+                      MessageSent.class, MessageCannotBeSent.class,
+                      event -> remember(new SentMessage(event.getId(), event.getChat())));
+    }
+
+    private void editMessage(Random random) {
+        var message = pickMessage(random, false);
+        var command = EditMessage
+                .newBuilder()
+                .setId(message.id)
+                .setChat(message.chat)
+                .setUser(id)
+                .setSuggestedContent(content(random))
+                .vBuild();
+        outcomes.post(clientOf(message.chat), id, EDIT_MESSAGE, command, command.getId(),
+                      MessageEdited.class, MessageEditingFailed.class,
+                      event -> {
+                      });
+    }
+
+    private void removeMessage(Random random) {
+        var message = pickMessage(random, true);
+        var removal = MessageRemovalId
+                .newBuilder()
+                .setId(message.id)
+                .vBuild();
+        var command = RemoveMessage
+                .newBuilder()
+                .setId(removal)
+                .setChat(message.chat)
+                .setUser(id)
+                .vBuild();
+        outcomes.post(clientOf(message.chat), id, REMOVE_MESSAGE, command, command.getId(),
+                      MessageRemoved.class, MessageRemovalFailed.class,
+                      event -> {
+                      });
+    }
+
+    private Client clientOf(ChatId chat) {
+        return clients.ofChat(chat, number);
+    }
+
+    private SimulatedUser someoneElse(Random random, List<SimulatedUser> population) {
+        SimulatedUser other;
+        do {
+            other = population.get(random.nextInt(population.size()));
+        } while (other == this);
+        return other;
+    }
+
+    private ChatMember asMember() {
+        return ChatMember
+                .newBuilder()
+                .setId(id)
+                .setName(name)
+                .vBuild();
+    }
+
+    private void joined(ChatId chat) {
+        chats.add(chat);
+    }
+
+    private synchronized boolean hasMessages() {
+        return !messages.isEmpty();
+    }
+
+    private synchronized void remember(SentMessage message) {
+        messages.add(message);
+    }
+
+    private synchronized SentMessage pickMessage(Random random, boolean forget) {
+        var index = random.nextInt(messages.size());
+        return forget ? messages.remove(index) : messages.get(index);
+    }
+
+    private static String content(Random random) {
+        return "Load message #" + random.nextInt(1_000_000);
+    }
+
+    /**
+     * A message sent by the user.
+     */
+    private static final class SentMessage {
+
+        private final MessageId id;
+        private final ChatId chat;
+
+        private SentMessage(MessageId id, ChatId chat) {
+            this.id = id;
+            this.chat = chat;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package io.spine.examples.chatspn.loadgen;
+
+import com.google.common.collect.ImmutableList;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import io.spine.examples.chatspn.server.ChatSpnServer;
+import io.spine.examples.chatspn.server.execution.ThreadMode;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.google.common.base.Preconditions.checkState;
+import static io.spine.examples.chatspn.loadgen.JavaProcesses.property;
+import static io.spine.examples.chatspn.loadgen.JavaProcesses.systemProperties;
+
+/**
+ * Compares the ChatSPN server running on platform threads with the one
+ * running on virtual threads under the same load.
+ *
+ * <p>For each {@linkplain ThreadMode thread mode} in turn, starts the server in a separate
+ * JVM and generates the load defined by the system properties against it from another JVM,
+ * so that neither the other mode nor the load generator share the heap, the JIT and
+ * the CPU time of this JVM with the measured server. See {@link LoadProfile} for the list
+ * of supported parameters.
+ *
+ * <p>Before the measured run, each server is warmed up by the same load lasting
+ * {@code loadgen.warmup} seconds, 30 by default. The statistics of each run are printed
+ * once the load is over, and the throughput of both modes is printed at the end.
+ *
+ * <p>The {@code chatspn.*} system properties of this JVM configure the servers, except for
+ * the thread mode and the port. Each server starts empty.
+ *
+ * <p>The servers run on the Java set by the {@code loadgen.javaHome} property, or on
+ * the Java of this JVM if the property is not set. The comparison fails at once
+ * if that Java does not support the virtual threads.
+ */
+public final class ThreadModeComparison {
+
+    private static final String SERVER_PREFIX = "chatspn.";
+    private static final String LOAD_PREFIX = "loadgen.";
+    private static final String WARMUP_PROPERTY = "loadgen.warmup";
+    private static final String DURATION_PROPERTY = "loadgen.duration";
+    private static final String THREADS_PROPERTY = "chatspn.threads";
+    private static final String PORT_PROPERTY = "chatspn.port";
+    private static final int DEFAULT_WARMUP_SECONDS = 30;
+    private static final int VIRTUAL_THREADS_VERSION = 21;
+
+    /**
+     * Prevents instantiation of this class.
+     */
+    private ThreadModeComparison() {
+    }
+
+    /**
+     * Runs the comparison with the profile defined by the system properties.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        var profile = LoadProfile.fromSystemProperties();
+        var warmup = Integer.getInteger(WARMUP_PROPERTY, DEFAULT_WARMUP_SECONDS);
+        checkVirtualThreads();
+        Map<ThreadMode, Double> throughput = new LinkedHashMap<>();
+        for (var threads : ThreadMode.values()) {
+            System.out.printf("%nRunning the server on %s threads.%n", threads);
+            var server = startServer(threads, profile.port());
+            try {
+                JavaProcesses.awaitPort(server, profile.port());
+                if (warmup > 0) {
+                    System.out.printf("Warming up for %d s.%n", warmup);
+                    generateLoad(warmup);
+                }
+                throughput.put(threads, generateLoad(profile.duration()
+                                                            .toSeconds()));
+            } finally {
+                JavaProcesses.stop(ImmutableList.of(server));
+            }
+        }
+        System.out.printf("%n%10s %10s%n", "threads", "ops/s");
+        throughput.forEach((threads, opsPerSecond) -> System.out.printf(
+                "%10s %10.1f%n", threads, opsPerSecond));
+    }
+
+    /**
+     * Ensures that the Java which runs the servers supports the virtual threads.
+     *
+     * @throws IllegalStateException
+     *         if the virtual threads are not supported
+     */
+    private static void checkVirtualThreads() throws IOException {
+        var version = JavaProcesses.javaVersion();
+        checkState(version >= VIRTUAL_THREADS_VERSION,
+                   "The servers run on Java %s at `%s`, while the virtual threads require " +
+                           "Java %s or newer. Set the `%s` property to the home of such a Java.",
+                   version, JavaProcesses.javaHome(), VIRTUAL_THREADS_VERSION,
+                   JavaProcesses.JAVA_HOME_PROPERTY);
+    }
+
+    private static Process startServer(ThreadMode threads, int port) throws IOException {
+        List<String> options = new ArrayList<>(
+                systemProperties(SERVER_PREFIX, Set.of(THREADS_PROPERTY, PORT_PROPERTY))
+        );
+        options.add(property(THREADS_PROPERTY, threads.name()
+                                                      .toLowerCase()));
+        options.add(property(PORT_PROPERTY, port));
+        return JavaProcesses.start(ChatSpnServer.class, options);
+    }
+
+    /**
+     * Runs the load generator in a separate JVM for the given number of seconds.
+     *
+     * @return the number of successful operations per second
+     */
+    @CanIgnoreReturnValue
+    private static double generateLoad(long seconds) throws IOException, InterruptedException {
+        List<String> options = new ArrayList<>(
+                systemProperties(LOAD_PREFIX, Set.of(DURATION_PROPERTY))
+        );
+        options.add(property(DURATION_PROPERTY, seconds));
+        return JavaProcesses.generateLoad(options);
+    }
+}
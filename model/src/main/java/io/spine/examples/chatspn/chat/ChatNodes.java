@@ -0,0 +1,74 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package io.spine.examples.chatspn.chat;
+
+import com.google.common.hash.Hashing;
+import io.spine.examples.chatspn.ChatId;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Utilities for splitting the chats between the nodes of a ChatSPN cluster.
+ *
+ * <p>Both the server nodes and the clients use them, so that the clients send
+ * the requests of a chat to the node which serves it.
+ */
+public final class ChatNodes {
+
+    /**
+     * The index of the node which serves the user accounts.
+     */
+    public static final int ACCOUNTS_NODE = 0;
+
+    /**
+     * Prevents the utility class instantiation.
+     */
+    private ChatNodes() {
+    }
+
+    /**
+     * Returns the index of the node which serves the given chat.
+     *
+     * <p>The node is chosen by a consistent hash of the chat ID, so that adding a node
+     * moves only the chats which go to the new node.
+     *
+     * @param chat
+     *         the ID of the chat
+     * @param nodeCount
+     *         the number of nodes in the cluster
+     */
+    public static int nodeOf(ChatId chat, int nodeCount) {
+        checkNotNull(chat);
+        checkArgument(nodeCount > 0, "The number of nodes must be positive.");
+        var hash = Hashing.farmHashFingerprint64()
+                          .hashString(chat.getUuid(), UTF_8);
+        return Hashing.consistentHash(hash, nodeCount);
+    }
+}
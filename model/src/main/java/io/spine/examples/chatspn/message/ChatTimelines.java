@@ -0,0 +1,107 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package io.spine.examples.chatspn.message;
+
+import io.spine.examples.chatspn.ChatId;
+import io.spine.examples.chatspn.ChatTimelineBucketId;
+import io.spine.examples.chatspn.message.ChatTimeline.Bucket;
+
+import java.util.List;
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Utilities for the buckets of the {@link ChatTimeline}.
+ *
+ * <p>The server uses them to decide which bucket holds a message, and the clients use them
+ * to find the buckets of a page of the chat history, so that a page is read from one
+ * or two bucket records.
+ */
+public final class ChatTimelines {
+
+    /**
+     * The maximum number of messages added to a bucket.
+     */
+    public static final int CAPACITY = 100;
+
+    /**
+     * Prevents the utility class instantiation.
+     */
+    private ChatTimelines() {
+    }
+
+    /**
+     * Returns the ID of the bucket of the chat with the given number.
+     */
+    public static ChatTimelineBucketId bucketOf(ChatId chat, int number) {
+        checkNotNull(chat);
+        return ChatTimelineBucketId
+                .newBuilder()
+                .setChat(chat)
+                .setNumber(number)
+                .vBuild();
+    }
+
+    /**
+     * Finds the number of the bucket which covers the given position in the chat history.
+     *
+     * <p>A bucket covers the positions from its first position up to the first position
+     * of the next bucket. A position before all the buckets is covered by the first bucket.
+     *
+     * @param buckets
+     *         the buckets of the timeline in the order of their numbers
+     * @param position
+     *         the position in the chat history
+     * @return the number of the latest bucket starting not after the position,
+     *         or {@code Optional.empty()} if there are no buckets
+     */
+    public static Optional<Integer> bucketAt(List<Bucket> buckets, String position) {
+        checkNotNull(buckets);
+        checkNotNull(position);
+        if (buckets.isEmpty()) {
+            return Optional.empty();
+        }
+        var low = 0;
+        var high = buckets.size() - 1;
+        var found = 0;
+        while (low <= high) {
+            var middle = (low + high) >>> 1;
+            if (buckets.get(middle)
+                       .getFirstPosition()
+                       .compareTo(position) <= 0) {
+                found = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return Optional.of(buckets.get(found)
+                                  .getNumber());
+    }
+}
@@ -24,40 +24,50 @@
  * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
  */
 
-package io.spine.examples.chatspn.server;
+package io.spine.examples.chatspn.message;
 
-import com.google.common.collect.ImmutableSet;
-import io.spine.core.CommandContext;
-import io.spine.core.UserId;
-import io.spine.examples.chatspn.ChatCardId;
+import io.spine.base.Identifier;
 import io.spine.examples.chatspn.ChatId;
-import io.spine.examples.chatspn.chat.ChatCard;
+import io.spine.examples.chatspn.MessageBatchId;
+import io.spine.examples.chatspn.MessageId;
+
+import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
- * Provides an API to read the {@link ChatCard} projection.
+ * Utilities for the identifiers of the messages and the message batches.
+ *
+ * <p>The ID of a message or a batch carries the ID of its chat, so that the chat
+ * of a message is known from the ID of the message alone.
  */
-public final class ChatCardReader {
+public final class MessageIds {
 
-    private final ProjectionReader<ChatCardId, ChatCard> reader;
+    /**
+     * Prevents the utility class instantiation.
+     */
+    private MessageIds() {
+    }
 
-    public ChatCardReader(ProjectionReader<ChatCardId, ChatCard> reader) {
-        this.reader = reader;
+    /**
+     * Generates the ID of a new message in the given chat.
+     */
+    public static MessageId generate(ChatId chat) {
+        checkNotNull(chat);
+        return MessageId
+                .newBuilder()
+                .setUuid(Identifier.newUuid())
+                .setChat(chat)
+                .vBuild();
     }
 
     /**
-     * Tells whether the given user is a member of the specified chat.
-     *
-     * <p>If the chat with the provided ID does not exist, just returns {@code false}.
-     *
-     * @return {@code true} in case user is a member of the chat, {@code false} otherwise
+     * Generates the ID of a new batch of messages sent to the given chat.
      */
-    public boolean isMember(ChatId id, UserId userId, CommandContext ctx) {
-        var chatCardId = ChatCardId
+    public static MessageBatchId generateBatch(ChatId chat) {
+        checkNotNull(chat);
+        return MessageBatchId
                 .newBuilder()
-                .setChat(id)
-                .setUser(userId)
+                .setUuid(Identifier.newUuid())
+                .setChat(chat)
                 .vBuild();
-        var projections = reader.read(ImmutableSet.of(chatCardId), ctx.getActorContext());
-        return !projections.isEmpty();
     }
 }
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package io.spine.examples.chatspn.message;
+
+import com.google.protobuf.Timestamp;
+import io.spine.examples.chatspn.MessageId;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.lang.String.format;
+
+/**
+ * Utilities for the positions of the messages in the history of a chat.
+ *
+ * <p>The position of a message is made of the time the message was posted followed by
+ * its ID. The positions of the messages in a chat compare as strings in the order of posting,
+ * and the messages posted at the same time are ordered by their IDs.
+ */
+public final class MessagePositions {
+
+    /**
+     * Prevents the utility class instantiation.
+     */
+    private MessagePositions() {
+    }
+
+    /**
+     * Returns the position of the message posted at the given time.
+     *
+     * @param whenPosted
+     *         the time the message was posted
+     * @param id
+     *         the ID of the message
+     */
+    public static String positionOf(Timestamp whenPosted, MessageId id) {
+        checkNotNull(whenPosted);
+        checkNotNull(id);
+        return format("%012d%09d/%s", whenPosted.getSeconds(), whenPosted.getNanos(), id.getUuid());
+    }
+}
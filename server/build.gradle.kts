@@ -24,6 +24,8 @@
  * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
  */
 
+import io.spine.examples.chatspn.dependency.Grpc
+
 /*
  * Add the Gradle plugin for bootstrapping projects built with Spine.
  * See: https://github.com/SpineEventEngine/bootstrap
@@ -45,6 +47,11 @@ spine {
 
 dependencies {
     implementation(project(":model"))
+
+    /*
+     * The Netty transport is configured directly by the `ThreadedServer`.
+     */
+    implementation(Grpc.lib)
 }
 
 application {
@@ -27,25 +27,90 @@
 package io.spine.examples.chatspn.server;
 
 import io.spine.environment.DefaultMode;
+import io.spine.examples.chatspn.server.cluster.Cluster;
+import io.spine.examples.chatspn.server.config.ServerConfig;
+import io.spine.examples.chatspn.server.delivery.ShardedDelivery;
+import io.spine.examples.chatspn.server.execution.ThreadMode;
+import io.spine.examples.chatspn.server.metrics.Metrics;
+import io.spine.examples.chatspn.server.metrics.MetricsEndpoint;
+import io.spine.examples.chatspn.server.storage.FileStorageFactory;
+import io.spine.examples.chatspn.server.storage.IndexedStorageFactory;
 import io.spine.server.Server;
 import io.spine.server.ServerEnvironment;
 import io.spine.server.delivery.Delivery;
+import io.spine.server.storage.StorageFactory;
 import io.spine.server.storage.memory.InMemoryStorageFactory;
+import io.spine.server.transport.TransportFactory;
 import io.spine.server.transport.memory.InMemoryTransportFactory;
 
 import java.io.IOException;
+import java.nio.file.Paths;
 
 import static io.spine.client.ConnectionConstants.DEFAULT_CLIENT_SERVICE_PORT;
 
 /**
  * A gRPC server running a 'Chats' bounded context.
  *
- * <p>Server side of this application is currently running in in-memory storage mode.
- * Therefore, any changes made by users of this application will not be persisted
- * in-between the application launches.
+ * <p>By default, the server runs in in-memory storage mode. Therefore, any changes
+ * made by users of this application will not be persisted in-between the application launches.
+ *
+ * <p>To keep aggregate histories and entity states in files, start the server with
+ * the {@code -Dchatspn.storage=file} system property. The directory for the files
+ * is set by the {@code chatspn.storage.dir} property and defaults to {@code ./data}.
+ *
+ * <p>To answer entity queries through indexes of the entity columns, start the server
+ * with the {@code -Dchatspn.storage=indexed} system property. The data is kept in memory
+ * as in the default mode.
+ *
+ * <p>To collect the {@linkplain Metrics metrics} of the server, start it with
+ * the {@code -Dchatspn.metrics=true} system property. The metrics are then exposed
+ * through JMX and served as plain text at {@code http://localhost:9464/metrics}.
+ * The port is set by the {@code chatspn.metrics.port} property.
+ *
+ * <p>To handle the gRPC calls and deliver the signals on virtual threads, start the server
+ * on Java 21 or newer with the {@code -Dchatspn.threads=virtual} system property.
+ * By default, platform threads are used.
+ *
+ * <p>The port, the threads and the gRPC transport of the server are set by
+ * the {@link ServerConfig}. For example, {@code -Dchatspn.profile=low-latency} starts
+ * the server with the low-latency profile.
+ *
+ * <p>To run several servers which split the chats among themselves, start each of them
+ * as a node of the {@link Cluster}, e.g. with
+ * {@code -Dchatspn.cluster.nodes=2 -Dchatspn.cluster.node=1}.
  */
 public final class ChatSpnServer {
 
+    /**
+     * The name of the system property which selects the storage mode.
+     */
+    static final String STORAGE_PROPERTY = "chatspn.storage";
+
+    /**
+     * The name of the system property which sets the directory for the file storage.
+     */
+    static final String STORAGE_DIR_PROPERTY = "chatspn.storage.dir";
+
+    /**
+     * The name of the system property which sets the number of delivery shards.
+     */
+    static final String SHARDS_PROPERTY = "chatspn.delivery.shards";
+
+    /**
+     * The name of the system property which enables the metrics.
+     */
+    static final String METRICS_PROPERTY = "chatspn.metrics";
+
+    /**
+     * The name of the system property which sets the port of the metrics endpoint.
+     */
+    static final String METRICS_PORT_PROPERTY = "chatspn.metrics.port";
+
+    private static final String FILE_STORAGE = "file";
+    private static final String INDEXED_STORAGE = "indexed";
+    private static final int DEFAULT_METRICS_PORT = 9464;
+    private static final String DEFAULT_STORAGE_DIR = "data";
+
     /**
      * Prevents direct instantiation.
      */
@@ -57,7 +122,8 @@ public final class ChatSpnServer {
      * {@linkplain io.spine.client.ConnectionConstants#DEFAULT_CLIENT_SERVICE_PORT default} port.
      */
     static Server create() {
-        configureEnvironment();
+        var delivery = ShardedDelivery.withShards(shardCount(), metrics(), ThreadMode.PLATFORM);
+        configureEnvironment(delivery.delivery(), InMemoryTransportFactory.newInstance());
         var context = ChatsContext.newBuilder();
         return Server
                 .atPort(DEFAULT_CLIENT_SERVICE_PORT)
@@ -65,20 +131,101 @@ public final class ChatSpnServer {
                 .build();
     }
 
-    private static void configureEnvironment() {
+    /**
+     * Starts a new server with the given configuration.
+     *
+     * @throws IllegalStateException
+     *         if the running JVM does not support the configured thread mode
+     */
+    public static ThreadedServer start(ServerConfig config) throws IOException {
+        return start(config, Cluster.single());
+    }
+
+    /**
+     * Starts a new server with the given configuration as a node of the cluster.
+     *
+     * <p>The node serves only the chats it owns and, if it is the accounts node,
+     * the user accounts. The commands of the other chats are rejected.
+     * The node is connected to the other nodes through
+     * the {@linkplain Cluster#newTransportFactory() transport} of the cluster.
+     *
+     * @throws IOException
+     *         if the server or the transport port cannot be bound
+     * @throws IllegalStateException
+     *         if the running JVM does not support the configured thread mode
+     */
+    public static ThreadedServer start(ServerConfig config, Cluster cluster) throws IOException {
+        var delivery = ShardedDelivery.withShards(shardCount(), metrics(), config.threads());
+        configureEnvironment(delivery.delivery(), cluster.newTransportFactory());
+        var context = ChatsContext.newBuilder(config, cluster);
+        var server = ThreadedServer.create(config, context, delivery);
+        server.start();
+        return server;
+    }
+
+    private static void configureEnvironment(Delivery delivery, TransportFactory transport) {
         ServerEnvironment
                 .when(DefaultMode.class)
-                .use(InMemoryStorageFactory.newInstance())
-                .use(Delivery.localAsync())
-                .use(InMemoryTransportFactory.newInstance());
+                .use(storageFactory())
+                .use(delivery)
+                .use(transport);
+    }
+
+    private static StorageFactory storageFactory() {
+        var mode = System.getProperty(STORAGE_PROPERTY);
+        if (FILE_STORAGE.equals(mode)) {
+            var directory = System.getProperty(STORAGE_DIR_PROPERTY, DEFAULT_STORAGE_DIR);
+            return FileStorageFactory.in(Paths.get(directory));
+        }
+        if (INDEXED_STORAGE.equals(mode)) {
+            return IndexedStorageFactory.newInstance();
+        }
+        return InMemoryStorageFactory.newInstance();
+    }
+
+    private static int shardCount() {
+        var processors = Runtime.getRuntime()
+                                .availableProcessors();
+        return Integer.getInteger(SHARDS_PROPERTY, processors);
+    }
+
+    private static Metrics metrics() {
+        if (Boolean.getBoolean(METRICS_PROPERTY)) {
+            return Metrics.enable();
+        }
+        return Metrics.current();
     }
 
     /**
      * The entry point of the server application.
      */
-    public static void main(String[] args) throws IOException {
-        var server = create();
-        server.start();
+    public static void main(String[] args) throws IOException, InterruptedException {
+        var server = start(ServerConfig.load(), Cluster.load());
+        Runtime.getRuntime()
+               .addShutdownHook(new Thread(() -> stop(server)));
+        var metrics = Metrics.current();
+        if (metrics.isEnabled()) {
+            metrics.registerMBean();
+            var port = Integer.getInteger(METRICS_PORT_PROPERTY, DEFAULT_METRICS_PORT);
+            var endpoint = MetricsEndpoint.start(metrics, port);
+            Runtime.getRuntime()
+                   .addShutdownHook(new Thread(endpoint::close));
+        }
         server.awaitTermination();
     }
+
+    /**
+     * Shuts the server down and closes the storages, so that all the written data
+     * is flushed to the files.
+     */
+    private static void stop(ThreadedServer server) {
+        server.shutdown();
+        try {
+            ServerEnvironment.instance()
+                             .storageFactory()
+                             .close();
+        } catch (Exception e) {
+            throw new IllegalStateException("Unable to close the storage factory.", e);
+        }
+    }
 }
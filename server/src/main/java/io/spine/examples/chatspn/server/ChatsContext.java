@@ -30,12 +30,22 @@ import io.spine.examples.chatspn.server.account.AccountCreationRepository;
 import io.spine.examples.chatspn.server.account.ReservedEmailAggregate;
 import io.spine.examples.chatspn.server.account.UserAggregate;
 import io.spine.examples.chatspn.server.account.UserProfileRepository;
-import io.spine.examples.chatspn.server.chat.ChatAggregate;
-import io.spine.examples.chatspn.server.chat.ChatDeletionRepository;
+import io.spine.examples.chatspn.server.chat.ChatActivityRepository;
 import io.spine.examples.chatspn.server.chat.ChatCardRepository;
-import io.spine.examples.chatspn.server.message.MessageAggregate;
+import io.spine.examples.chatspn.server.chat.ChatDeletionRepository;
+import io.spine.examples.chatspn.server.chat.ChatMembership;
+import io.spine.examples.chatspn.server.chat.ChatRepository;
+import io.spine.examples.chatspn.server.chat.ChatSummaryRepository;
+import io.spine.examples.chatspn.server.cluster.Cluster;
+import io.spine.examples.chatspn.server.cluster.CommandOwnership;
+import io.spine.examples.chatspn.server.config.ServerConfig;
+import io.spine.examples.chatspn.server.message.ChatHistoryReclaim;
+import io.spine.examples.chatspn.server.message.ChatTimelineBucketRepository;
+import io.spine.examples.chatspn.server.message.ChatTimelineRepository;
+import io.spine.examples.chatspn.server.message.MessageBatchSendingRepository;
 import io.spine.examples.chatspn.server.message.MessageEditingRepository;
 import io.spine.examples.chatspn.server.message.MessageRemovalRepository;
+import io.spine.examples.chatspn.server.message.MessageRepository;
 import io.spine.examples.chatspn.server.message.MessageSendingRepository;
 import io.spine.examples.chatspn.server.message.MessageViewRepository;
 import io.spine.server.BoundedContext;
@@ -57,22 +67,52 @@ public final class ChatsContext {
 
     /**
      * Creates {@code BoundedContextBuilder} for the Chats context
-     * and fills it with repositories.
+     * and fills it with repositories configured by {@linkplain ServerConfig#defaults() default}.
      */
     public static BoundedContextBuilder newBuilder() {
+        return newBuilder(ServerConfig.defaults());
+    }
+
+    /**
+     * Creates {@code BoundedContextBuilder} for the Chats context
+     * and fills it with repositories configured by the given server configuration.
+     */
+    public static BoundedContextBuilder newBuilder(ServerConfig config) {
+        return newBuilder(config, Cluster.single());
+    }
+
+    /**
+     * Creates {@code BoundedContextBuilder} for the Chats context served by the given node
+     * of the cluster.
+     *
+     * <p>The context rejects the commands {@linkplain CommandOwnership served by other nodes}.
+     */
+    public static BoundedContextBuilder newBuilder(ServerConfig config, Cluster cluster) {
+        var membership = new ChatMembership();
+        var timelines = new ChatTimelineRepository();
+        var messageViews = new MessageViewRepository(timelines);
+        var timelineBuckets = new ChatTimelineBucketRepository();
+        var reclaim = new ChatHistoryReclaim(timelineBuckets, messageViews);
         return BoundedContext
                 .singleTenant(CHATS)
+                .addEventDispatcher(membership)
+                .addCommandFilter(new CommandOwnership(cluster))
                 .add(DefaultRepository.of(UserAggregate.class))
-                .add(DefaultRepository.of(ChatAggregate.class))
-                .add(DefaultRepository.of(MessageAggregate.class))
+                .add(new ChatRepository(config.chatSnapshotTrigger()))
+                .add(new MessageRepository(config.messageSnapshotTrigger()))
                 .add(new UserProfileRepository())
-                .add(new MessageSendingRepository())
-                .add(new MessageEditingRepository())
-                .add(new MessageRemovalRepository())
+                .add(new MessageSendingRepository(membership))
+                .add(new MessageBatchSendingRepository(membership))
+                .add(new MessageEditingRepository(membership))
+                .add(new MessageRemovalRepository(membership))
                 .add(DefaultRepository.of(ReservedEmailAggregate.class))
                 .add(new AccountCreationRepository())
-                .add(new MessageViewRepository())
-                .add(new ChatDeletionRepository())
-                .add(new ChatCardRepository());
+                .add(messageViews)
+                .add(timelines)
+                .add(timelineBuckets)
+                .add(new ChatDeletionRepository(reclaim))
+                .add(new ChatCardRepository(membership))
+                .add(new ChatSummaryRepository())
+                .add(new ChatActivityRepository());
     }
 }
@@ -34,6 +34,7 @@ import io.spine.client.Filter;
 import io.spine.client.Query;
 import io.spine.client.QueryResponse;
 import io.spine.core.ActorContext;
+import io.spine.examples.chatspn.server.metrics.Metrics;
 import io.spine.grpc.MemoizingObserver;
 import io.spine.server.stand.Stand;
 
@@ -89,7 +90,10 @@ public final class ProjectionReader<I, S extends EntityState> {
 
     private ImmutableList<S> executeAndUnpackResponse(Query query) {
         var observer = new MemoizingObserver<QueryResponse>();
+        var start = System.nanoTime();
         stand.execute(query, observer);
+        Metrics.current()
+               .recordQuery(stateClass.getSimpleName(), System.nanoTime() - start);
         var response = observer.firstResponse();
         var result = response
                 .getMessageList()
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package io.spine.examples.chatspn.server;
+
+import io.grpc.ForwardingServerCall.SimpleForwardingServerCall;
+import io.grpc.ForwardingServerCallListener.SimpleForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import io.spine.client.Query;
+import io.spine.client.grpc.QueryServiceGrpc;
+import io.spine.examples.chatspn.server.metrics.Metrics;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Records the latency of the queries sent by the clients to the {@link Metrics}.
+ *
+ * <p>A query is timed from the start of its call till the response is sent,
+ * and is recorded under the simple name of the queried entity state type.
+ * The calls of other services are not timed.
+ */
+final class QueryTiming implements ServerInterceptor {
+
+    private final Metrics metrics;
+
+    QueryTiming(Metrics metrics) {
+        this.metrics = checkNotNull(metrics);
+    }
+
+    @Override
+    public <Q, R> ServerCall.Listener<Q>
+    interceptCall(ServerCall<Q, R> call, Metadata headers, ServerCallHandler<Q, R> next) {
+        var service = call.getMethodDescriptor()
+                          .getServiceName();
+        if (!QueryServiceGrpc.SERVICE_NAME.equals(service)) {
+            return next.startCall(call, headers);
+        }
+        var timed = new TimedCall<>(call);
+        var listener = next.startCall(timed, headers);
+        return new SimpleForwardingServerCallListener<>(listener) {
+            @Override
+            public void onMessage(Q message) {
+                if (message instanceof Query) {
+                    timed.type = ((Query) message).getTarget()
+                                                  .getType();
+                }
+                super.onMessage(message);
+            }
+        };
+    }
+
+    /**
+     * Returns the simple name of the type referenced by the type URL.
+     */
+    private static String simpleName(String typeUrl) {
+        return typeUrl.substring(typeUrl.lastIndexOf('.') + 1);
+    }
+
+    /**
+     * A query call which records its latency once closed.
+     */
+    private final class TimedCall<Q, R> extends SimpleForwardingServerCall<Q, R> {
+
+        private final long whenStarted = System.nanoTime();
+        private volatile String type = "";
+
+        private TimedCall(ServerCall<Q, R> call) {
+            super(call);
+        }
+
+        @Override
+        public void close(Status status, Metadata trailers) {
+            metrics.recordQuery(simpleName(type), System.nanoTime() - whenStarted);
+            super.close(status, trailers);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.server;
+
+import io.grpc.netty.NettyServerBuilder;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import io.spine.examples.chatspn.server.config.ServerConfig;
+import io.spine.examples.chatspn.server.execution.ThreadMode;
+import io.spine.examples.chatspn.server.metrics.Metrics;
+import io.spine.server.BoundedContext;
+import io.spine.server.BoundedContextBuilder;
+import io.spine.server.CommandService;
+import io.spine.server.QueryService;
+import io.spine.server.SubscriptionService;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static io.spine.examples.chatspn.server.config.ServerConfig.NO_COMPRESSION;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * A gRPC server which exposes a bounded context with the transport tuned
+ * by the {@link ServerConfig}.
+ *
+ * <p>Serves the same command, query and subscription services as the Spine {@code Server}.
+ * Unlike the Spine {@code Server}, lets the gRPC calls run on an executor chosen
+ * by the {@linkplain ThreadMode thread mode}. In the {@linkplain ThreadMode#VIRTUAL virtual}
+ * mode, each call gets its own virtual thread, so the calls blocked by reading
+ * entity states do not hold OS threads.
+ *
+ * <p>The Netty event loops, the message size limit, the flow control window, the keepalive
+ * and the compression of the subscription updates are set by the configuration as well.
+ * The flow control window is only the initial one, which gRPC keeps tuning
+ * to the bandwidth and the latency of each connection.
+ * When the {@linkplain Metrics#current() metrics} are enabled, the latency of the queries
+ * sent by the clients is recorded.
+ */
+public final class ThreadedServer {
+
+    private static final String THREAD_NAME = "chatspn-grpc";
+
+    /**
+     * The time to wait for the gRPC calls in progress to complete on shutdown.
+     */
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(10);
+
+    private final BoundedContext context;
+    private final ExecutorService executor;
+    private final EventLoopGroup bossGroup;
+    private final EventLoopGroup workerGroup;
+    private final io.grpc.Server grpcServer;
+    private final AutoCloseable delivery;
+
+    private ThreadedServer(BoundedContext context, ServerConfig config, AutoCloseable delivery) {
+        this.context = context;
+        this.delivery = delivery;
+        this.executor = executor(config);
+        this.bossGroup = new NioEventLoopGroup(
+                config.bossThreads(), new DefaultThreadFactory(THREAD_NAME + "-boss", true)
+        );
+        this.workerGroup = new NioEventLoopGroup(
+                config.workerThreads(), new DefaultThreadFactory(THREAD_NAME + "-worker", true)
+        );
+        var builder = NettyServerBuilder
+                .forPort(config.port())
+                .bossEventLoopGroup(bossGroup)
+                .workerEventLoopGroup(workerGroup)
+                .channelType(NioServerSocketChannel.class)
+                .executor(executor)
+                .maxInboundMessageSize(config.maxInboundMessageSize())
+                .keepAliveTime(config.keepAliveTime().toSeconds(), SECONDS)
+                .keepAliveTimeout(config.keepAliveTimeout().toSeconds(), SECONDS)
+                .permitKeepAliveTime(config.permitKeepAliveTime().toSeconds(), SECONDS)
+                .addService(CommandService.newBuilder()
+                                          .add(context)
+                                          .build())
+                .addService(QueryService.newBuilder()
+                                        .add(context)
+                                        .build())
+                .addService(SubscriptionService.newBuilder()
+                                               .add(context)
+                                               .build());
+        if (config.flowControlWindow() > 0) {
+            builder.initialFlowControlWindow(config.flowControlWindow());
+        }
+        var compression = config.subscriptionCompression();
+        if (!NO_COMPRESSION.equals(compression)) {
+            builder.intercept(new SubscriptionCompression(compression));
+        }
+        var metrics = Metrics.current();
+        if (metrics.isEnabled()) {
+            builder.intercept(new QueryTiming(metrics));
+        }
+        this.grpcServer = builder.build();
+    }
+
+    private static ExecutorService executor(ServerConfig config) {
+        var threads = config.threads();
+        if (threads == ThreadMode.PLATFORM && config.executorThreads() > 0) {
+            return Executors.newFixedThreadPool(config.executorThreads(),
+                                                threads.threadFactory(THREAD_NAME));
+        }
+        return threads.newExecutor(THREAD_NAME);
+    }
+
+    /**
+     * Creates a new server of the bounded context.
+     *
+     * <p>The server environment must be configured before calling this method.
+     *
+     * @param config
+     *         the configuration of the server
+     * @param context
+     *         the builder of the context to serve
+     * @param delivery
+     *         the delivery of the signals to close after the context
+     */
+    static ThreadedServer create(ServerConfig config,
+                                 BoundedContextBuilder context,
+                                 AutoCloseable delivery) {
+        checkNotNull(config);
+        checkNotNull(context);
+        checkNotNull(delivery);
+        return new ThreadedServer(context.build(), config, delivery);
+    }
+
+    /**
+     * Starts the server.
+     */
+    public void start() throws IOException {
+        grpcServer.start();
+    }
+
+    /**
+     * Waits until the server is shut down.
+     */
+    public void awaitTermination() throws InterruptedException {
+        grpcServer.awaitTermination();
+    }
+
+    /**
+     * Shuts the server down and closes the bounded context and the delivery.
+     *
+     * <p>Waits for the calls in progress to complete for up to {@link #SHUTDOWN_TIMEOUT},
+     * and then cancels the remaining ones, so that no call reaches the context
+     * after it is closed.
+     */
+    public void shutdown() {
+        grpcServer.shutdown();
+        try {
+            awaitGrpcTermination();
+            context.close();
+            delivery.close();
+        } catch (Exception e) {
+            throw new IllegalStateException("Unable to close the bounded context.", e);
+        } finally {
+            executor.shutdown();
+            bossGroup.shutdownGracefully();
+            workerGroup.shutdownGracefully();
+        }
+    }
+
+    private void awaitGrpcTermination() {
+        try {
+            if (!grpcServer.awaitTermination(SHUTDOWN_TIMEOUT.toSeconds(), SECONDS)) {
+                grpcServer.shutdownNow();
+                grpcServer.awaitTermination(SHUTDOWN_TIMEOUT.toSeconds(), SECONDS);
+            }
+        } catch (InterruptedException e) {
+            grpcServer.shutdownNow();
+            Thread.currentThread()
+                  .interrupt();
+        }
+    }
+}
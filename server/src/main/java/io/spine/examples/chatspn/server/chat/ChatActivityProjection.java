@@ -0,0 +1,126 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.server.chat;
+
+import io.spine.core.Subscribe;
+import io.spine.examples.chatspn.ChatId;
+import io.spine.examples.chatspn.chat.ChatActivity;
+import io.spine.examples.chatspn.chat.event.ChatMarkedAsDeleted;
+import io.spine.examples.chatspn.message.MessageView;
+import io.spine.examples.chatspn.message.event.MessageContentUpdated;
+import io.spine.examples.chatspn.message.event.MessageMarkedAsDeleted;
+import io.spine.examples.chatspn.message.event.MessagePosted;
+import io.spine.examples.chatspn.message.event.MessagesSent;
+import io.spine.server.projection.Projection;
+
+/**
+ * {@link ChatActivity} projection.
+ *
+ * <p>Keeps the last message of the chat, so that the chat cards of its members
+ * do not change with each posted message.
+ */
+public final class ChatActivityProjection
+        extends Projection<ChatId, ChatActivity, ChatActivity.Builder> {
+
+    /**
+     * The maximum length of the last message content kept by the activity, in code points.
+     */
+    public static final int PREVIEW_LENGTH = 100;
+
+    @Subscribe
+    void on(MessagePosted e) {
+        var message = MessageView
+                .newBuilder()
+                .setId(e.getId())
+                .setChat(e.getChat())
+                .setUser(e.getUser())
+                .setContent(e.getContent())
+                .setWhenPosted(e.getWhenPosted())
+                .vBuild();
+        update(message);
+    }
+
+    /**
+     * Updates the last message once per batch of messages.
+     *
+     * <p>The messages posted in a batch are not routed to the activity one by one.
+     */
+    @Subscribe
+    void on(MessagesSent e) {
+        update(e.getLastMessage());
+    }
+
+    @Subscribe
+    void on(MessageContentUpdated e) {
+        var lastMessage = state().getLastMessage();
+        if (e.getId()
+             .equals(lastMessage.getId())) {
+            var message = lastMessage
+                    .toBuilder()
+                    .setContent(e.getContent())
+                    .vBuild();
+            update(message);
+        }
+    }
+
+    @Subscribe
+    void on(MessageMarkedAsDeleted e) {
+        var lastMessage = state().getLastMessage();
+        if (e.getId()
+             .equals(lastMessage.getId())) {
+            update(MessageView.getDefaultInstance());
+        }
+    }
+
+    @Subscribe
+    void on(ChatMarkedAsDeleted e) {
+        setDeleted(true);
+    }
+
+    /**
+     * Sets the last message with its content cut to a preview,
+     * and advances the sequence of the activity updates.
+     *
+     * <p>The content is cut by code points, so that a character outside of the Basic
+     * Multilingual Plane, such as an emoji, is never split in half.
+     */
+    private void update(MessageView message) {
+        var content = message.getContent();
+        var preview = content.codePointCount(0, content.length()) > PREVIEW_LENGTH
+                      ? message.toBuilder()
+                               .setContent(preview(content))
+                               .vBuild()
+                      : message;
+        builder().setLastMessage(preview)
+                 .setSequence(state().getSequence() + 1);
+    }
+
+    private static String preview(String content) {
+        var end = content.offsetByCodePoints(0, PREVIEW_LENGTH);
+        return content.substring(0, end);
+    }
+}
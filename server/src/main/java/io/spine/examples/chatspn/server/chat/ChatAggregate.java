@@ -27,6 +27,7 @@
 package io.spine.examples.chatspn.server.chat;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import io.spine.examples.chatspn.ChatId;
 import io.spine.examples.chatspn.chat.Chat;
 import io.spine.examples.chatspn.chat.ChatMember;
@@ -51,6 +52,8 @@ import io.spine.server.aggregate.Aggregate;
 import io.spine.server.aggregate.Apply;
 import io.spine.server.command.Assign;
 import io.spine.server.tuple.Pair;
+import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.util.List;
 import java.util.Optional;
@@ -61,9 +64,27 @@ import static io.spine.examples.chatspn.chat.Chat.ChatType.CT_PERSONAL;
 
 /**
  * A chat between two or more users.
+ *
+ * <p>The membership checks are served by the {@link MemberIndex}, so that they do not scan
+ * the members of large group chats. The index is kept between the commands
+ * in the {@link MemberIndexCache} of the repository, and is only built from the state
+ * when the cache has no index of the loaded version of the chat. The events which change
+ * the members drop the index instead of updating it, so that an index taken from the cache
+ * is never changed.
  */
 public final class ChatAggregate extends Aggregate<ChatId, Chat, Chat.Builder> {
 
+    /**
+     * The index of the chat members, or {@code null} if it has not been built yet.
+     */
+    private @Nullable MemberIndex memberIndex;
+
+    /**
+     * Keeps the member indexes between the commands.
+     */
+    @MonotonicNonNull
+    private MemberIndexCache indexCache;
+
     /**
      * Handles the command to create a personal chat.
      */
@@ -83,6 +104,7 @@ public final class ChatAggregate extends Aggregate<ChatId, Chat, Chat.Builder> {
                  .addMember(e.getCreator())
                  .addMember(e.getMember())
                  .setType(CT_PERSONAL);
+        membersChanged();
     }
 
     /**
@@ -108,6 +130,7 @@ public final class ChatAggregate extends Aggregate<ChatId, Chat, Chat.Builder> {
                  .setOwner(e.getCreator()
                             .getId())
                  .setType(CT_GROUP);
+        membersChanged();
     }
 
     /**
@@ -147,6 +170,7 @@ public final class ChatAggregate extends Aggregate<ChatId, Chat, Chat.Builder> {
     private void event(MembersRemoved e) {
         builder().clearMember()
                  .addAllMember(e.getRemainingMemberList());
+        membersChanged();
     }
 
     /**
@@ -176,12 +200,13 @@ public final class ChatAggregate extends Aggregate<ChatId, Chat, Chat.Builder> {
      */
     private ImmutableList<ChatMember> extractRemainingMembers(RemoveMembers command) {
         var chatMembers = state().getMemberList();
-        var membersInCommand = command.getMemberList();
+        var membersToRemove = ImmutableSet.copyOf(extractMembersToRemove(command));
+        if (membersToRemove.isEmpty()) {
+            return ImmutableList.copyOf(chatMembers);
+        }
         var remainingMembers = chatMembers
                 .stream()
-                .filter(member -> !membersInCommand.contains(member) ||
-                        member.getId()
-                              .equals(command.getWhoRemoves()))
+                .filter(member -> !membersToRemove.contains(member))
                 .collect(toImmutableList());
         return remainingMembers;
     }
@@ -190,11 +215,10 @@ public final class ChatAggregate extends Aggregate<ChatId, Chat, Chat.Builder> {
      * Extracts the list of users who are members of the chat and can be removed.
      */
     private ImmutableList<ChatMember> extractMembersToRemove(RemoveMembers command) {
-        var chatMembers = state().getMemberList();
         var membersInCommand = command.getMemberList();
         var membersToRemove = membersInCommand
                 .stream()
-                .filter(member -> chatMembers.contains(member) &&
+                .filter(member -> members().contains(member) &&
                         !member.getId()
                                .equals(command.getWhoRemoves()))
                 .collect(toImmutableList());
@@ -234,6 +258,7 @@ public final class ChatAggregate extends Aggregate<ChatId, Chat, Chat.Builder> {
     @Apply
     private void event(MembersAdded e) {
         builder().addAllMember(e.getNewMemberList());
+        membersChanged();
     }
 
     /**
@@ -250,11 +275,7 @@ public final class ChatAggregate extends Aggregate<ChatId, Chat, Chat.Builder> {
             return false;
         }
         var isGroupChat = state().getType() == CT_GROUP;
-        var isUserWhoAddsIsMember = state()
-                .getMemberList()
-                .stream()
-                .anyMatch(member -> member.getId()
-                                          .equals(command.getWhoAdds()));
+        var isUserWhoAddsIsMember = members().contains(command.getWhoAdds());
         return isGroupChat && isUserWhoAddsIsMember && !newMembers.isEmpty();
     }
 
@@ -262,10 +283,9 @@ public final class ChatAggregate extends Aggregate<ChatId, Chat, Chat.Builder> {
      * Extracts the list of users who are not members of the chat.
      */
     private ImmutableList<ChatMember> extractNewMembers(List<ChatMember> membersInCommand) {
-        var chatMembers = state().getMemberList();
         var newMembers = membersInCommand
                 .stream()
-                .filter(member -> !chatMembers.contains(member))
+                .filter(member -> !members().contains(member))
                 .collect(toImmutableList());
         return newMembers;
     }
@@ -319,11 +339,7 @@ public final class ChatAggregate extends Aggregate<ChatId, Chat, Chat.Builder> {
             return true;
         }
         var isPersonalChat = state().getType() == CT_PERSONAL;
-        var isMember = state()
-                .getMemberList()
-                .stream()
-                .anyMatch(member -> member.getId()
-                                          .equals(c.getWhoDeletes()));
+        var isMember = members().contains(c.getWhoDeletes());
         if (isPersonalChat && isMember) {
             return true;
         }
@@ -361,12 +377,26 @@ public final class ChatAggregate extends Aggregate<ChatId, Chat, Chat.Builder> {
     private void event(LastMemberLeftChat e) {
     }
 
+    /**
+     * Removes the member who left the chat, keeping the order of the other members.
+     */
     @Apply
     private void event(UserLeftChat e) {
-        var userIndex = builder()
-                .getMemberList()
-                .indexOf(e.getUser());
-        builder().removeMember(userIndex);
+        builder().removeMember(positionOf(e.getUser()));
+        membersChanged();
+    }
+
+    private int positionOf(ChatMember member) {
+        var members = builder().getMemberList();
+        for (var i = 0; i < members.size(); i++) {
+            if (members.get(i)
+                       .getId()
+                       .equals(member.getId())) {
+                return i;
+            }
+        }
+        throw new IllegalStateException(
+                String.format("`%s` is not a member of the chat.", member.getName()));
     }
 
     /**
@@ -379,9 +409,7 @@ public final class ChatAggregate extends Aggregate<ChatId, Chat, Chat.Builder> {
      */
     private void checkLeavingPossibility(LeaveChat c) throws UserCannotLeaveChat {
         var isGroupChat = state().getType() == CT_GROUP;
-        var isMember = state()
-                .getMemberList()
-                .contains(c.getUser());
+        var isMember = members().contains(c.getUser());
         var canLeave = !isDeleted() && isGroupChat && isMember;
         if (!canLeave) {
             throw UserCannotLeaveChat
@@ -392,6 +420,39 @@ public final class ChatAggregate extends Aggregate<ChatId, Chat, Chat.Builder> {
         }
     }
 
+    /**
+     * Returns the index of the chat members, taking it from the cache or building it
+     * from the state on the first use.
+     *
+     * <p>The index is only obtained by the command handlers, so that the events applied
+     * while loading the aggregate do not maintain it.
+     */
+    private MemberIndex members() {
+        if (memberIndex == null) {
+            var version = version();
+            var members = state().getMemberList();
+            memberIndex = indexCache
+                    .find(id(), version, members.size())
+                    .orElseGet(() -> MemberIndex.of(members));
+            indexCache.put(id(), version, memberIndex);
+        }
+        return memberIndex;
+    }
+
+    /**
+     * Drops the index of the members changed by the applied event.
+     *
+     * <p>The cached index is left as is. It reflects an older version of the chat,
+     * and thus is not found by the next command.
+     */
+    private void membersChanged() {
+        memberIndex = null;
+    }
+
+    void inject(MemberIndexCache cache) {
+        this.indexCache = cache;
+    }
+
     private static LastMemberLeftChat lastMemberLeftChat(LeaveChat c) {
         return LastMemberLeftChat
                 .newBuilder()
@@ -38,13 +38,10 @@ import io.spine.examples.chatspn.chat.event.MembersAdded;
 import io.spine.examples.chatspn.chat.event.MembersRemoved;
 import io.spine.examples.chatspn.chat.event.PersonalChatCreated;
 import io.spine.examples.chatspn.chat.event.UserLeftChat;
-import io.spine.examples.chatspn.message.MessageView;
-import io.spine.examples.chatspn.message.event.MessageContentUpdated;
-import io.spine.examples.chatspn.message.event.MessageMarkedAsDeleted;
-import io.spine.examples.chatspn.message.event.MessagePosted;
 import io.spine.server.projection.Projection;
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 
 import static io.spine.examples.chatspn.chat.Chat.ChatType.CT_GROUP;
@@ -52,16 +49,34 @@ import static io.spine.examples.chatspn.chat.Chat.ChatType.CT_PERSONAL;
 
 /**
  * {@link ChatCard} projection.
+ *
+ * <p>Does not follow the messages posted in the chat, which are reflected
+ * by the {@link ChatActivityProjection}.
+ *
+ * <p>The card of a group chat with more than {@link #LARGE_GROUP_SIZE} members does not
+ * keep the chat members, which are kept by the shared {@link ChatSummaryProjection} instead.
+ * Such a card stays shared until the members are removed from the chat by its owner.
+ * The members who leave the chat on their own do not make the card keep the members again,
+ * as the {@code UserLeftChat} event does not tell the remaining members.
+ *
+ * <p>Each card keeps the number of the chat members, so that a shared card changes
+ * along with the members kept by the summary.
  */
 public final class ChatCardProjection
         extends Projection<ChatCardId, ChatCard, ChatCard.Builder> {
 
+    /**
+     * The number of members above which the chat cards do not keep the chat members.
+     */
+    static final int LARGE_GROUP_SIZE = 100;
+
     @Subscribe
     void on(PersonalChatCreated e) {
         builder().setViewer(viewerId())
                  .setChatId(chatId())
                  .addMember(e.getCreator())
                  .addMember(e.getMember())
+                 .setTotalMembers(2)
                  .setType(CT_PERSONAL);
     }
 
@@ -69,10 +84,12 @@ public final class ChatCardProjection
     void on(GroupChatCreated e) {
         builder().setViewer(viewerId())
                  .setChatId(chatId())
-                 .addMember(e.getCreator())
-                 .addAllMember(e.getMemberList())
                  .setType(CT_GROUP)
                  .setGroupChatName(e.getName());
+        var members = new ArrayList<ChatMember>();
+        members.add(e.getCreator());
+        members.addAll(e.getMemberList());
+        setMembers(members);
     }
 
     @Subscribe
@@ -81,53 +98,10 @@ public final class ChatCardProjection
                  .setChatId(chatId())
                  .setType(CT_GROUP)
                  .setGroupChatName(e.getChatName());
-        var members = new ArrayList<ChatMember>();
+        var members = new LinkedHashSet<ChatMember>();
         members.addAll(e.getOldMemberList());
         members.addAll(e.getNewMemberList());
-        members.stream()
-               .filter(member -> !state()
-                       .getMemberList()
-                       .contains(member))
-               .forEach(member -> builder().addMember(member));
-    }
-
-    @Subscribe
-    void on(MessagePosted e) {
-        var message = MessageView
-                .newBuilder()
-                .setId(e.getId())
-                .setChat(e.getChat())
-                .setUser(e.getUser())
-                .setContent(e.getContent())
-                .setWhenPosted(e.getWhenPosted())
-                .vBuild();
-        builder().setLastMessage(message);
-    }
-
-    @Subscribe
-    void on(MessageContentUpdated e) {
-        var lastMessage = state().getLastMessage();
-        if (e.getId()
-             .equals(lastMessage.getId())) {
-            var message = MessageView
-                    .newBuilder()
-                    .setId(e.getId())
-                    .setChat(e.getChat())
-                    .setUser(e.getUser())
-                    .setContent(e.getContent())
-                    .setWhenPosted(lastMessage.getWhenPosted())
-                    .vBuild();
-            builder().setLastMessage(message);
-        }
-    }
-
-    @Subscribe
-    void on(MessageMarkedAsDeleted e) {
-        var lastMessage = state().getLastMessage();
-        if (e.getId()
-             .equals(lastMessage.getId())) {
-            builder().setLastMessage(MessageView.getDefaultInstance());
-        }
+        setMembers(new ArrayList<>(members));
     }
 
     @Subscribe
@@ -137,8 +111,7 @@ public final class ChatCardProjection
 
     @Subscribe
     void on(MembersRemoved e) {
-        builder().clearMember()
-                 .addAllMember(e.getRemainingMemberList());
+        setMembers(e.getRemainingMemberList());
         if (!isMember(e.getRemainingMemberList(), viewerId())) {
             setDeleted(true);
         }
@@ -146,16 +119,34 @@ public final class ChatCardProjection
 
     @Subscribe
     void on(UserLeftChat e) {
-        var userIndex = state()
-                .getMemberList()
-                .indexOf(e.getUser());
-        builder().removeMember(userIndex);
+        builder().setTotalMembers(state().getTotalMembers() - 1);
+        if (!state().getSharedSummary()) {
+            var userIndex = state()
+                    .getMemberList()
+                    .indexOf(e.getUser());
+            builder().removeMember(userIndex);
+        }
         if (viewerId().equals(e.getUser()
                                .getId())) {
             setDeleted(true);
         }
     }
 
+    /**
+     * Sets the members of the chat to the card, unless there are too many of them
+     * to copy to the card of each member.
+     */
+    private void setMembers(List<ChatMember> members) {
+        builder().clearMember()
+                 .setTotalMembers(members.size());
+        if (members.size() > LARGE_GROUP_SIZE) {
+            builder().setSharedSummary(true);
+        } else {
+            builder().setSharedSummary(false)
+                     .addAllMember(members);
+        }
+    }
+
     /**
      * Extracts viewer ID from the card ID.
      */
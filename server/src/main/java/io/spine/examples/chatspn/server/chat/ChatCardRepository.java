@@ -29,7 +29,7 @@ package io.spine.examples.chatspn.server.chat;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.errorprone.annotations.OverridingMethodsMustInvokeSuper;
-import io.spine.core.EventContext;
+import io.spine.client.ResponseFormat;
 import io.spine.core.UserId;
 import io.spine.examples.chatspn.ChatCardId;
 import io.spine.examples.chatspn.ChatId;
@@ -41,18 +41,14 @@ import io.spine.examples.chatspn.chat.event.MembersAdded;
 import io.spine.examples.chatspn.chat.event.MembersRemoved;
 import io.spine.examples.chatspn.chat.event.PersonalChatCreated;
 import io.spine.examples.chatspn.chat.event.UserLeftChat;
-import io.spine.examples.chatspn.message.event.MessageContentUpdated;
-import io.spine.examples.chatspn.message.event.MessageMarkedAsDeleted;
-import io.spine.examples.chatspn.message.event.MessagePosted;
-import io.spine.examples.chatspn.server.ProjectionReader;
 import io.spine.server.projection.ProjectionRepository;
 import io.spine.server.route.EventRouting;
 
 import java.util.ArrayList;
 import java.util.List;
 
+import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.collect.ImmutableSet.toImmutableSet;
-import static io.spine.client.Filters.eq;
 
 /**
  * The repository for managing {@link ChatCardProjection} instances.
@@ -60,6 +56,36 @@ import static io.spine.client.Filters.eq;
 public final class ChatCardRepository
         extends ProjectionRepository<ChatCardId, ChatCardProjection, ChatCard> {
 
+    private final ChatMembership membership;
+
+    /**
+     * Creates a new repository.
+     *
+     * @param membership
+     *         the index of chat members to restore from the stored chat cards
+     *         and to route the events to the cards of chat members
+     */
+    public ChatCardRepository(ChatMembership membership) {
+        super();
+        this.membership = checkNotNull(membership);
+    }
+
+    /**
+     * Restores the index of chat members from the stored chat cards.
+     */
+    @OverridingMethodsMustInvokeSuper
+    @Override
+    protected void onRegistered() {
+        super.onRegistered();
+        var cards = loadAll(ResponseFormat.getDefaultInstance());
+        while (cards.hasNext()) {
+            var card = cards.next();
+            if (!card.isDeleted()) {
+                membership.restore(card.state());
+            }
+        }
+    }
+
     @OverridingMethodsMustInvokeSuper
     @Override
     protected void setupEventRouting(EventRouting<ChatCardId> routing) {
@@ -75,18 +101,12 @@ public final class ChatCardRepository
                           return toUsersInChat(users, event.getId());
                       })
                .route(ChatMarkedAsDeleted.class,
-                      (event, context) -> toEverybodyInChat(event.getId(), context))
-               .route(MessagePosted.class,
-                      (event, context) -> toEverybodyInChat(event.getChat(), context))
-               .route(MessageContentUpdated.class,
-                      (event, context) -> toEverybodyInChat(event.getChat(), context))
-               .route(MessageMarkedAsDeleted.class,
-                      (event, context) -> toEverybodyInChat(event.getChat(), context))
+                      (event, context) -> toUsersInChat(event.getMemberList(), event.getId()))
                .route(MembersAdded.class, (event, context) -> toExistingAndNewMembers(event))
                .route(MembersRemoved.class,
-                      (event, context) -> toEverybodyInChat(event.getId(), context))
+                      (event, context) -> toRemainingAndRemovedMembers(event))
                .route(UserLeftChat.class,
-                      (event, context) -> toEverybodyInChat(event.getChat(), context));
+                      (event, context) -> toEverybodyAndLeftUser(event));
     }
 
     /**
@@ -104,25 +124,6 @@ public final class ChatCardRepository
                 .collect(toImmutableSet());
     }
 
-    /**
-     * Returns IDs of chat cards of all members in the chat.
-     *
-     * @param chatId
-     *         ID of the chat which card IDs to return
-     * @param ctx
-     *         event context
-     */
-    private ImmutableSet<ChatCardId> toEverybodyInChat(ChatId chatId, EventContext ctx) {
-        var reader = new ProjectionReader<ChatCardId, ChatCard>(context().stand(),
-                                                                ChatCard.class);
-        var chatFilter = eq(ChatCard.Field.chatId(), chatId);
-        var cards = reader.read(ctx.actorContext(), chatFilter);
-        return cards
-                .stream()
-                .map(ChatCard::getCardId)
-                .collect(toImmutableSet());
-    }
-
     /**
      * Returns IDs of chat cards of old and new members in the chat.
      */
@@ -136,6 +137,33 @@ public final class ChatCardRepository
                 .collect(toImmutableSet());
     }
 
+    /**
+     * Returns IDs of chat cards of remaining and removed members in the chat.
+     */
+    private static ImmutableSet<ChatCardId> toRemainingAndRemovedMembers(MembersRemoved event) {
+        var members = new ArrayList<ChatMember>();
+        members.addAll(event.getRemainingMemberList());
+        members.addAll(event.getRemovedMemberList());
+        return toUsersInChat(members, event.getId());
+    }
+
+    /**
+     * Returns IDs of chat cards of all members in the chat,
+     * including the member who left it.
+     *
+     * <p>The member who left is added explicitly, as the index of chat members
+     * may already be updated by the time the event is routed.
+     */
+    private ImmutableSet<ChatCardId> toEverybodyAndLeftUser(UserLeftChat event) {
+        var chat = event.getChat();
+        var leftUser = chatCardId(chat, event.getUser()
+                                             .getId());
+        return ImmutableSet.<ChatCardId>builder()
+                           .addAll(membership.cardsOf(chat))
+                           .add(leftUser)
+                           .build();
+    }
+
     /**
      * Builds {@code ChatCardId}.
      */
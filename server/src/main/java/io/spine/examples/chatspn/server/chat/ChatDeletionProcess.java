@@ -26,43 +26,61 @@
 
 package io.spine.examples.chatspn.server.chat;
 
-import io.spine.core.EventContext;
 import io.spine.examples.chatspn.ChatDeletionId;
-import io.spine.examples.chatspn.ChatId;
-import io.spine.examples.chatspn.MessageId;
-import io.spine.examples.chatspn.MessageRemovalOperationId;
+import io.spine.examples.chatspn.ChatTimelineBucketId;
 import io.spine.examples.chatspn.chat.ChatDeletion;
 import io.spine.examples.chatspn.chat.command.DeleteChat;
 import io.spine.examples.chatspn.chat.command.MarkChatAsDeleted;
+import io.spine.examples.chatspn.chat.command.ReclaimChatHistory;
 import io.spine.examples.chatspn.chat.event.ChatDeleted;
 import io.spine.examples.chatspn.chat.event.ChatDeletionFailed;
+import io.spine.examples.chatspn.chat.event.ChatHistoryPartReclaimed;
+import io.spine.examples.chatspn.chat.event.ChatHistoryReclaimed;
 import io.spine.examples.chatspn.chat.event.ChatMarkedAsDeleted;
 import io.spine.examples.chatspn.chat.event.LastMemberLeftChat;
 import io.spine.examples.chatspn.chat.rejection.DeletionRejections.ChatCannotBeMarkedAsDeleted;
-import io.spine.examples.chatspn.message.MessageView;
-import io.spine.examples.chatspn.message.command.MarkMessageAsDeleted;
-import io.spine.examples.chatspn.server.ProjectionReader;
+import io.spine.examples.chatspn.message.event.ChatTimelineClosed;
+import io.spine.examples.chatspn.server.message.ChatHistoryReclaim;
+import io.spine.server.command.Assign;
 import io.spine.server.command.Command;
 import io.spine.server.event.React;
 import io.spine.server.procman.ProcessManager;
+import io.spine.server.tuple.EitherOf2;
 import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
 
-import java.util.List;
-
-import static com.google.common.collect.ImmutableSet.toImmutableSet;
-import static io.spine.client.Filters.eq;
-
 /**
  * Coordinates the chat deletion.
+ *
+ * <p>The messages of the deleted chat are not deleted one by one. The whole chat history
+ * is hidden by the tombstone of the {@code ChatTimeline} once the chat is deleted:
+ * the history is read from the buckets of the timeline, and the views of the messages
+ * are not returned by the queries of the chats whose timeline is a tombstone.
+ * The timeline reports the number of its buckets when closed, after it has handled
+ * the messages posted before the deletion.
+ *
+ * <p>Then the process reclaims the records of the chat history in batches of
+ * at most {@link #BATCH_SIZE} messages. Each batch is reclaimed by a separate command,
+ * which the process issues only after the previous batch is done. Thus, the batches
+ * wait in the delivery queue behind the signals of the live chats, and a large deletion
+ * slows down rather than holds up the other chats when the queue grows.
+ *
+ * <p>The progress of reclaiming is kept in the process state after each batch,
+ * so that the {@link ChatDeletionRepository} resumes the unfinished deletions
+ * when the server restarts.
  */
 public final class ChatDeletionProcess
         extends ProcessManager<ChatDeletionId, ChatDeletion, ChatDeletion.Builder> {
 
     /**
-     * Reads messages per chat.
+     * The maximum number of messages reclaimed in one batch.
+     */
+    static final int BATCH_SIZE = 500;
+
+    /**
+     * Reclaims the batches of the chat history.
      */
     @MonotonicNonNull
-    private ProjectionReader<MessageId, MessageView> projectionReader;
+    private ChatHistoryReclaim reclaim;
 
     /**
      * Issues a command to mark chat as deleted.
@@ -77,8 +95,12 @@ public final class ChatDeletionProcess
                 .vBuild();
     }
 
+    /**
+     * Emits the event that the chat is deleted.
+     */
     @React
     ChatDeleted on(ChatMarkedAsDeleted e) {
+        builder().setWhoDeleted(e.getWhoDeleted());
         return ChatDeleted
                 .newBuilder()
                 .setId(e.chatDeletion())
@@ -87,6 +109,53 @@ public final class ChatDeletionProcess
                 .vBuild();
     }
 
+    /**
+     * Starts reclaiming the buckets of the closed chat timeline.
+     *
+     * <p>The buckets of the timeline are served by the same delivery shard
+     * as this process. Thus, the messages added to the buckets before the timeline
+     * was closed are already there when the buckets are reclaimed.
+     */
+    @Command
+    ReclaimChatHistory on(ChatTimelineClosed e) {
+        builder().setBucketCount(e.getBucketCount())
+                 .setReclaiming(true);
+        return reclaimChatHistory(builder().getId());
+    }
+
+    /**
+     * Reclaims the next batch of the chat history.
+     *
+     * <p>Deletes the process once the whole history is reclaimed.
+     */
+    @Assign
+    EitherOf2<ChatHistoryPartReclaimed, ChatHistoryReclaimed> handle(ReclaimChatHistory c) {
+        var reclaimed = reclaimBatch(c.getId());
+        if (hasPendingBuckets()) {
+            var event = ChatHistoryPartReclaimed
+                    .newBuilder()
+                    .setId(c.getId())
+                    .setReclaimed(reclaimed)
+                    .vBuild();
+            return EitherOf2.withA(event);
+        }
+        setDeleted(true);
+        var event = ChatHistoryReclaimed
+                .newBuilder()
+                .setId(c.getId())
+                .setReclaimed(builder().getReclaimed())
+                .vBuild();
+        return EitherOf2.withB(event);
+    }
+
+    /**
+     * Issues a command to reclaim the next batch of the chat history.
+     */
+    @Command
+    ReclaimChatHistory on(ChatHistoryPartReclaimed e) {
+        return reclaimChatHistory(e.getId());
+    }
+
     /**
      * Issues a command to mark chat as deleted.
      */
@@ -114,43 +183,49 @@ public final class ChatDeletionProcess
     }
 
     /**
-     * Issues commands to mark all chat messages as deleted if the chat was deleted successfully.
+     * Reclaims a batch of messages starting from the current bucket
+     * and records the progress.
+     *
+     * <p>A batch spans several buckets if the current bucket has fewer messages
+     * left than the batch may hold.
+     *
+     * @return the number of the reclaimed messages
      */
-    @Command
-    Iterable<MarkMessageAsDeleted> on(ChatDeleted e, EventContext ctx) {
-        var byChatId = eq(MessageView.Field.chat(), e.chat());
-        List<MessageView> messages = projectionReader.read(ctx.actorContext(), byChatId);
-        var commands = messages
-                .stream()
-                .map(message -> markMessageAsDeleted(message, e))
-                .collect(toImmutableSet());
-        setDeleted(true);
-        return commands;
+    private int reclaimBatch(ChatDeletionId id) {
+        var total = 0;
+        while (hasPendingBuckets() && total < BATCH_SIZE) {
+            var bucket = ChatTimelineBucketId
+                    .newBuilder()
+                    .setChat(id.getId())
+                    .setNumber(builder().getCurrentBucket())
+                    .vBuild();
+            var offset = builder().getBucketOffset();
+            var limit = BATCH_SIZE - total;
+            var reclaimed = reclaim.reclaim(bucket, offset, limit);
+            if (reclaimed < limit) {
+                builder().setCurrentBucket(builder().getCurrentBucket() + 1)
+                         .setBucketOffset(0);
+            } else {
+                builder().setBucketOffset(offset + reclaimed);
+            }
+            total += reclaimed;
+        }
+        builder().setReclaimed(builder().getReclaimed() + total);
+        return total;
     }
 
-    private static MarkMessageAsDeleted
-    markMessageAsDeleted(MessageView message, ChatDeleted event) {
-        return MarkMessageAsDeleted
-                .newBuilder()
-                .setId(message.getId())
-                .setChat(message.getChat())
-                .setUser(event.getWhoDeleted())
-                .setOperation(messageRemovalOperationId(event.chat()))
-                .vBuild();
+    private boolean hasPendingBuckets() {
+        return builder().getCurrentBucket() < builder().getBucketCount();
     }
 
-    private static MessageRemovalOperationId messageRemovalOperationId(ChatId chatId) {
-        var removal = ChatDeletionId
-                .newBuilder()
-                .setId(chatId)
-                .vBuild();
-        return MessageRemovalOperationId
+    private static ReclaimChatHistory reclaimChatHistory(ChatDeletionId id) {
+        return ReclaimChatHistory
                 .newBuilder()
-                .setChatDeletion(removal)
+                .setId(id)
                 .vBuild();
     }
 
-    void inject(ProjectionReader<MessageId, MessageView> reader) {
-        projectionReader = reader;
+    void inject(ChatHistoryReclaim reclaim) {
+        this.reclaim = reclaim;
     }
 }
@@ -27,17 +27,22 @@
 package io.spine.examples.chatspn.server.chat;
 
 import com.google.errorprone.annotations.OverridingMethodsMustInvokeSuper;
+import io.spine.client.ActorRequestFactory;
+import io.spine.client.ResponseFormat;
 import io.spine.examples.chatspn.ChatDeletionId;
 import io.spine.examples.chatspn.chat.ChatDeletion;
-import io.spine.examples.chatspn.chat.event.ChatDeleted;
+import io.spine.examples.chatspn.chat.command.ReclaimChatHistory;
+import io.spine.examples.chatspn.chat.event.ChatHistoryPartReclaimed;
 import io.spine.examples.chatspn.chat.event.LastMemberLeftChat;
 import io.spine.examples.chatspn.chat.event.ChatMarkedAsDeleted;
 import io.spine.examples.chatspn.chat.rejection.DeletionRejections.ChatCannotBeMarkedAsDeleted;
-import io.spine.examples.chatspn.message.MessageView;
-import io.spine.examples.chatspn.server.ProjectionReader;
+import io.spine.examples.chatspn.message.event.ChatTimelineClosed;
+import io.spine.examples.chatspn.server.message.ChatHistoryReclaim;
 import io.spine.server.procman.ProcessManagerRepository;
 import io.spine.server.route.EventRouting;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+import static io.spine.grpc.StreamObservers.noOpObserver;
 import static io.spine.server.route.EventRoute.withId;
 
 /**
@@ -46,6 +51,50 @@ import static io.spine.server.route.EventRoute.withId;
 public final class ChatDeletionRepository
         extends ProcessManagerRepository<ChatDeletionId, ChatDeletionProcess, ChatDeletion> {
 
+    private final ChatHistoryReclaim reclaim;
+
+    /**
+     * Creates a new repository.
+     *
+     * @param reclaim
+     *         reclaims the history of the deleted chats
+     */
+    public ChatDeletionRepository(ChatHistoryReclaim reclaim) {
+        super();
+        this.reclaim = checkNotNull(reclaim);
+    }
+
+    /**
+     * Resumes reclaiming the history of the chats deleted before the server restart.
+     */
+    @OverridingMethodsMustInvokeSuper
+    @Override
+    protected void onRegistered() {
+        super.onRegistered();
+        var processes = loadAll(ResponseFormat.getDefaultInstance());
+        while (processes.hasNext()) {
+            var process = processes.next();
+            var state = process.state();
+            if (!process.isDeleted() && !process.isArchived() && state.getReclaiming()) {
+                resume(state);
+            }
+        }
+    }
+
+    private void resume(ChatDeletion deletion) {
+        var command = ReclaimChatHistory
+                .newBuilder()
+                .setId(deletion.getId())
+                .vBuild();
+        var factory = ActorRequestFactory
+                .newBuilder()
+                .setActor(deletion.getWhoDeleted())
+                .build();
+        context().commandBus()
+                 .post(factory.command()
+                              .create(command), noOpObserver());
+    }
+
     @OverridingMethodsMustInvokeSuper
     @Override
     protected void setupEventRouting(EventRouting<ChatDeletionId> routing) {
@@ -54,7 +103,9 @@ public final class ChatDeletionRepository
                       (event, context) -> withId(event.chatDeletion()))
                .route(ChatCannotBeMarkedAsDeleted.class,
                       (event, context) -> withId(event.chatDeletion()))
-               .route(ChatDeleted.class,
+               .route(ChatTimelineClosed.class,
+                      (event, context) -> withId(chatDeletion(event)))
+               .route(ChatHistoryPartReclaimed.class,
                       (event, context) -> withId(event.getId()))
                .route(LastMemberLeftChat.class,
                       (event, context) -> withId(event.chatDeletion()));
@@ -64,6 +115,13 @@ public final class ChatDeletionRepository
     @Override
     protected void configure(ChatDeletionProcess p) {
         super.configure(p);
-        p.inject(new ProjectionReader<>(context().stand(), MessageView.class));
+        p.inject(reclaim);
+    }
+
+    private static ChatDeletionId chatDeletion(ChatTimelineClosed event) {
+        return ChatDeletionId
+                .newBuilder()
+                .setId(event.getId())
+                .vBuild();
     }
 }
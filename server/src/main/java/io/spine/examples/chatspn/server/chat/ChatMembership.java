@@ -0,0 +1,229 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.server.chat;
+
+import com.google.common.collect.ImmutableSet;
+import io.spine.core.Subscribe;
+import io.spine.core.UserId;
+import io.spine.examples.chatspn.ChatCardId;
+import io.spine.examples.chatspn.ChatId;
+import io.spine.examples.chatspn.chat.ChatCard;
+import io.spine.examples.chatspn.chat.ChatMember;
+import io.spine.examples.chatspn.chat.event.ChatMarkedAsDeleted;
+import io.spine.examples.chatspn.chat.event.GroupChatCreated;
+import io.spine.examples.chatspn.chat.event.MembersAdded;
+import io.spine.examples.chatspn.chat.event.MembersRemoved;
+import io.spine.examples.chatspn.chat.event.PersonalChatCreated;
+import io.spine.examples.chatspn.chat.event.UserLeftChat;
+import io.spine.server.event.AbstractEventSubscriber;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+
+/**
+ * An in-memory index of chat members and their chat cards.
+ *
+ * <p>The index is kept up to date by subscribing to the events which change the chat
+ * membership. On the server start, the index is restored from the existing
+ * {@link ChatCard} projections by the {@link ChatCardRepository}.
+ *
+ * <p>Allows to check whether a user is a member of a chat and to find the chat cards
+ * of a chat without querying projections.
+ *
+ * <p>The members of each chat are changed in place, so a membership change costs
+ * as much as the number of the added or removed members. The changes of one chat are
+ * serialized by the map of the chats, while the lookups synchronize on the members
+ * of the looked up chat only.
+ */
+public final class ChatMembership extends AbstractEventSubscriber {
+
+    private final Map<ChatId, Members> chats = new ConcurrentHashMap<>();
+
+    /**
+     * Tells whether the given user is a member of the specified chat.
+     *
+     * <p>If the chat with the provided ID does not exist, just returns {@code false}.
+     *
+     * @return {@code true} in case user is a member of the chat, {@code false} otherwise
+     */
+    public boolean isMember(ChatId chat, UserId user) {
+        checkNotNull(chat);
+        checkNotNull(user);
+        var members = chats.get(chat);
+        return members != null && members.contains(user);
+    }
+
+    /**
+     * Returns the IDs of the chat cards of all members in the chat.
+     *
+     * <p>If the chat with the provided ID does not exist, returns an empty set.
+     */
+    public ImmutableSet<ChatCardId> cardsOf(ChatId chat) {
+        checkNotNull(chat);
+        var members = chats.get(chat);
+        return members == null ? ImmutableSet.of() : members.cardIds();
+    }
+
+    @Subscribe
+    void on(PersonalChatCreated e) {
+        add(e.getId(), List.of(e.getCreator(), e.getMember()));
+    }
+
+    @Subscribe
+    void on(GroupChatCreated e) {
+        add(e.getId(), List.of(e.getCreator()));
+        add(e.getId(), e.getMemberList());
+    }
+
+    @Subscribe
+    void on(MembersAdded e) {
+        add(e.getId(), e.getNewMemberList());
+    }
+
+    @Subscribe
+    void on(MembersRemoved e) {
+        remove(e.getId(), e.getRemovedMemberList());
+    }
+
+    @Subscribe
+    void on(UserLeftChat e) {
+        remove(e.getChat(), List.of(e.getUser()));
+    }
+
+    @Subscribe
+    void on(ChatMarkedAsDeleted e) {
+        chats.remove(e.getId());
+    }
+
+    /**
+     * Adds the member of the chat described by the given card to the index.
+     */
+    void restore(ChatCard card) {
+        var cardId = card.getCardId();
+        addCards(cardId.getChat(), List.of(cardId));
+    }
+
+    private void add(ChatId chat, List<ChatMember> members) {
+        var cardIds = members
+                .stream()
+                .map(member -> chatCardId(chat, member.getId()))
+                .collect(toImmutableList());
+        addCards(chat, cardIds);
+    }
+
+    private void addCards(ChatId chat, List<ChatCardId> cardIds) {
+        chats.compute(chat, (id, current) -> (current == null ? new Members() : current)
+                .add(cardIds));
+    }
+
+    private void remove(ChatId chat, List<ChatMember> members) {
+        var users = members
+                .stream()
+                .map(ChatMember::getId)
+                .collect(toImmutableSet());
+        chats.computeIfPresent(chat, (id, current) -> current.remove(users));
+    }
+
+    private static ChatCardId chatCardId(ChatId chat, UserId user) {
+        return ChatCardId
+                .newBuilder()
+                .setChat(chat)
+                .setUser(user)
+                .vBuild();
+    }
+
+    /**
+     * The members of a single chat.
+     *
+     * <p>The members are changed in place. The set of the chat card IDs is built
+     * on the first request after a change and reused until the next change.
+     */
+    private static final class Members {
+
+        /**
+         * The chat cards per member.
+         *
+         * <p>Guarded by {@code this}.
+         */
+        private final Map<UserId, ChatCardId> cards = new HashMap<>();
+
+        /**
+         * The IDs of the chat cards, or {@code null} if the members have changed
+         * since the IDs were last requested.
+         *
+         * <p>Guarded by {@code this}.
+         */
+        private @Nullable ImmutableSet<ChatCardId> cardIds;
+
+        private synchronized boolean contains(UserId user) {
+            return cards.containsKey(user);
+        }
+
+        private synchronized ImmutableSet<ChatCardId> cardIds() {
+            if (cardIds == null) {
+                cardIds = ImmutableSet.copyOf(cards.values());
+            }
+            return cardIds;
+        }
+
+        /**
+         * Adds the given chat cards.
+         *
+         * @return this instance
+         */
+        private synchronized Members add(List<ChatCardId> added) {
+            for (var card : added) {
+                if (cards.putIfAbsent(card.getUser(), card) == null) {
+                    cardIds = null;
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Removes the given users.
+         *
+         * @return this instance, or {@code null} if no members remain
+         */
+        private synchronized @Nullable Members remove(Set<UserId> removed) {
+            for (var user : removed) {
+                if (cards.remove(user) != null) {
+                    cardIds = null;
+                }
+            }
+            return cards.isEmpty() ? null : this;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.server.chat;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.errorprone.annotations.OverridingMethodsMustInvokeSuper;
+import io.spine.examples.chatspn.ChatId;
+import io.spine.examples.chatspn.chat.Chat;
+import io.spine.server.aggregate.AggregateHistory;
+import io.spine.server.aggregate.AggregateReadRequest;
+import io.spine.server.aggregate.AggregateRepository;
+
+import java.util.Optional;
+
+/**
+ * Manages instances of {@link ChatAggregate}.
+ *
+ * <p>Group chats accumulate membership events during their lifetime. In order not to
+ * replay the whole history on each load, the repository stores a snapshot of a chat
+ * once the configured number of events is applied to it.
+ *
+ * <p>The repository keeps the {@linkplain MemberIndexCache indexes of the members}
+ * of the recently handled chats, so that they are not built anew each time a chat is loaded.
+ */
+public final class ChatRepository extends AggregateRepository<ChatId, ChatAggregate, Chat> {
+
+    /**
+     * The default number of events after which a snapshot of a chat is stored.
+     */
+    public static final int DEFAULT_SNAPSHOT_TRIGGER = 50;
+
+    private final MemberIndexCache memberIndexes = new MemberIndexCache();
+
+    /**
+     * Creates a new repository with the {@linkplain #DEFAULT_SNAPSHOT_TRIGGER default}
+     * snapshot trigger.
+     */
+    public ChatRepository() {
+        this(DEFAULT_SNAPSHOT_TRIGGER);
+    }
+
+    /**
+     * Creates a new repository which stores a snapshot of a chat
+     * every {@code snapshotTrigger} events.
+     */
+    public ChatRepository(int snapshotTrigger) {
+        super();
+        setSnapshotTrigger(snapshotTrigger);
+    }
+
+    @OverridingMethodsMustInvokeSuper
+    @Override
+    protected void configure(ChatAggregate chat) {
+        super.configure(chat);
+        chat.inject(memberIndexes);
+    }
+
+    /**
+     * Reads the stored history of the chat starting from its latest snapshot.
+     *
+     * <p>This is the part of the history which is replayed when the chat is loaded.
+     */
+    @VisibleForTesting
+    Optional<AggregateHistory> storedHistory(ChatId id) {
+        var request = new AggregateReadRequest<>(id, snapshotTrigger());
+        return aggregateStorage().read(request);
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.server.chat;
+
+import io.spine.core.Subscribe;
+import io.spine.examples.chatspn.ChatId;
+import io.spine.examples.chatspn.chat.ChatMember;
+import io.spine.examples.chatspn.chat.ChatSummary;
+import io.spine.examples.chatspn.chat.event.ChatMarkedAsDeleted;
+import io.spine.examples.chatspn.chat.event.GroupChatCreated;
+import io.spine.examples.chatspn.chat.event.MembersAdded;
+import io.spine.examples.chatspn.chat.event.MembersRemoved;
+import io.spine.examples.chatspn.chat.event.PersonalChatCreated;
+import io.spine.examples.chatspn.chat.event.UserLeftChat;
+import io.spine.server.projection.Projection;
+
+import java.util.ArrayList;
+
+import static io.spine.examples.chatspn.chat.Chat.ChatType.CT_GROUP;
+import static io.spine.examples.chatspn.chat.Chat.ChatType.CT_PERSONAL;
+
+/**
+ * {@link ChatSummary} projection.
+ *
+ * <p>Keeps the members of the chat once for all of them, so that the chat cards
+ * of large group chats do not copy the members to the card of each member.
+ */
+public final class ChatSummaryProjection
+        extends Projection<ChatId, ChatSummary, ChatSummary.Builder> {
+
+    @Subscribe
+    void on(PersonalChatCreated e) {
+        builder().setType(CT_PERSONAL)
+                 .addMember(e.getCreator())
+                 .addMember(e.getMember());
+    }
+
+    @Subscribe
+    void on(GroupChatCreated e) {
+        builder().setType(CT_GROUP)
+                 .setGroupChatName(e.getName())
+                 .addMember(e.getCreator())
+                 .addAllMember(e.getMemberList());
+    }
+
+    @Subscribe
+    void on(MembersAdded e) {
+        var members = new ArrayList<ChatMember>();
+        members.addAll(e.getOldMemberList());
+        members.addAll(e.getNewMemberList());
+        builder().setType(CT_GROUP)
+                 .setGroupChatName(e.getChatName())
+                 .clearMember()
+                 .addAllMember(members);
+    }
+
+    @Subscribe
+    void on(MembersRemoved e) {
+        builder().clearMember()
+                 .addAllMember(e.getRemainingMemberList());
+    }
+
+    @Subscribe
+    void on(UserLeftChat e) {
+        var userIndex = state()
+                .getMemberList()
+                .indexOf(e.getUser());
+        if (userIndex >= 0) {
+            builder().removeMember(userIndex);
+        }
+        if (builder().getMemberCount() == 0) {
+            setDeleted(true);
+        }
+    }
+
+    @Subscribe
+    void on(ChatMarkedAsDeleted e) {
+        setDeleted(true);
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.server.chat;
+
+import com.google.common.collect.ImmutableMap;
+import io.spine.core.UserId;
+import io.spine.examples.chatspn.chat.ChatMember;
+
+import java.util.List;
+
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static java.util.function.Function.identity;
+
+/**
+ * A hashed index of the members of a single chat.
+ *
+ * <p>The chat state keeps its members in a list, which takes linear time to search.
+ * The index allows {@link ChatAggregate} to check the membership in constant time,
+ * so that the membership checks of the commands to large group chats take the time
+ * proportional to the size of the command rather than to the size of the group.
+ *
+ * <p>The index is not stored. It is built from the chat state and kept between
+ * the commands by the {@link MemberIndexCache}. The index never changes once built,
+ * so that it can be shared by the aggregates loaded for different commands.
+ * When the members of the chat change, the aggregate drops the index, and the next
+ * membership check builds a new one.
+ */
+final class MemberIndex {
+
+    private final ImmutableMap<UserId, ChatMember> members;
+
+    private MemberIndex(ImmutableMap<UserId, ChatMember> members) {
+        this.members = members;
+    }
+
+    /**
+     * Creates the index of the given chat members.
+     */
+    static MemberIndex of(List<ChatMember> members) {
+        var byId = members
+                .stream()
+                .collect(toImmutableMap(ChatMember::getId, identity(),
+                                        (indexed, repeated) -> repeated));
+        return new MemberIndex(byId);
+    }
+
+    /**
+     * Tells whether the given member, with the same ID and name, is a member of the chat.
+     */
+    boolean contains(ChatMember member) {
+        return member.equals(members.get(member.getId()));
+    }
+
+    /**
+     * Tells whether the user with the given ID is a member of the chat.
+     */
+    boolean contains(UserId user) {
+        return members.containsKey(user);
+    }
+
+    /**
+     * Returns the number of the indexed members.
+     */
+    int size() {
+        return members.size();
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package io.spine.examples.chatspn.server.chat;
+
+import io.spine.core.Version;
+import io.spine.examples.chatspn.ChatId;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The member indexes of the recently handled chats.
+ *
+ * <p>A {@link ChatAggregate} is loaded anew for each command. In order not to build
+ * the index of a large group chat from its state for each command, the aggregate keeps
+ * the index here along with the version of the chat it reflects. The next command
+ * to the chat takes the index if the chat still has the same version.
+ *
+ * <p>The version is compared along with its timestamp, so that an index of the state
+ * which was never stored does not match another state with the same version number.
+ * The cached indexes are never changed.
+ *
+ * <p>Keeps the indexes of at most {@link #CAPACITY} chats, evicting the least
+ * recently used ones.
+ */
+final class MemberIndexCache {
+
+    /**
+     * The maximum number of the cached indexes.
+     */
+    private static final int CAPACITY = 1_000;
+
+    /**
+     * The cached indexes by chat.
+     *
+     * <p>Guarded by {@code this}.
+     */
+    private final Map<ChatId, CachedIndex> entries = new LinkedHashMap<>(16, 0.75f, true) {
+
+        private static final long serialVersionUID = 0L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ChatId, CachedIndex> eldest) {
+            return size() > CAPACITY;
+        }
+    };
+
+    /**
+     * Finds the index of the chat of the given version.
+     *
+     * @param chat
+     *         the ID of the chat
+     * @param version
+     *         the version of the chat
+     * @param memberCount
+     *         the number of the chat members, checked against the index
+     * @return the index, or {@code Optional.empty()} if there is no index
+     *         of this version of the chat
+     */
+    synchronized Optional<MemberIndex> find(ChatId chat, Version version, int memberCount) {
+        var entry = entries.get(chat);
+        if (entry == null
+                || !entry.version.equals(version)
+                || entry.index.size() != memberCount) {
+            return Optional.empty();
+        }
+        return Optional.of(entry.index);
+    }
+
+    /**
+     * Puts the index of the chat of the given version.
+     */
+    synchronized void put(ChatId chat, Version version, MemberIndex index) {
+        entries.put(chat, new CachedIndex(version, index));
+    }
+
+    /**
+     * An index of the chat members along with the version of the chat.
+     */
+    private static final class CachedIndex {
+
+        private final Version version;
+        private final MemberIndex index;
+
+        private CachedIndex(Version version, MemberIndex index) {
+            this.version = version;
+            this.index = index;
+        }
+    }
+}
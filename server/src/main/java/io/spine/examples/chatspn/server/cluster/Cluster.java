@@ -0,0 +1,233 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.server.cluster;
+
+import com.google.common.collect.ImmutableList;
+import io.spine.examples.chatspn.ChatId;
+import io.spine.examples.chatspn.chat.ChatNodes;
+import io.spine.examples.chatspn.server.transport.SocketTransportFactory;
+import io.spine.server.transport.TransportFactory;
+import io.spine.server.transport.memory.InMemoryTransportFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * The nodes of a ChatSPN deployment which split the chats among themselves.
+ *
+ * <p>Each node is a separate server process on the localhost. A chat and everything
+ * which belongs to it, such as its cards, messages and views, is served by the
+ * {@linkplain #nodeOf(ChatId, int) node chosen by the ID of the chat}. Thus, the signals
+ * of a chat never leave its node, and adding a node adds the capacity for chats.
+ * The clients send the requests of a chat to its node. A node
+ * {@linkplain CommandOwnership rejects} the commands of the chats it does not own.
+ *
+ * <p>User accounts are not split, and are served by the {@linkplain #ACCOUNTS_NODE first node},
+ * so that an e-mail address cannot be reserved twice. The chats do not handle the signals
+ * of the accounts, and the accounts do not handle the signals of the chats.
+ *
+ * <p>Thus, no domain signal needs to pass between the nodes, and the nodes use
+ * the in-memory transport, which starts no threads and binds no ports. The signals could
+ * not be forwarded between the nodes anyway: in Spine 1.9, the integration brokers
+ * of bounded contexts with the same name ignore the messages of each other.
+ *
+ * <p>A deployment which adds bounded contexts with other names subscribed to the external
+ * messages of each other may connect the nodes by the {@link SocketTransportFactory}
+ * by setting the transport ports. Each node then listens on its own transport port.
+ *
+ * <p>The cluster is {@linkplain #load() loaded} from the system properties:
+ * <ul>
+ *     <li>{@code chatspn.cluster.node} — the index of this node, starting with {@code 0};
+ *     <li>{@code chatspn.cluster.nodes} — the number of the nodes, {@code 1} by default;
+ *     <li>{@code chatspn.cluster.transport.ports} — the comma-separated transport ports
+ *         of all the nodes in the order of their indexes, which set the number of the nodes
+ *         instead of the {@code chatspn.cluster.nodes} property.
+ * </ul>
+ */
+public final class Cluster {
+
+    /**
+     * The name of the system property which sets the index of this node.
+     */
+    public static final String NODE_PROPERTY = "chatspn.cluster.node";
+
+    /**
+     * The name of the system property which sets the number of the nodes.
+     */
+    public static final String NODES_PROPERTY = "chatspn.cluster.nodes";
+
+    /**
+     * The name of the system property which sets the transport ports of the nodes.
+     */
+    public static final String TRANSPORT_PORTS_PROPERTY = "chatspn.cluster.transport.ports";
+
+    /**
+     * The index of the node which serves the user accounts.
+     */
+    public static final int ACCOUNTS_NODE = ChatNodes.ACCOUNTS_NODE;
+
+    private final int node;
+    private final int size;
+    private final ImmutableList<Integer> transportPorts;
+
+    private Cluster(int node, int size, ImmutableList<Integer> transportPorts) {
+        this.node = node;
+        this.size = size;
+        this.transportPorts = transportPorts;
+    }
+
+    /**
+     * Returns the cluster of a single node which does not use a network transport.
+     */
+    public static Cluster single() {
+        return new Cluster(0, 1, ImmutableList.of());
+    }
+
+    /**
+     * Loads the cluster from the system properties.
+     *
+     * @throws IllegalArgumentException
+     *         if a property value is invalid
+     */
+    public static Cluster load() {
+        var node = Integer.getInteger(NODE_PROPERTY, 0);
+        var ports = System.getProperty(TRANSPORT_PORTS_PROPERTY);
+        if (ports == null || ports.isBlank()) {
+            return of(node, Integer.getInteger(NODES_PROPERTY, 1));
+        }
+        List<Integer> transportPorts = new ArrayList<>();
+        for (var port : ports.split(",")) {
+            transportPorts.add(Integer.parseInt(port.trim()));
+        }
+        return of(node, transportPorts);
+    }
+
+    /**
+     * Creates the cluster of the given number of nodes as seen by the given node.
+     *
+     * <p>The nodes use the in-memory transport.
+     *
+     * @param node
+     *         the index of this node
+     * @param size
+     *         the number of the nodes
+     * @throws IllegalArgumentException
+     *         if there is no node with the given index
+     */
+    public static Cluster of(int node, int size) {
+        checkArgument(size > 0, "At least one node is required.");
+        checkArgument(node >= 0 && node < size,
+                      "The node index %s is out of the %s nodes.", node, size);
+        return new Cluster(node, size, ImmutableList.of());
+    }
+
+    /**
+     * Creates the cluster as seen by the given node, with the nodes connected
+     * by the socket transport.
+     *
+     * @param node
+     *         the index of this node
+     * @param transportPorts
+     *         the transport ports of all the nodes in the order of their indexes
+     * @throws IllegalArgumentException
+     *         if there is no node with the given index
+     */
+    public static Cluster of(int node, List<Integer> transportPorts) {
+        checkNotNull(transportPorts);
+        checkArgument(!transportPorts.isEmpty(), "At least one node is required.");
+        checkArgument(node >= 0 && node < transportPorts.size(),
+                      "The node index %s is out of the %s nodes.", node, transportPorts.size());
+        return new Cluster(node, transportPorts.size(), ImmutableList.copyOf(transportPorts));
+    }
+
+    /**
+     * Returns the index of the node which serves the given chat.
+     *
+     * <p>The node is chosen by a {@linkplain ChatNodes#nodeOf(ChatId, int) consistent hash}
+     * of the chat ID, so that adding a node moves only the chats which go to the new node.
+     * The hash differs from the one used
+     * for the {@linkplain io.spine.examples.chatspn.server.delivery.ChatShardingStrategy
+     * delivery shards}, so the chats of a node are spread over all its shards.
+     *
+     * @param chat
+     *         the ID of the chat
+     * @param nodeCount
+     *         the number of nodes in the cluster
+     */
+    public static int nodeOf(ChatId chat, int nodeCount) {
+        return ChatNodes.nodeOf(chat, nodeCount);
+    }
+
+    /**
+     * Returns the index of this node.
+     */
+    public int node() {
+        return node;
+    }
+
+    /**
+     * Returns the number of nodes in the cluster.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Tells whether this node serves the given chat.
+     */
+    public boolean owns(ChatId chat) {
+        return nodeOf(chat, size()) == node;
+    }
+
+    /**
+     * Creates the transport factory of this node.
+     *
+     * <p>Unless the transport ports of several nodes are set, the node uses
+     * the in-memory transport. Otherwise, the node listens on its transport port,
+     * and publishes the messages to the other nodes.
+     *
+     * @throws IOException
+     *         if the transport port cannot be bound
+     */
+    public TransportFactory newTransportFactory() throws IOException {
+        if (transportPorts.size() < 2) {
+            return InMemoryTransportFactory.newInstance();
+        }
+        List<Integer> peers = new ArrayList<>(transportPorts);
+        var port = peers.remove(node);
+        return SocketTransportFactory.listening(port, peers);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("node %d of %d", node, size());
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package io.spine.examples.chatspn.server.cluster;
+
+import com.google.protobuf.Message;
+import io.spine.base.Error;
+import io.spine.core.Ack;
+import io.spine.examples.chatspn.ChatDeletionId;
+import io.spine.examples.chatspn.ChatId;
+import io.spine.server.bus.BusFilter;
+import io.spine.server.type.CommandEnvelope;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static io.spine.examples.chatspn.server.cluster.Cluster.ACCOUNTS_NODE;
+import static java.lang.String.format;
+
+/**
+ * Rejects the commands which are not served by this node of the {@link Cluster}.
+ *
+ * <p>A command which targets a chat, a message of a chat or the deletion of a chat
+ * is served by the {@linkplain Cluster#owns(ChatId) node which owns the chat}. Other commands
+ * target the user accounts, and are served by the {@linkplain Cluster#ACCOUNTS_NODE accounts
+ * node}. A command sent to another node is rejected before it is dispatched, so that
+ * a chat never gets a second copy of its state on a node which does not own it.
+ *
+ * <p>The commands posted by the entities of this node, such as the commands of the processes,
+ * belong to the same chat as the signals which caused them, and thus pass the filter.
+ */
+public final class CommandOwnership implements BusFilter<CommandEnvelope> {
+
+    private static final String ID_FIELD = "id";
+    private static final String CHAT_FIELD = "chat";
+
+    private final Cluster cluster;
+
+    /**
+     * Creates the filter of the commands sent to the given node.
+     */
+    public CommandOwnership(Cluster cluster) {
+        this.cluster = checkNotNull(cluster);
+    }
+
+    /**
+     * Lets the command pass if this node serves it, and rejects it otherwise.
+     */
+    @Override
+    public Optional<Ack> filter(CommandEnvelope envelope) {
+        var command = envelope.message();
+        var node = nodeOf(command);
+        if (node == cluster.node()) {
+            return Optional.empty();
+        }
+        var error = Error
+                .newBuilder()
+                .setType(CommandOwnership.class.getCanonicalName())
+                .setMessage(format("`%s` is served by the node %d, not by the node %d.",
+                                   command.getDescriptorForType().getName(),
+                                   node, cluster.node()))
+                .build();
+        return reject(envelope, error);
+    }
+
+    /**
+     * Returns the index of the node which serves the given command.
+     */
+    int nodeOf(Message command) {
+        return chatOf(command)
+                .map(chat -> Cluster.nodeOf(chat, cluster.size()))
+                .orElse(ACCOUNTS_NODE);
+    }
+
+    /**
+     * Returns the chat targeted by the command, if any.
+     *
+     * <p>The chat is either the ID of the command target, or a part of it,
+     * or is referenced by the {@code chat} field of the command.
+     */
+    static Optional<ChatId> chatOf(Message command) {
+        var id = field(command, ID_FIELD);
+        if (id instanceof ChatId) {
+            return Optional.of((ChatId) id);
+        }
+        if (id instanceof ChatDeletionId) {
+            return Optional.of(((ChatDeletionId) id).getId());
+        }
+        var chat = field(command, CHAT_FIELD);
+        if (chat instanceof ChatId) {
+            return Optional.of((ChatId) chat);
+        }
+        return Optional.empty();
+    }
+
+    private static @Nullable Object field(Message command, String name) {
+        var field = command.getDescriptorForType()
+                           .findFieldByName(name);
+        return field == null ? null : command.getField(field);
+    }
+}
@@ -0,0 +1,388 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.server.config;
+
+import io.spine.examples.chatspn.server.chat.ChatRepository;
+import io.spine.examples.chatspn.server.execution.ThreadMode;
+import io.spine.examples.chatspn.server.message.MessageRepository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Properties;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static io.spine.client.ConnectionConstants.DEFAULT_CLIENT_SERVICE_PORT;
+
+/**
+ * The configuration of the server, its gRPC transport and its repositories.
+ *
+ * <p>The configuration is {@linkplain #load() loaded} from three sources, each of which
+ * overrides the previous one:
+ * <ol>
+ *     <li>the named profile selected by the {@code chatspn.profile} system property;
+ *     <li>the properties file set by the {@code chatspn.config} system property;
+ *     <li>the system properties.
+ * </ol>
+ *
+ * <p>The following properties are supported:
+ * <ul>
+ *     <li>{@code chatspn.port} — the port of the server;
+ *     <li>{@code chatspn.threads} — the {@linkplain ThreadMode thread mode},
+ *         {@code platform} or {@code virtual};
+ *     <li>{@code chatspn.grpc.executor.threads} — the number of platform threads which
+ *         handle the gRPC calls, or {@code 0} to start the threads on demand;
+ *     <li>{@code chatspn.grpc.boss.threads} — the number of Netty threads which accept
+ *         the connections;
+ *     <li>{@code chatspn.grpc.worker.threads} — the number of Netty threads which serve
+ *         the connections, or {@code 0} for twice the number of processors;
+ *     <li>{@code chatspn.grpc.max.inbound.message.size} — the maximum size of a received
+ *         message in bytes;
+ *     <li>{@code chatspn.grpc.flow.control.window} — the initial HTTP/2 flow control window
+ *         in bytes, which gRPC then tunes to the connection, or {@code 0} for the default
+ *         of gRPC;
+ *     <li>{@code chatspn.grpc.keepalive.time} — the time in seconds without reads
+ *         after which the server pings the client;
+ *     <li>{@code chatspn.grpc.keepalive.timeout} — the time in seconds to wait for
+ *         the response to a ping before closing the connection;
+ *     <li>{@code chatspn.grpc.permit.keepalive.time} — the shortest time in seconds
+ *         between the pings of a client;
+ *     <li>{@code chatspn.grpc.subscription.compression} — the compression of
+ *         the subscription updates, {@code identity} or {@code gzip};
+ *     <li>{@code chatspn.snapshot.chat} — the number of events after which a snapshot
+ *         of a chat is stored;
+ *     <li>{@code chatspn.snapshot.message} — the number of events after which a snapshot
+ *         of a message is stored.
+ * </ul>
+ *
+ * <p>The missing properties take the default values of gRPC and of the repositories.
+ *
+ * <p>The profiles are the {@code chatspn/profiles/<name>.properties} resources.
+ * The {@code low-latency} and the {@code high-throughput} profiles are provided.
+ */
+public final class ServerConfig {
+
+    /**
+     * The name of the system property which selects the profile.
+     */
+    public static final String PROFILE_PROPERTY = "chatspn.profile";
+
+    /**
+     * The name of the system property which sets the path to the properties file.
+     */
+    public static final String FILE_PROPERTY = "chatspn.config";
+
+    /**
+     * The compression which leaves the messages as they are.
+     */
+    public static final String NO_COMPRESSION = "identity";
+
+    private static final String PREFIX = "chatspn.";
+    private static final String PROFILES = "/chatspn/profiles/";
+    private static final String GZIP = "gzip";
+
+    private final int port;
+    private final ThreadMode threads;
+    private final int executorThreads;
+    private final int bossThreads;
+    private final int workerThreads;
+    private final int maxInboundMessageSize;
+    private final int flowControlWindow;
+    private final Duration keepAliveTime;
+    private final Duration keepAliveTimeout;
+    private final Duration permitKeepAliveTime;
+    private final String subscriptionCompression;
+    private final int chatSnapshotTrigger;
+    private final int messageSnapshotTrigger;
+
+    private ServerConfig(int port,
+                         ThreadMode threads,
+                         int executorThreads,
+                         int bossThreads,
+                         int workerThreads,
+                         int maxInboundMessageSize,
+                         int flowControlWindow,
+                         Duration keepAliveTime,
+                         Duration keepAliveTimeout,
+                         Duration permitKeepAliveTime,
+                         String subscriptionCompression,
+                         int chatSnapshotTrigger,
+                         int messageSnapshotTrigger) {
+        this.port = port;
+        this.threads = threads;
+        this.executorThreads = executorThreads;
+        this.bossThreads = bossThreads;
+        this.workerThreads = workerThreads;
+        this.maxInboundMessageSize = maxInboundMessageSize;
+        this.flowControlWindow = flowControlWindow;
+        this.keepAliveTime = keepAliveTime;
+        this.keepAliveTimeout = keepAliveTimeout;
+        this.permitKeepAliveTime = permitKeepAliveTime;
+        this.subscriptionCompression = subscriptionCompression;
+        this.chatSnapshotTrigger = chatSnapshotTrigger;
+        this.messageSnapshotTrigger = messageSnapshotTrigger;
+    }
+
+    /**
+     * Loads the configuration from the profile, the file and the system properties.
+     *
+     * @throws IllegalArgumentException
+     *         if the profile or the file cannot be found, or a property value is invalid
+     */
+    public static ServerConfig load() {
+        var properties = new Properties();
+        var profile = System.getProperty(PROFILE_PROPERTY);
+        if (profile != null) {
+            properties.putAll(profileProperties(profile));
+        }
+        var file = System.getProperty(FILE_PROPERTY);
+        if (file != null) {
+            properties.putAll(fileProperties(Paths.get(file)));
+        }
+        System.getProperties()
+              .forEach((name, value) -> {
+                  if (name.toString().startsWith(PREFIX)) {
+                      properties.put(name, value);
+                  }
+              });
+        return from(properties);
+    }
+
+    /**
+     * Returns the configuration of the named profile.
+     *
+     * @throws IllegalArgumentException
+     *         if there is no such profile
+     */
+    public static ServerConfig profile(String name) {
+        return from(profileProperties(name));
+    }
+
+    /**
+     * Returns the configuration in which no property is set.
+     *
+     * <p>The server listens on the default port of Spine and runs on platform threads.
+     * The transport takes the default values of gRPC and Netty, including the flow control
+     * window auto-tuned by gRPC, and the subscription updates are not compressed.
+     * The repositories take their default snapshot triggers.
+     *
+     * <p>Unlike {@link #load()}, ignores the system properties.
+     */
+    public static ServerConfig defaults() {
+        return from(new Properties());
+    }
+
+    /**
+     * Creates the configuration from the given properties.
+     *
+     * @throws IllegalArgumentException
+     *         if a property value is invalid
+     */
+    public static ServerConfig from(Properties properties) {
+        checkNotNull(properties);
+        var threads = properties.getProperty(PREFIX + "threads");
+        var config = new ServerConfig(
+                intProperty(properties, "port", DEFAULT_CLIENT_SERVICE_PORT),
+                threads == null ? ThreadMode.PLATFORM : ThreadMode.named(threads),
+                intProperty(properties, "grpc.executor.threads", 0),
+                intProperty(properties, "grpc.boss.threads", 1),
+                intProperty(properties, "grpc.worker.threads", 0),
+                intProperty(properties, "grpc.max.inbound.message.size", 4 * 1024 * 1024),
+                intProperty(properties, "grpc.flow.control.window", 0),
+                Duration.ofSeconds(intProperty(properties, "grpc.keepalive.time", 2 * 60 * 60)),
+                Duration.ofSeconds(intProperty(properties, "grpc.keepalive.timeout", 20)),
+                Duration.ofSeconds(intProperty(properties, "grpc.permit.keepalive.time", 5 * 60)),
+                properties.getProperty(PREFIX + "grpc.subscription.compression", NO_COMPRESSION),
+                intProperty(properties, "snapshot.chat", ChatRepository.DEFAULT_SNAPSHOT_TRIGGER),
+                intProperty(properties, "snapshot.message",
+                            MessageRepository.DEFAULT_SNAPSHOT_TRIGGER)
+        );
+        checkArgument(config.executorThreads >= 0,
+                      "The number of executor threads cannot be negative.");
+        checkArgument(config.bossThreads > 0, "At least one boss thread is required.");
+        checkArgument(config.workerThreads >= 0,
+                      "The number of worker threads cannot be negative.");
+        checkArgument(config.maxInboundMessageSize > 0,
+                      "The maximum inbound message size must be positive.");
+        checkArgument(config.flowControlWindow >= 0,
+                      "The flow control window cannot be negative.");
+        checkArgument(NO_COMPRESSION.equals(config.subscriptionCompression)
+                              || GZIP.equals(config.subscriptionCompression),
+                      "Unsupported compression `%s`.", config.subscriptionCompression);
+        checkArgument(config.chatSnapshotTrigger > 0 && config.messageSnapshotTrigger > 0,
+                      "The snapshot triggers must be positive.");
+        return config;
+    }
+
+    private static Properties profileProperties(String name) {
+        checkNotNull(name);
+        var resource = PROFILES + name + ".properties";
+        try (var stream = ServerConfig.class.getResourceAsStream(resource)) {
+            checkArgument(stream != null, "Unknown server profile `%s`.", name);
+            return read(stream);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Properties fileProperties(Path file) {
+        checkArgument(Files.isRegularFile(file), "The config file `%s` does not exist.", file);
+        try (var stream = Files.newInputStream(file)) {
+            return read(stream);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Properties read(InputStream stream) throws IOException {
+        var properties = new Properties();
+        properties.load(stream);
+        return properties;
+    }
+
+    private static int intProperty(Properties properties, String name, int defaultValue) {
+        var value = properties.getProperty(PREFIX + name);
+        if (value == null) {
+            return defaultValue;
+        }
+        return Integer.parseInt(value.trim());
+    }
+
+    /**
+     * Returns a copy of this configuration with the given port.
+     */
+    public ServerConfig withPort(int port) {
+        return new ServerConfig(port, threads, executorThreads, bossThreads, workerThreads,
+                                maxInboundMessageSize, flowControlWindow, keepAliveTime,
+                                keepAliveTimeout, permitKeepAliveTime, subscriptionCompression,
+                                chatSnapshotTrigger, messageSnapshotTrigger);
+    }
+
+    /**
+     * Returns a copy of this configuration with the given thread mode.
+     */
+    public ServerConfig withThreads(ThreadMode threads) {
+        checkNotNull(threads);
+        return new ServerConfig(port, threads, executorThreads, bossThreads, workerThreads,
+                                maxInboundMessageSize, flowControlWindow, keepAliveTime,
+                                keepAliveTimeout, permitKeepAliveTime, subscriptionCompression,
+                                chatSnapshotTrigger, messageSnapshotTrigger);
+    }
+
+    public int port() {
+        return port;
+    }
+
+    public ThreadMode threads() {
+        return threads;
+    }
+
+    /**
+     * Returns the number of platform threads which handle the gRPC calls,
+     * or {@code 0} if the threads are started on demand.
+     *
+     * <p>Not used in the {@linkplain ThreadMode#VIRTUAL virtual} thread mode.
+     */
+    public int executorThreads() {
+        return executorThreads;
+    }
+
+    public int bossThreads() {
+        return bossThreads;
+    }
+
+    /**
+     * Returns the number of Netty worker threads, or {@code 0} for the Netty default.
+     */
+    public int workerThreads() {
+        return workerThreads;
+    }
+
+    public int maxInboundMessageSize() {
+        return maxInboundMessageSize;
+    }
+
+    /**
+     * Returns the initial HTTP/2 flow control window in bytes, or {@code 0} if
+     * the default of gRPC is used.
+     */
+    public int flowControlWindow() {
+        return flowControlWindow;
+    }
+
+    public Duration keepAliveTime() {
+        return keepAliveTime;
+    }
+
+    public Duration keepAliveTimeout() {
+        return keepAliveTimeout;
+    }
+
+    public Duration permitKeepAliveTime() {
+        return permitKeepAliveTime;
+    }
+
+    /**
+     * Returns the name of the compression of the subscription updates.
+     */
+    public String subscriptionCompression() {
+        return subscriptionCompression;
+    }
+
+    /**
+     * Returns the number of events after which a snapshot of a chat is stored.
+     */
+    public int chatSnapshotTrigger() {
+        return chatSnapshotTrigger;
+    }
+
+    /**
+     * Returns the number of events after which a snapshot of a message is stored.
+     */
+    public int messageSnapshotTrigger() {
+        return messageSnapshotTrigger;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "port %d, %s threads, %d executor threads, %d boss threads, "
+                        + "%d worker threads, max inbound message %d bytes, "
+                        + "flow control window %d bytes, keepalive %d s / %d s, "
+                        + "permitted keepalive %d s, %s subscription updates, "
+                        + "snapshots every %d chat / %d message events",
+                port, threads, executorThreads, bossThreads, workerThreads,
+                maxInboundMessageSize, flowControlWindow, keepAliveTime.toSeconds(),
+                keepAliveTimeout.toSeconds(), permitKeepAliveTime.toSeconds(),
+                subscriptionCompression, chatSnapshotTrigger, messageSnapshotTrigger);
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.server.delivery;
+
+import io.spine.examples.chatspn.ChatCardId;
+import io.spine.examples.chatspn.ChatDeletionId;
+import io.spine.examples.chatspn.ChatId;
+import io.spine.examples.chatspn.ChatTimelineBucketId;
+import io.spine.examples.chatspn.MessageBatchId;
+import io.spine.examples.chatspn.MessageId;
+import io.spine.examples.chatspn.MessageRemovalId;
+import io.spine.server.delivery.DeliveryStrategy;
+import io.spine.server.delivery.ShardIndex;
+import io.spine.type.TypeUrl;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A delivery strategy which puts all the entities of one chat to the same shard.
+ *
+ * <p>The shard of an entity is chosen by the {@code ChatId} the entity belongs to.
+ * Thus, a {@code ChatAggregate}, the {@code ChatCard} projections of its members,
+ * its {@code ChatDeletion} process, its activity and its timeline are served by the same shard,
+ * and the signals of one chat are handled in order, while different chats are handled
+ * in parallel.
+ *
+ * <p>The messages and their processes are identified by the IDs of the messages or
+ * the message batches, which carry the IDs of their chats. Thus, they are served
+ * by the shard of their chat too.
+ *
+ * <p>Entities which do not belong to a chat, such as user accounts, are distributed across
+ * the shards by the hash of their identifiers.
+ */
+public final class ChatShardingStrategy extends DeliveryStrategy {
+
+    private final int shardCount;
+
+    private ChatShardingStrategy(int shardCount) {
+        super();
+        this.shardCount = shardCount;
+    }
+
+    /**
+     * Creates a new strategy with the given number of shards.
+     */
+    public static ChatShardingStrategy withShards(int shardCount) {
+        checkArgument(shardCount > 0, "The number of shards must be positive.");
+        return new ChatShardingStrategy(shardCount);
+    }
+
+    @Override
+    public ShardIndex indexFor(Object entityId, TypeUrl entityStateType) {
+        checkNotNull(entityId);
+        var key = shardingKey(entityId);
+        var index = Math.floorMod(key.hashCode(), shardCount);
+        return ShardIndex
+                .newBuilder()
+                .setIndex(index)
+                .setOfTotal(shardCount)
+                .vBuild();
+    }
+
+    /**
+     * Returns the ID of the chat the entity with the given ID belongs to,
+     * or the entity ID itself if the entity does not belong to a chat.
+     */
+    private static Object shardingKey(Object entityId) {
+        if (entityId instanceof ChatCardId) {
+            return ((ChatCardId) entityId).getChat();
+        }
+        if (entityId instanceof ChatDeletionId) {
+            return ((ChatDeletionId) entityId).getId();
+        }
+        if (entityId instanceof ChatTimelineBucketId) {
+            return ((ChatTimelineBucketId) entityId).getChat();
+        }
+        if (entityId instanceof MessageId) {
+            return chatOr(entityId, ((MessageId) entityId).getChat());
+        }
+        if (entityId instanceof MessageBatchId) {
+            return chatOr(entityId, ((MessageBatchId) entityId).getChat());
+        }
+        if (entityId instanceof MessageRemovalId) {
+            var message = ((MessageRemovalId) entityId).getId();
+            return chatOr(entityId, message.getChat());
+        }
+        return entityId;
+    }
+
+    /**
+     * Returns the given chat, or the entity ID if the chat is not set.
+     */
+    private static Object chatOr(Object entityId, ChatId chat) {
+        return chat.equals(ChatId.getDefaultInstance()) ? entityId : chat;
+    }
+
+    @Override
+    public int shardCount() {
+        return shardCount;
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package io.spine.examples.chatspn.server.delivery;
+
+import io.spine.examples.chatspn.server.metrics.InboxTracker;
+import io.spine.server.delivery.DeliveryMonitor;
+import io.spine.server.delivery.DeliveryStats;
+import io.spine.server.delivery.ShardIndex;
+
+/**
+ * Reports the progress of the delivery of each shard to the {@link InboxTracker}.
+ *
+ * <p>The delivery consults the monitor after dispatching each page of the messages
+ * read from the inbox, so the tracked messages are counted as dispatched page by page,
+ * rather than once the whole delivery run completes.
+ */
+final class InboxMonitor extends DeliveryMonitor {
+
+    private final InboxTracker inbox;
+
+    InboxMonitor(InboxTracker inbox) {
+        this.inbox = inbox;
+    }
+
+    @Override
+    public void onDeliveryStarted(ShardIndex index) {
+        inbox.deliveryStarted(index.getIndex());
+    }
+
+    @Override
+    public boolean shouldContinueAfter(DeliveryStats stats) {
+        report(stats);
+        return true;
+    }
+
+    @Override
+    public void onDeliveryCompleted(DeliveryStats stats) {
+        report(stats);
+    }
+
+    private void report(DeliveryStats stats) {
+        inbox.dispatched(stats.shardIndex()
+                              .getIndex(), stats.deliveredCount());
+    }
+}
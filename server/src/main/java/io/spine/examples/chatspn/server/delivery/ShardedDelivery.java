@@ -0,0 +1,118 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.server.delivery;
+
+import io.spine.examples.chatspn.server.execution.ThreadMode;
+import io.spine.examples.chatspn.server.metrics.InboxTracker;
+import io.spine.examples.chatspn.server.metrics.Metrics;
+import io.spine.server.delivery.Delivery;
+
+/**
+ * The {@code Delivery} sharded by chats along with the worker threads of its shards.
+ *
+ * <p>The delivery is to be {@linkplain #close() closed} once the bounded context using it
+ * is closed, so that the worker threads are stopped.
+ */
+public final class ShardedDelivery implements AutoCloseable {
+
+    /**
+     * The number of the messages read from the inbox of a shard at once
+     * when the metrics are enabled.
+     *
+     * <p>The delivered messages are reported to the {@link InboxTracker} after each page,
+     * so that the time of dispatching each message is recorded on its own.
+     * When the metrics are disabled, the default page size of the {@code Delivery} is used.
+     */
+    private static final int TRACKED_PAGE_SIZE = 1;
+
+    private final Delivery delivery;
+    private final ShardedDispatchingObserver observer;
+
+    private ShardedDelivery(Delivery delivery, ShardedDispatchingObserver observer) {
+        this.delivery = delivery;
+        this.observer = observer;
+    }
+
+    /**
+     * Creates a new delivery with the given number of shards.
+     *
+     * <p>The entities are distributed across the shards by the {@link ChatShardingStrategy}.
+     * Each shard is delivered asynchronously by its own worker thread.
+     *
+     * <p>The inboxes of the shards are reported to the {@linkplain Metrics#current()
+     * current} metrics.
+     */
+    public static ShardedDelivery withShards(int shardCount) {
+        return withShards(shardCount, Metrics.current());
+    }
+
+    /**
+     * Creates a new delivery with the given number of shards, reporting
+     * the inboxes of the shards to the given metrics.
+     */
+    public static ShardedDelivery withShards(int shardCount, Metrics metrics) {
+        return withShards(shardCount, metrics, ThreadMode.PLATFORM);
+    }
+
+    /**
+     * Creates a new delivery with the given number of shards, reporting
+     * the inboxes of the shards to the given metrics.
+     *
+     * <p>The worker threads of the shards are of the given mode.
+     */
+    public static ShardedDelivery withShards(int shardCount, Metrics metrics, ThreadMode threads) {
+        var inbox = InboxTracker.forShards(metrics, shardCount);
+        var builder = Delivery
+                .newBuilder()
+                .setStrategy(ChatShardingStrategy.withShards(shardCount))
+                .setMonitor(new InboxMonitor(inbox));
+        if (metrics.isEnabled()) {
+            builder.setPageSize(TRACKED_PAGE_SIZE);
+        }
+        var delivery = builder.build();
+        var observer = new ShardedDispatchingObserver(delivery, shardCount, inbox, threads);
+        delivery.subscribe(observer);
+        return new ShardedDelivery(delivery, observer);
+    }
+
+    /**
+     * Returns the delivery to configure the server environment with.
+     */
+    public Delivery delivery() {
+        return delivery;
+    }
+
+    /**
+     * Stops the worker threads of the shards.
+     *
+     * <p>Waits for the deliveries in progress to complete.
+     */
+    @Override
+    public void close() {
+        observer.close();
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.server.delivery;
+
+import io.spine.examples.chatspn.server.execution.ThreadMode;
+import io.spine.examples.chatspn.server.metrics.InboxTracker;
+import io.spine.server.delivery.Delivery;
+import io.spine.server.delivery.InboxMessage;
+import io.spine.server.delivery.ShardIndex;
+import io.spine.server.delivery.ShardObserver;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Delivers the messages of each shard on a dedicated worker thread.
+ *
+ * <p>The worker threads are platform or virtual ones, depending on
+ * the {@linkplain ThreadMode mode} of the server.
+ *
+ * <p>Once a message arrives to the inbox of a shard, the delivery of this shard is scheduled
+ * on its worker, unless already scheduled. Since each shard has a single worker,
+ * the messages of a shard are delivered in order, while different shards are delivered
+ * in parallel.
+ *
+ * <p>The messages written to the inbox are reported to the {@link InboxTracker}.
+ */
+final class ShardedDispatchingObserver implements ShardObserver {
+
+    /**
+     * The time to wait for a worker to complete its delivery when closing.
+     */
+    private static final Duration TERMINATION_TIMEOUT = Duration.ofSeconds(10);
+
+    private final Delivery delivery;
+    private final ExecutorService[] workers;
+    private final AtomicBoolean[] scheduled;
+    private final InboxTracker inbox;
+
+    ShardedDispatchingObserver(Delivery delivery,
+                               int shardCount,
+                               InboxTracker inbox,
+                               ThreadMode threads) {
+        this.delivery = delivery;
+        this.inbox = inbox;
+        this.workers = new ExecutorService[shardCount];
+        this.scheduled = new AtomicBoolean[shardCount];
+        for (var i = 0; i < shardCount; i++) {
+            var threadFactory = threads.threadFactory("chatspn-shard-" + i);
+            workers[i] = Executors.newSingleThreadExecutor(threadFactory);
+            scheduled[i] = new AtomicBoolean();
+        }
+    }
+
+    @Override
+    public void onMessage(InboxMessage message) {
+        var shard = message.getShardIndex();
+        var index = shard.getIndex();
+        inbox.received(message);
+        if (workers[index].isShutdown()) {
+            return;
+        }
+        if (scheduled[index].compareAndSet(false, true)) {
+            workers[index].execute(() -> deliver(shard));
+        }
+    }
+
+    /**
+     * Delivers the messages of the shard.
+     *
+     * <p>The shard is marked as not scheduled before the delivery starts, so that
+     * the messages which arrive during the delivery schedule another one.
+     * The dispatched messages are reported to the tracker by the {@link InboxMonitor}.
+     */
+    private void deliver(ShardIndex shard) {
+        scheduled[shard.getIndex()].set(false);
+        delivery.deliver(shard);
+    }
+
+    /**
+     * Stops the workers once they complete the deliveries in progress.
+     *
+     * <p>The messages which arrive afterwards stay in the inbox.
+     */
+    void close() {
+        for (var worker : workers) {
+            worker.shutdown();
+        }
+        for (var worker : workers) {
+            try {
+                if (!worker.awaitTermination(TERMINATION_TIMEOUT.toMillis(), MILLISECONDS)) {
+                    worker.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                worker.shutdownNow();
+                Thread.currentThread()
+                      .interrupt();
+            }
+        }
+    }
+}
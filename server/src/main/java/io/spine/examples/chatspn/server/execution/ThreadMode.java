@@ -0,0 +1,173 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.server.execution;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * The kind of threads which run the work of the server.
+ *
+ * <p>Platform threads are backed by OS threads one to one, so each request blocked
+ * by a read of the entity states occupies an OS thread. Virtual threads release
+ * the OS thread while being blocked, so that thousands of concurrent requests
+ * are served by a few OS threads.
+ *
+ * <p>Virtual threads are available since Java 21. The server is compiled for Java 11,
+ * so virtual threads are created through reflection.
+ */
+public enum ThreadMode {
+
+    /**
+     * Runs the work on platform threads.
+     */
+    PLATFORM {
+        @Override
+        public ThreadFactory threadFactory(String name) {
+            checkNotNull(name);
+            return new ThreadFactoryBuilder()
+                    .setNameFormat(name + "-%d")
+                    .setDaemon(true)
+                    .build();
+        }
+
+        @Override
+        public ExecutorService newExecutor(String name) {
+            return Executors.newCachedThreadPool(threadFactory(name));
+        }
+
+        @Override
+        public boolean isSupported() {
+            return true;
+        }
+    },
+
+    /**
+     * Runs the work on virtual threads.
+     */
+    VIRTUAL {
+        @Override
+        public ThreadFactory threadFactory(String name) {
+            checkNotNull(name);
+            checkSupported();
+            try {
+                var builderClass = Class.forName("java.lang.Thread$Builder");
+                var builder = Thread.class
+                        .getMethod("ofVirtual")
+                        .invoke(null);
+                builder = builderClass
+                        .getMethod("name", String.class, long.class)
+                        .invoke(builder, name + '-', 0L);
+                return (ThreadFactory) builderClass
+                        .getMethod("factory")
+                        .invoke(builder);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Unable to create virtual threads.", e);
+            }
+        }
+
+        @Override
+        public ExecutorService newExecutor(String name) {
+            var factory = threadFactory(name);
+            try {
+                return (ExecutorService) Executors.class
+                        .getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                        .invoke(null, factory);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Unable to create virtual threads.", e);
+            }
+        }
+
+        @Override
+        public boolean isSupported() {
+            return Runtime.version()
+                          .feature() >= VIRTUAL_THREADS_VERSION;
+        }
+    };
+
+    /**
+     * The version of Java which introduced virtual threads.
+     */
+    private static final int VIRTUAL_THREADS_VERSION = 21;
+
+    /**
+     * Creates a factory of threads named by the given prefix and the number of the thread.
+     *
+     * @throws IllegalStateException
+     *         if the threads of this kind are not supported by the running JVM
+     */
+    public abstract ThreadFactory threadFactory(String name);
+
+    /**
+     * Creates an executor which runs each task on a thread of this kind.
+     *
+     * <p>Platform threads are reused between tasks. A new virtual thread
+     * is started for each task.
+     *
+     * @throws IllegalStateException
+     *         if the threads of this kind are not supported by the running JVM
+     */
+    public abstract ExecutorService newExecutor(String name);
+
+    /**
+     * Tells whether the running JVM supports the threads of this kind.
+     */
+    public abstract boolean isSupported();
+
+    /**
+     * Throws an {@code IllegalStateException} if the running JVM does not support
+     * the threads of this kind.
+     */
+    void checkSupported() {
+        checkState(isSupported(),
+                   "`%s` threads require Java %s or newer, running on Java %s.",
+                   this, VIRTUAL_THREADS_VERSION, Runtime.version().feature());
+    }
+
+    /**
+     * Returns the mode with the given name, ignoring the case.
+     *
+     * @throws IllegalArgumentException
+     *         if there is no mode with such a name
+     */
+    public static ThreadMode named(String name) {
+        checkNotNull(name);
+        for (var mode : values()) {
+            if (mode.name().equalsIgnoreCase(name)) {
+                return mode;
+            }
+        }
+        throw new IllegalArgumentException(
+                String.format("Unknown thread mode `%s`.", name));
+    }
+}
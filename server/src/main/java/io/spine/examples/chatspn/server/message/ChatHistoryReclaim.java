@@ -0,0 +1,107 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.server.message;
+
+import io.spine.examples.chatspn.ChatTimelineBucketId;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Reclaims the storage occupied by the history of deleted chats.
+ *
+ * <p>When a chat is deleted, its history is hidden at once by the tombstone
+ * of the {@code ChatTimeline}. The history is read from the buckets of the timeline,
+ * and the {@link MessageViewRepository} does not return the views of the chats whose
+ * timeline is a tombstone. The records of the timeline buckets and of the message views
+ * are then reclaimed by the chat deletion process in bounded batches.
+ *
+ * <p>The histories of the {@code Message} aggregates are not reclaimed. They are
+ * the events the views were built from, and are kept as the rest of the event store is.
+ * The aggregate storage offers no way to delete the history of a single aggregate,
+ * and the aggregates are not visible to queries anyway.
+ *
+ * <p>Reclaiming a batch is idempotent, so a batch interrupted by the server
+ * restart may be safely reclaimed once again.
+ */
+public final class ChatHistoryReclaim {
+
+    private final ChatTimelineBucketRepository buckets;
+    private final MessageViewRepository views;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param buckets
+     *         the repository of the chat timeline buckets
+     * @param views
+     *         the repository of the message views
+     */
+    public ChatHistoryReclaim(ChatTimelineBucketRepository buckets, MessageViewRepository views) {
+        this.buckets = checkNotNull(buckets);
+        this.views = checkNotNull(views);
+    }
+
+    /**
+     * Reclaims the records of a batch of messages in the bucket of the chat timeline.
+     *
+     * <p>Purges the views of up to {@code limit} messages of the bucket, skipping
+     * the given number of messages which have already been reclaimed. Once there are
+     * no more messages to reclaim in the bucket, purges the record of the bucket itself.
+     *
+     * @param id
+     *         the ID of the bucket
+     * @param offset
+     *         the number of messages of the bucket which have already been reclaimed
+     * @param limit
+     *         the maximum number of messages to reclaim
+     * @return the number of the reclaimed messages, which is less than the {@code limit}
+     *         if the bucket has been reclaimed completely
+     */
+    public int reclaim(ChatTimelineBucketId id, int offset, int limit) {
+        checkNotNull(id);
+        checkArgument(offset >= 0, "The offset must not be negative.");
+        checkArgument(limit > 0, "The limit must be positive.");
+        var bucket = buckets.find(id);
+        if (bucket.isEmpty()) {
+            return 0;
+        }
+        var messages = bucket.get()
+                             .state()
+                             .getMessageList();
+        var end = Math.min(messages.size(), offset + limit);
+        for (var i = offset; i < end; i++) {
+            views.purge(messages.get(i)
+                                .getId());
+        }
+        var reclaimed = Math.max(end - offset, 0);
+        if (reclaimed < limit) {
+            buckets.purge(id);
+        }
+        return reclaimed;
+    }
+}
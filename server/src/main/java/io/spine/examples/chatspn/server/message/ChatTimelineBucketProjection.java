@@ -0,0 +1,109 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.server.message;
+
+import io.spine.core.Subscribe;
+import io.spine.examples.chatspn.ChatTimelineBucketId;
+import io.spine.examples.chatspn.MessageId;
+import io.spine.examples.chatspn.message.ChatTimelineBucket;
+import io.spine.examples.chatspn.message.event.MessageAddedToTimeline;
+import io.spine.examples.chatspn.message.event.MessageRemovedFromTimeline;
+import io.spine.examples.chatspn.message.event.TimelineMessageUpdated;
+import io.spine.server.projection.Projection;
+
+/**
+ * {@link ChatTimelineBucket} projection.
+ *
+ * <p>A bucket holds a limited number of messages, so looking a message up
+ * in the bucket takes bounded time.
+ */
+public final class ChatTimelineBucketProjection
+        extends Projection<ChatTimelineBucketId, ChatTimelineBucket, ChatTimelineBucket.Builder> {
+
+    @Subscribe
+    void on(MessageAddedToTimeline e) {
+        var message = e.getMessage();
+        if (indexOf(message.getId()) >= 0) {
+            return;
+        }
+        builder().addMessage(insertionPoint(message.getPosition()), message);
+    }
+
+    @Subscribe
+    void on(TimelineMessageUpdated e) {
+        var index = indexOf(e.getId());
+        if (index >= 0) {
+            var message = builder()
+                    .getMessage(index)
+                    .toBuilder()
+                    .setContent(e.getContent())
+                    .vBuild();
+            builder().setMessage(index, message);
+        }
+    }
+
+    @Subscribe
+    void on(MessageRemovedFromTimeline e) {
+        var index = indexOf(e.getId());
+        if (index >= 0) {
+            builder().removeMessage(index);
+        }
+    }
+
+    /**
+     * Returns the index at which the message at the given position in the chat history
+     * keeps the messages of the bucket in order.
+     *
+     * <p>Messages usually arrive in the order of posting,
+     * so the search starts from the end of the bucket.
+     */
+    private int insertionPoint(String position) {
+        var messages = builder().getMessageList();
+        var index = messages.size();
+        while (index > 0 && messages.get(index - 1)
+                                    .getPosition()
+                                    .compareTo(position) > 0) {
+            index--;
+        }
+        return index;
+    }
+
+    /**
+     * Returns the index of the message in the bucket, or {@code -1} if there is no such message.
+     */
+    private int indexOf(MessageId message) {
+        var messages = builder().getMessageList();
+        for (var i = messages.size() - 1; i >= 0; i--) {
+            if (messages.get(i)
+                        .getId()
+                        .equals(message)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
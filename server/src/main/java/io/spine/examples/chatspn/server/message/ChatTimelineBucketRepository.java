@@ -0,0 +1,71 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.server.message;
+
+import com.google.errorprone.annotations.OverridingMethodsMustInvokeSuper;
+import io.spine.examples.chatspn.ChatTimelineBucketId;
+import io.spine.examples.chatspn.message.ChatTimelineBucket;
+import io.spine.examples.chatspn.message.event.MessageAddedToTimeline;
+import io.spine.examples.chatspn.message.event.MessageRemovedFromTimeline;
+import io.spine.examples.chatspn.message.event.TimelineMessageUpdated;
+import io.spine.server.projection.ProjectionRepository;
+import io.spine.server.route.EventRouting;
+
+import static io.spine.server.route.EventRoute.withId;
+
+/**
+ * Manages instances of {@link ChatTimelineBucketProjection}.
+ *
+ * <p>Routes the timeline events to the bucket chosen by the {@link ChatTimelineProcess}.
+ */
+public final class ChatTimelineBucketRepository
+        extends ProjectionRepository<ChatTimelineBucketId,
+                                     ChatTimelineBucketProjection,
+                                     ChatTimelineBucket> {
+
+    @OverridingMethodsMustInvokeSuper
+    @Override
+    protected void setupEventRouting(EventRouting<ChatTimelineBucketId> routing) {
+        super.setupEventRouting(routing);
+        routing.route(MessageAddedToTimeline.class,
+                      (event, context) -> withId(event.getBucket()))
+               .route(TimelineMessageUpdated.class,
+                      (event, context) -> withId(event.getBucket()))
+               .route(MessageRemovedFromTimeline.class,
+                      (event, context) -> withId(event.getBucket()));
+    }
+
+    /**
+     * Deletes the record of the bucket from the storage.
+     *
+     * <p>Does nothing if there is no record with the given ID.
+     */
+    @SuppressWarnings("CheckReturnValue") // A missing record needs no purging.
+    void purge(ChatTimelineBucketId id) {
+        recordStorage().delete(id);
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package io.spine.examples.chatspn.server.message;
+
+import io.spine.examples.chatspn.ChatId;
+import io.spine.examples.chatspn.ChatTimelineBucketId;
+import io.spine.examples.chatspn.MessageId;
+import io.spine.examples.chatspn.chat.event.ChatDeleted;
+import io.spine.examples.chatspn.message.ChatTimeline;
+import io.spine.examples.chatspn.message.ChatTimeline.Bucket;
+import io.spine.examples.chatspn.message.ChatTimelines;
+import io.spine.examples.chatspn.message.MessageView;
+import io.spine.examples.chatspn.message.event.ChatTimelineClosed;
+import io.spine.examples.chatspn.message.event.MessageAddedToTimeline;
+import io.spine.examples.chatspn.message.event.MessageContentUpdated;
+import io.spine.examples.chatspn.message.event.MessageMarkedAsDeleted;
+import io.spine.examples.chatspn.message.event.MessagePosted;
+import io.spine.examples.chatspn.message.event.MessageRemovedFromTimeline;
+import io.spine.examples.chatspn.message.event.TimelineMessageUpdated;
+import io.spine.server.event.React;
+import io.spine.server.procman.ProcessManager;
+
+import java.util.Optional;
+
+import static io.spine.examples.chatspn.message.ChatTimelines.CAPACITY;
+import static io.spine.examples.chatspn.message.ChatTimelines.bucketOf;
+import static io.spine.examples.chatspn.message.MessagePositions.positionOf;
+
+/**
+ * Splits the history of the chat into the buckets of the {@link ChatTimeline}.
+ *
+ * <p>Adds each posted message to the latest bucket, until the bucket holds
+ * the {@linkplain ChatTimelines#CAPACITY maximum} number of messages. Then starts
+ * a new bucket. The edited and deleted messages are found in the buckets by their
+ * positions in the chat history.
+ *
+ * <p>The messages of a chat are usually posted in the order of their positions.
+ * A message positioned before the latest bucket is added to the earlier bucket which
+ * covers its position, and the bucket ignores the messages it already holds.
+ * A message already added to the latest bucket is ignored by the timeline itself.
+ */
+public final class ChatTimelineProcess
+        extends ProcessManager<ChatId, ChatTimeline, ChatTimeline.Builder> {
+
+    /**
+     * Adds the posted message to the bucket which covers its position.
+     */
+    @React
+    Optional<MessageAddedToTimeline> on(MessagePosted e) {
+        if (isDeleted()) {
+            return Optional.empty();
+        }
+        var position = positionOf(e.getWhenPosted(), e.getId());
+        var number = bucketAt(position);
+        if (number.isEmpty() || isLatest(number.get())) {
+            if (builder().getLatestMessageList()
+                         .contains(e.getId())) {
+                return Optional.empty();
+            }
+            number = Optional.of(addToLatest(e.getId(), position));
+        }
+        var message = MessageView
+                .newBuilder()
+                .setId(e.getId())
+                .setChat(e.getChat())
+                .setUser(e.getUser())
+                .setContent(e.getContent())
+                .setWhenPosted(e.getWhenPosted())
+                .setPosition(position)
+                .vBuild();
+        var event = MessageAddedToTimeline
+                .newBuilder()
+                .setBucket(bucketOf(e.getChat(), number.get()))
+                .setMessage(message)
+                .vBuild();
+        return Optional.of(event);
+    }
+
+    /**
+     * Tells the bucket which holds the message to update its content.
+     */
+    @React
+    Optional<TimelineMessageUpdated> on(MessageContentUpdated e) {
+        return bucketHolding(e.getChat(), positionOf(e.getWhenPosted(), e.getId()))
+                .map(bucket -> TimelineMessageUpdated
+                        .newBuilder()
+                        .setBucket(bucket)
+                        .setId(e.getId())
+                        .setContent(e.getContent())
+                        .vBuild());
+    }
+
+    /**
+     * Tells the bucket which holds the message to remove it.
+     */
+    @React
+    Optional<MessageRemovedFromTimeline> on(MessageMarkedAsDeleted e) {
+        return bucketHolding(e.getChat(), positionOf(e.getWhenPosted(), e.getId()))
+                .map(bucket -> MessageRemovedFromTimeline
+                        .newBuilder()
+                        .setBucket(bucket)
+                        .setId(e.getId())
+                        .vBuild());
+    }
+
+    /**
+     * Turns the timeline into the tombstone of the deleted chat.
+     *
+     * <p>The timeline keeps its buckets, so that their records can be reclaimed later,
+     * and adds no more messages to them. The messages posted before the deletion
+     * are already added, so the number of the buckets does not change any more.
+     */
+    @React
+    ChatTimelineClosed on(ChatDeleted e) {
+        setDeleted(true);
+        return ChatTimelineClosed
+                .newBuilder()
+                .setId(e.chat())
+                .setBucketCount(builder().getBucketCount())
+                .vBuild();
+    }
+
+    /**
+     * Adds the message to the latest bucket, or to a new bucket if the latest one is full.
+     *
+     * @return the number of the bucket the message is added to
+     */
+    private int addToLatest(MessageId message, String position) {
+        var buckets = builder().getBucketList();
+        if (buckets.isEmpty() || builder().getLatestMessageCount() >= CAPACITY) {
+            var bucket = Bucket
+                    .newBuilder()
+                    .setNumber(buckets.size())
+                    .setFirstPosition(position)
+                    .vBuild();
+            builder().addBucket(bucket)
+                     .clearLatestMessage();
+        }
+        builder().addLatestMessage(message);
+        return builder().getBucketCount() - 1;
+    }
+
+    /**
+     * Returns the ID of the bucket which holds the message at the given position.
+     */
+    private Optional<ChatTimelineBucketId> bucketHolding(ChatId chat, String position) {
+        return bucketAt(position).map(number -> bucketOf(chat, number));
+    }
+
+    private Optional<Integer> bucketAt(String position) {
+        return ChatTimelines.bucketAt(builder().getBucketList(), position);
+    }
+
+    private boolean isLatest(int number) {
+        return number == builder().getBucketCount() - 1;
+    }
+}
@@ -52,14 +52,17 @@ public final class MessageAggregate extends Aggregate<MessageId, Message, Messag
      */
     @Assign
     MessagePosted handle(PostMessage c) {
-        return MessagePosted
+        var event = MessagePosted
                 .newBuilder()
                 .setId(c.getId())
                 .setChat(c.getChat())
                 .setUser(c.getUser())
                 .setContent(c.getContent())
-                .setWhenPosted(currentTime())
-                .vBuild();
+                .setWhenPosted(currentTime());
+        if (c.hasBatch()) {
+            event.setBatch(c.getBatch());
+        }
+        return event.vBuild();
     }
 
     @Apply
@@ -95,6 +98,7 @@ public final class MessageAggregate extends Aggregate<MessageId, Message, Messag
                 .setChat(c.getChat())
                 .setUser(c.getUser())
                 .setContent(c.getSuggestedContent())
+                .setWhenPosted(state().getWhenPosted())
                 .vBuild();
     }
 
@@ -126,6 +130,7 @@ public final class MessageAggregate extends Aggregate<MessageId, Message, Messag
                 .setChat(c.getChat())
                 .setUser(c.getUser())
                 .setOperation(c.getOperation())
+                .setWhenPosted(state().getWhenPosted())
                 .vBuild();
     }
 
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.server.message;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import io.spine.examples.chatspn.MessageBatchId;
+import io.spine.examples.chatspn.MessageId;
+import io.spine.examples.chatspn.message.MessageBatchSending;
+import io.spine.examples.chatspn.message.MessageView;
+import io.spine.examples.chatspn.message.command.PostMessage;
+import io.spine.examples.chatspn.message.command.SendMessages;
+import io.spine.examples.chatspn.message.event.MessagePosted;
+import io.spine.examples.chatspn.message.event.MessagesSent;
+import io.spine.examples.chatspn.message.rejection.MessagesCannotBeSent;
+import io.spine.examples.chatspn.server.chat.ChatMembership;
+import io.spine.server.command.Command;
+import io.spine.server.event.React;
+import io.spine.server.procman.ProcessManager;
+import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
+
+import java.util.HashSet;
+import java.util.Optional;
+
+import static com.google.protobuf.util.Timestamps.compare;
+
+/**
+ * Coordinates sending a batch of messages to the chat.
+ *
+ * <p>Checks whether the sender is a chat member once for the whole batch,
+ * and then posts each message of the batch. Once all the messages are posted,
+ * tells that the batch was sent along with the latest of its messages.
+ */
+public final class MessageBatchSendingProcess
+        extends ProcessManager<MessageBatchId, MessageBatchSending, MessageBatchSending.Builder> {
+
+    /**
+     * Tells whether a user is a chat member.
+     */
+    @MonotonicNonNull
+    private ChatMembership membership;
+
+    /**
+     * Issues a command to post each message of the batch to the chat.
+     *
+     * @throws MessagesCannotBeSent
+     *         if the sender is not a chat member,
+     *         or chat does not exist,
+     *         or several messages of the batch have the same ID
+     */
+    @Command
+    Iterable<PostMessage> on(SendMessages c) throws MessagesCannotBeSent {
+        builder().setId(c.getId());
+        var duplicates = duplicateIds(c);
+        if (!duplicates.isEmpty() || !membership.isMember(c.getChat(), c.getUser())) {
+            throw MessagesCannotBeSent
+                    .newBuilder()
+                    .setId(c.getId())
+                    .setChat(c.getChat())
+                    .setUser(c.getUser())
+                    .addAllDuplicate(duplicates)
+                    .build();
+        }
+        var commands = ImmutableList.<PostMessage>builder();
+        for (var message : c.getMessageList()) {
+            var id = message.getId();
+            builder().addMessage(id)
+                     .putPending(id.getUuid(), id);
+            var command = PostMessage
+                    .newBuilder()
+                    .setId(id)
+                    .setChat(c.getChat())
+                    .setUser(c.getUser())
+                    .setContent(message.getContent())
+                    .setBatch(c.getId())
+                    .vBuild();
+            commands.add(command);
+        }
+        return commands.build();
+    }
+
+    /**
+     * Returns the IDs repeated by several messages of the batch.
+     */
+    private static ImmutableSet<MessageId> duplicateIds(SendMessages c) {
+        var seen = new HashSet<MessageId>();
+        var duplicates = ImmutableSet.<MessageId>builder();
+        for (var message : c.getMessageList()) {
+            if (!seen.add(message.getId())) {
+                duplicates.add(message.getId());
+            }
+        }
+        return duplicates.build();
+    }
+
+    /**
+     * Remembers the posted message, and archives the process
+     * when all the messages of the batch are posted.
+     */
+    @React
+    Optional<MessagesSent> on(MessagePosted e) {
+        builder().removePending(e.getId()
+                                 .getUuid());
+        if (isLatest(e)) {
+            var message = MessageView
+                    .newBuilder()
+                    .setId(e.getId())
+                    .setChat(e.getChat())
+                    .setUser(e.getUser())
+                    .setContent(e.getContent())
+                    .setWhenPosted(e.getWhenPosted())
+                    .vBuild();
+            builder().setLastMessage(message);
+        }
+        if (builder().getPendingCount() > 0) {
+            return Optional.empty();
+        }
+        setArchived(true);
+        var sent = MessagesSent
+                .newBuilder()
+                .setId(builder().getId())
+                .setChat(e.getChat())
+                .setUser(e.getUser())
+                .addAllMessage(builder().getMessageList())
+                .setLastMessage(builder().getLastMessage())
+                .vBuild();
+        return Optional.of(sent);
+    }
+
+    /**
+     * Tells whether the message was posted not earlier than the messages posted before it.
+     */
+    private boolean isLatest(MessagePosted e) {
+        if (!builder().hasLastMessage()) {
+            return true;
+        }
+        var last = builder().getLastMessage();
+        return compare(e.getWhenPosted(), last.getWhenPosted()) >= 0;
+    }
+
+    void inject(ChatMembership membership) {
+        this.membership = membership;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.server.message;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.errorprone.annotations.OverridingMethodsMustInvokeSuper;
+import io.spine.examples.chatspn.MessageBatchId;
+import io.spine.examples.chatspn.message.MessageBatchSending;
+import io.spine.examples.chatspn.message.event.MessagePosted;
+import io.spine.examples.chatspn.server.chat.ChatMembership;
+import io.spine.server.procman.ProcessManagerRepository;
+import io.spine.server.route.EventRouting;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static io.spine.server.route.EventRoute.withId;
+
+/**
+ * Manages instances of {@link MessageBatchSendingProcess}.
+ */
+public final class MessageBatchSendingRepository
+        extends ProcessManagerRepository<MessageBatchId,
+                                         MessageBatchSendingProcess,
+                                         MessageBatchSending> {
+
+    private final ChatMembership membership;
+
+    /**
+     * Creates a new repository.
+     *
+     * @param membership
+     *         the index of chat members to check the permissions of users
+     */
+    public MessageBatchSendingRepository(ChatMembership membership) {
+        super();
+        this.membership = checkNotNull(membership);
+    }
+
+    /**
+     * Routes the messages posted in a batch to the process of the batch.
+     */
+    @OverridingMethodsMustInvokeSuper
+    @Override
+    protected void setupEventRouting(EventRouting<MessageBatchId> routing) {
+        super.setupEventRouting(routing);
+        routing.route(MessagePosted.class,
+                      (event, context) -> event.hasBatch()
+                                          ? withId(event.getBatch())
+                                          : ImmutableSet.of());
+    }
+
+    @OverridingMethodsMustInvokeSuper
+    @Override
+    protected void configure(MessageBatchSendingProcess p) {
+        super.configure(p);
+        p.inject(membership);
+    }
+}
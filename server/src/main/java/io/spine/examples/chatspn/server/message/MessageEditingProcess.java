@@ -26,10 +26,7 @@
 
 package io.spine.examples.chatspn.server.message;
 
-import io.spine.core.CommandContext;
-import io.spine.examples.chatspn.ChatCardId;
 import io.spine.examples.chatspn.MessageId;
-import io.spine.examples.chatspn.chat.ChatCard;
 import io.spine.examples.chatspn.message.MessageEditing;
 import io.spine.examples.chatspn.message.command.EditMessage;
 import io.spine.examples.chatspn.message.command.UpdateMessageContent;
@@ -38,8 +35,7 @@ import io.spine.examples.chatspn.message.event.MessageEdited;
 import io.spine.examples.chatspn.message.event.MessageEditingFailed;
 import io.spine.examples.chatspn.message.rejection.EditingRejections.MessageContentCannotBeUpdated;
 import io.spine.examples.chatspn.message.rejection.MessageCannotBeEdited;
-import io.spine.examples.chatspn.server.ChatCardReader;
-import io.spine.examples.chatspn.server.ProjectionReader;
+import io.spine.examples.chatspn.server.chat.ChatMembership;
 import io.spine.server.command.Command;
 import io.spine.server.event.React;
 import io.spine.server.procman.ProcessManager;
@@ -52,10 +48,10 @@ public final class MessageEditingProcess
         extends ProcessManager<MessageId, MessageEditing, MessageEditing.Builder> {
 
     /**
-     * Reads the {@link ChatCard} projection.
+     * Tells whether a user is a chat member.
      */
     @MonotonicNonNull
-    private ChatCardReader chatCard;
+    private ChatMembership membership;
 
     /**
      * Issues a command to edit message content.
@@ -64,9 +60,9 @@ public final class MessageEditingProcess
      *         if the message editor is not a chat member
      */
     @Command
-    UpdateMessageContent on(EditMessage c, CommandContext ctx) throws MessageCannotBeEdited {
+    UpdateMessageContent on(EditMessage c) throws MessageCannotBeEdited {
         builder().setId(c.getId());
-        if (chatCard.isMember(c.getChat(), c.getUser(), ctx)) {
+        if (membership.isMember(c.getChat(), c.getUser())) {
             return UpdateMessageContent
                     .newBuilder()
                     .setId(c.getId())
@@ -114,7 +110,7 @@ public final class MessageEditingProcess
                 .vBuild();
     }
 
-    void inject(ProjectionReader<ChatCardId, ChatCard> reader) {
-        chatCard = new ChatCardReader(reader);
+    void inject(ChatMembership membership) {
+        this.membership = membership;
     }
 }
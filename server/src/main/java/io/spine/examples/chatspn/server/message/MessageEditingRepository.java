@@ -28,14 +28,14 @@ package io.spine.examples.chatspn.server.message;
 
 import com.google.errorprone.annotations.OverridingMethodsMustInvokeSuper;
 import io.spine.examples.chatspn.MessageId;
-import io.spine.examples.chatspn.chat.ChatCard;
 import io.spine.examples.chatspn.message.MessageEditing;
 import io.spine.examples.chatspn.message.event.MessageContentUpdated;
 import io.spine.examples.chatspn.message.rejection.EditingRejections.MessageContentCannotBeUpdated;
-import io.spine.examples.chatspn.server.ProjectionReader;
+import io.spine.examples.chatspn.server.chat.ChatMembership;
 import io.spine.server.procman.ProcessManagerRepository;
 import io.spine.server.route.EventRouting;
 
+import static com.google.common.base.Preconditions.checkNotNull;
 import static io.spine.server.route.EventRoute.withId;
 
 /**
@@ -44,6 +44,19 @@ import static io.spine.server.route.EventRoute.withId;
 public final class MessageEditingRepository
         extends ProcessManagerRepository<MessageId, MessageEditingProcess, MessageEditing> {
 
+    private final ChatMembership membership;
+
+    /**
+     * Creates a new repository.
+     *
+     * @param membership
+     *         the index of chat members to check the permissions of users
+     */
+    public MessageEditingRepository(ChatMembership membership) {
+        super();
+        this.membership = checkNotNull(membership);
+    }
+
     @OverridingMethodsMustInvokeSuper
     @Override
     protected void setupEventRouting(EventRouting<MessageId> routing) {
@@ -57,6 +70,6 @@ public final class MessageEditingRepository
     @Override
     protected void configure(MessageEditingProcess p) {
         super.configure(p);
-        p.inject(new ProjectionReader<>(context().stand(), ChatCard.class));
+        p.inject(membership);
     }
 }
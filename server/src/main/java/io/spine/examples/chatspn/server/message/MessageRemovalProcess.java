@@ -26,10 +26,7 @@
 
 package io.spine.examples.chatspn.server.message;
 
-import io.spine.core.CommandContext;
-import io.spine.examples.chatspn.ChatCardId;
 import io.spine.examples.chatspn.MessageRemovalId;
-import io.spine.examples.chatspn.chat.ChatCard;
 import io.spine.examples.chatspn.message.MessageRemoval;
 import io.spine.examples.chatspn.message.command.MarkMessageAsDeleted;
 import io.spine.examples.chatspn.message.command.RemoveMessage;
@@ -38,8 +35,7 @@ import io.spine.examples.chatspn.message.event.MessageRemovalFailed;
 import io.spine.examples.chatspn.message.event.MessageRemoved;
 import io.spine.examples.chatspn.message.rejection.MessageCannotBeRemoved;
 import io.spine.examples.chatspn.message.rejection.RemovalRejections.MessageCannotBeMarkedAsDeleted;
-import io.spine.examples.chatspn.server.ChatCardReader;
-import io.spine.examples.chatspn.server.ProjectionReader;
+import io.spine.examples.chatspn.server.chat.ChatMembership;
 import io.spine.server.command.Command;
 import io.spine.server.event.React;
 import io.spine.server.procman.ProcessManager;
@@ -52,10 +48,10 @@ public final class MessageRemovalProcess
         extends ProcessManager<MessageRemovalId, MessageRemoval, MessageRemoval.Builder> {
 
     /**
-     * Reads the {@link ChatCard} projection.
+     * Tells whether a user is a chat member.
      */
     @MonotonicNonNull
-    private ChatCardReader chatCard;
+    private ChatMembership membership;
 
     /**
      * Issues a command to mark message as deleted.
@@ -64,9 +60,9 @@ public final class MessageRemovalProcess
      *         if the message remover is not a chat member
      */
     @Command
-    MarkMessageAsDeleted on(RemoveMessage c, CommandContext ctx) throws MessageCannotBeRemoved {
+    MarkMessageAsDeleted on(RemoveMessage c) throws MessageCannotBeRemoved {
         builder().setId(c.getId());
-        if (chatCard.isMember(c.getChat(), c.getUser(), ctx)) {
+        if (membership.isMember(c.getChat(), c.getUser())) {
             return MarkMessageAsDeleted
                     .newBuilder()
                     .setId(c.message())
@@ -111,7 +107,7 @@ public final class MessageRemovalProcess
                 .vBuild();
     }
 
-    void inject(ProjectionReader<ChatCardId, ChatCard> reader) {
-        chatCard = new ChatCardReader(reader);
+    void inject(ChatMembership membership) {
+        this.membership = membership;
     }
 }
@@ -30,22 +30,36 @@ import com.google.common.collect.ImmutableSet;
 import com.google.errorprone.annotations.OverridingMethodsMustInvokeSuper;
 import io.spine.examples.chatspn.MessageRemovalId;
 import io.spine.examples.chatspn.MessageRemovalOperationId;
-import io.spine.examples.chatspn.chat.ChatCard;
 import io.spine.examples.chatspn.message.MessageRemoval;
 import io.spine.examples.chatspn.message.event.MessageMarkedAsDeleted;
 import io.spine.examples.chatspn.message.rejection.RemovalRejections.MessageCannotBeMarkedAsDeleted;
-import io.spine.examples.chatspn.server.ProjectionReader;
+import io.spine.examples.chatspn.server.chat.ChatMembership;
 import io.spine.server.procman.ProcessManagerRepository;
 import io.spine.server.route.EventRouting;
 
 import java.util.Set;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+
 /**
  * Manages instances of {@link MessageRemovalProcess}.
  */
 public final class MessageRemovalRepository
         extends ProcessManagerRepository<MessageRemovalId, MessageRemovalProcess, MessageRemoval> {
 
+    private final ChatMembership membership;
+
+    /**
+     * Creates a new repository.
+     *
+     * @param membership
+     *         the index of chat members to check the permissions of users
+     */
+    public MessageRemovalRepository(ChatMembership membership) {
+        super();
+        this.membership = checkNotNull(membership);
+    }
+
     @OverridingMethodsMustInvokeSuper
     @Override
     protected void setupEventRouting(EventRouting<MessageRemovalId> routing) {
@@ -60,7 +74,7 @@ public final class MessageRemovalRepository
     @Override
     protected void configure(MessageRemovalProcess p) {
         super.configure(p);
-        p.inject(new ProjectionReader<>(context().stand(), ChatCard.class));
+        p.inject(membership);
     }
 
     private static Set<MessageRemovalId> withMessageRemovalId(MessageRemovalOperationId id) {
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.server.message;
+
+import io.spine.examples.chatspn.MessageId;
+import io.spine.examples.chatspn.message.Message;
+import io.spine.server.aggregate.AggregateRepository;
+
+/**
+ * Manages instances of {@link MessageAggregate}.
+ *
+ * <p>Each edit of a message adds an event to its history. In order not to replay
+ * the whole history on each load, the repository stores a snapshot of a message
+ * once the configured number of events is applied to it.
+ */
+public final class MessageRepository
+        extends AggregateRepository<MessageId, MessageAggregate, Message> {
+
+    /**
+     * The default number of events after which a snapshot of a message is stored.
+     */
+    public static final int DEFAULT_SNAPSHOT_TRIGGER = 20;
+
+    /**
+     * Creates a new repository with the {@linkplain #DEFAULT_SNAPSHOT_TRIGGER default}
+     * snapshot trigger.
+     */
+    public MessageRepository() {
+        this(DEFAULT_SNAPSHOT_TRIGGER);
+    }
+
+    /**
+     * Creates a new repository which stores a snapshot of a message
+     * every {@code snapshotTrigger} events.
+     */
+    public MessageRepository(int snapshotTrigger) {
+        super();
+        setSnapshotTrigger(snapshotTrigger);
+    }
+}
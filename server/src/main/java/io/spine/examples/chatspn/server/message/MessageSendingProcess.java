@@ -26,18 +26,14 @@
 
 package io.spine.examples.chatspn.server.message;
 
-import io.spine.core.CommandContext;
-import io.spine.examples.chatspn.ChatCardId;
 import io.spine.examples.chatspn.MessageId;
-import io.spine.examples.chatspn.chat.ChatCard;
 import io.spine.examples.chatspn.message.MessageSending;
 import io.spine.examples.chatspn.message.command.PostMessage;
 import io.spine.examples.chatspn.message.command.SendMessage;
 import io.spine.examples.chatspn.message.event.MessagePosted;
 import io.spine.examples.chatspn.message.event.MessageSent;
 import io.spine.examples.chatspn.message.rejection.MessageCannotBeSent;
-import io.spine.examples.chatspn.server.ChatCardReader;
-import io.spine.examples.chatspn.server.ProjectionReader;
+import io.spine.examples.chatspn.server.chat.ChatMembership;
 import io.spine.server.command.Command;
 import io.spine.server.event.React;
 import io.spine.server.procman.ProcessManager;
@@ -50,10 +46,10 @@ public final class MessageSendingProcess
         extends ProcessManager<MessageId, MessageSending, MessageSending.Builder> {
 
     /**
-     * Reads the {@link ChatCard} projection.
+     * Tells whether a user is a chat member.
      */
     @MonotonicNonNull
-    private ChatCardReader chatCard;
+    private ChatMembership membership;
 
     /**
      * Issues a command to post message to the chat.
@@ -63,9 +59,9 @@ public final class MessageSendingProcess
      *         or chat does not exist
      */
     @Command
-    PostMessage on(SendMessage c, CommandContext ctx) throws MessageCannotBeSent {
+    PostMessage on(SendMessage c) throws MessageCannotBeSent {
         builder().setId(c.getId());
-        if (chatCard.isMember(c.getChat(), c.getUser(), ctx)) {
+        if (membership.isMember(c.getChat(), c.getUser())) {
             return PostMessage
                     .newBuilder()
                     .setId(c.getId())
@@ -98,7 +94,7 @@ public final class MessageSendingProcess
                 .vBuild();
     }
 
-    void inject(ProjectionReader<ChatCardId, ChatCard> reader) {
-        chatCard = new ChatCardReader(reader);
+    void inject(ChatMembership membership) {
+        this.membership = membership;
     }
 }
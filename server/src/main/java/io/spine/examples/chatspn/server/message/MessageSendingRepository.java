@@ -26,15 +26,16 @@
 
 package io.spine.examples.chatspn.server.message;
 
+import com.google.common.collect.ImmutableSet;
 import com.google.errorprone.annotations.OverridingMethodsMustInvokeSuper;
 import io.spine.examples.chatspn.MessageId;
-import io.spine.examples.chatspn.chat.ChatCard;
 import io.spine.examples.chatspn.message.MessageSending;
 import io.spine.examples.chatspn.message.event.MessagePosted;
-import io.spine.examples.chatspn.server.ProjectionReader;
+import io.spine.examples.chatspn.server.chat.ChatMembership;
 import io.spine.server.procman.ProcessManagerRepository;
 import io.spine.server.route.EventRouting;
 
+import static com.google.common.base.Preconditions.checkNotNull;
 import static io.spine.server.route.EventRoute.withId;
 
 /**
@@ -43,17 +44,38 @@ import static io.spine.server.route.EventRoute.withId;
 public final class MessageSendingRepository
         extends ProcessManagerRepository<MessageId, MessageSendingProcess, MessageSending> {
 
+    private final ChatMembership membership;
+
+    /**
+     * Creates a new repository.
+     *
+     * @param membership
+     *         the index of chat members to check the permissions of users
+     */
+    public MessageSendingRepository(ChatMembership membership) {
+        super();
+        this.membership = checkNotNull(membership);
+    }
+
+    /**
+     * Routes the messages posted on their own to their sending processes.
+     *
+     * <p>The messages posted in a batch are handled by the {@link MessageBatchSendingProcess}.
+     */
     @OverridingMethodsMustInvokeSuper
     @Override
     protected void setupEventRouting(EventRouting<MessageId> routing) {
         super.setupEventRouting(routing);
-        routing.route(MessagePosted.class, (event, context) -> withId(event.getId()));
+        routing.route(MessagePosted.class,
+                      (event, context) -> event.hasBatch()
+                                          ? ImmutableSet.of()
+                                          : withId(event.getId()));
     }
 
     @OverridingMethodsMustInvokeSuper
     @Override
     protected void configure(MessageSendingProcess p) {
         super.configure(p);
-        p.inject(new ProjectionReader<>(context().stand(), ChatCard.class));
+        p.inject(membership);
     }
 }
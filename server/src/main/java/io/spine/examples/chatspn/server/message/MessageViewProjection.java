@@ -34,6 +34,8 @@ import io.spine.examples.chatspn.message.event.MessageMarkedAsDeleted;
 import io.spine.examples.chatspn.message.event.MessagePosted;
 import io.spine.server.projection.Projection;
 
+import static io.spine.examples.chatspn.message.MessagePositions.positionOf;
+
 /**
  * View of the {@code Message} in the chat.
  */
@@ -46,7 +48,8 @@ public final class MessageViewProjection
                  .setUser(e.getUser())
                  .setChat(e.getChat())
                  .setContent(e.getContent())
-                 .setWhenPosted(e.getWhenPosted());
+                 .setWhenPosted(e.getWhenPosted())
+                 .setPosition(positionOf(e.getWhenPosted(), e.getId()));
     }
 
     @Subscribe
@@ -26,23 +26,53 @@
 
 package io.spine.examples.chatspn.server.message;
 
+import com.google.common.collect.Iterators;
 import com.google.errorprone.annotations.OverridingMethodsMustInvokeSuper;
+import com.google.protobuf.FieldMask;
+import io.spine.client.ResponseFormat;
+import io.spine.client.TargetFilters;
+import io.spine.examples.chatspn.ChatId;
 import io.spine.examples.chatspn.MessageId;
 import io.spine.examples.chatspn.message.MessageView;
 import io.spine.examples.chatspn.message.event.MessageContentUpdated;
 import io.spine.examples.chatspn.message.event.MessageMarkedAsDeleted;
 import io.spine.examples.chatspn.message.event.MessagePosted;
+import io.spine.server.entity.EntityRecord;
 import io.spine.server.projection.ProjectionRepository;
 import io.spine.server.route.EventRouting;
 
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static io.spine.protobuf.AnyPacker.pack;
+import static io.spine.protobuf.AnyPacker.unpack;
+import static io.spine.server.entity.FieldMasks.applyMask;
 import static io.spine.server.route.EventRoute.withId;
 
 /**
  * Manages instances of {@link MessageViewProjection}.
+ *
+ * <p>The views of a deleted chat are not deleted one by one. Instead, the repository
+ * does not return the views of the chats whose {@code ChatTimeline} is a tombstone.
+ * Thus, the whole chat history is hidden from the queries at once when the chat
+ * is deleted, and the records of the views are reclaimed later.
  */
 public final class MessageViewRepository
         extends ProjectionRepository<MessageId, MessageViewProjection, MessageView> {
 
+    private final ChatTimelineRepository timelines;
+
+    /**
+     * Creates a new repository which hides the views of the chats deleted
+     * according to the given timelines.
+     */
+    public MessageViewRepository(ChatTimelineRepository timelines) {
+        super();
+        this.timelines = checkNotNull(timelines);
+    }
+
     @OverridingMethodsMustInvokeSuper
     @Override
     protected void setupEventRouting(EventRouting<MessageId> routing) {
@@ -51,4 +81,65 @@ public final class MessageViewRepository
                .route(MessageContentUpdated.class, (event, context) -> withId(event.getId()))
                .route(MessageMarkedAsDeleted.class, (event, context) -> withId(event.getId()));
     }
+
+    /**
+     * Deletes the record of the message view from the storage.
+     *
+     * <p>Does nothing if there is no record with the given ID.
+     */
+    @SuppressWarnings("CheckReturnValue") // A missing record needs no purging.
+    void purge(MessageId id) {
+        recordStorage().delete(id);
+    }
+
+    @Override
+    public Iterator<EntityRecord> findRecords(TargetFilters filters, ResponseFormat format) {
+        var records = super.findRecords(filters, withoutFieldMask(format));
+        return ofLiveChats(records, format.getFieldMask());
+    }
+
+    @Override
+    public Iterator<EntityRecord> loadAllRecords(ResponseFormat format) {
+        var records = super.loadAllRecords(withoutFieldMask(format));
+        return ofLiveChats(records, format.getFieldMask());
+    }
+
+    /**
+     * Leaves the records of the views whose chats are not deleted and applies
+     * the field mask to them.
+     *
+     * <p>The field mask is applied only after the chat of the view is known.
+     */
+    private Iterator<EntityRecord> ofLiveChats(Iterator<EntityRecord> records,
+                                               FieldMask fieldMask) {
+        Map<ChatId, Boolean> deleted = new HashMap<>();
+        var live = Iterators.filter(records, record -> {
+            var chat = unpack(record.getState(), MessageView.class).getChat();
+            return !deleted.computeIfAbsent(chat, this::isDeleted);
+        });
+        return Iterators.transform(live, record -> masked(record, fieldMask));
+    }
+
+    private boolean isDeleted(ChatId chat) {
+        return timelines.find(chat)
+                        .map(timeline -> timeline.isDeleted())
+                        .orElse(false);
+    }
+
+    private static ResponseFormat withoutFieldMask(ResponseFormat format) {
+        return format.toBuilder()
+                     .clearFieldMask()
+                     .build();
+    }
+
+    private static EntityRecord masked(EntityRecord record, FieldMask fieldMask) {
+        if (fieldMask.getPathsList()
+                     .isEmpty()) {
+            return record;
+        }
+        var state = applyMask(fieldMask, unpack(record.getState()));
+        return record.toBuilder()
+                     .setState(pack(state))
+                     .build();
+    }
 }
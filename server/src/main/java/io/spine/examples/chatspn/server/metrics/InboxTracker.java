@@ -0,0 +1,219 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.server.metrics;
+
+import com.google.protobuf.Timestamp;
+import com.google.protobuf.util.Timestamps;
+import io.spine.server.delivery.InboxMessage;
+
+import java.util.Comparator;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Tracks the messages waiting in the inboxes of the delivery shards.
+ *
+ * <p>The time of dispatching each message to the target entity is recorded to
+ * the {@link Metrics} as the latency of handling a command, or of dispatching an event
+ * to the repository of the target entity. The time the message waits in the inbox
+ * is not counted.
+ *
+ * <p>The delivery reports the number of the messages it has dispatched so far
+ * after each page of messages read from the inbox. When the metrics are enabled,
+ * each page holds a single message, so the time between two reports is the time
+ * of dispatching one message. The dispatched message is the first one in the order
+ * the inbox reads the messages, which is the order of their receiving and versions,
+ * rather than the order the tracker was told about them. The depth of the inbox is
+ * updated as each message is written and dispatched, including the messages written
+ * while a delivery of the shard is in progress.
+ *
+ * <p>When the metrics are disabled, the tracker does nothing.
+ */
+public final class InboxTracker {
+
+    /**
+     * Orders the messages as the inbox reads them.
+     */
+    private static final Comparator<Received> READ_ORDER = Comparator
+            .comparing((Received received) -> received.whenReceived, Timestamps.comparator())
+            .thenComparingInt(received -> received.version)
+            .thenComparingLong(received -> received.sequence);
+
+    private final Metrics metrics;
+    private final NavigableSet<Received>[] pending;
+    private final AtomicInteger[] depth;
+    private final AtomicLong receivedCount = new AtomicLong();
+
+    /**
+     * The number of the messages dispatched by the current delivery run of each shard.
+     *
+     * <p>Each shard is delivered by a single thread at a time.
+     */
+    private final int[] dispatchedInRun;
+
+    /**
+     * The time when the dispatching of the current page of each shard started,
+     * in nanoseconds.
+     */
+    private final long[] pageStarted;
+
+    @SuppressWarnings({"unchecked", "rawtypes"}) // Generic array creation.
+    private InboxTracker(Metrics metrics, int shardCount) {
+        this.metrics = metrics;
+        this.pending = new NavigableSet[shardCount];
+        this.depth = new AtomicInteger[shardCount];
+        this.dispatchedInRun = new int[shardCount];
+        this.pageStarted = new long[shardCount];
+        for (var i = 0; i < shardCount; i++) {
+            pending[i] = new ConcurrentSkipListSet<>(READ_ORDER);
+            depth[i] = new AtomicInteger();
+            var shardDepth = depth[i];
+            metrics.registerInboxDepth(i, shardDepth::get);
+        }
+    }
+
+    /**
+     * Creates a tracker of the given number of shards reporting to the given metrics.
+     */
+    public static InboxTracker forShards(Metrics metrics, int shardCount) {
+        checkNotNull(metrics);
+        checkArgument(shardCount > 0, "The number of shards must be positive.");
+        return new InboxTracker(metrics, shardCount);
+    }
+
+    /**
+     * Starts tracking the message written to the inbox.
+     */
+    public void received(InboxMessage message) {
+        if (!metrics.isEnabled()) {
+            return;
+        }
+        var shard = message.getShardIndex()
+                           .getIndex();
+        pending[shard].add(new Received(message, receivedCount.incrementAndGet()));
+        depth[shard].incrementAndGet();
+    }
+
+    /**
+     * Returns the number of messages waiting in the inbox of the shard.
+     */
+    public int pending(int shard) {
+        return depth[shard].get();
+    }
+
+    /**
+     * Notes that a delivery run of the shard starts.
+     */
+    public void deliveryStarted(int shard) {
+        dispatchedInRun[shard] = 0;
+        pageStarted[shard] = System.nanoTime();
+    }
+
+    /**
+     * Records the latency of the messages of the shard which have been dispatched
+     * since the last call.
+     *
+     * <p>If several messages have been dispatched, the time is divided between them equally.
+     *
+     * @param shard
+     *         the index of the shard
+     * @param dispatched
+     *         the total number of the messages dispatched by the current delivery run
+     *         of the shard
+     */
+    public void dispatched(int shard, int dispatched) {
+        var count = dispatched - dispatchedInRun[shard];
+        dispatchedInRun[shard] = dispatched;
+        var now = System.nanoTime();
+        var elapsed = now - pageStarted[shard];
+        pageStarted[shard] = now;
+        if (!metrics.isEnabled() || count <= 0) {
+            return;
+        }
+        for (var i = 0; i < count; i++) {
+            var message = pending[shard].pollFirst();
+            if (message == null) {
+                return;
+            }
+            depth[shard].decrementAndGet();
+            message.record(metrics, elapsed / count);
+        }
+    }
+
+    /**
+     * Returns the simple name of the type referenced by the type URL.
+     */
+    private static String simpleName(String typeUrl) {
+        return typeUrl.substring(typeUrl.lastIndexOf('.') + 1);
+    }
+
+    /**
+     * A message written to the inbox.
+     */
+    private static final class Received {
+
+        private final boolean command;
+        private final String signalType;
+        private final String receiverType;
+        private final Timestamp whenReceived;
+        private final int version;
+
+        /**
+         * The number of the message among the ones received by the tracker,
+         * which orders the messages received at the same time with the same version.
+         */
+        private final long sequence;
+
+        private Received(InboxMessage message, long sequence) {
+            this.command = message.hasCommand();
+            var signal = command
+                         ? message.getCommand()
+                                  .getMessage()
+                         : message.getEvent()
+                                  .getMessage();
+            this.signalType = simpleName(signal.getTypeUrl());
+            this.receiverType = simpleName(message.getInboxId()
+                                                  .getTypeUrl());
+            this.whenReceived = message.getWhenReceived();
+            this.version = message.getVersion();
+            this.sequence = sequence;
+        }
+
+        private void record(Metrics metrics, long nanos) {
+            if (command) {
+                metrics.recordCommand(signalType, receiverType, nanos);
+            } else {
+                metrics.recordEvent(signalType, receiverType, nanos);
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.server.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of latencies with exponential buckets.
+ *
+ * <p>The upper bound of the bucket {@code i} is <code>2<sup>i</sup></code> microseconds.
+ * The last bucket holds all the values above ~16 seconds.
+ *
+ * <p>Recording a value is lock-free and does not allocate.
+ */
+final class LatencyHistogram {
+
+    /**
+     * The number of buckets with a finite upper bound.
+     */
+    static final int BOUNDED_BUCKETS = 25;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BOUNDED_BUCKETS + 1);
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records the latency.
+     */
+    void record(long nanos) {
+        var value = Math.max(nanos, 0);
+        buckets.incrementAndGet(bucketOf(value));
+        sum.add(value);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    private static int bucketOf(long nanos) {
+        var micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+        if (micros <= 1) {
+            return 0;
+        }
+        var log = Long.SIZE - Long.numberOfLeadingZeros(micros - 1);
+        return Math.min(log, BOUNDED_BUCKETS);
+    }
+
+    /**
+     * Returns the upper bound of the bucket in nanoseconds.
+     */
+    static long upperBound(int bucket) {
+        return TimeUnit.MICROSECONDS.toNanos(1L << bucket);
+    }
+
+    /**
+     * Returns the number of values in the bucket.
+     */
+    long countIn(int bucket) {
+        return buckets.get(bucket);
+    }
+
+    /**
+     * Returns the number of recorded values.
+     */
+    long count() {
+        var count = 0L;
+        for (var i = 0; i < buckets.length(); i++) {
+            count += buckets.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the sum of the recorded values in nanoseconds.
+     */
+    long sum() {
+        return sum.sum();
+    }
+
+    /**
+     * Returns the greatest recorded value in nanoseconds.
+     */
+    long max() {
+        return max.get();
+    }
+
+    /**
+     * Returns the upper bound of the bucket which contains the given percentile
+     * of the recorded values, in nanoseconds.
+     *
+     * <p>Never exceeds the greatest recorded value.
+     *
+     * @param percentile
+     *         the percentile in the {@code (0, 100]} range
+     */
+    long percentile(double percentile) {
+        var total = count();
+        if (total == 0) {
+            return 0;
+        }
+        var rank = (long) Math.ceil(total * percentile / 100.0);
+        var seen = 0L;
+        for (var i = 0; i < BOUNDED_BUCKETS; i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) {
+                return Math.min(upperBound(i), max());
+            }
+        }
+        return max();
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.server.metrics;
+
+import com.google.common.collect.ImmutableMap;
+
+import java.util.Objects;
+
+import static java.util.stream.Collectors.joining;
+
+/**
+ * The name of a metric along with its labels.
+ */
+final class MetricKey implements Comparable<MetricKey> {
+
+    private final String name;
+    private final ImmutableMap<String, String> labels;
+    private final String rendered;
+
+    private MetricKey(String name, ImmutableMap<String, String> labels) {
+        this.name = name;
+        this.labels = labels;
+        this.rendered = name + labels(labels, "");
+    }
+
+    static MetricKey of(String name, String label, String value) {
+        return new MetricKey(name, ImmutableMap.of(label, value));
+    }
+
+    static MetricKey of(String name,
+                        String label, String value,
+                        String secondLabel, String secondValue) {
+        return new MetricKey(name, ImmutableMap.of(label, value, secondLabel, secondValue));
+    }
+
+    String name() {
+        return name;
+    }
+
+    /**
+     * Renders the key with the given suffix of the name and an additional label.
+     *
+     * <p>For example, {@code command_latency_seconds_bucket{command="SendMessage",le="0.001"}}.
+     */
+    String render(String suffix, String label, String value) {
+        var extra = String.format(",%s=\"%s\"", label, value);
+        return name + suffix + labels(labels, extra);
+    }
+
+    /**
+     * Renders the key with the given suffix of the name.
+     */
+    String render(String suffix) {
+        return name + suffix + labels(labels, "");
+    }
+
+    private static String labels(ImmutableMap<String, String> labels, String extra) {
+        var joined = labels.entrySet()
+                           .stream()
+                           .map(label -> String.format("%s=\"%s\"",
+                                                       label.getKey(), label.getValue()))
+                           .collect(joining(","));
+        return '{' + joined + extra + '}';
+    }
+
+    @Override
+    public int compareTo(MetricKey other) {
+        return rendered.compareTo(other.rendered);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof MetricKey)) {
+            return false;
+        }
+        var other = (MetricKey) o;
+        return rendered.equals(other.rendered);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(rendered);
+    }
+
+    @Override
+    public String toString() {
+        return rendered;
+    }
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.server.metrics;
+
+import com.google.common.collect.ImmutableSortedMap;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.lang.String.format;
+
+/**
+ * The metrics of the 'Chats' bounded context.
+ *
+ * <p>Collects:
+ * <ul>
+ *     <li>the latency of handling commands, per command type and handler;
+ *     <li>the latency of dispatching events, per event type and repository;
+ *     <li>the latency of queries to the {@code Stand}, per entity state type;
+ *     <li>the number of messages waiting in the inbox, per delivery shard.
+ * </ul>
+ *
+ * <p>The metrics are disabled by default, in which case recording does nothing.
+ * Once {@linkplain #enable() enabled}, the metrics are available in the
+ * {@linkplain #scrape() text format} and through {@linkplain #registerMBean() JMX}.
+ */
+public final class Metrics {
+
+    /**
+     * The name of the JMX bean exposing the metrics.
+     */
+    public static final String MBEAN_NAME = "io.spine.examples.chatspn:type=Metrics";
+
+    private static final String COMMAND_LATENCY = "chatspn_command_latency_seconds";
+    private static final String EVENT_LATENCY = "chatspn_event_dispatch_latency_seconds";
+    private static final String QUERY_LATENCY = "chatspn_query_latency_seconds";
+    private static final String INBOX_DEPTH = "chatspn_inbox_depth";
+    private static final double NANOS_IN_SECOND = 1_000_000_000.0;
+
+    private static final Metrics DISABLED = new Metrics(false);
+    private static volatile Metrics current = DISABLED;
+
+    private final boolean enabled;
+    private final Map<MetricKey, LatencyHistogram> latencies = new ConcurrentHashMap<>();
+    private final Map<MetricKey, LongSupplier> gauges = new ConcurrentHashMap<>();
+
+    private Metrics(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Returns the metrics of the server.
+     *
+     * <p>Unless {@linkplain #enable() enabled}, returns the metrics which record nothing.
+     */
+    public static Metrics current() {
+        return current;
+    }
+
+    /**
+     * Enables collecting the metrics of the server.
+     *
+     * <p>Does nothing if the metrics are already enabled.
+     *
+     * @return the enabled metrics
+     */
+    public static synchronized Metrics enable() {
+        if (!current.enabled) {
+            current = new Metrics(true);
+        }
+        return current;
+    }
+
+    /**
+     * Creates new enabled metrics, not shared with the server.
+     */
+    static Metrics newEnabled() {
+        return new Metrics(true);
+    }
+
+    /**
+     * Tells whether these metrics collect anything.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Records the time of handling the command.
+     *
+     * @param command
+     *         the simple name of the command type
+     * @param handler
+     *         the simple name of the state of the entity which handled the command
+     * @param nanos
+     *         the handling time
+     */
+    public void recordCommand(String command, String handler, long nanos) {
+        record(COMMAND_LATENCY, "command", command, "handler", handler, nanos);
+    }
+
+    /**
+     * Records the time of dispatching the event to an entity.
+     *
+     * @param event
+     *         the simple name of the event type
+     * @param repository
+     *         the simple name of the state of the entities managed by the repository
+     * @param nanos
+     *         the dispatching time
+     */
+    public void recordEvent(String event, String repository, long nanos) {
+        record(EVENT_LATENCY, "event", event, "repository", repository, nanos);
+    }
+
+    /**
+     * Records the time of executing the query.
+     *
+     * @param type
+     *         the simple name of the queried entity state type
+     * @param nanos
+     *         the query execution time
+     */
+    public void recordQuery(String type, long nanos) {
+        if (!enabled) {
+            return;
+        }
+        latencies.computeIfAbsent(MetricKey.of(QUERY_LATENCY, "type", type),
+                                  key -> new LatencyHistogram())
+                 .record(nanos);
+    }
+
+    /**
+     * Registers the source of the number of messages waiting in the inbox of the shard.
+     */
+    public void registerInboxDepth(int shard, LongSupplier depth) {
+        checkNotNull(depth);
+        if (!enabled) {
+            return;
+        }
+        gauges.put(MetricKey.of(INBOX_DEPTH, "shard", String.valueOf(shard)), depth);
+    }
+
+    private void record(String name,
+                        String label, String value,
+                        String secondLabel, String secondValue,
+                        long nanos) {
+        if (!enabled) {
+            return;
+        }
+        latencies.computeIfAbsent(MetricKey.of(name, label, value, secondLabel, secondValue),
+                                  key -> new LatencyHistogram())
+                 .record(nanos);
+    }
+
+    /**
+     * Renders the metrics in the Prometheus text exposition format.
+     */
+    public String scrape() {
+        var text = new StringBuilder();
+        var lastName = "";
+        for (var entry : new TreeMap<>(latencies).entrySet()) {
+            var key = entry.getKey();
+            if (!key.name().equals(lastName)) {
+                lastName = key.name();
+                text.append(format("# TYPE %s histogram%n", lastName));
+            }
+            appendHistogram(text, key, entry.getValue());
+        }
+        for (var entry : new TreeMap<>(gauges).entrySet()) {
+            var key = entry.getKey();
+            if (!key.name().equals(lastName)) {
+                lastName = key.name();
+                text.append(format("# TYPE %s gauge%n", lastName));
+            }
+            text.append(format("%s %d%n", key.render(""), entry.getValue().getAsLong()));
+        }
+        return text.toString();
+    }
+
+    private static void appendHistogram(StringBuilder text,
+                                        MetricKey key,
+                                        LatencyHistogram histogram) {
+        var cumulative = 0L;
+        for (var i = 0; i < LatencyHistogram.BOUNDED_BUCKETS; i++) {
+            cumulative += histogram.countIn(i);
+            var bound = seconds(LatencyHistogram.upperBound(i));
+            text.append(format("%s %d%n",
+                               key.render("_bucket", "le", String.valueOf(bound)),
+                               cumulative));
+        }
+        cumulative += histogram.countIn(LatencyHistogram.BOUNDED_BUCKETS);
+        text.append(format("%s %d%n", key.render("_bucket", "le", "+Inf"), cumulative))
+            .append(format("%s %s%n", key.render("_sum"), seconds(histogram.sum())))
+            .append(format("%s %d%n", key.render("_count"), cumulative));
+    }
+
+    /**
+     * Returns the current values of the metrics.
+     *
+     * <p>Each latency is represented by its count, 50th and 99th percentiles
+     * and the maximum in seconds. Each gauge is represented by its value.
+     */
+    public ImmutableSortedMap<String, Double> snapshot() {
+        var values = ImmutableSortedMap.<String, Double>naturalOrder();
+        latencies.forEach((key, histogram) -> {
+            values.put(key.render("_count"), (double) histogram.count());
+            values.put(key.render("_p50"), seconds(histogram.percentile(50.0)));
+            values.put(key.render("_p99"), seconds(histogram.percentile(99.0)));
+            values.put(key.render("_max"), seconds(histogram.max()));
+        });
+        gauges.forEach((key, gauge) -> values.put(key.render(""), (double) gauge.getAsLong()));
+        return values.build();
+    }
+
+    /**
+     * Registers these metrics in the platform MBean server under the {@link #MBEAN_NAME}.
+     *
+     * <p>Does nothing if the metrics are disabled or already registered.
+     *
+     * @throws IllegalStateException
+     *         if the bean cannot be registered
+     */
+    public void registerMBean() {
+        if (!enabled) {
+            return;
+        }
+        var server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.registerMBean(new MetricsBean(this), new ObjectName(MBEAN_NAME));
+        } catch (InstanceAlreadyExistsException ignored) {
+            // The metrics are already exposed.
+        } catch (JMException e) {
+            throw new IllegalStateException("Unable to register the metrics MBean.", e);
+        }
+    }
+
+    private static double seconds(long nanos) {
+        return nanos / NANOS_IN_SECOND;
+    }
+}
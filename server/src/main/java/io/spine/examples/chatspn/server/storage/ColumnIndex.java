@@ -0,0 +1,242 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.server.storage;
+
+import com.google.common.collect.Iterators;
+import com.google.common.primitives.Primitives;
+import com.google.protobuf.Timestamp;
+import com.google.protobuf.util.Timestamps;
+import io.spine.client.Filter.Operator;
+
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static io.spine.client.Filter.Operator.EQUAL;
+
+/**
+ * An index of entity records by the value of one entity column.
+ *
+ * <p>Columns of timestamps, numbers and strings get an ordered index which answers both
+ * equality and range filters. Other columns get a hash index which answers equality
+ * filters only.
+ *
+ * <p>Records whose column value is {@code null} are not indexed.
+ *
+ * <p>The found IDs are views of the index, which are not copied. They must be read
+ * before the index is changed.
+ *
+ * <p>The index is not thread-safe. It is guarded by the storage which owns it.
+ *
+ * @param <I>
+ *         the type of entity IDs
+ */
+abstract class ColumnIndex<I> {
+
+    /**
+     * Creates a new index suitable for the column values of the given type.
+     */
+    static <I> ColumnIndex<I> forType(Class<?> type) {
+        var comparator = comparatorFor(type);
+        if (comparator.isPresent()) {
+            return new Ordered<>(comparator.get());
+        }
+        return new Hash<>();
+    }
+
+    /**
+     * Adds the ID of the record with the given column value to the index.
+     */
+    abstract void add(Object value, I id);
+
+    /**
+     * Removes the ID of the record with the given column value from the index.
+     */
+    abstract void remove(Object value, I id);
+
+    /**
+     * Finds the IDs of the records whose column value matches the filter.
+     *
+     * @param operator
+     *         the operator of the filter
+     * @param value
+     *         the value the column value is compared to
+     * @return the IDs of the matching records or {@code Optional.empty()}
+     *         if the index cannot answer the filter
+     */
+    abstract Optional<Collection<I>> find(Operator operator, Object value);
+
+    /**
+     * An index which answers equality filters.
+     */
+    private static final class Hash<I> extends ColumnIndex<I> {
+
+        private final Map<Object, Set<I>> ids = new HashMap<>();
+
+        @Override
+        void add(Object value, I id) {
+            ids.computeIfAbsent(value, v -> new HashSet<>())
+               .add(id);
+        }
+
+        @Override
+        void remove(Object value, I id) {
+            removeFrom(ids, value, id);
+        }
+
+        @Override
+        Optional<Collection<I>> find(Operator operator, Object value) {
+            if (operator != EQUAL) {
+                return Optional.empty();
+            }
+            return Optional.of(ids.getOrDefault(value, Set.of()));
+        }
+    }
+
+    /**
+     * An index which answers equality and range filters.
+     */
+    private static final class Ordered<I> extends ColumnIndex<I> {
+
+        private final NavigableMap<Object, Set<I>> ids;
+
+        private Ordered(Comparator<Object> comparator) {
+            this.ids = new TreeMap<>(comparator);
+        }
+
+        @Override
+        void add(Object value, I id) {
+            ids.computeIfAbsent(value, v -> new HashSet<>())
+               .add(id);
+        }
+
+        @Override
+        void remove(Object value, I id) {
+            removeFrom(ids, value, id);
+        }
+
+        @Override
+        Optional<Collection<I>> find(Operator operator, Object value) {
+            switch (operator) {
+                case EQUAL:
+                    return Optional.of(ids.getOrDefault(value, Set.of()));
+                case GREATER_THAN:
+                    return Optional.of(new Range<>(ids.tailMap(value, false)));
+                case GREATER_OR_EQUAL:
+                    return Optional.of(new Range<>(ids.tailMap(value, true)));
+                case LESS_THAN:
+                    return Optional.of(new Range<>(ids.headMap(value, false)));
+                case LESS_OR_EQUAL:
+                    return Optional.of(new Range<>(ids.headMap(value, true)));
+                default:
+                    return Optional.empty();
+            }
+        }
+    }
+
+    /**
+     * The IDs of the records whose column values fall into a range of the ordered index.
+     *
+     * <p>Each record has a single value of the column, so the sets of IDs per value
+     * do not intersect and are read one after another without collecting them.
+     *
+     * <p>Obtaining the size of the range visits every distinct value in it.
+     */
+    private static final class Range<I> extends AbstractCollection<I> {
+
+        private final Map<Object, Set<I>> ids;
+
+        private Range(Map<Object, Set<I>> ids) {
+            this.ids = ids;
+        }
+
+        @Override
+        public Iterator<I> iterator() {
+            return Iterators.concat(ids.values()
+                                       .stream()
+                                       .map(Set::iterator)
+                                       .iterator());
+        }
+
+        @Override
+        public int size() {
+            return ids.values()
+                      .stream()
+                      .mapToInt(Set::size)
+                      .sum();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return ids.isEmpty();
+        }
+    }
+
+    private static <I> void removeFrom(Map<Object, Set<I>> ids, Object value, I id) {
+        var withValue = ids.get(value);
+        if (withValue == null) {
+            return;
+        }
+        withValue.remove(id);
+        if (withValue.isEmpty()) {
+            ids.remove(value);
+        }
+    }
+
+    /**
+     * Obtains the comparator for the column values of the given type.
+     *
+     * @return the comparator or {@code Optional.empty()} if the values
+     *         of the type are not ordered
+     */
+    @SuppressWarnings("unchecked") // The values of one column are of the same type.
+    static Optional<Comparator<Object>> comparatorFor(Class<?> type) {
+        var wrapped = Primitives.wrap(type);
+        if (Timestamp.class.equals(wrapped)) {
+            Comparator<Timestamp> comparator = Timestamps.comparator();
+            return Optional.of((Comparator<Object>) (Comparator<?>) comparator);
+        }
+        if (Number.class.isAssignableFrom(wrapped)
+                && Comparable.class.isAssignableFrom(wrapped)) {
+            Comparator<Comparable<Object>> comparator = Comparator.naturalOrder();
+            return Optional.of((Comparator<Object>) (Comparator<?>) comparator);
+        }
+        if (String.class.equals(wrapped)) {
+            Comparator<String> comparator = Comparator.naturalOrder();
+            return Optional.of((Comparator<Object>) (Comparator<?>) comparator);
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.server.storage;
+
+import io.spine.client.Filter.Operator;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * An index of entity records by the values of two entity columns, which keeps
+ * the records with the same value of the first column ordered by the second column.
+ *
+ * <p>For example, the index of message views by the {@code chat} and {@code when_posted}
+ * columns returns the messages of one chat in the order of posting. A sorted
+ * and limited query then reads only as many records as it returns.
+ *
+ * <p>Records whose column values are {@code null} are not indexed.
+ *
+ * <p>The index is not thread-safe. It is guarded by the storage which owns it.
+ *
+ * @param <I>
+ *         the type of entity IDs
+ */
+final class CompositeIndex<I> {
+
+    private final Map<Object, NavigableMap<Object, Set<I>>> ids = new HashMap<>();
+    private final Comparator<Object> order;
+
+    /**
+     * Creates a new index.
+     *
+     * @param order
+     *         the comparator of the values of the second column
+     */
+    CompositeIndex(Comparator<Object> order) {
+        this.order = order;
+    }
+
+    /**
+     * Adds the ID of the record with the given column values to the index.
+     */
+    void add(Object key, Object orderValue, I id) {
+        ids.computeIfAbsent(key, k -> new TreeMap<>(order))
+           .computeIfAbsent(orderValue, v -> new HashSet<>())
+           .add(id);
+    }
+
+    /**
+     * Removes the ID of the record with the given column values from the index.
+     */
+    void remove(Object key, Object orderValue, I id) {
+        var withKey = ids.get(key);
+        if (withKey == null) {
+            return;
+        }
+        var withValue = withKey.get(orderValue);
+        if (withValue == null) {
+            return;
+        }
+        withValue.remove(id);
+        if (withValue.isEmpty()) {
+            withKey.remove(orderValue);
+        }
+        if (withKey.isEmpty()) {
+            ids.remove(key);
+        }
+    }
+
+    /**
+     * Returns the IDs of the records with the given value of the first column,
+     * ordered by the value of the second column.
+     *
+     * <p>The returned stream is lazy, so that a limited query does not visit
+     * the records beyond the limit.
+     *
+     * @param key
+     *         the value of the first column
+     * @param bounds
+     *         the range filters on the second column
+     * @param descending
+     *         whether the records should be returned in the descending order
+     */
+    Stream<I> find(Object key, Map<Operator, Object> bounds, boolean descending) {
+        var range = range(ids.getOrDefault(key, Collections.emptyNavigableMap()), bounds);
+        var ordered = descending ? range.descendingMap() : range;
+        return ordered.values()
+                      .stream()
+                      .flatMap(Set::stream);
+    }
+
+    /**
+     * Narrows the records down to the given range of the second column values.
+     *
+     * <p>Tightens the lower and the upper bound first, since a sub-map of
+     * a sub-map rejects the bounds which lie outside its range.
+     */
+    private NavigableMap<Object, Set<I>>
+    range(NavigableMap<Object, Set<I>> values, Map<Operator, Object> bounds) {
+        @Nullable Object lower = null;
+        var lowerInclusive = true;
+        @Nullable Object upper = null;
+        var upperInclusive = true;
+        for (var bound : bounds.entrySet()) {
+            var value = bound.getValue();
+            switch (bound.getKey()) {
+                case EQUAL:
+                    return values.subMap(value, true, value, true);
+                case GREATER_THAN:
+                case GREATER_OR_EQUAL:
+                    if (lower == null || order.compare(value, lower) >= 0) {
+                        lowerInclusive = bound.getKey() == Operator.GREATER_OR_EQUAL
+                                && (lower == null || order.compare(value, lower) > 0
+                                        || lowerInclusive);
+                        lower = value;
+                    }
+                    break;
+                case LESS_THAN:
+                case LESS_OR_EQUAL:
+                    if (upper == null || order.compare(value, upper) <= 0) {
+                        upperInclusive = bound.getKey() == Operator.LESS_OR_EQUAL
+                                && (upper == null || order.compare(value, upper) < 0
+                                        || upperInclusive);
+                        upper = value;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        if (lower != null && upper != null) {
+            var comparison = order.compare(lower, upper);
+            if (comparison > 0 || (comparison == 0 && !(lowerInclusive && upperInclusive))) {
+                return Collections.emptyNavigableMap();
+            }
+            return values.subMap(lower, lowerInclusive, upper, upperInclusive);
+        }
+        if (lower != null) {
+            return values.tailMap(lower, lowerInclusive);
+        }
+        if (upper != null) {
+            return values.headMap(upper, upperInclusive);
+        }
+        return values;
+    }
+}
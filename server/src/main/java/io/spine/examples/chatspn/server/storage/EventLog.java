@@ -0,0 +1,374 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.server.storage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * A segmented append-only log of binary entries.
+ *
+ * <p>Entries are appended to the last segment file until it reaches its capacity,
+ * after which a new segment is started. Written entries are never modified.
+ *
+ * <p>Each entry is addressed by its position, which combines the number of the segment
+ * in the upper 32 bits and the offset of the entry within the segment in the lower 32 bits.
+ * Thus, positions of the entries grow in the order the entries were appended.
+ *
+ * <p>An entry consists of a one-byte kind, a key, a payload and a CRC32 checksum of them.
+ *
+ * <p>A segment is forced to the storage device when the log rolls over to the next one.
+ * Thus, only the last segment may end with a partially written entry after an abnormal
+ * termination. On opening, the last segment is truncated at its last complete entry.
+ */
+final class EventLog implements AutoCloseable {
+
+    private static final String SEGMENT_EXTENSION = ".log";
+    private static final int ENTRY_HEADER_SIZE = Byte.BYTES + Integer.BYTES * 3;
+
+    private final Path directory;
+    private final int segmentCapacity;
+    private final List<FileChannel> segments = new CopyOnWriteArrayList<>();
+
+    /**
+     * The size of the last segment.
+     *
+     * <p>Guarded by {@code this}.
+     */
+    private long tailSize;
+
+    /**
+     * Opens the log in the given directory, creating the directory if it does not exist.
+     *
+     * @param directory
+     *         the directory to store the segment files in
+     * @param segmentCapacity
+     *         the size in bytes after which a new segment is started
+     */
+    EventLog(Path directory, int segmentCapacity) {
+        checkNotNull(directory);
+        checkArgument(segmentCapacity > ENTRY_HEADER_SIZE);
+        this.directory = directory;
+        this.segmentCapacity = segmentCapacity;
+        try {
+            Files.createDirectories(directory);
+            openSegments();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void openSegments() throws IOException {
+        try (var files = Files.list(directory)) {
+            var names = files.map(file -> file.getFileName().toString())
+                             .filter(name -> name.endsWith(SEGMENT_EXTENSION))
+                             .sorted()
+                             .toArray(String[]::new);
+            for (var name : names) {
+                segments.add(FileChannel.open(directory.resolve(name), READ, WRITE));
+            }
+        }
+        if (segments.isEmpty()) {
+            startSegment();
+        }
+        tailSize = recoverTail();
+    }
+
+    /**
+     * Truncates the last segment after its last complete entry.
+     *
+     * @return the size of the last segment
+     */
+    private long recoverTail() throws IOException {
+        var segment = tail();
+        var size = segment.size();
+        long offset = 0;
+        while (offset < size) {
+            var entrySize = completeEntrySize(segment, offset, size);
+            if (entrySize < 0) {
+                segment.truncate(offset);
+                segment.force(true);
+                return offset;
+            }
+            offset += entrySize;
+        }
+        return size;
+    }
+
+    /**
+     * Returns the size of the entry at the given offset if the entry is complete
+     * and matches its checksum, or {@code -1} otherwise.
+     */
+    private long completeEntrySize(FileChannel segment, long offset, long segmentSize)
+            throws IOException {
+        if (offset + ENTRY_HEADER_SIZE > segmentSize) {
+            return -1;
+        }
+        var header = ByteBuffer.allocate(ENTRY_HEADER_SIZE);
+        readFully(segment, header, offset);
+        var kind = header.get();
+        var keyLength = header.getInt();
+        var payloadLength = header.getInt();
+        var checksum = header.getInt();
+        var bodySize = (long) keyLength + payloadLength;
+        if (keyLength < 0 || payloadLength < 0
+                || offset + ENTRY_HEADER_SIZE + bodySize > segmentSize) {
+            return -1;
+        }
+        var body = ByteBuffer.allocate((int) bodySize);
+        readFully(segment, body, offset + ENTRY_HEADER_SIZE);
+        var key = new byte[keyLength];
+        var payload = new byte[payloadLength];
+        body.get(key)
+            .get(payload);
+        if (checksum(kind, key, payload) != checksum) {
+            return -1;
+        }
+        return ENTRY_HEADER_SIZE + bodySize;
+    }
+
+    private void startSegment() throws IOException {
+        var name = String.format("%010d%s", segments.size(), SEGMENT_EXTENSION);
+        segments.add(FileChannel.open(directory.resolve(name), CREATE, READ, WRITE));
+        tailSize = 0;
+    }
+
+    private FileChannel tail() {
+        return segments.get(segments.size() - 1);
+    }
+
+    /**
+     * Appends a new entry to the end of the log.
+     *
+     * @return the position of the appended entry
+     */
+    synchronized long append(byte kind, byte[] key, byte[] payload) {
+        var size = ENTRY_HEADER_SIZE + key.length + payload.length;
+        checkArgument(size <= segmentCapacity,
+                      "An entry of %s bytes does not fit into a log segment.", size);
+        try {
+            if (tailSize + size > segmentCapacity) {
+                tail().force(false);
+                startSegment();
+            }
+            var buffer = ByteBuffer.allocate(size)
+                                   .put(kind)
+                                   .putInt(key.length)
+                                   .putInt(payload.length)
+                                   .putInt(checksum(kind, key, payload))
+                                   .put(key)
+                                   .put(payload)
+                                   .flip();
+            var offset = tailSize;
+            writeFully(tail(), buffer, offset);
+            tailSize += size;
+            return position(segments.size() - 1, offset);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads the entry at the given position.
+     */
+    Entry read(long position) {
+        var segment = segments.get(segmentOf(position));
+        var offset = offsetOf(position);
+        try {
+            var header = ByteBuffer.allocate(ENTRY_HEADER_SIZE);
+            readFully(segment, header, offset);
+            var kind = header.get();
+            var key = new byte[header.getInt()];
+            var payload = new byte[header.getInt()];
+            header.getInt();
+            var body = ByteBuffer.allocate(key.length + payload.length);
+            readFully(segment, body, offset + ENTRY_HEADER_SIZE);
+            body.get(key)
+                .get(payload);
+            return new Entry(position, kind, key, payload);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Sequentially reads all entries starting from the given position
+     * up to the end of the log.
+     */
+    void scan(long fromPosition, Consumer<Entry> consumer) {
+        for (var segment = segmentOf(fromPosition); segment < segments.size(); segment++) {
+            long offset = segment == segmentOf(fromPosition) ? offsetOf(fromPosition) : 0;
+            long size = sizeOf(segments.get(segment));
+            while (offset + ENTRY_HEADER_SIZE <= size) {
+                var entry = read(position(segment, offset));
+                consumer.accept(entry);
+                offset += entry.size();
+            }
+        }
+    }
+
+    /**
+     * Returns the position right after the last entry of the log.
+     */
+    synchronized long end() {
+        return position(segments.size() - 1, tailSize);
+    }
+
+    /**
+     * Flushes the written entries to the storage device.
+     *
+     * <p>The segments before the last one are already flushed when the log rolls over.
+     */
+    synchronized void flush() {
+        try {
+            tail().force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            flush();
+            for (var segment : segments) {
+                segment.close();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static int checksum(byte kind, byte[] key, byte[] payload) {
+        var crc = new CRC32();
+        crc.update(kind);
+        crc.update(key);
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private static long sizeOf(FileChannel segment) {
+        try {
+            return segment.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long offset)
+            throws IOException {
+        var position = offset;
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long offset)
+            throws IOException {
+        var position = offset;
+        while (buffer.hasRemaining()) {
+            var read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Unexpected end of the log segment.");
+            }
+            position += read;
+        }
+        buffer.flip();
+    }
+
+    private static long position(int segment, long offset) {
+        return ((long) segment << Integer.SIZE) | offset;
+    }
+
+    private static int segmentOf(long position) {
+        return (int) (position >>> Integer.SIZE);
+    }
+
+    private static long offsetOf(long position) {
+        return position & 0xFFFF_FFFFL;
+    }
+
+    /**
+     * A single entry of the log.
+     */
+    static final class Entry {
+
+        private final long position;
+        private final byte kind;
+        private final byte[] key;
+        private final byte[] payload;
+
+        private Entry(long position, byte kind, byte[] key, byte[] payload) {
+            this.position = position;
+            this.kind = kind;
+            this.key = key;
+            this.payload = payload;
+        }
+
+        long position() {
+            return position;
+        }
+
+        byte kind() {
+            return kind;
+        }
+
+        byte[] payload() {
+            return payload;
+        }
+
+        /**
+         * Tells whether this entry was appended with the given key.
+         */
+        boolean hasKey(byte[] key) {
+            return Arrays.equals(this.key, key);
+        }
+
+        byte[] key() {
+            return key.clone();
+        }
+
+        private int size() {
+            return ENTRY_HEADER_SIZE + key.length + payload.length;
+        }
+    }
+}
@@ -0,0 +1,401 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.server.storage;
+
+import com.google.common.collect.Lists;
+import com.google.common.hash.Hashing;
+import com.google.protobuf.Any;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Message;
+import com.google.protobuf.Parser;
+import com.google.protobuf.Timestamp;
+import io.spine.base.Identifier;
+import io.spine.server.aggregate.AggregateEventRecord;
+import io.spine.server.aggregate.AggregateReadRequest;
+import io.spine.server.aggregate.AggregateStorage;
+import io.spine.server.entity.LifecycleFlags;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.LongPredicate;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.protobuf.util.Timestamps.compare;
+
+/**
+ * An {@code AggregateStorage} which keeps aggregate histories in a segmented
+ * append-only {@link EventLog}.
+ *
+ * <p>Events, snapshots and lifecycle flags of all aggregates of one type are appended
+ * to the same log. The positions of the entries are recorded in a memory-mapped
+ * {@link OffsetIndex} and grouped per aggregate ID in memory, so that loading
+ * an aggregate does not require scanning the log.
+ *
+ * <p>An aggregate is loaded starting from its latest snapshot. The entries since
+ * the snapshot are read in the order they were appended to the log.
+ *
+ * <p>Aggregate IDs are grouped by a 64-bit fingerprint of their serialized form. Every entry
+ * read from the log is additionally checked to belong to the requested aggregate.
+ *
+ * @param <I>
+ *         the type of aggregate IDs
+ */
+final class FileAggregateStorage<I> extends AggregateStorage<I> {
+
+    private static final byte EVENT = 1;
+    private static final byte SNAPSHOT = 2;
+    private static final byte LIFECYCLE_FLAGS = 3;
+
+    private static final String INDEX_FILE = "offsets.idx";
+
+    private final EventLog log;
+    private final OffsetIndex index;
+
+    /**
+     * Log entries per aggregate ID fingerprint.
+     *
+     * <p>Guarded by {@code this}.
+     */
+    private final Map<Long, Entries> entries = new HashMap<>();
+
+    /**
+     * Opens the storage in the given directory.
+     *
+     * <p>If the log contains entries that did not make it to the index, for example,
+     * due to an abnormal termination of the previous run, they are indexed on opening.
+     * Vice versa, the index entries pointing past the end of the log, which lost its
+     * partially written entries, are dropped.
+     */
+    FileAggregateStorage(Path directory, int segmentCapacity) {
+        super(false);
+        checkNotNull(directory);
+        this.log = new EventLog(directory, segmentCapacity);
+        this.index = new OffsetIndex(directory.resolve(INDEX_FILE));
+        load();
+    }
+
+    private void load() {
+        var end = log.end();
+        if (index.lastPosition() >= end) {
+            dropIndexedAfter(end);
+        }
+        index.forEach(this::remember);
+        var lastIndexed = index.lastPosition();
+        log.scan(Math.max(lastIndexed, 0), entry -> {
+            if (entry.position() > lastIndexed) {
+                var fingerprint = fingerprint(entry.key());
+                index.add(fingerprint, entry.kind(), entry.position());
+                remember(fingerprint, entry.kind(), entry.position());
+            }
+        });
+    }
+
+    private void dropIndexedAfter(long end) {
+        List<long[]> kept = new ArrayList<>();
+        index.forEach((fingerprint, kind, position) -> {
+            if (position < end) {
+                kept.add(new long[]{position, fingerprint, kind});
+            }
+        });
+        index.rewrite(newIndex -> kept.forEach(e -> newIndex.add(e[1], (byte) e[2], e[0])));
+    }
+
+    private void remember(long fingerprint, byte kind, long position) {
+        entries.computeIfAbsent(fingerprint, f -> new Entries())
+               .add(kind, position);
+    }
+
+    @Override
+    protected synchronized void writeRecord(I id, AggregateEventRecord record) {
+        var kind = record.hasSnapshot() ? SNAPSHOT : EVENT;
+        append(id, kind, record.toByteArray());
+    }
+
+    @Override
+    public synchronized void writeLifecycleFlags(I id, LifecycleFlags flags) {
+        append(id, LIFECYCLE_FLAGS, flags.toByteArray());
+    }
+
+    private void append(I id, byte kind, byte[] payload) {
+        var key = key(id);
+        var fingerprint = fingerprint(key);
+        var position = log.append(kind, key, payload);
+        index.add(fingerprint, kind, position);
+        remember(fingerprint, kind, position);
+    }
+
+    @Override
+    public Optional<LifecycleFlags> readLifecycleFlags(I id) {
+        checkNotClosed();
+        var key = key(id);
+        long position;
+        synchronized (this) {
+            var aggregateEntries = entries.get(fingerprint(key));
+            if (aggregateEntries == null || aggregateEntries.flagsPosition < 0) {
+                return Optional.empty();
+            }
+            position = aggregateEntries.flagsPosition;
+        }
+        var entry = log.read(position);
+        if (!entry.hasKey(key)) {
+            return Optional.empty();
+        }
+        return Optional.of(parse(entry.payload(), LifecycleFlags.parser()));
+    }
+
+    /**
+     * Reads the records of the aggregate starting from its latest snapshot
+     * and returns them from the newest to the oldest.
+     *
+     * <p>The batch size of the request is not taken into account, as only the records
+     * since the latest snapshot are read anyway.
+     */
+    @Override
+    protected Iterator<AggregateEventRecord> historyBackward(AggregateReadRequest<I> request) {
+        checkNotNull(request);
+        var key = key(request.recordId());
+        long[] positions;
+        synchronized (this) {
+            var aggregateEntries = entries.get(fingerprint(key));
+            if (aggregateEntries == null) {
+                return List.<AggregateEventRecord>of().iterator();
+            }
+            positions = aggregateEntries.sinceLatestSnapshot();
+        }
+        var records = read(key, positions);
+        if (!records.isEmpty() || positions.length == 0) {
+            return Lists.reverse(records).iterator();
+        }
+        synchronized (this) {
+            positions = entries.get(fingerprint(key)).records();
+        }
+        return Lists.reverse(read(key, positions)).iterator();
+    }
+
+    /**
+     * Reads the records at the given positions in the ascending order.
+     *
+     * <p>If the first entry does not belong to the aggregate, the fingerprint of its ID
+     * collides with the fingerprint of another aggregate ID. In this case, an empty list
+     * is returned, and the caller falls back to reading all the records.
+     */
+    private List<AggregateEventRecord> read(byte[] key, long[] positions) {
+        List<AggregateEventRecord> records = new ArrayList<>(positions.length);
+        for (var i = 0; i < positions.length; i++) {
+            var entry = log.read(positions[i]);
+            if (entry.hasKey(key)) {
+                records.add(parse(entry.payload(), AggregateEventRecord.parser()));
+            } else if (i == 0 && entry.kind() == SNAPSHOT) {
+                return List.of();
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Drops records older than the snapshot with the given index from the index
+     * of the storage.
+     *
+     * <p>The entries stay in the log, but are no longer read.
+     */
+    @Override
+    protected synchronized void truncate(int snapshotIndex) {
+        dropRecords(snapshotIndex, position -> true);
+    }
+
+    /**
+     * Drops records older than the given date and than the snapshot with
+     * the given index from the index of the storage.
+     *
+     * <p>The entries stay in the log, but are no longer read.
+     */
+    @Override
+    protected synchronized void truncate(int snapshotIndex, Timestamp date) {
+        dropRecords(snapshotIndex, position -> isOlder(position, date));
+    }
+
+    private void dropRecords(int snapshotIndex, LongPredicate toDrop) {
+        for (var aggregateEntries : entries.values()) {
+            aggregateEntries.truncate(snapshotIndex, toDrop);
+        }
+        index.rewrite(newIndex -> {
+            List<long[]> all = new ArrayList<>();
+            entries.forEach((fingerprint, aggregateEntries) -> aggregateEntries.forEach(
+                    (kind, position) -> all.add(new long[]{position, fingerprint, kind})));
+            all.sort(Comparator.comparingLong(e -> e[0]));
+            all.forEach(e -> newIndex.add(e[1], (byte) e[2], e[0]));
+        });
+    }
+
+    private boolean isOlder(long position, Timestamp date) {
+        var record = parse(log.read(position).payload(), AggregateEventRecord.parser());
+        return compare(record.getTimestamp(), date) < 0;
+    }
+
+    @Override
+    protected synchronized Iterator<I> distinctAggregateIds() {
+        List<I> ids = new ArrayList<>(entries.size());
+        for (var aggregateEntries : entries.values()) {
+            var first = aggregateEntries.first();
+            if (first >= 0) {
+                ids.add(id(log.read(first).key()));
+            }
+        }
+        return ids.iterator();
+    }
+
+    @Override
+    public synchronized void close() {
+        super.close();
+        index.close();
+        log.close();
+    }
+
+    private static byte[] key(Object id) {
+        return Identifier.pack(id)
+                         .toByteArray();
+    }
+
+    @SuppressWarnings("unchecked") // Only IDs of type `I` are written to the log.
+    private I id(byte[] key) {
+        var packed = parse(key, Any.parser());
+        return (I) Identifier.unpack(packed);
+    }
+
+    private static long fingerprint(byte[] key) {
+        return Hashing.farmHashFingerprint64()
+                      .hashBytes(key)
+                      .asLong();
+    }
+
+    private static <M extends Message> M parse(byte[] bytes, Parser<M> parser) {
+        try {
+            return parser.parseFrom(bytes);
+        } catch (InvalidProtocolBufferException e) {
+            throw new IllegalStateException("The log contains a malformed entry.", e);
+        }
+    }
+
+    /**
+     * Positions of the log entries which belong to aggregates with the same ID fingerprint.
+     */
+    private static final class Entries {
+
+        private long[] positions = new long[4];
+        private byte[] kinds = new byte[4];
+        private int size;
+        private long flagsPosition = -1;
+
+        private void add(byte kind, long position) {
+            if (kind == LIFECYCLE_FLAGS) {
+                flagsPosition = position;
+                return;
+            }
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+                kinds = Arrays.copyOf(kinds, size * 2);
+            }
+            positions[size] = position;
+            kinds[size] = kind;
+            size++;
+        }
+
+        /**
+         * Returns the positions of the records starting from the latest snapshot.
+         */
+        private long[] sinceLatestSnapshot() {
+            var start = size - 1;
+            while (start > 0 && kinds[start] != SNAPSHOT) {
+                start--;
+            }
+            return Arrays.copyOfRange(positions, Math.max(start, 0), size);
+        }
+
+        private long[] records() {
+            return Arrays.copyOf(positions, size);
+        }
+
+        private long first() {
+            if (size > 0) {
+                return positions[0];
+            }
+            return flagsPosition;
+        }
+
+        /**
+         * Drops the records older than the snapshot with the given index,
+         * which match the given predicate.
+         */
+        private void truncate(int snapshotIndex, LongPredicate toDrop) {
+            var snapshots = 0;
+            var boundary = -1;
+            for (var i = size - 1; i >= 0; i--) {
+                if (kinds[i] == SNAPSHOT) {
+                    if (snapshots == snapshotIndex) {
+                        boundary = i;
+                        break;
+                    }
+                    snapshots++;
+                }
+            }
+            if (boundary <= 0) {
+                return;
+            }
+            var kept = 0;
+            for (var i = 0; i < size; i++) {
+                if (i >= boundary || !toDrop.test(positions[i])) {
+                    positions[kept] = positions[i];
+                    kinds[kept] = kinds[i];
+                    kept++;
+                }
+            }
+            size = kept;
+        }
+
+        private void forEach(EntryConsumer consumer) {
+            for (var i = 0; i < size; i++) {
+                consumer.accept(kinds[i], positions[i]);
+            }
+            if (flagsPosition >= 0) {
+                consumer.accept(LIFECYCLE_FLAGS, flagsPosition);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface EntryConsumer {
+
+        void accept(byte kind, long position);
+    }
+}
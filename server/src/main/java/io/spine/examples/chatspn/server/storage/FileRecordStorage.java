@@ -0,0 +1,304 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.server.storage;
+
+import com.google.common.io.MoreFiles;
+import com.google.common.primitives.Primitives;
+import com.google.protobuf.Any;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.ExtensionRegistryLite;
+import com.google.protobuf.InvalidProtocolBufferException;
+import io.spine.base.Identifier;
+import io.spine.server.entity.Entity;
+import io.spine.server.entity.EntityRecord;
+import io.spine.server.entity.storage.ColumnName;
+import io.spine.server.entity.storage.EntityRecordWithColumns;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.io.RecursiveDeleteOption.ALLOW_INSECURE;
+import static io.spine.protobuf.TypeConverter.toAny;
+import static io.spine.protobuf.TypeConverter.toObject;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+
+/**
+ * An {@link IndexedRecordStorage} which journals the written records to an {@link EventLog}.
+ *
+ * <p>Each write appends the record along with its column values to the log, and each
+ * deletion appends a tombstone. On opening, the log is replayed to restore the records
+ * and their indexes in memory.
+ *
+ * <p>As the records of projections and process managers are rewritten on every handled
+ * signal, the log mostly consists of outdated versions of the records. When the log holds
+ * several times more entries than there are records, it is compacted: the current records
+ * are written to a new log, which then replaces the old one. The log is checked on opening
+ * and after every appended entry, so it stays bounded while the storage is open, much like
+ * the {@link EventLog} rolls over to a new segment once the current one is full.
+ *
+ * <p>After a compaction, the log holds one entry per record. Thus, the next compaction
+ * happens only after several appends per record, which keeps the cost of rewriting
+ * the records proportional to the number of appended entries.
+ *
+ * @param <I>
+ *         the type of entity IDs
+ */
+final class FileRecordStorage<I> extends IndexedRecordStorage<I> {
+
+    private static final byte WRITE = 1;
+    private static final byte DELETE = 2;
+
+    /**
+     * The number of log entries per record starting from which the log is compacted.
+     */
+    private static final int COMPACTION_RATIO = 4;
+
+    /**
+     * The number of log entries below which the log is never compacted.
+     */
+    private static final int MIN_ENTRIES_TO_COMPACT = 1024;
+
+    private static final String COMPACTED_SUFFIX = ".compacted";
+    private static final String OBSOLETE_SUFFIX = ".obsolete";
+
+    private final Path directory;
+    private final int segmentCapacity;
+
+    /**
+     * The current log.
+     *
+     * <p>Guarded by {@code this}.
+     */
+    private EventLog log;
+
+    /**
+     * The number of entries in the current log.
+     *
+     * <p>Guarded by {@code this}.
+     */
+    private long entries;
+
+    /**
+     * Opens the storage in the given directory.
+     *
+     * @param entityClass
+     *         the class of the stored entities
+     * @param directory
+     *         the directory of the log
+     * @param segmentCapacity
+     *         the size of a single log segment
+     */
+    FileRecordStorage(Class<? extends Entity<I, ?>> entityClass,
+                      Path directory,
+                      int segmentCapacity) {
+        super(entityClass);
+        this.directory = checkNotNull(directory);
+        this.segmentCapacity = segmentCapacity;
+        finishCompaction(directory);
+        this.log = new EventLog(directory, segmentCapacity);
+        this.entries = replay(log);
+        compactIfNeeded();
+    }
+
+    /**
+     * Restores the records from the log.
+     *
+     * @return the number of entries in the log
+     */
+    private long replay(EventLog log) {
+        var entries = new long[1];
+        log.scan(0, entry -> {
+            var id = id(entry.key());
+            if (entry.kind() == DELETE) {
+                super.delete(id);
+            } else {
+                super.writeRecord(id, decode(entry.payload()));
+            }
+            entries[0]++;
+        });
+        return entries[0];
+    }
+
+    /**
+     * Compacts the log if it holds several times more entries than there are records.
+     */
+    private synchronized void compactIfNeeded() {
+        var records = recordCount();
+        if (entries >= MIN_ENTRIES_TO_COMPACT && entries > (long) records * COMPACTION_RATIO) {
+            compact();
+            entries = records;
+        }
+    }
+
+    /**
+     * Writes the current records to a new log, which then replaces the current one.
+     *
+     * <p>The new log is written next to the current one. If the process terminates
+     * before the new log takes the place of the current one, the new log is either
+     * discarded or put in place on the next {@linkplain #finishCompaction opening}.
+     */
+    private void compact() {
+        log.close();
+        var compacted = sibling(directory, COMPACTED_SUFFIX);
+        var obsolete = sibling(directory, OBSOLETE_SUFFIX);
+        try {
+            deleteIfExists(compacted);
+            try (var replacement = new EventLog(compacted, segmentCapacity)) {
+                forEachRecord((id, record) -> replacement.append(WRITE, key(id), encode(record)));
+                replacement.flush();
+            }
+            Files.move(directory, obsolete, ATOMIC_MOVE);
+            Files.move(compacted, directory, ATOMIC_MOVE);
+            deleteIfExists(obsolete);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        log = new EventLog(directory, segmentCapacity);
+    }
+
+    /**
+     * Cleans up after a compaction interrupted by an abnormal termination.
+     *
+     * <p>If the current log has already been moved away, the compacted one replaces it.
+     * Otherwise, the compacted log may be incomplete and is discarded.
+     */
+    private static void finishCompaction(Path directory) {
+        var compacted = sibling(directory, COMPACTED_SUFFIX);
+        var obsolete = sibling(directory, OBSOLETE_SUFFIX);
+        try {
+            if (Files.exists(compacted)) {
+                if (Files.exists(directory)) {
+                    deleteIfExists(compacted);
+                } else {
+                    Files.move(compacted, directory, ATOMIC_MOVE);
+                }
+            }
+            deleteIfExists(obsolete);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    protected synchronized void writeRecord(I id, EntityRecordWithColumns record) {
+        log.append(WRITE, key(id), encode(record));
+        entries++;
+        super.writeRecord(id, record);
+        compactIfNeeded();
+    }
+
+    @Override
+    public synchronized boolean delete(I id) {
+        var deleted = super.delete(id);
+        if (deleted) {
+            log.append(DELETE, key(id), new byte[0]);
+            entries++;
+            compactIfNeeded();
+        }
+        return deleted;
+    }
+
+    @Override
+    public synchronized void close() {
+        super.close();
+        log.close();
+    }
+
+    /**
+     * Serializes the record followed by the names and the values of its columns.
+     */
+    private byte[] encode(EntityRecordWithColumns record) {
+        var bytes = new ByteArrayOutputStream();
+        var output = CodedOutputStream.newInstance(bytes);
+        try {
+            output.writeMessageNoTag(record.record());
+            for (var column : columns().columnList()) {
+                var name = column.name();
+                var value = record.hasColumn(name) ? record.columnValue(name) : null;
+                if (value != null) {
+                    output.writeStringNoTag(name.value());
+                    output.writeMessageNoTag(toAny(value));
+                }
+            }
+            output.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private EntityRecordWithColumns decode(byte[] payload) {
+        var input = CodedInputStream.newInstance(payload);
+        var registry = ExtensionRegistryLite.getEmptyRegistry();
+        try {
+            var record = input.readMessage(EntityRecord.parser(), registry);
+            Map<ColumnName, Object> values = new HashMap<>();
+            while (!input.isAtEnd()) {
+                var name = ColumnName.of(input.readString());
+                var value = input.readMessage(Any.parser(), registry);
+                var type = Primitives.wrap(columns().get(name).type());
+                values.put(name, toObject(value, type));
+            }
+            return EntityRecordWithColumns.of(record, values);
+        } catch (InvalidProtocolBufferException e) {
+            throw new IllegalStateException("The log contains a malformed entry.", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] key(Object id) {
+        return Identifier.pack(id)
+                         .toByteArray();
+    }
+
+    @SuppressWarnings("unchecked") // Only IDs of type `I` are written to the log.
+    private I id(byte[] key) {
+        try {
+            return (I) Identifier.unpack(Any.parseFrom(key));
+        } catch (InvalidProtocolBufferException e) {
+            throw new IllegalStateException("The log contains a malformed key.", e);
+        }
+    }
+
+    private static Path sibling(Path directory, String suffix) {
+        return directory.resolveSibling(directory.getFileName() + suffix);
+    }
+
+    private static void deleteIfExists(Path directory) throws IOException {
+        if (Files.exists(directory)) {
+            MoreFiles.deleteRecursively(directory, ALLOW_INSECURE);
+        }
+    }
+}
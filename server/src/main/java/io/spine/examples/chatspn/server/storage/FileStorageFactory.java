@@ -0,0 +1,174 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.server.storage;
+
+import io.spine.server.ContextSpec;
+import io.spine.server.aggregate.Aggregate;
+import io.spine.server.aggregate.AggregateStorage;
+import io.spine.server.delivery.CatchUpStorage;
+import io.spine.server.delivery.InboxStorage;
+import io.spine.server.entity.Entity;
+import io.spine.server.event.EventStore;
+import io.spine.server.projection.Projection;
+import io.spine.server.projection.ProjectionStorage;
+import io.spine.server.storage.AbstractStorage;
+import io.spine.server.storage.RecordStorage;
+import io.spine.server.storage.StorageFactory;
+import io.spine.server.storage.memory.InMemoryStorageFactory;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A {@code StorageFactory} which keeps aggregate histories and entity records in files.
+ *
+ * <p>Each aggregate type of each bounded context gets its own directory with
+ * a {@linkplain EventLog segmented append-only log} and an {@linkplain OffsetIndex offset index}.
+ *
+ * <p>The records of projections and process managers are kept in memory along with
+ * the indexes of their columns, and every change of them is {@linkplain FileRecordStorage
+ * journaled} to a log in the directory of the entity type. Thus, after a restart, the queries
+ * return the same entity states as before it.
+ *
+ * <p>The inbox, the catch-up and the event storages are provided by
+ * the {@link InMemoryStorageFactory}. The signals not yet delivered from the inbox
+ * are lost on an abnormal termination.
+ *
+ * <p>Only single-tenant bounded contexts are supported.
+ */
+public final class FileStorageFactory implements StorageFactory {
+
+    /**
+     * The default size of a single log segment.
+     */
+    private static final int DEFAULT_SEGMENT_CAPACITY = 64 * 1024 * 1024;
+
+    private final Path directory;
+    private final int segmentCapacity;
+    private final StorageFactory delegate = InMemoryStorageFactory.newInstance();
+    private final List<AbstractStorage<?, ?, ?>> storages = new ArrayList<>();
+
+    private FileStorageFactory(Path directory, int segmentCapacity) {
+        this.directory = directory;
+        this.segmentCapacity = segmentCapacity;
+    }
+
+    /**
+     * Creates a new factory which stores data in the given directory.
+     */
+    public static FileStorageFactory in(Path directory) {
+        return in(directory, DEFAULT_SEGMENT_CAPACITY);
+    }
+
+    /**
+     * Creates a new factory which stores data in the given directory
+     * using log segments of the given size.
+     */
+    public static FileStorageFactory in(Path directory, int segmentCapacity) {
+        checkNotNull(directory);
+        return new FileStorageFactory(directory, segmentCapacity);
+    }
+
+    @Override
+    public synchronized <I> AggregateStorage<I>
+    createAggregateStorage(ContextSpec context,
+                           Class<? extends Aggregate<I, ?, ?>> aggregateClass) {
+        checkSingleTenant(context);
+        var storage = new FileAggregateStorage<I>(directoryOf(context, aggregateClass),
+                                                  segmentCapacity);
+        storages.add(storage);
+        return storage;
+    }
+
+    @Override
+    public synchronized <I> RecordStorage<I>
+    createRecordStorage(ContextSpec context, Class<? extends Entity<I, ?>> entityClass) {
+        checkSingleTenant(context);
+        var storage = new FileRecordStorage<I>(entityClass,
+                                               directoryOf(context, entityClass),
+                                               segmentCapacity);
+        storages.add(storage);
+        return storage;
+    }
+
+    @Override
+    public synchronized <I> ProjectionStorage<I>
+    createProjectionStorage(ContextSpec context,
+                            Class<? extends Projection<I, ?, ?>> projectionClass) {
+        checkSingleTenant(context);
+        var records = new FileRecordStorage<I>(projectionClass,
+                                               directoryOf(context, projectionClass),
+                                               segmentCapacity);
+        var storage = new IndexedProjectionStorage<>(projectionClass, records);
+        storages.add(storage);
+        return storage;
+    }
+
+    @Override
+    public InboxStorage createInboxStorage(boolean multitenant) {
+        return delegate.createInboxStorage(multitenant);
+    }
+
+    @Override
+    public CatchUpStorage createCatchUpStorage(boolean multitenant) {
+        return delegate.createCatchUpStorage(multitenant);
+    }
+
+    @Override
+    public EventStore createEventStore(ContextSpec context) {
+        return delegate.createEventStore(context);
+    }
+
+    /**
+     * Closes all the storages created by this factory.
+     */
+    @Override
+    public synchronized void close() throws Exception {
+        for (var storage : storages) {
+            if (storage.isOpen()) {
+                storage.close();
+            }
+        }
+        storages.clear();
+        delegate.close();
+    }
+
+    private Path directoryOf(ContextSpec context, Class<?> entityClass) {
+        return directory.resolve(context.name().getValue())
+                        .resolve(entityClass.getSimpleName());
+    }
+
+    private static void checkSingleTenant(ContextSpec context) {
+        checkArgument(!context.isMultitenant(),
+                      "The file storage does not support multitenant context `%s`.",
+                      context.name().getValue());
+    }
+}
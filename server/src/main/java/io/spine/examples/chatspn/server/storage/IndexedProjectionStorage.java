@@ -0,0 +1,95 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.server.storage;
+
+import com.google.protobuf.Timestamp;
+import io.spine.server.projection.Projection;
+import io.spine.server.projection.ProjectionStorage;
+import io.spine.server.storage.RecordStorage;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.Iterator;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A {@code ProjectionStorage} which keeps projection records in
+ * an {@link IndexedRecordStorage}.
+ *
+ * @param <I>
+ *         the type of projection IDs
+ */
+final class IndexedProjectionStorage<I> extends ProjectionStorage<I> {
+
+    private final IndexedRecordStorage<I> records;
+    private @Nullable Timestamp lastHandledEventTime;
+
+    IndexedProjectionStorage(Class<? extends Projection<I, ?, ?>> projectionClass) {
+        this(projectionClass, new IndexedRecordStorage<>(projectionClass));
+    }
+
+    /**
+     * Creates a storage which keeps projection records in the given record storage.
+     */
+    IndexedProjectionStorage(Class<? extends Projection<I, ?, ?>> projectionClass,
+                             IndexedRecordStorage<I> records) {
+        super(projectionClass, false);
+        this.records = checkNotNull(records);
+    }
+
+    @Override
+    public RecordStorage<I> recordStorage() {
+        return records;
+    }
+
+    @Override
+    public Iterator<I> index() {
+        return records.index();
+    }
+
+    @Override
+    public boolean delete(I id) {
+        return records.delete(id);
+    }
+
+    @Override
+    public synchronized void writeLastHandledEventTime(Timestamp time) {
+        checkNotNull(time);
+        lastHandledEventTime = time;
+    }
+
+    @Override
+    public synchronized @Nullable Timestamp readLastHandledEventTime() {
+        return lastHandledEventTime;
+    }
+
+    @Override
+    public void close() {
+        super.close();
+        records.close();
+    }
+}
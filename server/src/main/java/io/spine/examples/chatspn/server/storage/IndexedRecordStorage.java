@@ -0,0 +1,502 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.server.storage;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.primitives.Primitives;
+import com.google.protobuf.FieldMask;
+import io.spine.client.Filter;
+import io.spine.client.Filter.Operator;
+import io.spine.client.OrderBy;
+import io.spine.client.ResponseFormat;
+import io.spine.server.entity.Entity;
+import io.spine.server.entity.EntityRecord;
+import io.spine.server.entity.storage.Column;
+import io.spine.server.entity.storage.ColumnName;
+import io.spine.server.entity.storage.CompositeQueryParameter;
+import io.spine.server.entity.storage.EntityQuery;
+import io.spine.server.entity.storage.EntityRecordWithColumns;
+import io.spine.server.storage.RecordStorage;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+import static io.spine.client.CompositeFilter.CompositeOperator.ALL;
+import static io.spine.client.Filter.Operator.EQUAL;
+import static io.spine.client.OrderBy.Direction.DESCENDING;
+import static io.spine.protobuf.AnyPacker.pack;
+import static io.spine.protobuf.AnyPacker.unpack;
+import static io.spine.protobuf.TypeConverter.toObject;
+import static io.spine.server.entity.FieldMasks.applyMask;
+
+/**
+ * A {@code RecordStorage} which keeps entity records in memory along with
+ * {@linkplain ColumnIndex indexes} of their column values.
+ *
+ * <p>Every entity column is indexed. Additionally, the records are kept ordered in
+ * {@linkplain CompositeIndex composite indexes} for the {@linkplain #ORDERED_QUERIES known
+ * shapes} of the ordered queries, such as the messages of a chat ordered by their positions.
+ * A composite index is built only for the entities which have both of its columns.
+ * The indexes are updated on each write and deletion.
+ *
+ * <p>A query is answered by looking up the equality filters of the query in the indexes
+ * and choosing the smallest set of candidate records. A range filter is looked up
+ * only if the query has no indexed equality filters. Only the candidates are then
+ * checked against all the filters of the query. For example, the chat cards of a user
+ * are found by the value of the {@code viewer} column without scanning the cards
+ * of other users.
+ *
+ * <p>A query sorted by a column of a composite index and filtered by an equal value
+ * of the other column of the index reads the records in the index order.
+ * Such a query is not sorted in memory, and a limited one stops reading
+ * as soon as it has found enough records. For example, the latest messages of a chat
+ * are read by their positions without visiting the earlier ones.
+ *
+ * <p>Only single-tenant bounded contexts are supported.
+ *
+ * @param <I>
+ *         the type of entity IDs
+ */
+class IndexedRecordStorage<I> extends RecordStorage<I> {
+
+    /**
+     * The names of the columns the queries order the records by, each mapped to
+     * the names of the columns compared to an equal value in such queries.
+     *
+     * <p>The message views of a chat are read by their positions in the chat history
+     * and by the time of posting.
+     */
+    private static final ImmutableSetMultimap<String, String> ORDERED_QUERIES =
+            ImmutableSetMultimap.of("position", "chat",
+                                    "when_posted", "chat");
+
+    /**
+     * Records per entity ID.
+     *
+     * <p>Guarded by {@code this}.
+     */
+    private final Map<I, EntityRecordWithColumns> records = new HashMap<>();
+
+    /**
+     * Indexes per column name.
+     *
+     * <p>Guarded by {@code this}.
+     */
+    private final Map<ColumnName, ColumnIndex<I>> indexes = new HashMap<>();
+
+    /**
+     * Composite indexes per the name of the ordering column and the name of the other column.
+     *
+     * <p>Guarded by {@code this}.
+     */
+    private final Map<ColumnName, Map<ColumnName, CompositeIndex<I>>> composites =
+            new HashMap<>();
+
+    IndexedRecordStorage(Class<? extends Entity<I, ?>> entityClass) {
+        super(entityClass, false);
+        var columns = columns().columnList();
+        for (var column : columns) {
+            indexes.put(column.name(), ColumnIndex.forType(column.type()));
+        }
+        for (var ordering : columns) {
+            ColumnIndex.comparatorFor(ordering.type())
+                       .map(order -> compositesOrderedBy(ordering, order))
+                       .filter(byKey -> !byKey.isEmpty())
+                       .ifPresent(byKey -> composites.put(ordering.name(), byKey));
+        }
+    }
+
+    /**
+     * Creates the composite indexes ordered by the given column for the known
+     * query shapes.
+     */
+    private Map<ColumnName, CompositeIndex<I>>
+    compositesOrderedBy(Column ordering, Comparator<Object> order) {
+        Map<ColumnName, CompositeIndex<I>> result = new HashMap<>();
+        var keys = ORDERED_QUERIES.get(ordering.name()
+                                               .value());
+        for (var column : columns().columnList()) {
+            if (keys.contains(column.name()
+                                    .value())) {
+                result.put(column.name(), new CompositeIndex<>(order));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized Iterator<I> index() {
+        checkNotClosed();
+        return ImmutableList.copyOf(records.keySet())
+                            .iterator();
+    }
+
+    @Override
+    public synchronized boolean delete(I id) {
+        checkNotClosed();
+        var removed = records.remove(id);
+        if (removed == null) {
+            return false;
+        }
+        unindex(id, removed);
+        return true;
+    }
+
+    @Override
+    protected synchronized Optional<EntityRecord> readRecord(I id) {
+        return Optional.ofNullable(records.get(id))
+                       .map(EntityRecordWithColumns::record);
+    }
+
+    @Override
+    protected synchronized Iterator<@Nullable EntityRecord>
+    readMultipleRecords(Iterable<I> ids, FieldMask fieldMask) {
+        List<@Nullable EntityRecord> result = new ArrayList<>();
+        for (var id : ids) {
+            var record = records.get(id);
+            result.add(record == null ? null : masked(record.record(), fieldMask));
+        }
+        return result.iterator();
+    }
+
+    @Override
+    protected synchronized Iterator<EntityRecord> readAllRecords(ResponseFormat format) {
+        return respond(records.values().stream(), format, false);
+    }
+
+    @Override
+    protected synchronized Iterator<EntityRecord>
+    readAllRecords(EntityQuery<I> query, ResponseFormat format) {
+        var ids = query.getIds();
+        var inOrder = orderedCandidates(query, format);
+        var matching = inOrder
+                .orElseGet(() -> candidates(query).stream())
+                .filter(id -> ids.isEmpty() || ids.contains(id))
+                .map(records::get)
+                .filter(Objects::nonNull)
+                .filter(record -> matches(record, query));
+        return respond(matching, format, inOrder.isPresent());
+    }
+
+    @Override
+    protected synchronized void writeRecord(I id, EntityRecordWithColumns record) {
+        var previous = records.put(id, record);
+        if (previous != null) {
+            unindex(id, previous);
+        }
+        index(id, record);
+    }
+
+    @Override
+    protected synchronized void writeRecords(Map<I, EntityRecordWithColumns> records) {
+        records.forEach(this::writeRecord);
+    }
+
+    /**
+     * Returns the number of stored records.
+     */
+    synchronized int recordCount() {
+        return records.size();
+    }
+
+    /**
+     * Passes every stored record along with its ID to the given action.
+     */
+    synchronized void forEachRecord(BiConsumer<I, EntityRecordWithColumns> action) {
+        records.forEach(action);
+    }
+
+    private void index(I id, EntityRecordWithColumns record) {
+        indexes.forEach((name, index) -> {
+            var value = valueOf(record, name);
+            if (value != null) {
+                index.add(value, id);
+            }
+        });
+        composites.forEach((ordering, byKey) -> {
+            var orderValue = valueOf(record, ordering);
+            if (orderValue != null) {
+                byKey.forEach((name, index) -> {
+                    var key = valueOf(record, name);
+                    if (key != null) {
+                        index.add(key, orderValue, id);
+                    }
+                });
+            }
+        });
+    }
+
+    private void unindex(I id, EntityRecordWithColumns record) {
+        indexes.forEach((name, index) -> {
+            var value = valueOf(record, name);
+            if (value != null) {
+                index.remove(value, id);
+            }
+        });
+        composites.forEach((ordering, byKey) -> {
+            var orderValue = valueOf(record, ordering);
+            if (orderValue != null) {
+                byKey.forEach((name, index) -> {
+                    var key = valueOf(record, name);
+                    if (key != null) {
+                        index.remove(key, orderValue, id);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Selects the IDs of the records which may match the query in the order
+     * requested by the response format.
+     *
+     * <p>The IDs are found through a composite index of the ordering column and a column
+     * whose value must be equal to the one in the query. The range filters on
+     * the ordering column narrow the selection down.
+     *
+     * @return the IDs in the requested order or {@code Optional.empty()} if the query
+     *         is not ordered or there is no suitable composite index
+     */
+    private Optional<Stream<I>> orderedCandidates(EntityQuery<I> query, ResponseFormat format) {
+        if (!format.hasOrderBy()) {
+            return Optional.empty();
+        }
+        var orderBy = format.getOrderBy();
+        var ordering = ColumnName.of(orderBy.getColumn());
+        var byKey = composites.get(ordering);
+        if (byKey == null) {
+            return Optional.empty();
+        }
+        @Nullable CompositeIndex<I> index = null;
+        @Nullable Object key = null;
+        var selected = Integer.MAX_VALUE;
+        Map<Operator, Object> bounds = new EnumMap<>(Operator.class);
+        for (var parameter : query.getParameters()) {
+            if (parameter.getOperator() != ALL) {
+                continue;
+            }
+            for (var filter : parameter.getFilters()
+                                       .entries()) {
+                var column = filter.getKey();
+                var operator = filter.getValue()
+                                     .getOperator();
+                var value = expectedValue(column, filter.getValue());
+                if (column.name().equals(ordering)) {
+                    bounds.put(operator, value);
+                } else if (operator == EQUAL && byKey.containsKey(column.name())) {
+                    var size = lookUp(column, filter.getValue())
+                            .map(Collection::size)
+                            .orElse(Integer.MAX_VALUE);
+                    if (index == null || size < selected) {
+                        index = byKey.get(column.name());
+                        key = value;
+                        selected = size;
+                    }
+                }
+            }
+        }
+        if (index == null || key == null) {
+            return Optional.empty();
+        }
+        var descending = orderBy.getDirection() == DESCENDING;
+        return Optional.of(index.find(key, bounds, descending));
+    }
+
+    /**
+     * Selects the IDs of the records which may match the query.
+     *
+     * <p>Considers the filters which must hold for all the records in the result.
+     * The equality filters are preferred, since their sizes are known without reading
+     * the found IDs. The smallest of the sets found by the equality filters is picked,
+     * and the range filters are then checked against its records.
+     *
+     * <p>If none of the equality filters can be answered by an index, the records
+     * found by the first range filter answered by an index are the candidates.
+     * Otherwise, all the records are the candidates.
+     */
+    private Collection<I> candidates(EntityQuery<I> query) {
+        @Nullable Collection<I> narrowest = query.getIds()
+                                                 .isEmpty() ? null : query.getIds();
+        @Nullable Collection<I> inRange = null;
+        for (var parameter : query.getParameters()) {
+            if (parameter.getOperator() != ALL) {
+                continue;
+            }
+            for (var filter : parameter.getFilters()
+                                       .entries()) {
+                var column = filter.getKey();
+                var value = filter.getValue();
+                if (value.getOperator() != EQUAL) {
+                    if (inRange == null) {
+                        inRange = lookUp(column, value).orElse(null);
+                    }
+                    continue;
+                }
+                var found = lookUp(column, value);
+                if (found.isPresent()
+                        && (narrowest == null || found.get().size() < narrowest.size())) {
+                    narrowest = found.get();
+                }
+            }
+        }
+        if (narrowest != null) {
+            return narrowest;
+        }
+        return inRange == null ? records.keySet() : inRange;
+    }
+
+    private Optional<Collection<I>> lookUp(Column column, Filter filter) {
+        var index = indexes.get(column.name());
+        if (index == null) {
+            return Optional.empty();
+        }
+        return index.find(filter.getOperator(), expectedValue(column, filter));
+    }
+
+    private static boolean matches(EntityRecordWithColumns record, EntityQuery<?> query) {
+        for (var parameter : query.getParameters()) {
+            if (!matches(record, parameter)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matches(EntityRecordWithColumns record,
+                                   CompositeQueryParameter parameter) {
+        var filters = parameter.getFilters()
+                               .entries()
+                               .stream();
+        if (parameter.getOperator() == ALL) {
+            return filters.allMatch(f -> matches(record, f.getKey(), f.getValue()));
+        }
+        return filters.anyMatch(f -> matches(record, f.getKey(), f.getValue()));
+    }
+
+    private static boolean matches(EntityRecordWithColumns record, Column column, Filter filter) {
+        var actual = valueOf(record, column.name());
+        var expected = expectedValue(column, filter);
+        var operator = filter.getOperator();
+        if (operator == EQUAL) {
+            return Objects.equals(actual, expected);
+        }
+        var comparator = ColumnIndex.comparatorFor(column.type());
+        if (actual == null || comparator.isEmpty()) {
+            return false;
+        }
+        var comparison = comparator.get()
+                                   .compare(actual, expected);
+        switch (operator) {
+            case GREATER_THAN:
+                return comparison > 0;
+            case GREATER_OR_EQUAL:
+                return comparison >= 0;
+            case LESS_THAN:
+                return comparison < 0;
+            case LESS_OR_EQUAL:
+                return comparison <= 0;
+            default:
+                return false;
+        }
+    }
+
+    private static Object expectedValue(Column column, Filter filter) {
+        return toObject(filter.getValue(), Primitives.wrap(column.type()));
+    }
+
+    private static @Nullable Object valueOf(EntityRecordWithColumns record, ColumnName name) {
+        if (!record.hasColumn(name)) {
+            return null;
+        }
+        return record.columnValue(name);
+    }
+
+    /**
+     * Orders, limits and masks the records according to the response format.
+     *
+     * @param matching
+     *         the records matching the query
+     * @param format
+     *         the format of the response
+     * @param inOrder
+     *         whether the records are already in the requested order
+     */
+    private Iterator<EntityRecord> respond(Stream<EntityRecordWithColumns> matching,
+                                           ResponseFormat format,
+                                           boolean inOrder) {
+        var ordered = matching;
+        if (format.hasOrderBy() && !inOrder) {
+            ordered = ordered.sorted(ordering(format.getOrderBy()));
+        }
+        if (format.getLimit() > 0) {
+            ordered = ordered.limit(format.getLimit());
+        }
+        var fieldMask = format.getFieldMask();
+        return ordered.map(record -> masked(record.record(), fieldMask))
+                      .collect(ImmutableList.toImmutableList())
+                      .iterator();
+    }
+
+    private Comparator<EntityRecordWithColumns> ordering(OrderBy orderBy) {
+        var name = ColumnName.of(orderBy.getColumn());
+        var column = columns().get(name);
+        var values = ColumnIndex.comparatorFor(column.type())
+                                .orElseGet(IndexedRecordStorage::naturalOrder);
+        Comparator<EntityRecordWithColumns> comparator =
+                Comparator.comparing(record -> valueOf(record, name),
+                                     Comparator.nullsFirst(values));
+        return orderBy.getDirection() == DESCENDING ? comparator.reversed() : comparator;
+    }
+
+    @SuppressWarnings("unchecked") // The values of one column are of the same type.
+    private static Comparator<Object> naturalOrder() {
+        return (first, second) -> ((Comparable<Object>) first).compareTo(second);
+    }
+
+    private static EntityRecord masked(EntityRecord record, FieldMask fieldMask) {
+        if (fieldMask.getPathsList()
+                     .isEmpty()) {
+            return record;
+        }
+        var state = applyMask(fieldMask, unpack(record.getState()));
+        return record.toBuilder()
+                     .setState(pack(state))
+                     .build();
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.server.storage;
+
+import io.spine.server.ContextSpec;
+import io.spine.server.aggregate.Aggregate;
+import io.spine.server.aggregate.AggregateStorage;
+import io.spine.server.delivery.CatchUpStorage;
+import io.spine.server.delivery.InboxStorage;
+import io.spine.server.entity.Entity;
+import io.spine.server.event.EventStore;
+import io.spine.server.projection.Projection;
+import io.spine.server.projection.ProjectionStorage;
+import io.spine.server.storage.RecordStorage;
+import io.spine.server.storage.StorageFactory;
+import io.spine.server.storage.memory.InMemoryStorageFactory;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A {@code StorageFactory} which indexes the columns of entity records.
+ *
+ * <p>Records of projections and process managers are kept in memory by
+ * {@linkplain IndexedRecordStorage storages} which answer filtered queries through
+ * indexes of the entity columns instead of scanning all the records of the type.
+ *
+ * <p>Other kinds of storage are provided by the {@link InMemoryStorageFactory}.
+ *
+ * <p>Only single-tenant bounded contexts are supported.
+ */
+public final class IndexedStorageFactory implements StorageFactory {
+
+    private final StorageFactory delegate = InMemoryStorageFactory.newInstance();
+
+    /**
+     * Prevents direct instantiation.
+     */
+    private IndexedStorageFactory() {
+    }
+
+    /**
+     * Creates a new factory.
+     */
+    public static IndexedStorageFactory newInstance() {
+        return new IndexedStorageFactory();
+    }
+
+    @Override
+    public <I> AggregateStorage<I>
+    createAggregateStorage(ContextSpec context,
+                           Class<? extends Aggregate<I, ?, ?>> aggregateClass) {
+        return delegate.createAggregateStorage(context, aggregateClass);
+    }
+
+    @Override
+    public <I> RecordStorage<I>
+    createRecordStorage(ContextSpec context, Class<? extends Entity<I, ?>> entityClass) {
+        checkSingleTenant(context);
+        return new IndexedRecordStorage<>(entityClass);
+    }
+
+    @Override
+    public <I> ProjectionStorage<I>
+    createProjectionStorage(ContextSpec context,
+                            Class<? extends Projection<I, ?, ?>> projectionClass) {
+        checkSingleTenant(context);
+        return new IndexedProjectionStorage<>(projectionClass);
+    }
+
+    @Override
+    public InboxStorage createInboxStorage(boolean multitenant) {
+        return delegate.createInboxStorage(multitenant);
+    }
+
+    @Override
+    public CatchUpStorage createCatchUpStorage(boolean multitenant) {
+        return delegate.createCatchUpStorage(multitenant);
+    }
+
+    @Override
+    public EventStore createEventStore(ContextSpec context) {
+        return delegate.createEventStore(context);
+    }
+
+    @Override
+    public void close() throws Exception {
+        delegate.close();
+    }
+
+    private static void checkSingleTenant(ContextSpec context) {
+        checkArgument(!context.isMultitenant(),
+                      "The indexed storage does not support multitenant context `%s`.",
+                      context.name().getValue());
+    }
+}
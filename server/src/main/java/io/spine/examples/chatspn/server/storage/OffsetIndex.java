@@ -0,0 +1,195 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.server.storage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * A memory-mapped index of the entries appended to an {@link EventLog}.
+ *
+ * <p>For each log entry, the index stores the fingerprint of the entry key,
+ * the kind of the entry and its position in the log. The fingerprint allows grouping
+ * entries per aggregate ID without reading the log, while the kind allows finding
+ * the latest snapshot of an aggregate.
+ *
+ * <p>Recording an entry is a plain memory write into the mapped file, and the whole index
+ * is read back on startup without touching the log.
+ */
+final class OffsetIndex implements AutoCloseable {
+
+    private static final int HEADER_SIZE = Long.BYTES;
+    private static final int ENTRY_SIZE = Long.BYTES * 2 + Byte.BYTES;
+    private static final int INITIAL_CAPACITY = 64 * 1024;
+
+    private final Path file;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int count;
+
+    /**
+     * Opens the index stored in the given file, creating the file if it does not exist.
+     */
+    OffsetIndex(Path file) {
+        this.file = checkNotNull(file);
+        try {
+            open();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void open() throws IOException {
+        channel = FileChannel.open(file, CREATE, READ, WRITE);
+        var capacity = Math.max(INITIAL_CAPACITY, entriesIn(channel.size()));
+        buffer = channel.map(READ_WRITE, 0, sizeFor(capacity));
+        count = (int) buffer.getLong(0);
+    }
+
+    /**
+     * Records a new entry of the log.
+     */
+    synchronized void add(long fingerprint, byte kind, long position) {
+        ensureCapacity(count + 1);
+        var offset = offsetOf(count);
+        buffer.putLong(offset, fingerprint)
+              .putLong(offset + Long.BYTES, position)
+              .put(offset + Long.BYTES * 2, kind);
+        count++;
+        buffer.putLong(0, count);
+    }
+
+    /**
+     * Passes all recorded entries to the given visitor in the order they were recorded.
+     */
+    synchronized void forEach(Visitor visitor) {
+        for (var i = 0; i < count; i++) {
+            var offset = offsetOf(i);
+            visitor.visit(buffer.getLong(offset),
+                          buffer.get(offset + Long.BYTES * 2),
+                          buffer.getLong(offset + Long.BYTES));
+        }
+    }
+
+    /**
+     * Returns the log position of the most recently recorded entry,
+     * or {@code -1} if the index is empty.
+     */
+    synchronized long lastPosition() {
+        if (count == 0) {
+            return -1;
+        }
+        return buffer.getLong(offsetOf(count - 1) + Long.BYTES);
+    }
+
+    /**
+     * Replaces the content of the index with the entries written by the given writer.
+     *
+     * <p>The new index is written to a separate file first, which then atomically
+     * replaces the current one.
+     */
+    synchronized void rewrite(Rewriter rewriter) {
+        var replacement = file.resolveSibling(file.getFileName() + ".new");
+        try {
+            Files.deleteIfExists(replacement);
+            var newIndex = new OffsetIndex(replacement);
+            rewriter.writeTo(newIndex);
+            newIndex.close();
+            close();
+            Files.move(replacement, file, REPLACE_EXISTING, ATOMIC_MOVE);
+            open();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void ensureCapacity(int entries) {
+        var required = sizeFor(entries);
+        if (required <= buffer.capacity()) {
+            return;
+        }
+        try {
+            buffer.force();
+            buffer = channel.map(READ_WRITE, 0, sizeFor(entriesIn(buffer.capacity()) * 2));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            buffer.force();
+            channel.truncate(sizeFor(count));
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static int offsetOf(int entry) {
+        return HEADER_SIZE + entry * ENTRY_SIZE;
+    }
+
+    private static long sizeFor(int entries) {
+        return HEADER_SIZE + (long) entries * ENTRY_SIZE;
+    }
+
+    private static int entriesIn(long size) {
+        return (int) ((size - HEADER_SIZE) / ENTRY_SIZE);
+    }
+
+    /**
+     * Receives the entries of the index.
+     */
+    @FunctionalInterface
+    interface Visitor {
+
+        void visit(long fingerprint, byte kind, long position);
+    }
+
+    /**
+     * Fills the replacement of the index.
+     */
+    @FunctionalInterface
+    interface Rewriter {
+
+        void writeTo(OffsetIndex index);
+    }
+}
@@ -0,0 +1,411 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.server.transport;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Multimap;
+import com.google.protobuf.Any;
+import io.spine.core.Ack;
+import io.spine.examples.chatspn.server.execution.ThreadMode;
+import io.spine.logging.Logging;
+import io.spine.server.integration.ExternalMessage;
+import io.spine.server.transport.ChannelId;
+import io.spine.server.transport.Publisher;
+import io.spine.server.transport.Subscriber;
+import io.spine.server.transport.memory.InMemoryTransportFactory;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * A transport which passes the external messages between processes on the localhost.
+ *
+ * <p>Each factory listens on its own port of the loopback interface, and knows the ports
+ * of its peers. A message published to a channel is delivered to the subscribers
+ * of the channel in this process, as by the {@link InMemoryTransportFactory}, and is sent
+ * to every peer, which delivers it to the subscribers of the same channel in its process.
+ *
+ * <p>Publishing does not wait for the network. The messages to each peer are queued
+ * and written by a thread of the peer over a connection which is kept open
+ * between the messages. A message which cannot be written is retried
+ * over a new connection a few times, and is then dropped with a warning. The messages
+ * are also dropped while the queue of the peer is full, for example while the peer is down.
+ *
+ * <p>The messages are sent over TCP as pairs of the length-delimited {@link ChannelId}
+ * and {@link ExternalMessage}, so the messages published in one process reach a peer
+ * in the order of publishing.
+ */
+public final class SocketTransportFactory extends InMemoryTransportFactory implements Logging {
+
+    private static final String THREAD_NAME = "chatspn-transport";
+
+    private final ServerSocket serverSocket;
+    private final ImmutableList<Peer> peers;
+    private final Multimap<ChannelId, Subscriber> subscribers = HashMultimap.create();
+    private final ExecutorService executor;
+
+    private SocketTransportFactory(ServerSocket serverSocket, ImmutableList<Peer> peers) {
+        super();
+        this.serverSocket = serverSocket;
+        this.peers = peers;
+        this.executor = ThreadMode.PLATFORM.newExecutor(THREAD_NAME);
+        executor.execute(this::accept);
+        peers.forEach(peer -> executor.execute(peer::writeQueued));
+    }
+
+    /**
+     * Creates a new factory which listens on the given port of the localhost.
+     *
+     * @param port
+     *         the port to listen on, or {@code 0} to pick any free port
+     * @param peerPorts
+     *         the ports on which the peers listen
+     * @throws IOException
+     *         if the port cannot be bound
+     */
+    public static SocketTransportFactory listening(int port, List<Integer> peerPorts)
+            throws IOException {
+        checkArgument(port >= 0, "The port cannot be negative.");
+        checkNotNull(peerPorts);
+        peerPorts.forEach(peerPort -> checkArgument(peerPort > 0,
+                                                    "The port of a peer must be positive."));
+        var loopback = InetAddress.getLoopbackAddress();
+        var serverSocket = new ServerSocket();
+        serverSocket.setReuseAddress(true);
+        serverSocket.bind(new InetSocketAddress(loopback, port));
+        var peers = peerPorts.stream()
+                             .map(peerPort -> new Peer(new InetSocketAddress(loopback, peerPort)))
+                             .collect(toList());
+        return new SocketTransportFactory(serverSocket, ImmutableList.copyOf(peers));
+    }
+
+    /**
+     * Returns the port this factory listens on.
+     */
+    public int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    @Override
+    protected Publisher newPublisher(ChannelId channelId,
+                                     Function<ChannelId, Iterable<Subscriber>> subscribers) {
+        var local = super.newPublisher(channelId, subscribers);
+        return new SocketPublisher(local, peers);
+    }
+
+    @Override
+    protected Subscriber newSubscriber(ChannelId channelId) {
+        var subscriber = super.newSubscriber(channelId);
+        synchronized (subscribers) {
+            subscribers.put(channelId, subscriber);
+        }
+        return subscriber;
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                var socket = serverSocket.accept();
+                executor.execute(() -> receive(socket));
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    _warn().withCause(e)
+                           .log("Unable to accept a connection on the port %d.", port());
+                }
+            }
+        }
+    }
+
+    /**
+     * Delivers the messages received from a peer until the peer disconnects.
+     */
+    private void receive(Socket socket) {
+        try (socket; InputStream in = new BufferedInputStream(socket.getInputStream())) {
+            var channelId = ChannelId.parseDelimitedFrom(in);
+            while (channelId != null) {
+                var message = ExternalMessage.parseDelimitedFrom(in);
+                if (message == null) {
+                    return;
+                }
+                subscribersOf(channelId).forEach(subscriber -> subscriber.onMessage(message));
+                channelId = ChannelId.parseDelimitedFrom(in);
+            }
+        } catch (IOException e) {
+            if (!serverSocket.isClosed()) {
+                _debug().withCause(e)
+                        .log("The connection from `%s` is lost.", socket.getRemoteSocketAddress());
+            }
+        }
+    }
+
+    private ImmutableSet<Subscriber> subscribersOf(ChannelId channelId) {
+        synchronized (subscribers) {
+            return ImmutableSet.copyOf(subscribers.get(channelId));
+        }
+    }
+
+    /**
+     * Stops listening, disconnects from the peers and closes the local channels.
+     *
+     * <p>The messages which are not yet sent to the peers are dropped.
+     */
+    @Override
+    public synchronized void close() {
+        try {
+            serverSocket.close();
+        } catch (IOException ignored) {
+            // The socket is closed anyway.
+        }
+        peers.forEach(Peer::close);
+        executor.shutdownNow();
+        super.close();
+    }
+
+    /**
+     * Publishes the messages to the local subscribers and queues them for the peers.
+     */
+    private static final class SocketPublisher implements Publisher {
+
+        private final Publisher local;
+        private final ImmutableList<Peer> peers;
+
+        private SocketPublisher(Publisher local, ImmutableList<Peer> peers) {
+            this.local = local;
+            this.peers = peers;
+        }
+
+        @Override
+        public Ack publish(Any messageId, ExternalMessage message) {
+            var ack = local.publish(messageId, message);
+            var channelId = local.id();
+            peers.forEach(peer -> peer.send(channelId, message));
+            return ack;
+        }
+
+        @Override
+        public ChannelId id() {
+            return local.id();
+        }
+
+        @Override
+        public boolean isStale() {
+            return local.isStale();
+        }
+
+        @Override
+        public void close() throws Exception {
+            local.close();
+        }
+    }
+
+    /**
+     * A message queued for a peer along with its channel.
+     */
+    private static final class Frame {
+
+        private final ChannelId channelId;
+        private final ExternalMessage message;
+
+        private Frame(ChannelId channelId, ExternalMessage message) {
+            this.channelId = channelId;
+            this.message = message;
+        }
+
+        private void writeTo(OutputStream stream) throws IOException {
+            channelId.writeDelimitedTo(stream);
+            message.writeDelimitedTo(stream);
+        }
+    }
+
+    /**
+     * The connection to a peer along with the queue of the messages to send to it.
+     *
+     * <p>The connection is only used by the thread which {@linkplain #writeQueued() writes}
+     * the queued messages.
+     */
+    private static final class Peer implements Logging {
+
+        /**
+         * The maximum number of messages waiting to be sent to a peer.
+         */
+        private static final int QUEUE_CAPACITY = 10_000;
+
+        /**
+         * The number of attempts to write a message before dropping it.
+         */
+        private static final int MAX_ATTEMPTS = 3;
+
+        /**
+         * The delay before the first retry, which grows with each next one.
+         */
+        private static final Duration RETRY_DELAY = Duration.ofMillis(100);
+
+        private final InetSocketAddress address;
+        private final BlockingQueue<Frame> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        private final AtomicLong dropped = new AtomicLong();
+        private volatile boolean closed;
+        private @Nullable Socket socket;
+        private @Nullable OutputStream out;
+        private boolean reachable = true;
+
+        private Peer(InetSocketAddress address) {
+            this.address = address;
+        }
+
+        /**
+         * Queues the message to be sent to the peer, or drops it if the queue is full.
+         */
+        private void send(ChannelId channelId, ExternalMessage message) {
+            if (!queue.offer(new Frame(channelId, message))
+                    && dropped.getAndIncrement() % QUEUE_CAPACITY == 0) {
+                _warn().log("The queue of the messages to `%s` is full. "
+                                    + "%d message(s) are dropped so far.",
+                            address, dropped.get());
+            }
+        }
+
+        /**
+         * Writes the queued messages until the peer is closed.
+         *
+         * <p>The written messages are flushed once the queue is empty, so that a burst
+         * of messages is sent in as few packets as possible.
+         */
+        private void writeQueued() {
+            try {
+                while (!closed) {
+                    var frame = queue.take();
+                    write(frame);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread()
+                      .interrupt();
+            } finally {
+                disconnect();
+            }
+        }
+
+        /**
+         * Writes the message, reconnecting to the peer on a failure.
+         *
+         * <p>While the peer is unreachable, a message is tried only once,
+         * so that the queue does not wait for a peer which is down.
+         */
+        private void write(Frame frame) throws InterruptedException {
+            var attempts = reachable ? MAX_ATTEMPTS : 1;
+            for (var attempt = 1; attempt <= attempts; attempt++) {
+                try {
+                    var stream = connect();
+                    frame.writeTo(stream);
+                    if (queue.isEmpty()) {
+                        stream.flush();
+                    }
+                    if (!reachable) {
+                        reachable = true;
+                        _info().log("The connection to `%s` is restored.", address);
+                    }
+                    return;
+                } catch (IOException e) {
+                    disconnect();
+                    if (attempt == attempts) {
+                        dropped.incrementAndGet();
+                        if (reachable) {
+                            reachable = false;
+                            _warn().withCause(e)
+                                   .log("Unable to send a message to `%s` in %d attempt(s). "
+                                                + "The messages are dropped until "
+                                                + "the connection is restored.",
+                                        address, attempts);
+                        }
+                        return;
+                    }
+                    MILLISECONDS.sleep(RETRY_DELAY.toMillis() * attempt);
+                }
+            }
+        }
+
+        private OutputStream connect() throws IOException {
+            if (out == null) {
+                var newSocket = new Socket();
+                try {
+                    newSocket.setTcpNoDelay(true);
+                    newSocket.setKeepAlive(true);
+                    newSocket.connect(address);
+                } catch (IOException e) {
+                    newSocket.close();
+                    throw e;
+                }
+                socket = newSocket;
+                out = new BufferedOutputStream(newSocket.getOutputStream());
+            }
+            return out;
+        }
+
+        private void disconnect() {
+            if (socket != null) {
+                try {
+                    socket.close();
+                } catch (IOException ignored) {
+                    // The peer is disconnected anyway.
+                }
+            }
+            socket = null;
+            out = null;
+        }
+
+        /**
+         * Stops writing the messages to the peer.
+         *
+         * <p>The writing thread is interrupted by the executor of the factory.
+         */
+        private void close() {
+            closed = true;
+            queue.clear();
+        }
+    }
+}
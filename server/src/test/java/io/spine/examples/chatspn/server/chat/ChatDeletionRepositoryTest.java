@@ -0,0 +1,122 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package io.spine.examples.chatspn.server.chat;
+
+import io.spine.base.Identifier;
+import io.spine.base.Time;
+import io.spine.core.Version;
+import io.spine.environment.Tests;
+import io.spine.examples.chatspn.chat.ChatDeletion;
+import io.spine.examples.chatspn.server.ChatsContext;
+import io.spine.examples.chatspn.server.message.MessageViewProjection;
+import io.spine.examples.chatspn.server.storage.FileStorageFactory;
+import io.spine.server.ContextSpec;
+import io.spine.server.ServerEnvironment;
+import io.spine.server.entity.EntityRecord;
+import io.spine.server.entity.storage.EntityRecordWithColumns;
+import io.spine.server.storage.memory.InMemoryStorageFactory;
+import io.spine.testing.server.blackbox.BlackBoxContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static io.spine.examples.chatspn.BoundedContextNames.CHATS;
+import static io.spine.examples.chatspn.server.chat.given.ChatDeletionTestEnv.sendMessagesTo;
+import static io.spine.examples.chatspn.server.chat.given.ChatDeletionTestEnv.unfinishedDeletion;
+import static io.spine.examples.chatspn.server.chat.given.ChatTestEnv.createGroupChatIn;
+import static io.spine.protobuf.AnyPacker.pack;
+
+@DisplayName("`ChatDeletionRepository` should")
+final class ChatDeletionRepositoryTest {
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void restoreStorage() {
+        ServerEnvironment.when(Tests.class)
+                         .use(InMemoryStorageFactory.newInstance());
+    }
+
+    @Test
+    @DisplayName("resume reclaiming the chat history after a restart of the server")
+    void resumeAfterRestart() throws Exception {
+        var factory = FileStorageFactory.in(directory);
+        var context = start(factory);
+        var chat = createGroupChatIn(context);
+        var messages = sendMessagesTo(chat, context);
+        context.close();
+        var deletion = unfinishedDeletion(chat);
+        write(factory, deletion);
+        factory.close();
+
+        var restartedFactory = FileStorageFactory.in(directory);
+        var restarted = start(restartedFactory);
+        try {
+            messages.forEach(message -> restarted.assertEntity(message.getId(),
+                                                               MessageViewProjection.class)
+                                                 .doesNotExist());
+            restarted.assertEntity(deletion.getId(), ChatDeletionProcess.class)
+                     .deletedFlag()
+                     .isTrue();
+        } finally {
+            restarted.close();
+            restartedFactory.close();
+        }
+    }
+
+    private static BlackBoxContext start(FileStorageFactory factory) {
+        ServerEnvironment.when(Tests.class)
+                         .use(factory);
+        return BlackBoxContext.from(ChatsContext.newBuilder());
+    }
+
+    /**
+     * Writes the state of the deletion process to the storage, as if the server
+     * had been stopped in the middle of the deletion.
+     */
+    private static void write(FileStorageFactory factory, ChatDeletion deletion) {
+        var storage = factory.createRecordStorage(ContextSpec.singleTenant(CHATS),
+                                                  ChatDeletionProcess.class);
+        var version = Version
+                .newBuilder()
+                .setNumber(1)
+                .setTimestamp(Time.currentTime())
+                .build();
+        var record = EntityRecord
+                .newBuilder()
+                .setEntityId(Identifier.pack(deletion.getId()))
+                .setState(pack(deletion))
+                .setVersion(version)
+                .build();
+        storage.write(deletion.getId(), EntityRecordWithColumns.of(record));
+    }
+}
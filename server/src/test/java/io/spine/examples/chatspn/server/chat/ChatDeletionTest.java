@@ -26,8 +26,12 @@
 
 package io.spine.examples.chatspn.server.chat;
 
+import io.spine.examples.chatspn.message.Message;
+import io.spine.examples.chatspn.message.event.MessageMarkedAsDeleted;
 import io.spine.examples.chatspn.server.ChatsContext;
-import io.spine.examples.chatspn.server.message.MessageAggregate;
+import io.spine.examples.chatspn.server.message.ChatTimelineBucketProjection;
+import io.spine.examples.chatspn.server.message.ChatTimelineProcess;
+import io.spine.examples.chatspn.server.message.MessageViewProjection;
 import io.spine.server.BoundedContextBuilder;
 import io.spine.testing.core.given.GivenUserId;
 import io.spine.testing.server.blackbox.ContextAwareTest;
@@ -35,14 +39,21 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.spine.examples.chatspn.message.ChatTimelines.CAPACITY;
 import static io.spine.examples.chatspn.server.chat.given.ChatDeletionTestEnv.chatCannotBeMarkedAsDeletedFrom;
 import static io.spine.examples.chatspn.server.chat.given.ChatDeletionTestEnv.chatDeletedFrom;
 import static io.spine.examples.chatspn.server.chat.given.ChatDeletionTestEnv.chatDeletionFailedFrom;
+import static io.spine.examples.chatspn.server.chat.given.ChatDeletionTestEnv.chatHistoryReclaimedFrom;
 import static io.spine.examples.chatspn.server.chat.given.ChatDeletionTestEnv.chatMarkedAsDeletedFrom;
 import static io.spine.examples.chatspn.server.chat.given.ChatDeletionTestEnv.deleteChatCommand;
 import static io.spine.examples.chatspn.server.chat.given.ChatDeletionTestEnv.sendMessagesTo;
 import static io.spine.examples.chatspn.server.chat.given.ChatTestEnv.createGroupChatIn;
 import static io.spine.examples.chatspn.server.chat.given.ChatTestEnv.createPersonalChatIn;
+import static io.spine.examples.chatspn.server.message.given.ChatTimelineTestEnv.bucketId;
+import static io.spine.examples.chatspn.server.message.given.MessageTestEnv.sendRandomMessageTo;
 
 @DisplayName("`ChatDeletion` should")
 final class ChatDeletionTest extends ContextAwareTest {
@@ -67,16 +78,58 @@ final class ChatDeletionTest extends ContextAwareTest {
     }
 
     @Test
-    @DisplayName("mark messages in the chat as deleted")
-    void removeMessages() {
+    @DisplayName("hide the chat history at once and reclaim the views of its messages")
+    void reclaimMessages() {
         var chat = createGroupChatIn(context());
         var messages = sendMessagesTo(chat, context());
         var command = deleteChatCommand(chat, chat.getOwner());
         context().receivesCommand(command);
 
-        messages.forEach(message -> context().assertEntity(message.getId(), MessageAggregate.class)
-                                             .deletedFlag()
-                                             .isTrue());
+        messages.forEach(message -> context().assertEntity(message.getId(),
+                                                           MessageViewProjection.class)
+                                             .doesNotExist());
+        context().assertEntity(chat.getId(), ChatTimelineProcess.class)
+                 .deletedFlag()
+                 .isTrue();
+        context().assertEvents()
+                 .withType(MessageMarkedAsDeleted.class)
+                 .isEmpty();
+    }
+
+    @Test
+    @DisplayName("reclaim all the buckets of the chat timeline")
+    void reclaimAllBuckets() {
+        var chat = createGroupChatIn(context());
+        List<Message> messages = new ArrayList<>();
+        for (var i = 0; i <= CAPACITY; i++) {
+            messages.add(sendRandomMessageTo(chat, context()));
+        }
+        var command = deleteChatCommand(chat, chat.getOwner());
+        context().receivesCommand(command);
+
+        context().assertEvent(chatHistoryReclaimedFrom(command, messages.size()));
+        context().assertEntity(bucketId(chat.getId(), 0), ChatTimelineBucketProjection.class)
+                 .doesNotExist();
+        context().assertEntity(bucketId(chat.getId(), 1), ChatTimelineBucketProjection.class)
+                 .doesNotExist();
+        messages.forEach(message -> context().assertEntity(message.getId(),
+                                                           MessageViewProjection.class)
+                                             .doesNotExist());
+    }
+
+    @Test
+    @DisplayName("emit the `ChatHistoryReclaimed` event once the chat history is reclaimed")
+    void historyReclaimed() {
+        var chat = createGroupChatIn(context());
+        var messages = sendMessagesTo(chat, context());
+        var command = deleteChatCommand(chat, chat.getOwner());
+        context().receivesCommand(command);
+        var expected = chatHistoryReclaimedFrom(command, messages.size());
+
+        context().assertEvent(expected);
+        context().assertEntity(command.getId(), ChatDeletionProcess.class)
+                 .deletedFlag()
+                 .isTrue();
     }
 
     @Test
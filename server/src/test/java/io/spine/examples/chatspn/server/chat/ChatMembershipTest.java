@@ -0,0 +1,153 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.server.chat;
+
+import io.spine.examples.chatspn.ChatId;
+import io.spine.examples.chatspn.chat.event.ChatMarkedAsDeleted;
+import io.spine.examples.chatspn.chat.event.GroupChatCreated;
+import io.spine.examples.chatspn.chat.event.MembersAdded;
+import io.spine.examples.chatspn.chat.event.MembersRemoved;
+import io.spine.examples.chatspn.chat.event.UserLeftChat;
+import io.spine.testing.core.given.GivenUserId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.spine.examples.chatspn.server.chat.given.ChatTestEnv.chatCardId;
+import static io.spine.examples.chatspn.server.chat.given.GivenChatMember.chatMember;
+
+@DisplayName("`ChatMembership` should")
+final class ChatMembershipTest {
+
+    private final ChatMembership membership = new ChatMembership();
+    private final ChatId chat = ChatId.generate();
+    private final GroupChatCreated created = GroupChatCreated
+            .newBuilder()
+            .setId(chat)
+            .setCreator(chatMember("John Doe"))
+            .addMember(chatMember("Emma Smith"))
+            .setName("Group chat")
+            .vBuild();
+
+    @BeforeEach
+    void createChat() {
+        membership.on(created);
+    }
+
+    @Test
+    @DisplayName("include the creator and members of a created chat")
+    void includeCreated() {
+        assertThat(membership.isMember(chat, created.getCreator()
+                                                    .getId())).isTrue();
+        assertThat(membership.isMember(chat, created.getMember(0)
+                                                    .getId())).isTrue();
+    }
+
+    @Test
+    @DisplayName("not include users who are not members")
+    void excludeStrangers() {
+        assertThat(membership.isMember(chat, GivenUserId.generated())).isFalse();
+        assertThat(membership.isMember(ChatId.generate(), created.getCreator()
+                                                                 .getId())).isFalse();
+    }
+
+    @Test
+    @DisplayName("return the cards of all chat members")
+    void returnCards() {
+        var creator = created.getCreator()
+                             .getId();
+        var member = created.getMember(0)
+                            .getId();
+
+        assertThat(membership.cardsOf(chat))
+                .containsExactly(chatCardId(chat, creator), chatCardId(chat, member));
+        assertThat(membership.cardsOf(ChatId.generate())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("include added members")
+    void includeAdded() {
+        var newMember = chatMember("Giordano Bruno");
+        membership.on(MembersAdded
+                              .newBuilder()
+                              .setId(chat)
+                              .setChatName(created.getName())
+                              .setWhoAdded(created.getCreator()
+                                                  .getId())
+                              .addNewMember(newMember)
+                              .addOldMember(created.getCreator())
+                              .vBuild());
+
+        assertThat(membership.isMember(chat, newMember.getId())).isTrue();
+    }
+
+    @Test
+    @DisplayName("exclude removed members")
+    void excludeRemoved() {
+        var removed = created.getMember(0);
+        membership.on(MembersRemoved
+                              .newBuilder()
+                              .setId(chat)
+                              .setWhoRemoved(created.getCreator()
+                                                    .getId())
+                              .addRemainingMember(created.getCreator())
+                              .addRemovedMember(removed)
+                              .vBuild());
+
+        assertThat(membership.isMember(chat, removed.getId())).isFalse();
+    }
+
+    @Test
+    @DisplayName("exclude members who left the chat")
+    void excludeLeft() {
+        var left = created.getMember(0);
+        membership.on(UserLeftChat
+                              .newBuilder()
+                              .setChat(chat)
+                              .setUser(left)
+                              .vBuild());
+
+        assertThat(membership.isMember(chat, left.getId())).isFalse();
+    }
+
+    @Test
+    @DisplayName("exclude all members of a deleted chat")
+    void excludeDeleted() {
+        membership.on(ChatMarkedAsDeleted
+                              .newBuilder()
+                              .setId(chat)
+                              .setWhoDeleted(created.getCreator()
+                                                    .getId())
+                              .addMember(created.getCreator())
+                              .addMember(created.getMember(0))
+                              .vBuild());
+
+        assertThat(membership.isMember(chat, created.getCreator()
+                                                    .getId())).isFalse();
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.server.chat;
+
+import com.google.common.collect.ImmutableList;
+import io.spine.examples.chatspn.ChatId;
+import io.spine.examples.chatspn.chat.ChatMember;
+import io.spine.server.BoundedContext;
+import io.spine.server.BoundedContextBuilder;
+import io.spine.testing.server.blackbox.ContextAwareTest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.spine.examples.chatspn.BoundedContextNames.CHATS;
+import static io.spine.examples.chatspn.server.chat.given.ChatTestEnv.addMembersCommandWith;
+import static io.spine.examples.chatspn.server.chat.given.ChatTestEnv.createGroupChatIn;
+import static io.spine.examples.chatspn.server.chat.given.ChatTestEnv.removeMembersCommandWith;
+import static io.spine.examples.chatspn.server.chat.given.GivenChatMember.chatMember;
+
+@DisplayName("`ChatRepository` should")
+final class ChatRepositoryTest extends ContextAwareTest {
+
+    /**
+     * The snapshot trigger small enough to store several snapshots during a test.
+     */
+    private static final int SNAPSHOT_TRIGGER = 2;
+
+    private ChatRepository repository;
+
+    @Override
+    protected BoundedContextBuilder contextBuilder() {
+        repository = new ChatRepository(SNAPSHOT_TRIGGER);
+        return BoundedContext
+                .singleTenant(CHATS)
+                .add(repository);
+    }
+
+    @Test
+    @DisplayName("restore the chat state from a snapshot and the events after it")
+    void restoreFromSnapshot() {
+        var chat = createGroupChatIn(context());
+        var newMembers = ImmutableList.<ChatMember>builder();
+        for (var i = 0; i < 5; i++) {
+            var member = chatMember("Member #" + i);
+            newMembers.add(member);
+            context().receivesCommand(addMembersCommandWith(chat, ImmutableList.of(member)));
+        }
+        var expected = chat
+                .toBuilder()
+                .addAllMember(newMembers.build())
+                .build();
+
+        context().assertState(chat.getId(), expected);
+        assertLoadedFromSnapshot(chat.getId());
+    }
+
+    @Test
+    @DisplayName("restore the chat state after members are removed")
+    void restoreAfterRemoval() {
+        var chat = createGroupChatIn(context());
+        for (var i = 0; i < 3; i++) {
+            var member = chatMember("Member #" + i);
+            context().receivesCommand(addMembersCommandWith(chat, ImmutableList.of(member)));
+            context().receivesCommand(removeMembersCommandWith(chat, ImmutableList.of(member)));
+        }
+
+        context().assertState(chat.getId(), chat);
+        assertLoadedFromSnapshot(chat.getId());
+    }
+
+    /**
+     * Asserts that a snapshot of the chat is stored and only the events after it
+     * are replayed on loading the chat.
+     */
+    private void assertLoadedFromSnapshot(ChatId id) {
+        var history = repository.storedHistory(id)
+                                .orElseThrow();
+        assertThat(history.hasSnapshot()).isTrue();
+        assertThat(history.getEventCount()).isLessThan(SNAPSHOT_TRIGGER);
+    }
+}
@@ -35,6 +35,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import static io.spine.examples.chatspn.server.chat.ChatCardProjection.LARGE_GROUP_SIZE;
 import static io.spine.examples.chatspn.server.chat.given.ChatTestEnv.addMembersCommand;
 import static io.spine.examples.chatspn.server.chat.given.ChatTestEnv.addMembersCommandWith;
 import static io.spine.examples.chatspn.server.chat.given.ChatTestEnv.chat;
@@ -42,6 +43,7 @@ import static io.spine.examples.chatspn.server.chat.given.ChatTestEnv.chatAfterA
 import static io.spine.examples.chatspn.server.chat.given.ChatTestEnv.chatAfterRemoval;
 import static io.spine.examples.chatspn.server.chat.given.ChatTestEnv.chatCardId;
 import static io.spine.examples.chatspn.server.chat.given.ChatTestEnv.chatDeleted;
+import static io.spine.examples.chatspn.server.chat.given.ChatTestEnv.chatSummary;
 import static io.spine.examples.chatspn.server.chat.given.ChatTestEnv.createDeletedGroupChatIn;
 import static io.spine.examples.chatspn.server.chat.given.ChatTestEnv.createGroupChatCommand;
 import static io.spine.examples.chatspn.server.chat.given.ChatTestEnv.createGroupChatIn;
@@ -58,6 +60,7 @@ import static io.spine.examples.chatspn.server.chat.given.ChatTestEnv.membersRem
 import static io.spine.examples.chatspn.server.chat.given.ChatTestEnv.personalChatCard;
 import static io.spine.examples.chatspn.server.chat.given.ChatTestEnv.personalChatCreatedFrom;
 import static io.spine.examples.chatspn.server.chat.given.ChatTestEnv.removeMembersCommandWith;
+import static io.spine.examples.chatspn.server.chat.given.ChatTestEnv.sharedGroupChatCard;
 import static io.spine.examples.chatspn.server.chat.given.ChatTestEnv.userCannotLeaveChat;
 import static io.spine.examples.chatspn.server.chat.given.ChatTestEnv.userLeftChat;
 import static io.spine.examples.chatspn.server.chat.given.GivenChatMember.chatMember;
@@ -121,6 +124,65 @@ final class ChatTest extends ContextAwareTest {
         context().assertState(memberChatCard.getCardId(), memberChatCard);
     }
 
+    @Test
+    @DisplayName("keep the members of a large group chat in the shared `ChatSummary` only")
+    void shareMembersOfLargeGroupChat() {
+        var chat = createGroupChatIn(context(), LARGE_GROUP_SIZE + 1);
+        var ownerChatCard = sharedGroupChatCard(chat, chat.getOwner());
+        var memberChatCard = sharedGroupChatCard(chat, chat.getMember(LARGE_GROUP_SIZE)
+                                                           .getId());
+        var expectedSummary = chatSummary(chat);
+
+        context().assertState(ownerChatCard.getCardId(), ownerChatCard);
+        context().assertState(memberChatCard.getCardId(), memberChatCard);
+        context().assertState(chat.getId(), expectedSummary);
+    }
+
+    @Test
+    @DisplayName("share the members of a group chat once it grows larger " +
+            "than `LARGE_GROUP_SIZE` members")
+    void shareMembersOnceGroupGrows() {
+        var chat = createGroupChatIn(context(), LARGE_GROUP_SIZE);
+        var membersToAdd = ImmutableList.of(chatMember("Sun Tzu"));
+        context().receivesCommand(addMembersCommandWith(chat, membersToAdd));
+        var chatAfterAddition = chatAfterAddition(chat, membersToAdd);
+        var ownerChatCard = sharedGroupChatCard(chatAfterAddition, chat.getOwner());
+        var newMemberChatCard = sharedGroupChatCard(chatAfterAddition, membersToAdd.get(0)
+                                                                                   .getId());
+
+        context().assertState(ownerChatCard.getCardId(), ownerChatCard);
+        context().assertState(newMemberChatCard.getCardId(), newMemberChatCard);
+    }
+
+    @Test
+    @DisplayName("keep the members in the cards again once the group chat shrinks " +
+            "to `LARGE_GROUP_SIZE` members")
+    void keepMembersOnceGroupShrinks() {
+        var chat = createGroupChatIn(context(), LARGE_GROUP_SIZE + 1);
+        var membersToRemove = ImmutableList.of(chat.getMember(LARGE_GROUP_SIZE));
+        context().receivesCommand(removeMembersCommandWith(chat, membersToRemove));
+        var remainingMembers = chat.getMemberList()
+                                   .subList(0, LARGE_GROUP_SIZE);
+        var chatAfterRemoval = chatAfterRemoval(chat, remainingMembers);
+        var ownerChatCard = groupChatCard(chatAfterRemoval, chat.getOwner());
+
+        context().assertState(ownerChatCard.getCardId(), ownerChatCard);
+    }
+
+    @Test
+    @DisplayName("update the number of members in the shared cards once a member leaves")
+    void updateSharedCardOnLeave() {
+        var chat = createGroupChatIn(context(), LARGE_GROUP_SIZE + 2);
+        var leaving = chat.getMember(LARGE_GROUP_SIZE + 1);
+        context().receivesCommand(leaveChat(chat, leaving));
+        var ownerChatCard = sharedGroupChatCard(chat, chat.getOwner())
+                .toBuilder()
+                .setTotalMembers(LARGE_GROUP_SIZE + 1)
+                .vBuild();
+
+        context().assertState(ownerChatCard.getCardId(), ownerChatCard);
+    }
+
     @Nested
     @DisplayName("handle `RemoveMembers` ")
     class MembersRemovalHandlerBehaviour {
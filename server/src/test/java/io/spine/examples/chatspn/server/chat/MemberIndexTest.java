@@ -0,0 +1,80 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.server.chat;
+
+import io.spine.examples.chatspn.chat.ChatMember;
+import io.spine.testing.core.given.GivenUserId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.spine.examples.chatspn.server.chat.given.GivenChatMember.chatMember;
+
+@DisplayName("`MemberIndex` should")
+final class MemberIndexTest {
+
+    private final ChatMember john = chatMember("John Doe");
+    private final ChatMember emma = chatMember("Emma Smith");
+    private final MemberIndex index = MemberIndex.of(List.of(john, emma));
+
+    @Test
+    @DisplayName("contain the indexed members")
+    void containMembers() {
+        assertThat(index.contains(john)).isTrue();
+        assertThat(index.contains(emma.getId())).isTrue();
+        assertThat(index.contains(chatMember("Giordano Bruno"))).isFalse();
+        assertThat(index.contains(GivenUserId.generated())).isFalse();
+    }
+
+    @Test
+    @DisplayName("not contain a member whose name differs from the indexed one")
+    void compareNames() {
+        var renamed = john.toBuilder()
+                          .setName("Johnny")
+                          .vBuild();
+
+        assertThat(index.contains(renamed)).isFalse();
+        assertThat(index.contains(renamed.getId())).isTrue();
+    }
+
+    @Test
+    @DisplayName("count the indexed members")
+    void countMembers() {
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("index a repeated member once")
+    void indexRepeatedMember() {
+        var repeated = MemberIndex.of(List.of(john, emma, john));
+
+        assertThat(repeated.size()).isEqualTo(2);
+        assertThat(repeated.contains(john)).isTrue();
+    }
+}
@@ -29,14 +29,16 @@ package io.spine.examples.chatspn.server.chat.given;
 import com.google.common.collect.ImmutableList;
 import io.spine.core.UserId;
 import io.spine.examples.chatspn.ChatDeletionId;
-import io.spine.examples.chatspn.MessageId;
 import io.spine.examples.chatspn.chat.Chat;
+import io.spine.examples.chatspn.chat.ChatDeletion;
 import io.spine.examples.chatspn.chat.command.DeleteChat;
 import io.spine.examples.chatspn.chat.event.ChatDeleted;
 import io.spine.examples.chatspn.chat.event.ChatDeletionFailed;
+import io.spine.examples.chatspn.chat.event.ChatHistoryReclaimed;
 import io.spine.examples.chatspn.chat.event.ChatMarkedAsDeleted;
 import io.spine.examples.chatspn.chat.rejection.DeletionRejections.ChatCannotBeMarkedAsDeleted;
 import io.spine.examples.chatspn.message.Message;
+import io.spine.examples.chatspn.message.MessageIds;
 import io.spine.examples.chatspn.message.command.SendMessage;
 import io.spine.testing.server.blackbox.BlackBoxContext;
 
@@ -56,7 +58,7 @@ public final class ChatDeletionTestEnv {
         for (var i = 0; i < 3; i++) {
             var message = Message
                     .newBuilder()
-                    .setId(MessageId.generate())
+                    .setId(MessageIds.generate(chat.getId()))
                     .setChat(chat.getId())
                     .setContent("Hello, this is my message text")
                     .setUser(chat.getMember(0)
@@ -122,7 +124,31 @@ public final class ChatDeletionTestEnv {
         return event;
     }
 
-    static ChatDeletionId chatDeletionId(Chat chat) {
+    public static ChatHistoryReclaimed chatHistoryReclaimedFrom(DeleteChat c, int reclaimed) {
+        var event = ChatHistoryReclaimed
+                .newBuilder()
+                .setId(c.getId())
+                .setReclaimed(reclaimed)
+                .vBuild();
+        return event;
+    }
+
+    /**
+     * Returns the state of the deletion of the chat which has closed the chat timeline
+     * of a single bucket and has not reclaimed anything yet.
+     */
+    public static ChatDeletion unfinishedDeletion(Chat chat) {
+        var deletion = ChatDeletion
+                .newBuilder()
+                .setId(chatDeletionId(chat))
+                .setWhoDeleted(chat.getOwner())
+                .setBucketCount(1)
+                .setReclaiming(true)
+                .vBuild();
+        return deletion;
+    }
+
+    public static ChatDeletionId chatDeletionId(Chat chat) {
         return ChatDeletionId
                 .newBuilder()
                 .setId(chat.getId())
@@ -34,6 +34,7 @@ import io.spine.examples.chatspn.ChatId;
 import io.spine.examples.chatspn.chat.Chat;
 import io.spine.examples.chatspn.chat.ChatCard;
 import io.spine.examples.chatspn.chat.ChatMember;
+import io.spine.examples.chatspn.chat.ChatSummary;
 import io.spine.examples.chatspn.chat.command.AddMembers;
 import io.spine.examples.chatspn.chat.command.CreateGroupChat;
 import io.spine.examples.chatspn.chat.command.CreatePersonalChat;
@@ -158,6 +159,31 @@ public final class ChatTestEnv {
         return chat;
     }
 
+    public static Chat createGroupChatIn(BlackBoxContext ctx, int memberCount) {
+        var owner = chatMember("John Doe");
+        var builder = Chat
+                .newBuilder()
+                .setId(ChatId.generate())
+                .setName("Large group chat name")
+                .setType(CT_GROUP)
+                .setOwner(owner.getId())
+                .addMember(owner);
+        for (var i = 1; i < memberCount; i++) {
+            builder.addMember(chatMember("Member #" + i));
+        }
+        var chat = builder.vBuild();
+        var command = CreateGroupChat
+                .newBuilder()
+                .setId(chat.getId())
+                .setName(chat.getName())
+                .setCreator(owner)
+                .addAllMember(chat.getMemberList()
+                                  .subList(1, memberCount))
+                .vBuild();
+        ctx.receivesCommand(command);
+        return chat;
+    }
+
     public static Chat createPersonalChatIn(BlackBoxContext ctx) {
         var chat = Chat
                 .newBuilder()
@@ -398,12 +424,39 @@ public final class ChatTestEnv {
                 .setChatId(chat.getId())
                 .setViewer(viewerId)
                 .addAllMember(chat.getMemberList())
+                .setTotalMembers(chat.getMemberCount())
+                .setGroupChatName(chat.getName())
+                .setType(CT_GROUP)
+                .vBuild();
+        return chatCard;
+    }
+
+    public static ChatCard sharedGroupChatCard(Chat chat, UserId viewerId) {
+        var chatCardId = chatCardId(chat.getId(), viewerId);
+        var chatCard = ChatCard
+                .newBuilder()
+                .setCardId(chatCardId)
+                .setChatId(chat.getId())
+                .setViewer(viewerId)
                 .setGroupChatName(chat.getName())
                 .setType(CT_GROUP)
+                .setSharedSummary(true)
+                .setTotalMembers(chat.getMemberCount())
                 .vBuild();
         return chatCard;
     }
 
+    public static ChatSummary chatSummary(Chat chat) {
+        var summary = ChatSummary
+                .newBuilder()
+                .setId(chat.getId())
+                .setType(chat.getType())
+                .addAllMember(chat.getMemberList())
+                .setGroupChatName(chat.getName())
+                .vBuild();
+        return summary;
+    }
+
     public static ChatCard personalChatCard(CreatePersonalChat command, ChatMember viewer) {
         var chatCardId = chatCardId(command.getId(), viewer.getId());
         var chatCard = ChatCard
@@ -413,6 +466,7 @@ public final class ChatTestEnv {
                 .setViewer(viewer.getId())
                 .addMember(command.getCreator())
                 .addMember(command.getMember())
+                .setTotalMembers(2)
                 .setType(CT_PERSONAL)
                 .vBuild();
         return chatCard;
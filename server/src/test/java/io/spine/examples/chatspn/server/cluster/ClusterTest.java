@@ -0,0 +1,158 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.server.cluster;
+
+import io.spine.examples.chatspn.ChatId;
+import io.spine.examples.chatspn.server.transport.SocketTransportFactory;
+import io.spine.server.transport.memory.InMemoryTransportFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("`Cluster` should")
+final class ClusterTest {
+
+    private static final int NODE_COUNT = 4;
+
+    @Test
+    @DisplayName("distribute chats across all the nodes")
+    void distributeChats() {
+        var nodes = new boolean[NODE_COUNT];
+        for (var i = 0; i < NODE_COUNT * 100; i++) {
+            var node = Cluster.nodeOf(ChatId.generate(), NODE_COUNT);
+            assertThat(node).isAtLeast(0);
+            assertThat(node).isLessThan(NODE_COUNT);
+            nodes[node] = true;
+        }
+        for (var used : nodes) {
+            assertThat(used).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("always put a chat to the same node")
+    void stableNode() {
+        var chat = ChatId.generate();
+        var copy = chat.toBuilder()
+                       .build();
+
+        assertThat(Cluster.nodeOf(copy, NODE_COUNT))
+                .isEqualTo(Cluster.nodeOf(chat, NODE_COUNT));
+    }
+
+    @Test
+    @DisplayName("move a chat only to the added node")
+    void moveOnlyToAddedNode() {
+        for (var i = 0; i < 100; i++) {
+            var chat = ChatId.generate();
+            var before = Cluster.nodeOf(chat, NODE_COUNT);
+            var after = Cluster.nodeOf(chat, NODE_COUNT + 1);
+            if (after != before) {
+                assertThat(after).isEqualTo(NODE_COUNT);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("let the single node own all the chats")
+    void singleNodeOwnsAll() {
+        var cluster = Cluster.single();
+
+        assertThat(cluster.size()).isEqualTo(1);
+        assertThat(cluster.owns(ChatId.generate())).isTrue();
+    }
+
+    @Test
+    @DisplayName("let exactly one node own a chat")
+    void oneOwner() {
+        var ports = List.of(7100, 7101, 7102);
+        var chat = ChatId.generate();
+        var owners = 0;
+        for (var node = 0; node < ports.size(); node++) {
+            if (Cluster.of(node, ports).owns(chat)) {
+                owners++;
+            }
+        }
+
+        assertThat(owners).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("use the in-memory transport for a single node")
+    void inMemoryForSingleNode() throws Exception {
+        try (var transport = Cluster.single()
+                                    .newTransportFactory()) {
+            assertThat(transport).isInstanceOf(InMemoryTransportFactory.class);
+        }
+    }
+
+    @Test
+    @DisplayName("use the in-memory transport for several nodes without transport ports")
+    void inMemoryWithoutTransportPorts() throws Exception {
+        var cluster = Cluster.of(1, 2);
+        try (var transport = cluster.newTransportFactory()) {
+            assertThat(transport).isInstanceOf(InMemoryTransportFactory.class);
+            assertThat(transport).isNotInstanceOf(SocketTransportFactory.class);
+        }
+        assertThat(cluster.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("use the socket transport for several nodes with transport ports")
+    void socketForSeveralNodes() throws Exception {
+        var ports = List.of(freePort(), freePort());
+        try (var transport = Cluster.of(1, ports)
+                                    .newTransportFactory()) {
+            assertThat(transport).isInstanceOf(SocketTransportFactory.class);
+            assertThat(((SocketTransportFactory) transport).port()).isEqualTo(ports.get(1));
+        }
+    }
+
+    @Test
+    @DisplayName("not allow a node out of the cluster")
+    void rejectUnknownNode() {
+        assertThrows(IllegalArgumentException.class, () -> Cluster.of(2, List.of(7100, 7101)));
+    }
+
+    @Test
+    @DisplayName("not allow a non-positive number of nodes")
+    void rejectNonPositiveNodeCount() {
+        assertThrows(IllegalArgumentException.class, () -> Cluster.nodeOf(ChatId.generate(), 0));
+    }
+
+    private static int freePort() throws IOException {
+        try (var socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
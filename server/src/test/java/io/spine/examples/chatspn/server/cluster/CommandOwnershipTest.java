@@ -0,0 +1,116 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package io.spine.examples.chatspn.server.cluster;
+
+import io.spine.examples.chatspn.ChatDeletionId;
+import io.spine.examples.chatspn.ChatId;
+import io.spine.examples.chatspn.account.command.RegisterUser;
+import io.spine.examples.chatspn.chat.command.DeleteChat;
+import io.spine.examples.chatspn.message.MessageIds;
+import io.spine.examples.chatspn.message.command.SendMessage;
+import io.spine.server.type.CommandEnvelope;
+import io.spine.testing.client.TestActorRequestFactory;
+import io.spine.testing.core.given.GivenUserId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.spine.examples.chatspn.server.cluster.Cluster.ACCOUNTS_NODE;
+
+@DisplayName("`CommandOwnership` should")
+final class CommandOwnershipTest {
+
+    private static final List<Integer> PORTS = List.of(7100, 7101, 7102);
+
+    private final TestActorRequestFactory requestFactory =
+            new TestActorRequestFactory(CommandOwnershipTest.class);
+
+    @Test
+    @DisplayName("let the commands of a chat pass only on the node which owns the chat")
+    void passOnOwner() {
+        var chat = ChatId.generate();
+        var envelope = CommandEnvelope.of(requestFactory.createCommand(sendMessage(chat)));
+        var owner = Cluster.nodeOf(chat, PORTS.size());
+        for (var node = 0; node < PORTS.size(); node++) {
+            var ownership = new CommandOwnership(Cluster.of(node, PORTS));
+            var rejection = ownership.filter(envelope);
+
+            assertThat(rejection.isPresent()).isEqualTo(node != owner);
+        }
+    }
+
+    @Test
+    @DisplayName("let all the commands pass on a single node")
+    void passOnSingleNode() {
+        var ownership = new CommandOwnership(Cluster.single());
+        var command = sendMessage(ChatId.generate());
+        var envelope = CommandEnvelope.of(requestFactory.createCommand(command));
+
+        assertThat(ownership.filter(envelope).isPresent()).isFalse();
+    }
+
+    @Test
+    @DisplayName("find the chat of a chat deletion")
+    void findChatOfDeletion() {
+        var chat = ChatId.generate();
+        var command = DeleteChat
+                .newBuilder()
+                .setId(ChatDeletionId.newBuilder()
+                                     .setId(chat)
+                                     .build())
+                .setWhoDeletes(GivenUserId.generated())
+                .build();
+
+        assertThat(CommandOwnership.chatOf(command).orElseThrow()).isEqualTo(chat);
+    }
+
+    @Test
+    @DisplayName("send the commands of the accounts to the accounts node")
+    void accountsToAccountsNode() {
+        var command = RegisterUser
+                .newBuilder()
+                .setUser(GivenUserId.generated())
+                .build();
+        var ownership = new CommandOwnership(Cluster.of(1, PORTS));
+
+        assertThat(CommandOwnership.chatOf(command).isPresent()).isFalse();
+        assertThat(ownership.nodeOf(command)).isEqualTo(ACCOUNTS_NODE);
+    }
+
+    private static SendMessage sendMessage(ChatId chat) {
+        return SendMessage
+                .newBuilder()
+                .setId(MessageIds.generate(chat))
+                .setChat(chat)
+                .setUser(GivenUserId.generated())
+                .setContent("Hello")
+                .vBuild();
+    }
+}
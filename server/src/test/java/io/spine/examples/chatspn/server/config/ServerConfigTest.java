@@ -0,0 +1,103 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.server.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Properties;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.spine.client.ConnectionConstants.DEFAULT_CLIENT_SERVICE_PORT;
+import static io.spine.examples.chatspn.server.execution.ThreadMode.PLATFORM;
+import static io.spine.examples.chatspn.server.execution.ThreadMode.VIRTUAL;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("`ServerConfig` should")
+final class ServerConfigTest {
+
+    @Test
+    @DisplayName("use the gRPC defaults for the missing properties")
+    void useDefaults() {
+        var config = ServerConfig.defaults();
+
+        assertThat(config.port()).isEqualTo(DEFAULT_CLIENT_SERVICE_PORT);
+        assertThat(config.threads()).isEqualTo(PLATFORM);
+        assertThat(config.maxInboundMessageSize()).isEqualTo(4 * 1024 * 1024);
+        assertThat(config.flowControlWindow()).isEqualTo(0);
+        assertThat(config.keepAliveTime()).isEqualTo(Duration.ofHours(2));
+        assertThat(config.subscriptionCompression()).isEqualTo(ServerConfig.NO_COMPRESSION);
+    }
+
+    @Test
+    @DisplayName("read the given properties")
+    void readProperties() {
+        var properties = new Properties();
+        properties.setProperty("chatspn.port", "50100");
+        properties.setProperty("chatspn.threads", "virtual");
+        properties.setProperty("chatspn.grpc.flow.control.window", "65536");
+        properties.setProperty("chatspn.grpc.subscription.compression", "gzip");
+        properties.setProperty("chatspn.snapshot.chat", "100");
+        properties.setProperty("chatspn.snapshot.message", "5");
+        var config = ServerConfig.from(properties);
+
+        assertThat(config.port()).isEqualTo(50100);
+        assertThat(config.threads()).isEqualTo(VIRTUAL);
+        assertThat(config.flowControlWindow()).isEqualTo(65536);
+        assertThat(config.subscriptionCompression()).isEqualTo("gzip");
+        assertThat(config.chatSnapshotTrigger()).isEqualTo(100);
+        assertThat(config.messageSnapshotTrigger()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("load the provided profiles")
+    void loadProfiles() {
+        var lowLatency = ServerConfig.profile("low-latency");
+        var highThroughput = ServerConfig.profile("high-throughput");
+
+        assertThat(lowLatency.subscriptionCompression()).isEqualTo(ServerConfig.NO_COMPRESSION);
+        assertThat(highThroughput.subscriptionCompression()).isEqualTo("gzip");
+        assertThat(highThroughput.flowControlWindow())
+                .isGreaterThan(lowLatency.flowControlWindow());
+    }
+
+    @Test
+    @DisplayName("reject an unknown profile")
+    void rejectUnknownProfile() {
+        assertThrows(IllegalArgumentException.class, () -> ServerConfig.profile("turbo"));
+    }
+
+    @Test
+    @DisplayName("reject an unsupported compression")
+    void rejectUnsupportedCompression() {
+        var properties = new Properties();
+        properties.setProperty("chatspn.grpc.subscription.compression", "zstd");
+
+        assertThrows(IllegalArgumentException.class, () -> ServerConfig.from(properties));
+    }
+}
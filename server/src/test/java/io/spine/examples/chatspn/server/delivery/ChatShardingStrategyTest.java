@@ -0,0 +1,126 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.server.delivery;
+
+import io.spine.examples.chatspn.ChatCardId;
+import io.spine.examples.chatspn.ChatDeletionId;
+import io.spine.examples.chatspn.ChatId;
+import io.spine.examples.chatspn.MessageRemovalId;
+import io.spine.examples.chatspn.chat.Chat;
+import io.spine.examples.chatspn.chat.ChatCard;
+import io.spine.examples.chatspn.chat.ChatDeletion;
+import io.spine.examples.chatspn.message.Message;
+import io.spine.examples.chatspn.message.MessageBatchSending;
+import io.spine.examples.chatspn.message.MessageIds;
+import io.spine.examples.chatspn.message.MessageRemoval;
+import io.spine.testing.core.given.GivenUserId;
+import io.spine.type.TypeUrl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("`ChatShardingStrategy` should")
+final class ChatShardingStrategyTest {
+
+    private static final int SHARD_COUNT = 16;
+
+    private final ChatShardingStrategy strategy = ChatShardingStrategy.withShards(SHARD_COUNT);
+
+    @Test
+    @DisplayName("put the chat, its cards and its deletion process to the same shard")
+    void sameShardForChat() {
+        var chat = ChatId.generate();
+        var card = ChatCardId
+                .newBuilder()
+                .setChat(chat)
+                .setUser(GivenUserId.generated())
+                .vBuild();
+        var deletion = ChatDeletionId
+                .newBuilder()
+                .setId(chat)
+                .vBuild();
+        var chatShard = strategy.indexFor(chat, TypeUrl.of(Chat.class));
+
+        assertThat(strategy.indexFor(card, TypeUrl.of(ChatCard.class)))
+                .isEqualTo(chatShard);
+        assertThat(strategy.indexFor(deletion, TypeUrl.of(ChatDeletion.class)))
+                .isEqualTo(chatShard);
+    }
+
+    @Test
+    @DisplayName("put the messages and the message processes to the shard of their chat")
+    void sameShardForMessagesOfChat() {
+        var chat = ChatId.generate();
+        var message = MessageIds.generate(chat);
+        var removal = MessageRemovalId
+                .newBuilder()
+                .setId(message)
+                .vBuild();
+        var batch = MessageIds.generateBatch(chat);
+        var chatShard = strategy.indexFor(chat, TypeUrl.of(Chat.class));
+
+        assertThat(strategy.indexFor(message, TypeUrl.of(Message.class)))
+                .isEqualTo(chatShard);
+        assertThat(strategy.indexFor(removal, TypeUrl.of(MessageRemoval.class)))
+                .isEqualTo(chatShard);
+        assertThat(strategy.indexFor(batch, TypeUrl.of(MessageBatchSending.class)))
+                .isEqualTo(chatShard);
+    }
+
+    @Test
+    @DisplayName("distribute chats across all the shards")
+    void distributeChats() {
+        var shards = new boolean[SHARD_COUNT];
+        for (var i = 0; i < SHARD_COUNT * 100; i++) {
+            var shard = strategy.indexFor(ChatId.generate(), TypeUrl.of(Chat.class));
+            assertThat(shard.getOfTotal()).isEqualTo(SHARD_COUNT);
+            shards[shard.getIndex()] = true;
+        }
+        for (var used : shards) {
+            assertThat(used).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("always put an entity to the same shard")
+    void stableShard() {
+        var message = MessageIds.generate(ChatId.generate());
+        var first = strategy.indexFor(message, TypeUrl.of(Message.class));
+        var second = strategy.indexFor(message.toBuilder()
+                                              .build(), TypeUrl.of(Message.class));
+
+        assertThat(second).isEqualTo(first);
+    }
+
+    @Test
+    @DisplayName("not allow a non-positive number of shards")
+    void rejectNonPositiveShardCount() {
+        assertThrows(IllegalArgumentException.class, () -> ChatShardingStrategy.withShards(0));
+    }
+}
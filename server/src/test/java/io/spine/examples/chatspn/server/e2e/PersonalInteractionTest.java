@@ -29,6 +29,7 @@ package io.spine.examples.chatspn.server.e2e;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import static com.google.common.truth.Truth.assertThat;
 import static io.spine.examples.chatspn.server.e2e.TestUser.registerUser;
 
 /**
@@ -41,6 +42,7 @@ import static io.spine.examples.chatspn.server.e2e.TestUser.registerUser;
  *     <li>Second user opens the chat and sends own messages.</li>
  *     <li>Second user edits the message.</li>
  *     <li>First user removes message and deletes the chat.</li>
+ *     <li>Second user opens the deleted chat and reads no messages.</li>
  * </ol>
  */
 final class PersonalInteractionTest extends ServerRunningTest {
@@ -64,8 +66,9 @@ final class PersonalInteractionTest extends ServerRunningTest {
 
         // Artem opens the chat and sends messages.
         var artemChats = artem.chats();
-        var artemConversation = artem.openChat(artemChats.get(0)
-                                                         .getChatId());
+        var chat = artemChats.get(0)
+                             .getChatId();
+        var artemConversation = artem.openChat(chat);
         artemConversation.sendMessage("Hi!");
         artemConversation.sendMessage("I'm fine");
         artemConversation.sendMessage("And you");
@@ -80,5 +83,10 @@ final class PersonalInteractionTest extends ServerRunningTest {
 
         // Vlad deletes the chat.
         vladConversation.deleteChat();
+
+        // Artem opens the deleted chat and reads no messages.
+        assertThat(artem.openChat(chat)
+                        .messages())
+                .isEmpty();
     }
 }
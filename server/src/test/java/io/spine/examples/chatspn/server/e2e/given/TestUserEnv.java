@@ -30,12 +30,12 @@ import io.spine.core.UserId;
 import io.spine.examples.chatspn.AccountCreationId;
 import io.spine.examples.chatspn.ChatDeletionId;
 import io.spine.examples.chatspn.ChatId;
-import io.spine.examples.chatspn.MessageId;
 import io.spine.examples.chatspn.MessageRemovalId;
 import io.spine.examples.chatspn.account.command.CreateAccount;
 import io.spine.examples.chatspn.chat.ChatMember;
 import io.spine.examples.chatspn.chat.command.CreatePersonalChat;
 import io.spine.examples.chatspn.chat.command.DeleteChat;
+import io.spine.examples.chatspn.message.MessageIds;
 import io.spine.examples.chatspn.message.MessageView;
 import io.spine.examples.chatspn.message.command.EditMessage;
 import io.spine.examples.chatspn.message.command.RemoveMessage;
@@ -79,7 +79,7 @@ public final class TestUserEnv {
     public static SendMessage sendMessageCommand(ChatId chatId, UserId userId, String content) {
         var sendMessage = SendMessage
                 .newBuilder()
-                .setId(MessageId.generate())
+                .setId(MessageIds.generate(chatId))
                 .setChat(chatId)
                 .setUser(userId)
                 .setContent(content)
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.server.execution;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutionException;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.spine.examples.chatspn.server.execution.ThreadMode.PLATFORM;
+import static io.spine.examples.chatspn.server.execution.ThreadMode.VIRTUAL;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@DisplayName("`ThreadMode` should")
+final class ThreadModeTest {
+
+    @Test
+    @DisplayName("run tasks on platform threads named by the prefix")
+    void runOnPlatformThreads() throws ExecutionException, InterruptedException {
+        var executor = PLATFORM.newExecutor("test-platform");
+        try {
+            var name = executor.submit(() -> Thread.currentThread()
+                                                   .getName())
+                               .get();
+            assertThat(name).startsWith("test-platform-");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("run tasks on virtual threads named by the prefix")
+    void runOnVirtualThreads() throws ExecutionException, InterruptedException {
+        assumeTrue(VIRTUAL.isSupported());
+        var executor = VIRTUAL.newExecutor("test-virtual");
+        try {
+            var thread = executor.submit(Thread::currentThread)
+                                 .get();
+            assertThat(thread.getName()).startsWith("test-virtual-");
+            assertThat(thread.isDaemon()).isTrue();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("reject virtual threads on a JVM which does not support them")
+    void rejectUnsupported() {
+        assumeFalse(VIRTUAL.isSupported());
+        assertThrows(IllegalStateException.class, () -> VIRTUAL.newExecutor("test-virtual"));
+    }
+
+    @Test
+    @DisplayName("be found by its name ignoring the case")
+    void findByName() {
+        assertThat(ThreadMode.named("virtual")).isEqualTo(VIRTUAL);
+        assertThat(ThreadMode.named("PLATFORM")).isEqualTo(PLATFORM);
+        assertThrows(IllegalArgumentException.class, () -> ThreadMode.named("green"));
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.server.message;
+
+import com.google.common.collect.ImmutableList;
+import io.spine.examples.chatspn.message.ChatTimeline;
+import io.spine.examples.chatspn.message.ChatTimelineBucket;
+import io.spine.examples.chatspn.server.ChatsContext;
+import io.spine.server.BoundedContextBuilder;
+import io.spine.testing.server.blackbox.ContextAwareTest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static io.spine.examples.chatspn.message.ChatTimelines.CAPACITY;
+import static io.spine.examples.chatspn.server.message.given.ChatTimelineTestEnv.bucket;
+import static io.spine.examples.chatspn.server.message.given.ChatTimelineTestEnv.bucketId;
+import static io.spine.examples.chatspn.server.message.given.ChatTimelineTestEnv.messageFrom;
+import static io.spine.examples.chatspn.server.message.given.ChatTimelineTestEnv.messagePosted;
+import static io.spine.examples.chatspn.server.message.given.ChatTimelineTestEnv.timeline;
+import static io.spine.examples.chatspn.server.message.given.MessageEditingTestEnv.editMessageCommand;
+import static io.spine.examples.chatspn.server.message.given.MessageRemovalTestEnv.removeMessageCommand;
+import static io.spine.examples.chatspn.server.message.given.MessageTestEnv.createRandomChatIn;
+import static io.spine.examples.chatspn.server.message.given.MessageTestEnv.sendRandomMessageTo;
+
+@DisplayName("`ChatTimeline` should")
+final class ChatTimelineTest extends ContextAwareTest {
+
+    @Override
+    protected BoundedContextBuilder contextBuilder() {
+        return ChatsContext.newBuilder();
+    }
+
+    @Test
+    @DisplayName("put the posted messages to the bucket in the order of posting")
+    void fillBucket() {
+        var chat = createRandomChatIn(context());
+        var first = sendRandomMessageTo(chat, context());
+        var second = sendRandomMessageTo(chat, context());
+        var expected = bucket(chat.getId(), 0, ImmutableList.of(first, second));
+
+        context().assertState(bucketId(chat.getId(), 0), ChatTimelineBucket.class)
+                 .comparingExpectedFieldsOnly()
+                 .isEqualTo(expected);
+        context().assertState(chat.getId(), ChatTimeline.class)
+                 .comparingExpectedFieldsOnly()
+                 .isEqualTo(timeline(chat.getId(), 1, ImmutableList.of(first, second)));
+    }
+
+    @Test
+    @DisplayName("start a new bucket once the latest one is full")
+    void rollOver() {
+        var chat = createRandomChatIn(context());
+        for (var i = 0; i < CAPACITY; i++) {
+            sendRandomMessageTo(chat, context());
+        }
+        var next = sendRandomMessageTo(chat, context());
+        var expected = bucket(chat.getId(), 1, ImmutableList.of(next));
+
+        context().assertState(bucketId(chat.getId(), 1), ChatTimelineBucket.class)
+                 .comparingExpectedFieldsOnly()
+                 .isEqualTo(expected);
+        context().assertState(chat.getId(), ChatTimeline.class)
+                 .comparingExpectedFieldsOnly()
+                 .isEqualTo(timeline(chat.getId(), 2, ImmutableList.of(next)));
+    }
+
+    @Test
+    @DisplayName("add the message posted twice only once")
+    void ignoreRepeatedMessage() {
+        var chat = createRandomChatIn(context());
+        var posted = messagePosted(chat);
+        context().receivesEvent(posted);
+        context().receivesEvent(posted);
+        var message = messageFrom(posted);
+
+        context().assertState(bucketId(chat.getId(), 0), ChatTimelineBucket.class)
+                 .comparingExpectedFieldsOnly()
+                 .isEqualTo(bucket(chat.getId(), 0, ImmutableList.of(message)));
+        context().assertState(chat.getId(), ChatTimeline.class)
+                 .comparingExpectedFieldsOnly()
+                 .isEqualTo(timeline(chat.getId(), 1, ImmutableList.of(message)));
+    }
+
+    @Test
+    @DisplayName("update the content of the edited message")
+    void updateContent() {
+        var chat = createRandomChatIn(context());
+        var message = sendRandomMessageTo(chat, context());
+        var command = editMessageCommand(message);
+        context().receivesCommand(command);
+        var edited = message.toBuilder()
+                            .setContent(command.getSuggestedContent())
+                            .buildPartial();
+        var expected = bucket(chat.getId(), 0, ImmutableList.of(edited));
+
+        context().assertState(bucketId(chat.getId(), 0), ChatTimelineBucket.class)
+                 .comparingExpectedFieldsOnly()
+                 .isEqualTo(expected);
+    }
+
+    @Test
+    @DisplayName("remove the deleted message from the bucket")
+    void removeMessage() {
+        var chat = createRandomChatIn(context());
+        var removed = sendRandomMessageTo(chat, context());
+        var kept = sendRandomMessageTo(chat, context());
+        context().receivesCommand(removeMessageCommand(removed));
+        var expected = bucket(chat.getId(), 0, ImmutableList.of(kept));
+
+        context().assertState(bucketId(chat.getId(), 0), ChatTimelineBucket.class)
+                 .comparingExpectedFieldsOnly()
+                 .isEqualTo(expected);
+    }
+}
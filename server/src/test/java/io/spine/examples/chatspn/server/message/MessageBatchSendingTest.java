@@ -0,0 +1,146 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.server.message;
+
+import io.spine.examples.chatspn.chat.ChatActivity;
+import io.spine.examples.chatspn.message.MessageView;
+import io.spine.examples.chatspn.message.event.MessagePosted;
+import io.spine.examples.chatspn.message.event.MessageSent;
+import io.spine.examples.chatspn.server.ChatsContext;
+import io.spine.server.BoundedContextBuilder;
+import io.spine.testing.core.given.GivenUserId;
+import io.spine.testing.server.blackbox.ContextAwareTest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static io.spine.examples.chatspn.server.chat.given.ChatTestEnv.createDeletedGroupChatIn;
+import static io.spine.examples.chatspn.server.message.given.MessageBatchSendingTestEnv.chatActivity;
+import static io.spine.examples.chatspn.server.message.given.MessageBatchSendingTestEnv.messageViewFrom;
+import static io.spine.examples.chatspn.server.message.given.MessageBatchSendingTestEnv.messagesCannotBeSentFrom;
+import static io.spine.examples.chatspn.server.message.given.MessageBatchSendingTestEnv.messagesSentFrom;
+import static io.spine.examples.chatspn.server.message.given.MessageBatchSendingTestEnv.randomSendMessagesCommand;
+import static io.spine.examples.chatspn.server.message.given.MessageBatchSendingTestEnv.sendMessagesCommandWith;
+import static io.spine.examples.chatspn.server.message.given.MessageBatchSendingTestEnv.sendMessagesCommandWithDuplicateIds;
+import static io.spine.examples.chatspn.server.message.given.MessageTestEnv.createRandomChatIn;
+
+@DisplayName("`MessageBatchSending` should")
+public final class MessageBatchSendingTest extends ContextAwareTest {
+
+    @Override
+    protected BoundedContextBuilder contextBuilder() {
+        return ChatsContext.newBuilder();
+    }
+
+    @Test
+    @DisplayName("emit `MessagesSent` event, and archive itself")
+    void event() {
+        var chat = createRandomChatIn(context());
+        var command = randomSendMessagesCommand(chat);
+        context().receivesCommand(command);
+        var expected = messagesSentFrom(command);
+
+        context().assertEvent(expected);
+        context().assertEntity(expected.getId(), MessageBatchSendingProcess.class)
+                 .archivedFlag()
+                 .isTrue();
+    }
+
+    @Test
+    @DisplayName("post each message of the batch")
+    void postEachMessage() {
+        var chat = createRandomChatIn(context());
+        var command = randomSendMessagesCommand(chat);
+        context().receivesCommand(command);
+
+        context().assertEvents()
+                 .withType(MessagePosted.class)
+                 .hasSize(command.getMessageCount());
+        context().assertEvents()
+                 .withType(MessageSent.class)
+                 .isEmpty();
+        for (var message : command.getMessageList()) {
+            var expected = messageViewFrom(command, message);
+            context().assertState(expected.getId(), MessageView.class)
+                     .comparingExpectedFieldsOnly()
+                     .isEqualTo(expected);
+        }
+    }
+
+    @Test
+    @DisplayName("reject when the sender is not the chat member")
+    void senderNotMember() {
+        var chat = createRandomChatIn(context());
+        var command = sendMessagesCommandWith(chat, GivenUserId.generated());
+        context().receivesCommand(command);
+        var expected = messagesCannotBeSentFrom(command);
+
+        context().assertEvent(expected);
+        context().assertEvents()
+                 .withType(MessagePosted.class)
+                 .isEmpty();
+    }
+
+    @Test
+    @DisplayName("reject when several messages of the batch have the same ID")
+    void duplicateIds() {
+        var chat = createRandomChatIn(context());
+        var command = sendMessagesCommandWithDuplicateIds(chat);
+        context().receivesCommand(command);
+        var expected = messagesCannotBeSentFrom(command, command.getMessage(0)
+                                                                .getId());
+
+        context().assertEvent(expected);
+        context().assertEvents()
+                 .withType(MessagePosted.class)
+                 .isEmpty();
+    }
+
+    @Test
+    @DisplayName("reject with the `MessagesCannotBeSent` " +
+            "if the chat does not exist or has been deleted")
+    void chatNotExist() {
+        var chat = createDeletedGroupChatIn(context());
+        var command = sendMessagesCommandWith(chat, chat.getOwner());
+        context().receivesCommand(command);
+        var expected = messagesCannotBeSentFrom(command);
+
+        context().assertEvent(expected);
+    }
+
+    @Test
+    @DisplayName("update the last message in the `ChatActivity` projection once per batch")
+    void updateLastMessage() {
+        var chat = createRandomChatIn(context());
+        var command = randomSendMessagesCommand(chat);
+        context().receivesCommand(command);
+        var expected = chatActivity(command);
+
+        context().assertState(expected.getId(), ChatActivity.class)
+                 .comparingExpectedFieldsOnly()
+                 .isEqualTo(expected);
+    }
+}
@@ -26,8 +26,9 @@
 
 package io.spine.examples.chatspn.server.message;
 
-import io.spine.examples.chatspn.MessageId;
+import io.spine.examples.chatspn.chat.ChatActivity;
 import io.spine.examples.chatspn.message.Message;
+import io.spine.examples.chatspn.message.MessageIds;
 import io.spine.examples.chatspn.message.MessageView;
 import io.spine.examples.chatspn.server.ChatsContext;
 import io.spine.server.BoundedContextBuilder;
@@ -39,7 +40,7 @@ import org.junit.jupiter.api.Test;
 
 import static io.spine.examples.chatspn.server.chat.given.ChatDeletionTestEnv.deleteChatCommand;
 import static io.spine.examples.chatspn.server.chat.given.ChatTestEnv.createGroupChatIn;
-import static io.spine.examples.chatspn.server.message.given.MessageEditingTestEnv.chatCardWithEditedMessage;
+import static io.spine.examples.chatspn.server.message.given.MessageEditingTestEnv.chatActivityWithEditedMessage;
 import static io.spine.examples.chatspn.server.message.given.MessageEditingTestEnv.editMessageCommand;
 import static io.spine.examples.chatspn.server.message.given.MessageEditingTestEnv.editMessageCommandWith;
 import static io.spine.examples.chatspn.server.message.given.MessageEditingTestEnv.messageCannotBeEditedFrom;
@@ -49,7 +50,7 @@ import static io.spine.examples.chatspn.server.message.given.MessageEditingTestE
 import static io.spine.examples.chatspn.server.message.given.MessageEditingTestEnv.messageEditingFailedFrom;
 import static io.spine.examples.chatspn.server.message.given.MessageEditingTestEnv.messageFrom;
 import static io.spine.examples.chatspn.server.message.given.MessageEditingTestEnv.messageViewFrom;
-import static io.spine.examples.chatspn.server.message.given.MessageRemovalTestEnv.chatCardWithMessage;
+import static io.spine.examples.chatspn.server.message.given.MessageRemovalTestEnv.chatActivityWithMessage;
 import static io.spine.examples.chatspn.server.message.given.MessageTestEnv.createRandomChatIn;
 import static io.spine.examples.chatspn.server.message.given.MessageTestEnv.sendRandomMessageTo;
 
@@ -111,7 +112,7 @@ final class MessageEditingTest extends ContextAwareTest {
     void messageNotEditedEvent() {
         var chat = createRandomChatIn(context());
         var message = sendRandomMessageTo(chat, context());
-        var command = editMessageCommandWith(message, MessageId.generate());
+        var command = editMessageCommandWith(message, MessageIds.generate(chat.getId()));
         context().receivesCommand(command);
         var expected = messageEditingFailedFrom(command);
 
@@ -136,24 +137,22 @@ final class MessageEditingTest extends ContextAwareTest {
     }
 
     @Test
-    @DisplayName("update the last message in `ChatCard` projections " +
+    @DisplayName("update the last message in the `ChatActivity` projection " +
             "if the edited message was the last one")
     void updateLastMessage() {
         var chat = createRandomChatIn(context());
         var message = sendRandomMessageTo(chat, context());
         var command = editMessageCommand(message);
         context().receivesCommand(command);
-        var ownerChatCard = chatCardWithEditedMessage(chat, command, chat.getOwner());
-        var memberChatCard =
-                chatCardWithEditedMessage(chat, command, chat.getMember(1)
-                                                             .getId());
+        var expected = chatActivityWithEditedMessage(command);
 
-        context().assertState(ownerChatCard.getCardId(), ownerChatCard);
-        context().assertState(memberChatCard.getCardId(), memberChatCard);
+        context().assertState(expected.getId(), ChatActivity.class)
+                 .comparingExpectedFieldsOnly()
+                 .isEqualTo(expected);
     }
 
     @Test
-    @DisplayName("not update the last message in the `ChatCard` projections " +
+    @DisplayName("not update the last message in the `ChatActivity` projection " +
             "if the edited message wasn't the last one")
     void notUpdateLastMessage() {
         var chat = createRandomChatIn(context());
@@ -161,12 +160,11 @@ final class MessageEditingTest extends ContextAwareTest {
         var lastMessage = sendRandomMessageTo(chat, context());
         var command = editMessageCommand(message);
         context().receivesCommand(command);
-        var ownerChatCard = chatCardWithMessage(chat, lastMessage, chat.getMember(0));
-        var memberChatCard =
-                chatCardWithMessage(chat, lastMessage, chat.getMember(1));
+        var expected = chatActivityWithMessage(lastMessage, 2);
 
-        context().assertState(ownerChatCard.getCardId(), ownerChatCard);
-        context().assertState(memberChatCard.getCardId(), memberChatCard);
+        context().assertState(expected.getId(), ChatActivity.class)
+                 .comparingExpectedFieldsOnly()
+                 .isEqualTo(expected);
     }
 
     @Nested
@@ -205,7 +203,7 @@ final class MessageEditingTest extends ContextAwareTest {
         void rejectBecauseNotExist() {
             var chat = createRandomChatIn(context());
             var message = sendRandomMessageTo(chat, context());
-            var command = editMessageCommandWith(message, MessageId.generate());
+            var command = editMessageCommandWith(message, MessageIds.generate(chat.getId()));
             context().receivesCommand(command);
             var expected =
                     messageContentCannotBeUpdatedFrom(command);
@@ -26,8 +26,9 @@
 
 package io.spine.examples.chatspn.server.message;
 
-import io.spine.examples.chatspn.MessageId;
+import io.spine.examples.chatspn.chat.ChatActivity;
 import io.spine.examples.chatspn.message.Message;
+import io.spine.examples.chatspn.message.MessageIds;
 import io.spine.examples.chatspn.server.ChatsContext;
 import io.spine.server.BoundedContextBuilder;
 import io.spine.testing.core.given.GivenUserId;
@@ -38,8 +39,8 @@ import org.junit.jupiter.api.Test;
 
 import static io.spine.examples.chatspn.server.chat.given.ChatDeletionTestEnv.deleteChatCommand;
 import static io.spine.examples.chatspn.server.chat.given.ChatTestEnv.createGroupChatIn;
-import static io.spine.examples.chatspn.server.message.given.MessageRemovalTestEnv.chatCard;
-import static io.spine.examples.chatspn.server.message.given.MessageRemovalTestEnv.chatCardWithMessage;
+import static io.spine.examples.chatspn.server.message.given.MessageRemovalTestEnv.chatActivityWithMessage;
+import static io.spine.examples.chatspn.server.message.given.MessageRemovalTestEnv.chatActivityWithoutMessage;
 import static io.spine.examples.chatspn.server.message.given.MessageRemovalTestEnv.messageCannotBeMarkedAsRemovedFrom;
 import static io.spine.examples.chatspn.server.message.given.MessageRemovalTestEnv.messageCannotBeRemovedFrom;
 import static io.spine.examples.chatspn.server.message.given.MessageRemovalTestEnv.messageFrom;
@@ -109,7 +110,7 @@ final class MessageRemovalTest extends ContextAwareTest {
     void messageRemovalFailedEvent() {
         var chat = createRandomChatIn(context());
         var message = sendRandomMessageTo(chat, context());
-        var command = removeMessageCommandWith(message, MessageId.generate());
+        var command = removeMessageCommandWith(message, MessageIds.generate(chat.getId()));
         context().receivesCommand(command);
         var expected = messageRemovalFailedFrom(command);
 
@@ -133,22 +134,20 @@ final class MessageRemovalTest extends ContextAwareTest {
     }
 
     @Test
-    @DisplayName("update the last message in `ChatCard` projections " +
+    @DisplayName("clear the last message in the `ChatActivity` projection " +
             "if the removed message was the last one")
     void updateLastMessage() {
         var chat = createRandomChatIn(context());
         var message = sendRandomMessageTo(chat, context());
         var command = removeMessageCommand(message);
         context().receivesCommand(command);
-        var ownerChatCard = chatCard(chat, chat.getOwner());
-        var memberChatCard = chatCard(chat, chat.getMember(1));
+        var expected = chatActivityWithoutMessage(chat, 2);
 
-        context().assertState(ownerChatCard.getCardId(), ownerChatCard);
-        context().assertState(memberChatCard.getCardId(), memberChatCard);
+        context().assertState(expected.getId(), expected);
     }
 
     @Test
-    @DisplayName("not update the last message in the `ChatCard` projections " +
+    @DisplayName("not update the last message in the `ChatActivity` projection " +
             "if the removed message wasn't the last one")
     void notUpdateLastMessage() {
         var chat = createRandomChatIn(context());
@@ -156,11 +155,11 @@ final class MessageRemovalTest extends ContextAwareTest {
         var lastMessage = sendRandomMessageTo(chat, context());
         var command = removeMessageCommand(message);
         context().receivesCommand(command);
-        var ownerChatCard = chatCardWithMessage(chat, lastMessage, chat.getMember(0));
-        var memberChatCard = chatCardWithMessage(chat, lastMessage, chat.getMember(1));
+        var expected = chatActivityWithMessage(lastMessage, 2);
 
-        context().assertState(ownerChatCard.getCardId(), ownerChatCard);
-        context().assertState(memberChatCard.getCardId(), memberChatCard);
+        context().assertState(expected.getId(), ChatActivity.class)
+                 .comparingExpectedFieldsOnly()
+                 .isEqualTo(expected);
     }
 
     @Nested
@@ -202,7 +201,7 @@ final class MessageRemovalTest extends ContextAwareTest {
         void rejectBecauseNotExist() {
             var chat = createRandomChatIn(context());
             var message = sendRandomMessageTo(chat, context());
-            var command = removeMessageCommandWith(message, MessageId.generate());
+            var command = removeMessageCommandWith(message, MessageIds.generate(chat.getId()));
             context().receivesCommand(command);
             var expected = messageCannotBeMarkedAsRemovedFrom(command);
 
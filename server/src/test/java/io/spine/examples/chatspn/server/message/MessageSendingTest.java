@@ -26,6 +26,7 @@
 
 package io.spine.examples.chatspn.server.message;
 
+import io.spine.examples.chatspn.chat.ChatActivity;
 import io.spine.examples.chatspn.message.Message;
 import io.spine.examples.chatspn.message.MessageView;
 import io.spine.examples.chatspn.server.ChatsContext;
@@ -37,7 +38,10 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
 import static io.spine.examples.chatspn.server.chat.given.ChatTestEnv.createDeletedGroupChatIn;
-import static io.spine.examples.chatspn.server.message.given.MessageSendingTestEnv.chatCard;
+import static io.spine.examples.chatspn.server.message.given.MessageSendingTestEnv.chatActivity;
+import static io.spine.examples.chatspn.server.message.given.MessageSendingTestEnv.chatActivityWithPreview;
+import static io.spine.examples.chatspn.server.message.given.MessageSendingTestEnv.emojiSendMessageCommand;
+import static io.spine.examples.chatspn.server.message.given.MessageSendingTestEnv.longSendMessageCommand;
 import static io.spine.examples.chatspn.server.message.given.MessageSendingTestEnv.messageCannotBeSentFrom;
 import static io.spine.examples.chatspn.server.message.given.MessageSendingTestEnv.messageFrom;
 import static io.spine.examples.chatspn.server.message.given.MessageSendingTestEnv.messagePostedFrom;
@@ -106,17 +110,42 @@ public final class MessageSendingTest extends ContextAwareTest {
     }
 
     @Test
-    @DisplayName("update the last message in each member's `ChatCard` projections")
+    @DisplayName("update the last message in the `ChatActivity` projection")
     void updateLastMessage() {
         var chat = createRandomChatIn(context());
         var command = randomSendMessageCommand(chat);
         context().receivesCommand(command);
-        var ownerChatCard = chatCard(chat, command, chat.getOwner());
-        var memberChatCard = chatCard(chat, command, chat.getMember(1)
-                                                         .getId());
+        var expected = chatActivity(command);
 
-        context().assertState(ownerChatCard.getCardId(), ownerChatCard);
-        context().assertState(memberChatCard.getCardId(), memberChatCard);
+        context().assertState(expected.getId(), ChatActivity.class)
+                 .comparingExpectedFieldsOnly()
+                 .isEqualTo(expected);
+    }
+
+    @Test
+    @DisplayName("cut the long last message to a preview in the `ChatActivity` projection")
+    void truncatePreview() {
+        var chat = createRandomChatIn(context());
+        var command = longSendMessageCommand(chat);
+        context().receivesCommand(command);
+        var expected = chatActivityWithPreview(command);
+
+        context().assertState(expected.getId(), ChatActivity.class)
+                 .comparingExpectedFieldsOnly()
+                 .isEqualTo(expected);
+    }
+
+    @Test
+    @DisplayName("not split an emoji when cutting the last message to a preview")
+    void truncatePreviewByCodePoints() {
+        var chat = createRandomChatIn(context());
+        var command = emojiSendMessageCommand(chat);
+        context().receivesCommand(command);
+        var expected = chatActivityWithPreview(command);
+
+        context().assertState(expected.getId(), ChatActivity.class)
+                 .comparingExpectedFieldsOnly()
+                 .isEqualTo(expected);
     }
 
     @Nested
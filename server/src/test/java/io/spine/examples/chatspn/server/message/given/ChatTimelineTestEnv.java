@@ -0,0 +1,115 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.server.message.given;
+
+import io.spine.base.Time;
+import io.spine.examples.chatspn.ChatId;
+import io.spine.examples.chatspn.ChatTimelineBucketId;
+import io.spine.examples.chatspn.chat.Chat;
+import io.spine.examples.chatspn.message.ChatTimeline;
+import io.spine.examples.chatspn.message.ChatTimelineBucket;
+import io.spine.examples.chatspn.message.Message;
+import io.spine.examples.chatspn.message.MessageIds;
+import io.spine.examples.chatspn.message.MessageView;
+import io.spine.examples.chatspn.message.event.MessagePosted;
+
+import java.util.List;
+
+public final class ChatTimelineTestEnv {
+
+    /**
+     * Prevents class instantiation.
+     */
+    private ChatTimelineTestEnv() {
+    }
+
+    public static ChatTimelineBucketId bucketId(ChatId chat, int number) {
+        return ChatTimelineBucketId
+                .newBuilder()
+                .setChat(chat)
+                .setNumber(number)
+                .vBuild();
+    }
+
+    public static ChatTimelineBucket bucket(ChatId chat, int number, List<Message> messages) {
+        var bucket = ChatTimelineBucket
+                .newBuilder()
+                .setId(bucketId(chat, number));
+        messages.forEach(message -> bucket.addMessage(messageView(message)));
+        return bucket.buildPartial();
+    }
+
+    /**
+     * Creates the expected timeline with the given number of buckets
+     * and the given messages in the latest bucket.
+     */
+    public static ChatTimeline timeline(ChatId chat, int buckets, List<Message> latest) {
+        var timeline = ChatTimeline
+                .newBuilder()
+                .setId(chat);
+        for (var i = 0; i < buckets; i++) {
+            timeline.addBucket(ChatTimeline.Bucket
+                                       .newBuilder()
+                                       .setNumber(i)
+                                       .buildPartial());
+        }
+        latest.forEach(message -> timeline.addLatestMessage(message.getId()));
+        return timeline.buildPartial();
+    }
+
+    public static MessagePosted messagePosted(Chat chat) {
+        return MessagePosted
+                .newBuilder()
+                .setId(MessageIds.generate(chat.getId()))
+                .setChat(chat.getId())
+                .setUser(chat.getMember(0)
+                             .getId())
+                .setContent("Hello, this is my message text")
+                .setWhenPosted(Time.currentTime())
+                .vBuild();
+    }
+
+    public static Message messageFrom(MessagePosted e) {
+        return Message
+                .newBuilder()
+                .setId(e.getId())
+                .setChat(e.getChat())
+                .setUser(e.getUser())
+                .setContent(e.getContent())
+                .buildPartial();
+    }
+
+    public static MessageView messageView(Message message) {
+        return MessageView
+                .newBuilder()
+                .setId(message.getId())
+                .setChat(message.getChat())
+                .setUser(message.getUser())
+                .setContent(message.getContent())
+                .buildPartial();
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.server.message.given;
+
+import io.spine.core.UserId;
+import io.spine.examples.chatspn.MessageId;
+import io.spine.examples.chatspn.chat.Chat;
+import io.spine.examples.chatspn.chat.ChatActivity;
+import io.spine.examples.chatspn.message.MessageDraft;
+import io.spine.examples.chatspn.message.MessageIds;
+import io.spine.examples.chatspn.message.MessageView;
+import io.spine.examples.chatspn.message.command.SendMessages;
+import io.spine.examples.chatspn.message.event.MessagesSent;
+import io.spine.examples.chatspn.message.rejection.SendingRejections.MessagesCannotBeSent;
+
+public final class MessageBatchSendingTestEnv {
+
+    private static final int BATCH_SIZE = 5;
+
+    /**
+     * Prevents class instantiation.
+     */
+    private MessageBatchSendingTestEnv() {
+    }
+
+    public static SendMessages randomSendMessagesCommand(Chat chat) {
+        return sendMessagesCommandWith(chat, chat.getMember(0)
+                                                 .getId());
+    }
+
+    public static SendMessages sendMessagesCommandWith(Chat chat, UserId userId) {
+        var command = SendMessages
+                .newBuilder()
+                .setId(MessageIds.generateBatch(chat.getId()))
+                .setUser(userId)
+                .setChat(chat.getId());
+        for (var i = 0; i < BATCH_SIZE; i++) {
+            var draft = MessageDraft
+                    .newBuilder()
+                    .setId(MessageIds.generate(chat.getId()))
+                    .setContent("Message number " + i)
+                    .vBuild();
+            command.addMessage(draft);
+        }
+        return command.vBuild();
+    }
+
+    /**
+     * Creates a command to send two messages of different content with the same ID.
+     */
+    public static SendMessages sendMessagesCommandWithDuplicateIds(Chat chat) {
+        var id = MessageIds.generate(chat.getId());
+        var command = SendMessages
+                .newBuilder()
+                .setId(MessageIds.generateBatch(chat.getId()))
+                .setUser(chat.getMember(0)
+                             .getId())
+                .setChat(chat.getId());
+        for (var i = 0; i < 2; i++) {
+            var draft = MessageDraft
+                    .newBuilder()
+                    .setId(id)
+                    .setContent("Message number " + i)
+                    .vBuild();
+            command.addMessage(draft);
+        }
+        return command.vBuild();
+    }
+
+    public static MessagesSent messagesSentFrom(SendMessages c) {
+        var event = MessagesSent
+                .newBuilder()
+                .setId(c.getId())
+                .setChat(c.getChat())
+                .setUser(c.getUser());
+        c.getMessageList()
+         .forEach(message -> event.addMessage(message.getId()));
+        return event.setLastMessage(lastMessageViewFrom(c))
+                    .buildPartial();
+    }
+
+    public static MessageView messageViewFrom(SendMessages c, MessageDraft message) {
+        var state = MessageView
+                .newBuilder()
+                .setId(message.getId())
+                .setChat(c.getChat())
+                .setUser(c.getUser())
+                .setContent(message.getContent())
+                .buildPartial();
+        return state;
+    }
+
+    public static MessageView lastMessageViewFrom(SendMessages c) {
+        var last = c.getMessage(c.getMessageCount() - 1);
+        return messageViewFrom(c, last);
+    }
+
+    public static MessagesCannotBeSent messagesCannotBeSentFrom(SendMessages c) {
+        var rejection = MessagesCannotBeSent
+                .newBuilder()
+                .setId(c.getId())
+                .setChat(c.getChat())
+                .setUser(c.getUser())
+                .vBuild();
+        return rejection;
+    }
+
+    public static MessagesCannotBeSent
+    messagesCannotBeSentFrom(SendMessages c, MessageId duplicate) {
+        var rejection = MessagesCannotBeSent
+                .newBuilder()
+                .setId(c.getId())
+                .setChat(c.getChat())
+                .setUser(c.getUser())
+                .addDuplicate(duplicate)
+                .vBuild();
+        return rejection;
+    }
+
+    public static ChatActivity chatActivity(SendMessages command) {
+        var state = ChatActivity
+                .newBuilder()
+                .setId(command.getChat())
+                .setLastMessage(lastMessageViewFrom(command))
+                .setSequence(1)
+                .buildPartial();
+        return state;
+    }
+}
@@ -27,10 +27,8 @@
 package io.spine.examples.chatspn.server.message.given;
 
 import io.spine.core.UserId;
-import io.spine.examples.chatspn.ChatCardId;
 import io.spine.examples.chatspn.MessageId;
-import io.spine.examples.chatspn.chat.Chat;
-import io.spine.examples.chatspn.chat.ChatCard;
+import io.spine.examples.chatspn.chat.ChatActivity;
 import io.spine.examples.chatspn.message.Message;
 import io.spine.examples.chatspn.message.MessageView;
 import io.spine.examples.chatspn.message.command.EditMessage;
@@ -40,8 +38,6 @@ import io.spine.examples.chatspn.message.event.MessageEditingFailed;
 import io.spine.examples.chatspn.message.rejection.EditingRejections.MessageCannotBeEdited;
 import io.spine.examples.chatspn.message.rejection.EditingRejections.MessageContentCannotBeUpdated;
 
-import static io.spine.examples.chatspn.chat.Chat.ChatType.CT_GROUP;
-
 public final class MessageEditingTestEnv {
 
     /**
@@ -160,7 +156,7 @@ public final class MessageEditingTestEnv {
         return rejection;
     }
 
-    public static ChatCard chatCardWithEditedMessage(Chat chat, EditMessage command, UserId user) {
+    public static ChatActivity chatActivityWithEditedMessage(EditMessage command) {
         var messageView = MessageView
                 .newBuilder()
                 .setId(command.getId())
@@ -168,20 +164,12 @@ public final class MessageEditingTestEnv {
                 .setUser(command.getUser())
                 .setContent(command.getSuggestedContent())
                 .buildPartial();
-        var chatCardId = ChatCardId
-                .newBuilder()
-                .setUser(user)
-                .setChat(chat.getId())
-                .vBuild();
-        var state = ChatCard
+        var state = ChatActivity
                 .newBuilder()
-                .setCardId(chatCardId)
-                .setChatId(chat.getId())
-                .setViewer(user)
-                .setGroupChatName(chat.getName())
-                .setType(CT_GROUP)
+                .setId(command.getChat())
                 .setLastMessage(messageView)
-                .vBuild();
+                .setSequence(2)
+                .buildPartial();
         return state;
     }
 }
@@ -27,12 +27,10 @@
 package io.spine.examples.chatspn.server.message.given;
 
 import io.spine.core.UserId;
-import io.spine.examples.chatspn.ChatCardId;
 import io.spine.examples.chatspn.MessageId;
 import io.spine.examples.chatspn.MessageRemovalId;
 import io.spine.examples.chatspn.chat.Chat;
-import io.spine.examples.chatspn.chat.ChatCard;
-import io.spine.examples.chatspn.chat.ChatMember;
+import io.spine.examples.chatspn.chat.ChatActivity;
 import io.spine.examples.chatspn.message.Message;
 import io.spine.examples.chatspn.message.MessageView;
 import io.spine.examples.chatspn.message.command.RemoveMessage;
@@ -42,8 +40,6 @@ import io.spine.examples.chatspn.message.event.MessageRemoved;
 import io.spine.examples.chatspn.message.rejection.RemovalRejections.MessageCannotBeMarkedAsDeleted;
 import io.spine.examples.chatspn.message.rejection.RemovalRejections.MessageCannotBeRemoved;
 
-import static io.spine.examples.chatspn.chat.Chat.ChatType.CT_GROUP;
-
 public final class MessageRemovalTestEnv {
 
     /**
@@ -152,7 +148,7 @@ public final class MessageRemovalTestEnv {
                 .vBuild();
     }
 
-    public static ChatCard chatCardWithMessage(Chat chat, Message message, ChatMember user) {
+    public static ChatActivity chatActivityWithMessage(Message message, long sequence) {
         var messageView = MessageView
                 .newBuilder()
                 .setId(message.getId())
@@ -160,40 +156,20 @@ public final class MessageRemovalTestEnv {
                 .setUser(message.getUser())
                 .setContent(message.getContent())
                 .buildPartial();
-        var chatCardId = ChatCardId
-                .newBuilder()
-                .setUser(user.getId())
-                .setChat(chat.getId())
-                .vBuild();
-        var state = ChatCard
+        var state = ChatActivity
                 .newBuilder()
-                .setCardId(chatCardId)
-                .setChatId(chat.getId())
-                .setViewer(user.getId())
-                .setGroupChatName(chat.getName())
-                .setType(CT_GROUP)
+                .setId(message.getChat())
                 .setLastMessage(messageView)
-                .vBuild();
+                .setSequence(sequence)
+                .buildPartial();
         return state;
     }
 
-    public static ChatCard chatCard(Chat chat, ChatMember viewer) {
-        return chatCard(chat, viewer.getId());
-    }
-
-    public static ChatCard chatCard(Chat chat, UserId viewerId) {
-        var chatCardId = ChatCardId
-                .newBuilder()
-                .setUser(viewerId)
-                .setChat(chat.getId())
-                .vBuild();
-        var state = ChatCard
+    public static ChatActivity chatActivityWithoutMessage(Chat chat, long sequence) {
+        var state = ChatActivity
                 .newBuilder()
-                .setCardId(chatCardId)
-                .setChatId(chat.getId())
-                .setViewer(viewerId)
-                .setGroupChatName(chat.getName())
-                .setType(CT_GROUP)
+                .setId(chat.getId())
+                .setSequence(sequence)
                 .vBuild();
         return state;
     }
@@ -27,18 +27,17 @@
 package io.spine.examples.chatspn.server.message.given;
 
 import io.spine.core.UserId;
-import io.spine.examples.chatspn.ChatCardId;
-import io.spine.examples.chatspn.MessageId;
 import io.spine.examples.chatspn.chat.Chat;
-import io.spine.examples.chatspn.chat.ChatCard;
+import io.spine.examples.chatspn.chat.ChatActivity;
 import io.spine.examples.chatspn.message.Message;
+import io.spine.examples.chatspn.message.MessageIds;
 import io.spine.examples.chatspn.message.MessageView;
 import io.spine.examples.chatspn.message.command.SendMessage;
 import io.spine.examples.chatspn.message.event.MessagePosted;
 import io.spine.examples.chatspn.message.event.MessageSent;
 import io.spine.examples.chatspn.message.rejection.SendingRejections.MessageCannotBeSent;
 
-import static io.spine.examples.chatspn.chat.Chat.ChatType.CT_GROUP;
+import static io.spine.examples.chatspn.server.chat.ChatActivityProjection.PREVIEW_LENGTH;
 
 public final class MessageSendingTestEnv {
 
@@ -51,7 +50,7 @@ public final class MessageSendingTestEnv {
     public static SendMessage randomSendMessageCommand(Chat chat) {
         var command = SendMessage
                 .newBuilder()
-                .setId(MessageId.generate())
+                .setId(MessageIds.generate(chat.getId()))
                 .setUser(chat.getMember(0)
                              .getId())
                 .setChat(chat.getId())
@@ -63,7 +62,7 @@ public final class MessageSendingTestEnv {
     public static SendMessage sendMessageCommandWith(Chat chat, UserId userId) {
         var command = SendMessage
                 .newBuilder()
-                .setId(MessageId.generate())
+                .setId(MessageIds.generate(chat.getId()))
                 .setUser(userId)
                 .setChat(chat.getId())
                 .setContent("Hello, this is my message text")
@@ -71,6 +70,33 @@ public final class MessageSendingTestEnv {
         return command;
     }
 
+    /**
+     * Returns a command to send a message longer than the preview kept by the chat activity.
+     */
+    public static SendMessage longSendMessageCommand(Chat chat) {
+        return commandWithContent(chat, "x".repeat(PREVIEW_LENGTH * 2));
+    }
+
+    /**
+     * Returns a command to send a message of emoji, each taking two UTF-16 chars,
+     * longer than the preview kept by the chat activity.
+     */
+    public static SendMessage emojiSendMessageCommand(Chat chat) {
+        return commandWithContent(chat, "\uD83D\uDE00".repeat(PREVIEW_LENGTH * 2));
+    }
+
+    private static SendMessage commandWithContent(Chat chat, String content) {
+        var command = SendMessage
+                .newBuilder()
+                .setId(MessageIds.generate(chat.getId()))
+                .setUser(chat.getMember(0)
+                             .getId())
+                .setChat(chat.getId())
+                .setContent(content)
+                .vBuild();
+        return command;
+    }
+
     public static MessageSent messageSentFrom(SendMessage c) {
         var event = MessageSent
                 .newBuilder()
@@ -126,28 +152,32 @@ public final class MessageSendingTestEnv {
         return rejection;
     }
 
-    public static ChatCard chatCard(Chat chat, SendMessage command, UserId user) {
-        var messageView = MessageView
-                .newBuilder()
-                .setId(command.getId())
-                .setChat(command.getChat())
-                .setUser(command.getUser())
-                .setContent(command.getContent())
+    /**
+     * Returns the activity of the chat whose last message is the preview
+     * of the sent message.
+     */
+    public static ChatActivity chatActivityWithPreview(SendMessage command) {
+        var content = command.getContent();
+        var preview = messageViewFrom(command)
+                .toBuilder()
+                .setContent(content.substring(0, content.offsetByCodePoints(0, PREVIEW_LENGTH)))
                 .buildPartial();
-        var chatCardId = ChatCardId
+        var state = ChatActivity
                 .newBuilder()
-                .setUser(user)
-                .setChat(chat.getId())
-                .vBuild();
-        var state = ChatCard
+                .setId(command.getChat())
+                .setLastMessage(preview)
+                .setSequence(1)
+                .buildPartial();
+        return state;
+    }
+
+    public static ChatActivity chatActivity(SendMessage command) {
+        var state = ChatActivity
                 .newBuilder()
-                .setCardId(chatCardId)
-                .setChatId(chat.getId())
-                .setViewer(user)
-                .setGroupChatName(chat.getName())
-                .setType(CT_GROUP)
-                .setLastMessage(messageView)
-                .vBuild();
+                .setId(command.getChat())
+                .setLastMessage(messageViewFrom(command))
+                .setSequence(1)
+                .buildPartial();
         return state;
     }
 }
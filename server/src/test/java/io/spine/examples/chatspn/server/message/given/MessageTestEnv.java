@@ -27,10 +27,10 @@
 package io.spine.examples.chatspn.server.message.given;
 
 import io.spine.examples.chatspn.ChatId;
-import io.spine.examples.chatspn.MessageId;
 import io.spine.examples.chatspn.chat.Chat;
 import io.spine.examples.chatspn.chat.command.CreateGroupChat;
 import io.spine.examples.chatspn.message.Message;
+import io.spine.examples.chatspn.message.MessageIds;
 import io.spine.examples.chatspn.message.command.SendMessage;
 import io.spine.testing.server.blackbox.BlackBoxContext;
 
@@ -70,7 +70,7 @@ public final class MessageTestEnv {
     public static Message sendRandomMessageTo(Chat chat, BlackBoxContext context) {
         var message = Message
                 .newBuilder()
-                .setId(MessageId.generate())
+                .setId(MessageIds.generate(chat.getId()))
                 .setChat(chat.getId())
                 .setUser(chat.getMember(0)
                              .getId())
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package io.spine.examples.chatspn.server.metrics;
+
+import com.google.protobuf.Any;
+import com.google.protobuf.Timestamp;
+import io.spine.core.Command;
+import io.spine.server.delivery.InboxId;
+import io.spine.server.delivery.InboxMessage;
+import io.spine.server.delivery.ShardIndex;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.protobuf.util.Timestamps.fromSeconds;
+
+@DisplayName("`InboxTracker` should")
+final class InboxTrackerTest {
+
+    private static final String SEND_MESSAGE_COUNT =
+            "chatspn_command_latency_seconds_count" +
+                    "{command=\"SendMessage\",handler=\"MessageSending\"}";
+    private static final String EDIT_MESSAGE_COUNT =
+            "chatspn_command_latency_seconds_count" +
+                    "{command=\"EditMessage\",handler=\"MessageEditing\"}";
+    private static final String INBOX_DEPTH = "chatspn_inbox_depth{shard=\"0\"}";
+
+    @Test
+    @DisplayName("update the depth of the inbox as each message is written and dispatched")
+    void updateDepth() {
+        var metrics = Metrics.newEnabled();
+        var tracker = InboxTracker.forShards(metrics, 1);
+        tracker.received(sendMessage());
+        tracker.received(sendMessage());
+        assertThat(tracker.pending(0)).isEqualTo(2);
+
+        tracker.deliveryStarted(0);
+        tracker.dispatched(0, 1);
+        assertThat(tracker.pending(0)).isEqualTo(1);
+        assertThat(metrics.snapshot()).containsEntry(INBOX_DEPTH, 1.0);
+        assertThat(metrics.snapshot()).containsEntry(SEND_MESSAGE_COUNT, 1.0);
+
+        tracker.dispatched(0, 2);
+        assertThat(tracker.pending(0)).isEqualTo(0);
+        assertThat(metrics.snapshot()).containsEntry(SEND_MESSAGE_COUNT, 2.0);
+    }
+
+    @Test
+    @DisplayName("count the messages written during a delivery run once they are dispatched")
+    void countMessagesWrittenDuringDelivery() {
+        var metrics = Metrics.newEnabled();
+        var tracker = InboxTracker.forShards(metrics, 1);
+        tracker.received(sendMessage());
+        tracker.deliveryStarted(0);
+        tracker.received(sendMessage());
+        tracker.dispatched(0, 2);
+
+        assertThat(tracker.pending(0)).isEqualTo(0);
+        assertThat(metrics.snapshot()).containsEntry(SEND_MESSAGE_COUNT, 2.0);
+
+        tracker.received(sendMessage());
+        tracker.deliveryStarted(0);
+        tracker.dispatched(0, 1);
+        assertThat(tracker.pending(0)).isEqualTo(0);
+        assertThat(metrics.snapshot()).containsEntry(SEND_MESSAGE_COUNT, 3.0);
+    }
+
+    @Test
+    @DisplayName("count the messages as dispatched in the order the inbox reads them")
+    void countInReadOrder() {
+        var metrics = Metrics.newEnabled();
+        var tracker = InboxTracker.forShards(metrics, 1);
+        tracker.received(message("SendMessage", "MessageSending", fromSeconds(2)));
+        tracker.received(message("EditMessage", "MessageEditing", fromSeconds(1)));
+        tracker.deliveryStarted(0);
+        tracker.dispatched(0, 1);
+
+        assertThat(metrics.snapshot()).containsEntry(EDIT_MESSAGE_COUNT, 1.0);
+        assertThat(metrics.snapshot()).doesNotContainKey(SEND_MESSAGE_COUNT);
+    }
+
+    private static InboxMessage sendMessage() {
+        return message("SendMessage", "MessageSending", Timestamp.getDefaultInstance());
+    }
+
+    private static InboxMessage message(String command, String handler, Timestamp whenReceived) {
+        var signal = Command
+                .newBuilder()
+                .setMessage(Any.newBuilder()
+                               .setTypeUrl("type.spine.io/spine.examples.chatspn." + command))
+                .build();
+        return InboxMessage
+                .newBuilder()
+                .setShardIndex(ShardIndex.newBuilder()
+                                         .setIndex(0)
+                                         .setOfTotal(1))
+                .setInboxId(InboxId.newBuilder()
+                                   .setTypeUrl("type.spine.io/spine.examples.chatspn." + handler))
+                .setCommand(signal)
+                .setWhenReceived(whenReceived)
+                .build();
+    }
+}
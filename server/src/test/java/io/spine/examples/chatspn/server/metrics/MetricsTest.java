@@ -0,0 +1,99 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.server.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@DisplayName("`Metrics` should")
+final class MetricsTest {
+
+    private static final String SEND_MESSAGE_COUNT =
+            "chatspn_command_latency_seconds_count" +
+                    "{command=\"SendMessage\",handler=\"MessageSending\"}";
+
+    @Test
+    @DisplayName("record nothing when disabled")
+    void recordNothingWhenDisabled() {
+        var metrics = Metrics.current();
+        metrics.recordCommand("SendMessage", "MessageSending", 1_000);
+        metrics.registerInboxDepth(0, () -> 1);
+
+        assertThat(metrics.isEnabled()).isFalse();
+        assertThat(metrics.snapshot()).isEmpty();
+        assertThat(metrics.scrape()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("count the latencies per command type and handler")
+    void countCommands() {
+        var metrics = Metrics.newEnabled();
+        metrics.recordCommand("SendMessage", "MessageSending", 1_000);
+        metrics.recordCommand("SendMessage", "MessageSending", 2_000);
+        metrics.recordCommand("EditMessage", "MessageEditing", 3_000);
+
+        assertThat(metrics.snapshot())
+                .containsEntry(SEND_MESSAGE_COUNT, 2.0);
+    }
+
+    @Test
+    @DisplayName("calculate the percentiles of the latencies")
+    void calculatePercentiles() {
+        var metrics = Metrics.newEnabled();
+        for (var i = 0; i < 99; i++) {
+            metrics.recordEvent("MessageSent", "ChatCard", 1_000);
+        }
+        metrics.recordEvent("MessageSent", "ChatCard", 1_000_000_000);
+        var key = "{event=\"MessageSent\",repository=\"ChatCard\"}";
+        var snapshot = metrics.snapshot();
+
+        assertThat(snapshot.get("chatspn_event_dispatch_latency_seconds_p50" + key))
+                .isAtMost(0.000_002);
+        assertThat(snapshot.get("chatspn_event_dispatch_latency_seconds_p99" + key))
+                .isAtMost(0.000_002);
+        assertThat(snapshot.get("chatspn_event_dispatch_latency_seconds_max" + key))
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("render histograms and gauges in the text format")
+    void renderText() {
+        var metrics = Metrics.newEnabled();
+        metrics.recordQuery("MessageView", 5_000_000);
+        metrics.registerInboxDepth(3, () -> 42);
+        var text = metrics.scrape();
+
+        assertThat(text).contains("# TYPE chatspn_query_latency_seconds histogram");
+        assertThat(text).contains(
+                "chatspn_query_latency_seconds_bucket{type=\"MessageView\",le=\"+Inf\"} 1");
+        assertThat(text).contains("chatspn_query_latency_seconds_count{type=\"MessageView\"} 1");
+        assertThat(text).contains("# TYPE chatspn_inbox_depth gauge");
+        assertThat(text).contains("chatspn_inbox_depth{shard=\"3\"} 42");
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.server.storage;
+
+import com.google.protobuf.Timestamp;
+import com.google.protobuf.util.Timestamps;
+import io.spine.core.UserId;
+import io.spine.examples.chatspn.ChatId;
+import io.spine.examples.chatspn.MessageId;
+import io.spine.examples.chatspn.message.MessageIds;
+import io.spine.testing.core.given.GivenUserId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.spine.client.Filter.Operator.EQUAL;
+import static io.spine.client.Filter.Operator.GREATER_OR_EQUAL;
+import static io.spine.client.Filter.Operator.GREATER_THAN;
+import static io.spine.client.Filter.Operator.LESS_THAN;
+import static io.spine.examples.chatspn.message.MessagePositions.positionOf;
+
+@DisplayName("`ColumnIndex` should")
+final class ColumnIndexTest {
+
+    @Test
+    @DisplayName("find records by an equal column value")
+    void findEqual() {
+        ColumnIndex<MessageId> index = ColumnIndex.forType(UserId.class);
+        var john = GivenUserId.generated();
+        var emma = GivenUserId.generated();
+        var first = MessageIds.generate(ChatId.generate());
+        var second = MessageIds.generate(ChatId.generate());
+        var third = MessageIds.generate(ChatId.generate());
+        index.add(john, first);
+        index.add(john, second);
+        index.add(emma, third);
+
+        assertThat(index.find(EQUAL, john).orElseThrow()).containsExactly(first, second);
+        assertThat(index.find(EQUAL, GivenUserId.generated()).orElseThrow()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("not answer range filters for values which are not ordered")
+    void notAnswerRangeForUnordered() {
+        ColumnIndex<MessageId> index = ColumnIndex.forType(UserId.class);
+        var john = GivenUserId.generated();
+        index.add(john, MessageIds.generate(ChatId.generate()));
+
+        assertThat(index.find(GREATER_THAN, john).isPresent()).isFalse();
+    }
+
+    @Test
+    @DisplayName("find records by a range of timestamps")
+    void findRange() {
+        ColumnIndex<MessageId> index = ColumnIndex.forType(Timestamp.class);
+        var first = MessageIds.generate(ChatId.generate());
+        var second = MessageIds.generate(ChatId.generate());
+        var third = MessageIds.generate(ChatId.generate());
+        index.add(time(1), first);
+        index.add(time(2), second);
+        index.add(time(3), third);
+
+        assertThat(index.find(GREATER_THAN, time(1)).orElseThrow())
+                .containsExactly(second, third);
+        assertThat(index.find(GREATER_OR_EQUAL, time(1)).orElseThrow())
+                .containsExactly(first, second, third);
+        assertThat(index.find(LESS_THAN, time(3)).orElseThrow())
+                .containsExactly(first, second);
+        assertThat(index.find(EQUAL, time(2)).orElseThrow())
+                .containsExactly(second);
+    }
+
+    @Test
+    @DisplayName("count the records in a range")
+    void countRange() {
+        ColumnIndex<MessageId> index = ColumnIndex.forType(Timestamp.class);
+        index.add(time(1), MessageIds.generate(ChatId.generate()));
+        index.add(time(2), MessageIds.generate(ChatId.generate()));
+        index.add(time(2), MessageIds.generate(ChatId.generate()));
+
+        assertThat(index.find(GREATER_THAN, time(1)).orElseThrow()).hasSize(2);
+        assertThat(index.find(LESS_THAN, time(1)).orElseThrow()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("order the message positions by the time of posting and then by ID")
+    void findPositionRange() {
+        ColumnIndex<MessageId> index = ColumnIndex.forType(String.class);
+        var first = messageId("a");
+        var second = messageId("b");
+        var third = messageId("c");
+        index.add(positionOf(time(9), first), first);
+        index.add(positionOf(time(9), second), second);
+        index.add(positionOf(time(10), third), third);
+
+        assertThat(index.find(GREATER_THAN, positionOf(time(9), first)).orElseThrow())
+                .containsExactly(second, third);
+        assertThat(index.find(LESS_THAN, positionOf(time(10), third)).orElseThrow())
+                .containsExactly(first, second);
+    }
+
+    @Test
+    @DisplayName("forget the removed records")
+    void forgetRemoved() {
+        ColumnIndex<MessageId> index = ColumnIndex.forType(Timestamp.class);
+        var first = MessageIds.generate(ChatId.generate());
+        var second = MessageIds.generate(ChatId.generate());
+        index.add(time(1), first);
+        index.add(time(1), second);
+        index.remove(time(1), first);
+
+        assertThat(index.find(EQUAL, time(1)).orElseThrow()).containsExactly(second);
+
+        index.remove(time(1), second);
+
+        assertThat(index.find(GREATER_OR_EQUAL, time(0)).orElseThrow()).isEmpty();
+    }
+
+    private static MessageId messageId(String uuid) {
+        return MessageId.newBuilder()
+                        .setUuid(uuid)
+                        .build();
+    }
+
+    private static Timestamp time(long seconds) {
+        return Timestamps.fromSeconds(seconds);
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.server.storage;
+
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.Timestamp;
+import com.google.protobuf.util.Timestamps;
+import io.spine.client.Filter.Operator;
+import io.spine.examples.chatspn.ChatId;
+import io.spine.examples.chatspn.MessageId;
+import io.spine.examples.chatspn.message.MessageIds;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.truth.Truth.assertThat;
+import static io.spine.client.Filter.Operator.GREATER_THAN;
+import static io.spine.client.Filter.Operator.LESS_OR_EQUAL;
+import static io.spine.client.Filter.Operator.LESS_THAN;
+
+@DisplayName("`CompositeIndex` should")
+final class CompositeIndexTest {
+
+    private final ChatId chat = ChatId.generate();
+    private final MessageId first = MessageIds.generate(ChatId.generate());
+    private final MessageId second = MessageIds.generate(ChatId.generate());
+    private final MessageId third = MessageIds.generate(ChatId.generate());
+    private CompositeIndex<MessageId> index;
+
+    @BeforeEach
+    void fillIndex() {
+        index = new CompositeIndex<>(ColumnIndex.comparatorFor(Timestamp.class)
+                                                .orElseThrow());
+        index.add(chat, time(3), third);
+        index.add(chat, time(1), first);
+        index.add(chat, time(2), second);
+        index.add(ChatId.generate(), time(2), MessageIds.generate(ChatId.generate()));
+    }
+
+    @Test
+    @DisplayName("return the records with the same key in the ascending order")
+    void ascending() {
+        assertThat(find(Map.of(), false)).containsExactly(first, second, third)
+                                         .inOrder();
+    }
+
+    @Test
+    @DisplayName("return the records with the same key in the descending order")
+    void descending() {
+        assertThat(find(Map.of(), true)).containsExactly(third, second, first)
+                                        .inOrder();
+    }
+
+    @Test
+    @DisplayName("return the records within the range")
+    void range() {
+        Map<Operator, Object> bounds = new EnumMap<>(Operator.class);
+        bounds.put(LESS_THAN, time(3));
+        assertThat(find(bounds, true)).containsExactly(second, first)
+                                      .inOrder();
+
+        bounds.put(GREATER_THAN, time(1));
+        assertThat(find(bounds, false)).containsExactly(second);
+    }
+
+    @Test
+    @DisplayName("return nothing for an empty range")
+    void emptyRange() {
+        Map<Operator, Object> bounds = new EnumMap<>(Operator.class);
+        bounds.put(GREATER_THAN, time(2));
+        bounds.put(LESS_OR_EQUAL, time(1));
+
+        assertThat(find(bounds, false)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("forget the removed records")
+    void forgetRemoved() {
+        index.remove(chat, time(2), second);
+
+        assertThat(find(Map.of(), false)).containsExactly(first, third)
+                                         .inOrder();
+    }
+
+    private ImmutableList<MessageId> find(Map<Operator, Object> bounds, boolean descending) {
+        return index.find(chat, bounds, descending)
+                    .collect(toImmutableList());
+    }
+
+    private static Timestamp time(long seconds) {
+        return Timestamps.fromSeconds(seconds);
+    }
+}
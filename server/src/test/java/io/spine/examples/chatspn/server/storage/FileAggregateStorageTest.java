@@ -0,0 +1,184 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.server.storage;
+
+import com.google.common.collect.ImmutableList;
+import io.spine.examples.chatspn.ChatId;
+import io.spine.examples.chatspn.MessageId;
+import io.spine.examples.chatspn.message.MessageIds;
+import io.spine.server.aggregate.AggregateHistory;
+import io.spine.server.aggregate.AggregateReadRequest;
+import io.spine.server.entity.LifecycleFlags;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.extensions.proto.ProtoTruth.assertThat;
+import static io.spine.examples.chatspn.server.storage.given.FileAggregateStorageTestEnv.historyOf;
+import static io.spine.examples.chatspn.server.storage.given.FileAggregateStorageTestEnv.historyWithSnapshot;
+import static java.nio.file.StandardOpenOption.APPEND;
+
+@DisplayName("`FileAggregateStorage` should")
+final class FileAggregateStorageTest {
+
+    /**
+     * A segment size small enough to make histories span several segments.
+     */
+    private static final int SEGMENT_CAPACITY = 1024;
+    private static final int BATCH_SIZE = 10;
+
+    @TempDir
+    Path directory;
+
+    private FileAggregateStorage<MessageId> storage;
+
+    @AfterEach
+    void closeStorage() {
+        if (storage.isOpen()) {
+            storage.close();
+        }
+    }
+
+    @Test
+    @DisplayName("read the written history")
+    void readHistory() {
+        storage = open();
+        var id = MessageIds.generate(ChatId.generate());
+        var history = historyOf(id, 3);
+        storage.write(id, history);
+
+        assertThat(read(id)).isEqualTo(history);
+    }
+
+    @Test
+    @DisplayName("keep the history after reopening")
+    void keepHistoryAfterReopening() {
+        storage = open();
+        var id = MessageIds.generate(ChatId.generate());
+        var history = historyOf(id, 100);
+        storage.write(id, history);
+        storage.close();
+
+        storage = open();
+        assertThat(read(id)).isEqualTo(history);
+    }
+
+    @Test
+    @DisplayName("read the history starting from the latest snapshot")
+    void readFromSnapshot() {
+        storage = open();
+        var id = MessageIds.generate(ChatId.generate());
+        storage.write(id, historyOf(id, 5));
+        var sinceSnapshot = historyWithSnapshot(id, "Snapshot");
+        storage.write(id, sinceSnapshot);
+
+        assertThat(read(id)).isEqualTo(sinceSnapshot);
+    }
+
+    @Test
+    @DisplayName("not mix histories of different aggregates")
+    void separateHistories() {
+        storage = open();
+        var first = MessageIds.generate(ChatId.generate());
+        var second = MessageIds.generate(ChatId.generate());
+        var firstHistory = historyOf(first, 2);
+        var secondHistory = historyOf(second, 3);
+        storage.write(first, firstHistory);
+        storage.write(second, secondHistory);
+
+        assertThat(read(first)).isEqualTo(firstHistory);
+        assertThat(read(second)).isEqualTo(secondHistory);
+        assertThat(ImmutableList.copyOf(storage.index())).containsExactly(first, second);
+    }
+
+    @Test
+    @DisplayName("keep lifecycle flags after reopening")
+    void keepLifecycleFlags() {
+        storage = open();
+        var id = MessageIds.generate(ChatId.generate());
+        var flags = LifecycleFlags
+                .newBuilder()
+                .setDeleted(true)
+                .build();
+        storage.write(id, historyOf(id, 1));
+        storage.writeLifecycleFlags(id, flags);
+        storage.close();
+
+        storage = open();
+        assertThat(storage.readLifecycleFlags(id)).hasValue(flags);
+    }
+
+    @Test
+    @DisplayName("open the log which ends with a partially written entry")
+    void recoverPartialEntry() throws IOException {
+        storage = open();
+        var id = MessageIds.generate(ChatId.generate());
+        var history = historyOf(id, 10);
+        storage.write(id, history);
+        storage.close();
+        appendToLastSegment(new byte[]{1, 0, 0, 0, 42, 0});
+
+        storage = open();
+        assertThat(read(id)).isEqualTo(history);
+
+        var next = historyOf(id, 1);
+        storage.write(id, next);
+        storage.close();
+        storage = open();
+        var expected = history
+                .toBuilder()
+                .addAllEvent(next.getEventList())
+                .build();
+        assertThat(read(id)).isEqualTo(expected);
+    }
+
+    private void appendToLastSegment(byte[] bytes) throws IOException {
+        try (var files = Files.list(directory)) {
+            var segment = files.filter(file -> file.toString().endsWith(".log"))
+                               .max(Comparator.naturalOrder())
+                               .orElseThrow();
+            Files.write(segment, bytes, APPEND);
+        }
+    }
+
+    private FileAggregateStorage<MessageId> open() {
+        return new FileAggregateStorage<>(directory, SEGMENT_CAPACITY);
+    }
+
+    private AggregateHistory read(MessageId id) {
+        var request = new AggregateReadRequest<>(id, BATCH_SIZE);
+        return storage.read(request)
+                      .orElseThrow();
+    }
+}
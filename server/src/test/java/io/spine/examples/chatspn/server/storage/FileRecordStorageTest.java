@@ -0,0 +1,128 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package io.spine.examples.chatspn.server.storage;
+
+import io.spine.base.Identifier;
+import io.spine.base.Time;
+import io.spine.core.UserId;
+import io.spine.core.Version;
+import io.spine.examples.chatspn.account.UserProfile;
+import io.spine.examples.chatspn.server.account.UserProfileProjection;
+import io.spine.server.entity.EntityRecord;
+import io.spine.server.entity.storage.EntityRecordWithColumns;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.extensions.proto.ProtoTruth.assertThat;
+import static io.spine.examples.chatspn.server.given.ChatSpnServerTestEnv.createAccount;
+import static io.spine.examples.chatspn.server.given.ChatSpnServerTestEnv.userProfile;
+import static io.spine.protobuf.AnyPacker.pack;
+
+@DisplayName("`FileRecordStorage` should")
+final class FileRecordStorageTest {
+
+    private static final int SEGMENT_CAPACITY = 4096;
+
+    /**
+     * The number of rewrites of a single record, which is several times more than
+     * the number of log entries starting from which the log is compacted.
+     */
+    private static final int REWRITES = 4096;
+
+    @TempDir
+    Path root;
+
+    private FileRecordStorage<UserId> storage;
+
+    @AfterEach
+    void closeStorage() {
+        if (storage.isOpen()) {
+            storage.close();
+        }
+    }
+
+    @Test
+    @DisplayName("compact the log while open once it holds mostly outdated records")
+    void compactWhileOpen() throws IOException {
+        storage = open();
+        var profile = userProfile(createAccount());
+        var id = profile.getId();
+        storage.write(id, record(profile, 1));
+        var entrySize = logSize();
+
+        var latest = record(profile, 1);
+        for (var version = 2; version <= REWRITES; version++) {
+            latest = record(profile, version);
+            storage.write(id, latest);
+        }
+
+        assertThat(logSize()).isLessThan(entrySize * REWRITES / 2);
+        storage.close();
+        storage = open();
+        assertThat(storage.read(id).orElseThrow())
+                .isEqualTo(latest.record());
+    }
+
+    private FileRecordStorage<UserId> open() {
+        return new FileRecordStorage<>(UserProfileProjection.class, directory(),
+                                       SEGMENT_CAPACITY);
+    }
+
+    private Path directory() {
+        return root.resolve("records");
+    }
+
+    /**
+     * Returns the total size of the log segments.
+     */
+    private long logSize() throws IOException {
+        try (var files = Files.list(directory())) {
+            return files.mapToLong(file -> file.toFile().length())
+                        .sum();
+        }
+    }
+
+    private static EntityRecordWithColumns record(UserProfile profile, int version) {
+        var record = EntityRecord
+                .newBuilder()
+                .setEntityId(Identifier.pack(profile.getId()))
+                .setState(pack(profile))
+                .setVersion(Version.newBuilder()
+                                   .setNumber(version)
+                                   .setTimestamp(Time.currentTime()))
+                .build();
+        return EntityRecordWithColumns.of(record);
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.server.storage;
+
+import io.grpc.ManagedChannel;
+import io.spine.client.Client;
+import io.spine.environment.Tests;
+import io.spine.examples.chatspn.account.UserProfile;
+import io.spine.examples.chatspn.server.ChatsContext;
+import io.spine.server.Server;
+import io.spine.server.ServerEnvironment;
+import io.spine.server.storage.memory.InMemoryStorageFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static io.grpc.ManagedChannelBuilder.forAddress;
+import static io.spine.client.Client.usingChannel;
+import static io.spine.examples.chatspn.server.ExpectedOnlyAssertions.assertExpectedFields;
+import static io.spine.examples.chatspn.server.given.ChatSpnServerTestEnv.createAccount;
+import static io.spine.examples.chatspn.server.given.ChatSpnServerTestEnv.userProfile;
+import static io.spine.server.Server.atPort;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("`FileStorageFactory` should")
+final class FileStorageFactoryTest {
+
+    private static final int TEST_SERVER_PORT = 4243;
+    private static final String ADDRESS = "localhost";
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void restoreStorage() {
+        ServerEnvironment.when(Tests.class)
+                         .use(InMemoryStorageFactory.newInstance());
+    }
+
+    @Test
+    @DisplayName("keep the projection states after a restart of the server")
+    void keepProjectionsAfterRestart() throws Exception {
+        var command = createAccount();
+        var factory = FileStorageFactory.in(directory);
+        var server = startServer(factory);
+        try (var session = new Session()) {
+            session.client
+                   .asGuest()
+                   .command(command)
+                   .postAndForget();
+        }
+        stop(server, factory);
+
+        var restartedFactory = FileStorageFactory.in(directory);
+        var restarted = startServer(restartedFactory);
+        try (var session = new Session()) {
+            var profiles = session.client
+                                  .asGuest()
+                                  .select(UserProfile.class)
+                                  .run();
+            assertEquals(1, profiles.size());
+            assertExpectedFields(profiles.get(0), userProfile(command));
+        } finally {
+            stop(restarted, restartedFactory);
+        }
+    }
+
+    private static Server startServer(FileStorageFactory factory) throws IOException {
+        ServerEnvironment.when(Tests.class)
+                         .use(factory);
+        var server = atPort(TEST_SERVER_PORT)
+                .add(ChatsContext.newBuilder())
+                .build();
+        server.start();
+        return server;
+    }
+
+    private static void stop(Server server, FileStorageFactory factory) throws Exception {
+        server.shutdown();
+        factory.close();
+    }
+
+    /**
+     * A client connected to the test server.
+     */
+    private static final class Session implements AutoCloseable {
+
+        private final ManagedChannel channel = forAddress(ADDRESS, TEST_SERVER_PORT)
+                .usePlaintext()
+                .build();
+        private final Client client = usingChannel(channel).build();
+
+        @Override
+        public void close() throws InterruptedException {
+            client.close();
+            channel.shutdown();
+            channel.awaitTermination(1, SECONDS);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.examples.chatspn.server.storage.given;
+
+import io.spine.base.EventMessage;
+import io.spine.base.Identifier;
+import io.spine.base.Time;
+import io.spine.core.Event;
+import io.spine.core.EventContext;
+import io.spine.core.EventId;
+import io.spine.examples.chatspn.ChatId;
+import io.spine.examples.chatspn.MessageId;
+import io.spine.examples.chatspn.message.Message;
+import io.spine.examples.chatspn.message.event.MessageContentUpdated;
+import io.spine.server.aggregate.AggregateHistory;
+import io.spine.server.aggregate.Snapshot;
+import io.spine.testing.core.given.GivenUserId;
+
+import static io.spine.protobuf.AnyPacker.pack;
+
+public final class FileAggregateStorageTestEnv {
+
+    private static final ChatId CHAT = ChatId.generate();
+
+    /**
+     * Prevents class instantiation.
+     */
+    private FileAggregateStorageTestEnv() {
+    }
+
+    /**
+     * Returns a history which consists of the given number of message content updates.
+     */
+    public static AggregateHistory historyOf(MessageId id, int size) {
+        var history = AggregateHistory.newBuilder();
+        for (var i = 0; i < size; i++) {
+            history.addEvent(contentUpdated(id, "Content #" + i));
+        }
+        return history.build();
+    }
+
+    /**
+     * Returns a history which starts with a snapshot of the message
+     * with the given content and contains a single update after it.
+     */
+    public static AggregateHistory historyWithSnapshot(MessageId id, String content) {
+        var state = Message
+                .newBuilder()
+                .setId(id)
+                .setChat(CHAT)
+                .setUser(GivenUserId.generated())
+                .setContent(content)
+                .setWhenPosted(Time.currentTime())
+                .build();
+        var snapshot = Snapshot
+                .newBuilder()
+                .setState(pack(state))
+                .setTimestamp(Time.currentTime())
+                .build();
+        return AggregateHistory
+                .newBuilder()
+                .setSnapshot(snapshot)
+                .addEvent(contentUpdated(id, "After snapshot"))
+                .build();
+    }
+
+    private static Event contentUpdated(MessageId id, String content) {
+        var message = MessageContentUpdated
+                .newBuilder()
+                .setId(id)
+                .setChat(CHAT)
+                .setUser(GivenUserId.generated())
+                .setContent(content)
+                .vBuild();
+        return event(message);
+    }
+
+    private static Event event(EventMessage message) {
+        var context = EventContext
+                .newBuilder()
+                .setTimestamp(Time.currentTime());
+        return Event
+                .newBuilder()
+                .setId(EventId.newBuilder()
+                              .setValue(Identifier.newUuid()))
+                .setMessage(pack(message))
+                .setContext(context)
+                .build();
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2023, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package io.spine.examples.chatspn.server.transport;
+
+import io.grpc.stub.StreamObserver;
+import io.spine.base.Identifier;
+import io.spine.server.integration.ExternalMessage;
+import io.spine.server.transport.ChannelId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("`SocketTransportFactory` should")
+final class SocketTransportFactoryTest {
+
+    private static final long TIMEOUT_SECONDS = 10;
+
+    private final ChannelId channel = ChannelId
+            .newBuilder()
+            .setIdentifier(Identifier.pack("chats"))
+            .build();
+
+    private SocketTransportFactory first;
+    private SocketTransportFactory second;
+
+    @BeforeEach
+    void startPeers() throws IOException {
+        var firstPort = freePort();
+        var secondPort = freePort();
+        first = SocketTransportFactory.listening(firstPort, List.of(secondPort));
+        second = SocketTransportFactory.listening(secondPort, List.of(firstPort));
+    }
+
+    @AfterEach
+    void stopPeers() {
+        first.close();
+        second.close();
+    }
+
+    @Test
+    @DisplayName("deliver the published messages to the subscribers of the peer in order")
+    void deliverToPeer() throws Exception {
+        var received = subscribe(second);
+        var publisher = first.createPublisher(channel);
+        var messages = List.of(message("first"), message("second"), message("third"));
+        for (var message : messages) {
+            var ack = publisher.publish(message.getId(), message);
+            assertThat(ack).isNotNull();
+        }
+
+        for (var message : messages) {
+            assertThat(received.poll(TIMEOUT_SECONDS, SECONDS)).isEqualTo(message);
+        }
+    }
+
+    @Test
+    @DisplayName("deliver the messages both ways over the kept connections")
+    void deliverBothWays() throws Exception {
+        var receivedBySecond = subscribe(second);
+        var receivedByFirst = subscribe(first);
+        var firstPublisher = first.createPublisher(channel);
+        var secondPublisher = second.createPublisher(channel);
+        var toSecond = message("to second");
+        var toFirst = message("to first");
+        var another = message("another to second");
+
+        var ack = firstPublisher.publish(toSecond.getId(), toSecond);
+        assertThat(ack).isNotNull();
+        ack = secondPublisher.publish(toFirst.getId(), toFirst);
+        assertThat(ack).isNotNull();
+        ack = firstPublisher.publish(another.getId(), another);
+        assertThat(ack).isNotNull();
+
+        assertThat(receivedByFirst.poll(TIMEOUT_SECONDS, SECONDS)).isEqualTo(toFirst);
+        assertThat(receivedBySecond.poll(TIMEOUT_SECONDS, SECONDS)).isEqualTo(toSecond);
+        assertThat(receivedBySecond.poll(TIMEOUT_SECONDS, SECONDS)).isEqualTo(another);
+    }
+
+    @Test
+    @DisplayName("deliver the messages published before the peer has started")
+    void deliverAfterPeerStarts() throws Exception {
+        var port = freePort();
+        var late = ChannelId
+                .newBuilder()
+                .setIdentifier(Identifier.pack("late"))
+                .build();
+        try (var publishing = SocketTransportFactory.listening(0, List.of(port))) {
+            var publisher = publishing.createPublisher(late);
+            var lost = message("lost");
+            var ack = publisher.publish(lost.getId(), lost);
+            assertThat(ack).isNotNull();
+            try (var receiving = SocketTransportFactory.listening(port, List.of())) {
+                var received = subscribe(receiving, late);
+                var delivered = message("delivered");
+                ack = publisher.publish(delivered.getId(), delivered);
+                assertThat(ack).isNotNull();
+
+                var message = received.poll(TIMEOUT_SECONDS, SECONDS);
+                while (message != null && !message.equals(delivered)) {
+                    message = received.poll(TIMEOUT_SECONDS, SECONDS);
+                }
+                assertThat(message).isEqualTo(delivered);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("not allow a peer without a port")
+    void rejectPeerWithoutPort() {
+        assertThrows(IllegalArgumentException.class,
+                     () -> SocketTransportFactory.listening(0, List.of(0)));
+    }
+
+    private BlockingQueue<ExternalMessage> subscribe(SocketTransportFactory factory) {
+        return subscribe(factory, channel);
+    }
+
+    private static BlockingQueue<ExternalMessage>
+    subscribe(SocketTransportFactory factory, ChannelId channel) {
+        var received = new Received();
+        factory.createSubscriber(channel)
+               .addObserver(received);
+        return received.messages;
+    }
+
+    private static ExternalMessage message(String id) {
+        return ExternalMessage
+                .newBuilder()
+                .setId(Identifier.pack(id))
+                .build();
+    }
+
+    private static int freePort() throws IOException {
+        try (var socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    /**
+     * Collects the messages received by a subscriber.
+     */
+    private static final class Received implements StreamObserver<ExternalMessage> {
+
+        private final BlockingQueue<ExternalMessage> messages = new LinkedBlockingQueue<>();
+
+        @Override
+        public void onNext(ExternalMessage value) {
+            messages.add(value);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            throw new IllegalStateException(t);
+        }
+
+        @Override
+        public void onCompleted() {
+            // Nothing to do.
+        }
+    }
+}
@@ -28,3 +28,5 @@ rootProject.name = "ChatSPN"
 include("model")
 include("server")
 include("client")
+include("benchmarks")
+include("load-generator")